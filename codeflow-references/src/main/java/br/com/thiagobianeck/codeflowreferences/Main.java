@@ -1,7 +1,12 @@
 package br.com.thiagobianeck.codeflowreferences;
 
+import br.com.thiagobianeck.codeflowreferences.cache.MultiLevelCache;
 import br.com.thiagobianeck.codeflowreferences.references.*;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
 public class Main {
 
     public static void main(String[] args) {
@@ -31,6 +36,9 @@ public class Main {
             PhantomReferenceDemo.demonstratePhantomReference();
             PhantomReferenceDemo.demonstrateResourceManagement();
 
+            // Cache em camadas: forte, soft e disco
+            demonstrateMultiLevelCache();
+
             // Comparação final
             ReferenceComparison.compareAllReferenceTypes();
 
@@ -43,4 +51,44 @@ public class Main {
         System.out.println("✅ Todos os tipos de referências foram demonstrados!");
         System.out.println("🎯 Agora você domina o controle avançado de memória em Java!");
     }
-}
\ No newline at end of file
+
+    private static void demonstrateMultiLevelCache() throws InterruptedException {
+        System.out.println("=== MULTI-LEVEL CACHE DEMO ===");
+
+        try (MultiLevelCache<String, String> cache = new MultiLevelCache<>(100, MultiLevelCache.STRING_CODEC)) {
+            for (int i = 0; i < 2000; i++) {
+                cache.put("key-" + i, "Cached data " + i + " " + "x".repeat(2000));
+            }
+            System.out.println("Após carga: " + cache.getStats());
+
+            // Pressão de memória: o GC limpa o L2, e os valores passam a vir do disco
+            List<byte[]> pressure = new ArrayList<>();
+            try {
+                for (int i = 0; i < 200; i++) {
+                    pressure.add(new byte[16 * 1024 * 1024]);
+                }
+            } catch (OutOfMemoryError e) {
+                pressure.clear();
+                System.out.println("Pressão de memória aplicada!");
+            }
+            pressure.clear();
+
+            for (int i = 0; i < 2000; i++) {
+                cache.get("key-" + (i % 200 == 0 ? i : i % 80));
+            }
+            System.out.println("Após leituras: " + cache.getStats());
+            System.out.println("Camada de key-1999: " + cache.tierOf("key-1999"));
+
+            // Expiração: a timing wheel remove as entradas vencidas de todas as camadas
+            for (int i = 0; i < 1000; i++) {
+                cache.put("session-" + i, "Sessão " + i, Duration.ofSeconds(1));
+            }
+            Thread.sleep(2100);
+            System.out.println("Após TTL de 1s: " + cache.getStats());
+            System.out.println("session-1 ainda existe? " + (cache.get("session-1") != null));
+        }
+
+        System.out.println("✅ Entradas recuperadas do disco em vez de recalculadas!");
+        System.out.println();
+    }
+}
@@ -1,4 +1,170 @@
 package br.com.thiagobianeck.codeflowreferences.cache;
 
-public class CacheEntry {
+/**
+ * Entrada do {@link MultiLevelCache}: o valor e os metadados de acesso, compactados em dois longs
+ *
+ * Com milhões de entradas por nó, cada byte por entrada conta. Nada de
+ * {@code LocalDateTime}, {@code Long} ou contadores em objetos separados:
+ * <pre>
+ * writeAndTtl:        [escrita: 40 bits, ms][TTL: 24 bits, segundos]
+ * accessAndFrequency: [último acesso: 40 bits, ms][frequência: 24 bits]
+ * </pre>
+ * Os tempos são milissegundos desde a criação do cache (40 bits cobrem 34 anos).
+ * O TTL vai até {@value #MAX_TTL_SECONDS} segundos (194 dias), e 0 significa sem
+ * expiração. A frequência satura em 2^24 - 1. Com compressed oops, são 12 bytes de
+ * cabeçalho, 6 referências de 4 bytes (chave, valor, elos da ordem de acesso e da
+ * timing wheel), 16 bytes de metadados e 1 boolean: 53 bytes, arredondados para
+ * 56 pelo alinhamento de 8 bytes. Sem os elos da ordem de acesso seriam 48.
+ *
+ * A mesma instância passa do L1 para o L2 e volta na promoção, sem cópia. Chave,
+ * valor e prazo não mudam depois da publicação, então leitores sem lock podem
+ * usá-los. Acesso, frequência e elos só são alterados sob o lock de despejo do
+ * cache, e {@code persisted} só sob o lock da faixa da chave.
+ */
+public class CacheEntry<K, V> implements TimingWheel.Node {
+    public static final long MAX_TTL_SECONDS = (1L << 24) - 1;
+    static final long MAX_MILLIS = (1L << 40) - 1;
+    static final int MAX_FREQUENCY = (1 << 24) - 1;
+
+    private final K key;
+    private final V value;
+    private final long writeAndTtl;
+    private long accessAndFrequency;
+    // Já existe uma cópia idêntica no disco (L3); ocupa o alinhamento que sobraria
+    private boolean persisted;
+    // Lista do balde da timing wheel; nulos fora dela
+    private TimingWheel.Node previousInWheel;
+    private TimingWheel.Node nextInWheel;
+    // Ordem de acesso do L1; nulos fora dela
+    private CacheEntry<K, V> previousInAccessOrder;
+    private CacheEntry<K, V> nextInAccessOrder;
+
+    CacheEntry(K key, V value, long writeAndTtl) {
+        this.key = key;
+        this.value = value;
+        this.writeAndTtl = writeAndTtl;
+        this.accessAndFrequency = (writeTimeOf(writeAndTtl) << 24);
+    }
+
+    /**
+     * Empacota tempo de escrita e TTL no formato de {@code writeAndTtl}
+     */
+    static long packWriteAndTtl(long writeMillis, long ttlSeconds) {
+        if (ttlSeconds < 0 || ttlSeconds > MAX_TTL_SECONDS) {
+            throw new IllegalArgumentException("TTL fora do intervalo 0.." + MAX_TTL_SECONDS + " s: " + ttlSeconds);
+        }
+        return (Math.min(writeMillis, MAX_MILLIS) << 24) | ttlSeconds;
+    }
+
+    static long writeTimeOf(long writeAndTtl) {
+        return writeAndTtl >>> 24;
+    }
+
+    static long ttlSecondsOf(long writeAndTtl) {
+        return writeAndTtl & MAX_TTL_SECONDS;
+    }
+
+    /**
+     * Instante de expiração em ms, ou {@link Long#MAX_VALUE} sem TTL
+     */
+    static long expiresAtOf(long writeAndTtl) {
+        long ttl = ttlSecondsOf(writeAndTtl);
+        return ttl == 0 ? Long.MAX_VALUE : writeTimeOf(writeAndTtl) + ttl * 1000;
+    }
+
+    public K getKey() {
+        return key;
+    }
+
+    public V getValue() {
+        return value;
+    }
+
+    public long getWriteTimeMillis() {
+        return writeTimeOf(writeAndTtl);
+    }
+
+    public long getTtlSeconds() {
+        return ttlSecondsOf(writeAndTtl);
+    }
+
+    public long getLastAccessMillis() {
+        return accessAndFrequency >>> 24;
+    }
+
+    public int getFrequency() {
+        return (int) accessAndFrequency & MAX_FREQUENCY;
+    }
+
+    @Override
+    public long getExpiresAtMillis() {
+        return expiresAtOf(writeAndTtl);
+    }
+
+    public boolean isExpired(long nowMillis) {
+        return nowMillis >= getExpiresAtMillis();
+    }
+
+    boolean hasTtl() {
+        return ttlSecondsOf(writeAndTtl) != 0;
+    }
+
+    long getWriteAndTtl() {
+        return writeAndTtl;
+    }
+
+    void recordHit(long nowMillis) {
+        int frequency = Math.min(getFrequency() + 1, MAX_FREQUENCY);
+        accessAndFrequency = (Math.min(nowMillis, MAX_MILLIS) << 24) | frequency;
+    }
+
+    boolean isPersisted() {
+        return persisted;
+    }
+
+    void markPersisted() {
+        persisted = true;
+    }
+
+    CacheEntry<K, V> getPreviousInAccessOrder() {
+        return previousInAccessOrder;
+    }
+
+    void setPreviousInAccessOrder(CacheEntry<K, V> entry) {
+        this.previousInAccessOrder = entry;
+    }
+
+    CacheEntry<K, V> getNextInAccessOrder() {
+        return nextInAccessOrder;
+    }
+
+    void setNextInAccessOrder(CacheEntry<K, V> entry) {
+        this.nextInAccessOrder = entry;
+    }
+
+    @Override
+    public TimingWheel.Node getPreviousInWheel() {
+        return previousInWheel;
+    }
+
+    @Override
+    public void setPreviousInWheel(TimingWheel.Node node) {
+        this.previousInWheel = node;
+    }
+
+    @Override
+    public TimingWheel.Node getNextInWheel() {
+        return nextInWheel;
+    }
+
+    @Override
+    public void setNextInWheel(TimingWheel.Node node) {
+        this.nextInWheel = node;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheEntry{key=" + key + ", frequência=" + getFrequency() + ", ttl=" + getTtlSeconds() +
+                "s, persisted=" + isPersisted() + "}";
+    }
 }
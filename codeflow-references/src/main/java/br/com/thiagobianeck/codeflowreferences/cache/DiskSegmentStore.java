@@ -0,0 +1,210 @@
+package br.com.thiagobianeck.codeflowreferences.cache;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Camada L3 do {@link MultiLevelCache}: log de registros em segmentos de arquivo mapeados em memória
+ *
+ * Cada registro é {@code [tamanho int][metadados long][bytes]} e é sempre acrescentado
+ * ao fim. Os metadados são o {@code writeAndTtl} da {@link CacheEntry}, para que uma
+ * entrada lida do disco mantenha o tempo de escrita e o TTL originais.
+ * Sobrescritas e remoções deixam o registro antigo como espaço morto. Quando ele
+ * passa da metade do arquivo, os registros vivos são copiados para um arquivo novo.
+ * Na heap fica só o índice chave -> posição. O arquivo é temporário e é apagado
+ * ao fechar.
+ *
+ * As operações usam o monitor do arquivo, exceto {@link #contains(Object)}, que
+ * consulta o índice concorrente sem lock. Assim uma falta que não existe em nenhuma
+ * camada não disputa o disco.
+ */
+class DiskSegmentStore<K> implements AutoCloseable {
+    private static final int HEADER_BYTES = Integer.BYTES + Long.BYTES;
+
+    private final Path directory;
+    private final int segmentSize;
+    private Path file;
+    private FileChannel channel;
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+    private final Map<K, Long> index = new ConcurrentHashMap<>();
+    private long writePosition;
+    private long deadBytes;
+    private long compactions;
+
+    DiskSegmentStore(Path directory, int segmentSize) {
+        if (segmentSize <= HEADER_BYTES) {
+            throw new IllegalArgumentException("segmentSize inválido: " + segmentSize);
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        openNewFile();
+    }
+
+    synchronized void write(K key, long metadata, byte[] bytes) {
+        Long previous = index.get(key);
+        if (previous != null) {
+            deadBytes += recordSizeAt(previous);
+        }
+        index.put(key, append(metadata, bytes));
+        compactIfNeeded();
+    }
+
+    /**
+     * Acrescenta o registro ao fim do arquivo e devolve sua posição
+     */
+    private long append(long metadata, byte[] bytes) {
+        int recordSize = HEADER_BYTES + bytes.length;
+        if (recordSize > segmentSize) {
+            throw new IllegalArgumentException("Valor de " + bytes.length + " bytes não cabe em um segmento de " +
+                    segmentSize + " bytes");
+        }
+        // Registros não atravessam segmentos: pula para o início do próximo
+        if (writePosition % segmentSize + recordSize > segmentSize) {
+            deadBytes += segmentSize - writePosition % segmentSize;
+            writePosition = (writePosition / segmentSize + 1) * segmentSize;
+        }
+        MappedByteBuffer segment = segment((int) (writePosition / segmentSize));
+        int offset = (int) (writePosition % segmentSize);
+        segment.putInt(offset, bytes.length);
+        segment.putLong(offset + Integer.BYTES, metadata);
+        segment.put(offset + HEADER_BYTES, bytes);
+
+        long position = writePosition;
+        writePosition += recordSize;
+        return position;
+    }
+
+    synchronized byte[] read(K key) {
+        Long position = index.get(key);
+        if (position == null) {
+            return null;
+        }
+        MappedByteBuffer segment = segments.get((int) (position / segmentSize));
+        int offset = (int) (position % segmentSize);
+        byte[] bytes = new byte[segment.getInt(offset)];
+        segment.get(offset + HEADER_BYTES, bytes);
+        return bytes;
+    }
+
+    /**
+     * Metadados gravados com o valor; só válido se a chave existir
+     */
+    synchronized long readMetadata(K key) {
+        long position = index.get(key);
+        return segments.get((int) (position / segmentSize)).getLong((int) (position % segmentSize) + Integer.BYTES);
+    }
+
+    boolean contains(K key) {
+        return index.containsKey(key);
+    }
+
+    synchronized boolean remove(K key) {
+        Long position = index.remove(key);
+        if (position == null) {
+            return false;
+        }
+        deadBytes += recordSizeAt(position);
+        compactIfNeeded();
+        return true;
+    }
+
+    synchronized int size() {
+        return index.size();
+    }
+
+    /**
+     * Bytes ocupados no arquivo, incluindo o espaço morto
+     */
+    synchronized long getFileBytes() {
+        return writePosition;
+    }
+
+    synchronized long getDeadBytes() {
+        return deadBytes;
+    }
+
+    synchronized long getCompactionCount() {
+        return compactions;
+    }
+
+    private int recordSizeAt(long position) {
+        return HEADER_BYTES + segments.get((int) (position / segmentSize)).getInt((int) (position % segmentSize));
+    }
+
+    private MappedByteBuffer segment(int number) {
+        while (segments.size() <= number) {
+            try {
+                segments.add(channel.map(FileChannel.MapMode.READ_WRITE, (long) segments.size() * segmentSize, segmentSize));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Erro ao mapear segmento " + segments.size() + " de " + file, e);
+            }
+        }
+        return segments.get(number);
+    }
+
+    private void compactIfNeeded() {
+        if (deadBytes > segmentSize && deadBytes * 2 > writePosition) {
+            compact();
+        }
+    }
+
+    /**
+     * Copia os registros vivos para um arquivo novo e descarta o antigo
+     *
+     * As chaves nunca saem do índice: só a posição muda, então {@link #contains(Object)}
+     * continua correto durante a cópia.
+     */
+    private void compact() {
+        List<MappedByteBuffer> oldSegments = new ArrayList<>(segments);
+        FileChannel oldChannel = channel;
+
+        segments.clear();
+        writePosition = 0;
+        deadBytes = 0;
+        openNewFile();
+        for (Map.Entry<K, Long> entry : index.entrySet()) {
+            MappedByteBuffer segment = oldSegments.get((int) (entry.getValue() / segmentSize));
+            int offset = (int) (entry.getValue() % segmentSize);
+            byte[] bytes = new byte[segment.getInt(offset)];
+            segment.get(offset + HEADER_BYTES, bytes);
+            entry.setValue(append(segment.getLong(offset + Integer.BYTES), bytes));
+        }
+        compactions++;
+        closeQuietly(oldChannel);
+    }
+
+    private void openNewFile() {
+        try {
+            file = Files.createTempFile(directory, "multilevel-cache-", ".l3");
+            // Os mapeamentos continuam válidos depois do fechamento; o arquivo some no close
+            channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                    StandardOpenOption.DELETE_ON_CLOSE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao criar arquivo do cache em " + directory, e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        segments.clear();
+        index.clear();
+        closeQuietly(channel);
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Erro ao fechar arquivo do cache: " + e.getMessage());
+        }
+    }
+}
@@ -1,4 +1,766 @@
 package br.com.thiagobianeck.codeflowreferences.cache;
 
-public class MultiLevelCache {
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Cache em três camadas, cada uma com um tipo de referência diferente
+ *
+ * <ul>
+ *   <li>L1: entradas quentes com referência forte, limitadas a {@code l1Capacity} (LRU).</li>
+ *   <li>L2: entradas rebaixadas do L1, mantidas por {@link SoftReference}. O GC pode
+ *       limpá-las quando a memória aperta.</li>
+ *   <li>L3: cópia serializada em segmentos de arquivo mapeados em memória
+ *       ({@link DiskSegmentStore}). A cópia é gravada quando a entrada sai do L1,
+ *       enquanto o valor ainda existe: depois que o GC limpa a SoftReference, não há
+ *       mais o que gravar.</li>
+ * </ul>
+ *
+ * Um acerto no L2 ou no L3 promove a entrada de volta ao L1. Uma falta no L1 e no L2
+ * é atendida pelo disco em vez de recalcular o valor. As taxas de acerto por camada
+ * estão em {@link #getStats()}.
+ *
+ * Concorrência:
+ * <ul>
+ *   <li>Leituras atendidas pelo L1 ou pelo L2 não usam lock. Elas consultam o
+ *       {@link ConcurrentHashMap} e registram o acesso no {@link ReadBuffer}, que pode
+ *       perder registros sob disputa.</li>
+ *   <li>Escritas, remoções e leituras do disco usam só o monitor da faixa da chave.
+ *       Chaves de faixas diferentes não se bloqueiam. As mudanças na ordem de acesso e
+ *       na roda que elas geram vão para a fila da faixa, na ordem em que aconteceram.</li>
+ *   <li>A ordem de acesso, o despejo para o L2 e a {@link TimingWheel} só mudam sob o
+ *       lock de despejo, aplicando em lote as filas e os buffers. Quem encontra o lock
+ *       ocupado não espera: o dono do lock aplica o trabalho pendente.</li>
+ * </ul>
+ * Por isso a ordem de acesso é aproximada, e o L1 pode passar da capacidade até o
+ * próximo dreno. A ordem dos locks é sempre despejo, faixa e disco.
+ *
+ * Entradas com TTL expiram pela {@link TimingWheel}, avançada a cada dreno. Cada
+ * entrada custa O(1) para agendar e expirar, sem varrer o cache. Há um único nó na
+ * roda por chave: a {@link CacheEntry} enquanto ela está no L1, ou a SoftReference
+ * dela nos demais casos. Se o GC limpar uma entrada com TTL, a SoftReference vazia
+ * continua na roda para expirar a cópia em disco no prazo certo.
+ */
+public class MultiLevelCache<K, V> implements AutoCloseable {
+    public static final int DEFAULT_SEGMENT_SIZE = 16 * 1024 * 1024;
+    // Acima disso, quem escreve espera o dreno em vez de só tentar
+    private static final int MAX_PENDING_WRITES = 1024;
+
+    public enum Tier {
+        L1_STRONG,
+        L2_SOFT,
+        L3_DISK
+    }
+
+    /**
+     * Converte valores para bytes e de volta, para a camada em disco
+     */
+    public interface Codec<V> {
+        byte[] encode(V value);
+
+        V decode(byte[] bytes);
+    }
+
+    public static final Codec<String> STRING_CODEC = new Codec<>() {
+        @Override
+        public byte[] encode(String value) {
+            return value.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public String decode(byte[] bytes) {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    };
+
+    private final int l1Capacity;
+    private final Codec<V> codec;
+    private final ConcurrentHashMap<K, CacheEntry<K, V>> l1 = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<K, SoftEntry<K, V>> l2 = new ConcurrentHashMap<>();
+    private final ReferenceQueue<CacheEntry<K, V>> clearedQueue = new ReferenceQueue<>();
+    private final DiskSegmentStore<K> l3;
+    private final KeyStripe[] keyStripes;
+    private final ReadBuffer<Object> readBuffer;
+    private final AtomicInteger pendingWrites = new AtomicInteger();
+    private final long epochNanos = System.nanoTime();
+    private final AtomicInteger l2Live = new AtomicInteger();
+
+    // Só sob evictionLock
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final CacheEntry<K, V> accessOrder = new CacheEntry<>(null, null, 0);
+    private final TimingWheel wheel;
+    private int linkedCount;
+
+    private final LongAdder l1Hits = new LongAdder();
+    private final LongAdder l2Hits = new LongAdder();
+    private final LongAdder l3Hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder softDemotions = new LongAdder();
+    private final LongAdder gcClears = new LongAdder();
+    private final LongAdder promotions = new LongAdder();
+    private final LongAdder diskWrites = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    public MultiLevelCache(int l1Capacity, Codec<V> codec) {
+        this(l1Capacity, codec, Path.of(System.getProperty("java.io.tmpdir")), DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * @param diskDirectory diretório do arquivo temporário do L3
+     * @param segmentSize   bytes por segmento mapeado (limita o tamanho de um valor)
+     */
+    public MultiLevelCache(int l1Capacity, Codec<V> codec, Path diskDirectory, int segmentSize) {
+        if (l1Capacity < 1) {
+            throw new IllegalArgumentException("l1Capacity inválida: " + l1Capacity);
+        }
+        this.l1Capacity = l1Capacity;
+        this.codec = codec;
+        this.l3 = new DiskSegmentStore<>(diskDirectory, segmentSize);
+        this.wheel = new TimingWheel(0, this::expire);
+        accessOrder.setPreviousInAccessOrder(accessOrder);
+        accessOrder.setNextInAccessOrder(accessOrder);
+
+        int stripes = Integer.highestOneBit(Math.min(256, Runtime.getRuntime().availableProcessors() * 4));
+        this.keyStripes = new KeyStripe[stripes];
+        for (int i = 0; i < stripes; i++) {
+            keyStripes[i] = new KeyStripe();
+        }
+        this.readBuffer = new ReadBuffer<>(stripes);
+    }
+
+    /**
+     * Procura a chave camada por camada; devolve null se nenhuma a tiver (ou se expirou)
+     *
+     * Acertos no L1 e no L2 não usam lock; a promoção do L2 fica para o próximo dreno.
+     */
+    public V get(K key) {
+        CacheEntry<K, V> entry = l1.get(key);
+        if (entry != null) {
+            if (entry.hasTtl() && entry.isExpired(nowMillis())) {
+                return expireOnRead(key);
+            }
+            l1Hits.increment();
+            afterRead(entry);
+            return entry.getValue();
+        }
+
+        SoftEntry<K, V> soft = l2.get(key);
+        if (soft != null) {
+            entry = soft.get();
+            if (entry != null && !entry.isExpired(nowMillis())) {
+                l2Hits.increment();
+                afterRead(soft);
+                return entry.getValue();
+            }
+        }
+
+        if (!l3.contains(key)) {
+            misses.increment();
+            return null;
+        }
+        return loadFromDisk(key);
+    }
+
+    /**
+     * Como {@link #get(Object)}, mas calcula e guarda o valor em caso de falta
+     *
+     * O cálculo roda fora de qualquer lock; duas threads podem calcular a mesma chave.
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        V value = get(key);
+        if (value == null) {
+            value = loader.apply(key);
+            if (value != null) {
+                put(key, value);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Guarda o valor no L1, sem expiração; cópias antigas no L2 e no L3 são descartadas
+     */
+    public void put(K key, V value) {
+        put(key, value, 0);
+    }
+
+    /**
+     * Guarda o valor no L1, expirando {@code ttl} depois da escrita (arredondado para cima, em segundos)
+     *
+     * O prazo vale para todas as camadas: a entrada rebaixada ou lida do disco mantém o prazo original.
+     */
+    public void put(K key, V value, Duration ttl) {
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("TTL deve ser positivo: " + ttl);
+        }
+        put(key, value, ttl.toSeconds() + (ttl.toNanosPart() > 0 ? 1 : 0));
+    }
+
+    private void put(K key, V value, long ttlSeconds) {
+        CacheEntry<K, V> entry = new CacheEntry<>(key, value, CacheEntry.packWriteAndTtl(nowMillis(), ttlSeconds));
+        KeyStripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            invalidate(stripe, key);
+            l1.put(key, entry);
+            enqueue(stripe, () -> onAdded(entry));
+        }
+        afterWrite();
+    }
+
+    public boolean remove(K key) {
+        boolean removed;
+        KeyStripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            removed = invalidate(stripe, key);
+        }
+        afterWrite();
+        return removed;
+    }
+
+    /**
+     * Camada em que a chave está agora (a mais rápida), ou null; não usa lock
+     */
+    public Tier tierOf(K key) {
+        if (l1.containsKey(key)) {
+            return Tier.L1_STRONG;
+        }
+        SoftEntry<K, V> soft = l2.get(key);
+        if (soft != null && !soft.refersTo(null)) {
+            return Tier.L2_SOFT;
+        }
+        return l3.contains(key) ? Tier.L3_DISK : null;
+    }
+
+    private long nowMillis() {
+        return (System.nanoTime() - epochNanos) / 1_000_000;
+    }
+
+    private KeyStripe stripeFor(K key) {
+        int hash = key.hashCode();
+        return keyStripes[(hash ^ (hash >>> 16)) & (keyStripes.length - 1)];
+    }
+
+    /**
+     * L3 -> L1, sob o monitor da faixa para não ressuscitar uma chave removida ao mesmo tempo
+     */
+    private V loadFromDisk(K key) {
+        long now = nowMillis();
+        KeyStripe stripe = stripeFor(key);
+        CacheEntry<K, V> entry;
+        synchronized (stripe) {
+            // Outra thread pode ter gravado ou promovido a chave enquanto esperávamos
+            entry = l1.get(key);
+            if (entry != null && !entry.isExpired(now)) {
+                l1Hits.increment();
+                return entry.getValue();
+            }
+            SoftEntry<K, V> soft = l2.get(key);
+            CacheEntry<K, V> demoted = soft != null ? soft.get() : null;
+            if (demoted != null && !demoted.isExpired(now)) {
+                l2Hits.increment();
+                return demoted.getValue();
+            }
+
+            byte[] bytes = l3.read(key);
+            if (bytes == null) {
+                misses.increment();
+                return null;
+            }
+            long writeAndTtl = l3.readMetadata(key);
+            if (entry != null || now >= CacheEntry.expiresAtOf(writeAndTtl)) {
+                invalidate(stripe, key);
+                expirations.increment();
+                misses.increment();
+                return null;
+            }
+            if (soft != null) {
+                markCleared(soft); // Limpa pelo GC, mas ainda não processada na fila
+                removeSoft(stripe, key);
+            }
+            entry = new CacheEntry<>(key, codec.decode(bytes), writeAndTtl);
+            entry.markPersisted();
+            l1.put(key, entry);
+            CacheEntry<K, V> loaded = entry;
+            enqueue(stripe, () -> onAdded(loaded));
+            l3Hits.increment();
+            promotions.increment();
+        }
+        afterWrite();
+        return entry.getValue();
+    }
+
+    private V expireOnRead(K key) {
+        KeyStripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            CacheEntry<K, V> current = l1.get(key);
+            if (current != null && current.isExpired(nowMillis())) {
+                invalidate(stripe, key);
+                expirations.increment();
+            }
+        }
+        misses.increment();
+        afterWrite();
+        return null;
+    }
+
+    /**
+     * Remove a chave de todas as camadas; chamado com o monitor da faixa
+     */
+    private boolean invalidate(KeyStripe stripe, K key) {
+        boolean removed = false;
+        CacheEntry<K, V> entry = l1.remove(key);
+        if (entry != null) {
+            enqueue(stripe, () -> retire(entry));
+            removed = true;
+        }
+        removed |= removeSoft(stripe, key);
+        // Confere o índice sem lock antes: a maioria das escritas não tem cópia em disco
+        return (l3.contains(key) && l3.remove(key)) || removed;
+    }
+
+    /**
+     * Tira a chave do L2, deixando a saída da roda para o dreno; chamado com o monitor da faixa
+     */
+    private boolean removeSoft(KeyStripe stripe, K key) {
+        SoftEntry<K, V> soft = l2.remove(key);
+        if (soft == null) {
+            return false;
+        }
+        if (!soft.cleared) {
+            l2Live.decrementAndGet();
+        }
+        enqueue(stripe, () -> wheel.deschedule(soft));
+        return true;
+    }
+
+    /**
+     * L2 -> L3: a entrada passa a existir só no disco; chamado com o monitor da faixa
+     *
+     * Sem TTL, a SoftReference limpa sai do L2. Com TTL, ela continua no mapa e na
+     * roda só para carregar o prazo da cópia em disco.
+     */
+    private void markCleared(SoftEntry<K, V> soft) {
+        if (soft.cleared || !soft.refersTo(null)) {
+            return;
+        }
+        soft.cleared = true;
+        l2Live.decrementAndGet();
+        gcClears.increment();
+        if (soft.getExpiresAtMillis() == Long.MAX_VALUE) {
+            l2.remove(soft.key, soft);
+        }
+    }
+
+    private void enqueue(KeyStripe stripe, Runnable task) {
+        stripe.writes.add(task);
+        pendingWrites.incrementAndGet();
+    }
+
+    private void afterRead(Object node) {
+        if (readBuffer.offer(node) == ReadBuffer.FULL || pendingWrites.get() > 0) {
+            tryDrain();
+        }
+    }
+
+    private void afterWrite() {
+        if (pendingWrites.get() > MAX_PENDING_WRITES) {
+            evictionLock.lock();
+            try {
+                drain();
+            } finally {
+                evictionLock.unlock();
+            }
+        } else {
+            tryDrain();
+        }
+    }
+
+    private void tryDrain() {
+        if (evictionLock.tryLock()) {
+            try {
+                drain();
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Aplica o trabalho pendente em lote; só com o lock de despejo
+     */
+    private void drain() {
+        for (KeyStripe stripe : keyStripes) {
+            Runnable task;
+            while ((task = stripe.writes.poll()) != null) {
+                pendingWrites.decrementAndGet();
+                task.run();
+            }
+        }
+        long now = nowMillis();
+        readBuffer.drainTo(node -> onAccess(node, now));
+        drainCleared();
+        wheel.advance(now);
+        while (linkedCount > l1Capacity) {
+            CacheEntry<K, V> eldest = accessOrder.getNextInAccessOrder();
+            unlink(eldest);
+            wheel.deschedule(eldest);
+            demote(eldest, now);
+        }
+    }
+
+    /**
+     * Entrada recém-colocada no L1: entra na ordem de acesso e na roda, se ainda for a atual
+     */
+    private void onAdded(CacheEntry<K, V> entry) {
+        if (l1.get(entry.getKey()) == entry && entry.getNextInAccessOrder() == null) {
+            linkLast(entry);
+            wheel.schedule(entry);
+        }
+    }
+
+    /**
+     * Entrada que saiu do L1 por escrita ou remoção
+     */
+    private void retire(CacheEntry<K, V> entry) {
+        if (entry.getNextInAccessOrder() != null) {
+            unlink(entry);
+        }
+        wheel.deschedule(entry);
+    }
+
+    private void onAccess(Object node, long now) {
+        if (node instanceof SoftEntry<?, ?> soft) {
+            @SuppressWarnings("unchecked")
+            SoftEntry<K, V> accessed = (SoftEntry<K, V>) soft;
+            promote(accessed, now);
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        CacheEntry<K, V> entry = (CacheEntry<K, V>) node;
+        // O registro pode chegar depois de a entrada já ter saído do L1
+        if (entry.getNextInAccessOrder() != null) {
+            unlink(entry);
+            linkLast(entry);
+            entry.recordHit(now);
+        }
+    }
+
+    /**
+     * L2 -> L1 de uma SoftReference lida desde o último dreno
+     */
+    private void promote(SoftEntry<K, V> soft, long now) {
+        CacheEntry<K, V> entry;
+        synchronized (stripeFor(soft.key)) {
+            entry = soft.get();
+            if (entry == null || l2.get(soft.key) != soft || l1.containsKey(soft.key)) {
+                return;
+            }
+            l2.remove(soft.key, soft);
+            l2Live.decrementAndGet();
+            l1.put(soft.key, entry);
+        }
+        wheel.deschedule(soft);
+        linkLast(entry);
+        wheel.schedule(entry);
+        entry.recordHit(now);
+        promotions.increment();
+    }
+
+    /**
+     * L1 -> L2: grava a cópia em disco (se ainda não existir) e deixa a entrada só com a SoftReference
+     */
+    private void demote(CacheEntry<K, V> entry, long now) {
+        K key = entry.getKey();
+        SoftEntry<K, V> soft;
+        synchronized (stripeFor(key)) {
+            if (!l1.remove(key, entry)) {
+                return; // Substituída ou removida; a fila da faixa já tem a tarefa
+            }
+            if (entry.isExpired(now)) {
+                l3.remove(key);
+                expirations.increment();
+                return;
+            }
+            if (!entry.isPersisted()) {
+                l3.write(key, entry.getWriteAndTtl(), codec.encode(entry.getValue()));
+                entry.markPersisted();
+                diskWrites.increment();
+            }
+            soft = new SoftEntry<>(entry, clearedQueue);
+            l2.put(key, soft);
+            l2Live.incrementAndGet();
+        }
+        wheel.schedule(soft);
+        softDemotions.increment();
+    }
+
+    /**
+     * Chamado pela roda quando um prazo vence; o nó já está fora dela
+     */
+    private void expire(TimingWheel.Node node) {
+        if (node instanceof SoftEntry<?, ?> soft) {
+            @SuppressWarnings("unchecked")
+            SoftEntry<K, V> expired = (SoftEntry<K, V>) soft;
+            synchronized (stripeFor(expired.key)) {
+                if (l2.remove(expired.key, expired)) {
+                    if (!expired.cleared) {
+                        l2Live.decrementAndGet();
+                    }
+                    l3.remove(expired.key);
+                    expirations.increment();
+                }
+            }
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        CacheEntry<K, V> expired = (CacheEntry<K, V>) node;
+        synchronized (stripeFor(expired.getKey())) {
+            if (!l1.remove(expired.getKey(), expired)) {
+                return;
+            }
+            l3.remove(expired.getKey());
+            expirations.increment();
+        }
+        if (expired.getNextInAccessOrder() != null) {
+            unlink(expired);
+        }
+    }
+
+    private void drainCleared() {
+        Reference<? extends CacheEntry<K, V>> reference;
+        while ((reference = clearedQueue.poll()) != null) {
+            @SuppressWarnings("unchecked")
+            SoftEntry<K, V> cleared = (SoftEntry<K, V>) reference;
+            synchronized (stripeFor(cleared.key)) {
+                // A chave pode já ter sido promovida, substituída ou expirada
+                if (l2.get(cleared.key) == cleared) {
+                    markCleared(cleared);
+                }
+            }
+        }
+    }
+
+    private void linkLast(CacheEntry<K, V> entry) {
+        CacheEntry<K, V> last = accessOrder.getPreviousInAccessOrder();
+        entry.setPreviousInAccessOrder(last);
+        entry.setNextInAccessOrder(accessOrder);
+        last.setNextInAccessOrder(entry);
+        accessOrder.setPreviousInAccessOrder(entry);
+        linkedCount++;
+    }
+
+    private void unlink(CacheEntry<K, V> entry) {
+        CacheEntry<K, V> previous = entry.getPreviousInAccessOrder();
+        CacheEntry<K, V> next = entry.getNextInAccessOrder();
+        previous.setNextInAccessOrder(next);
+        next.setPreviousInAccessOrder(previous);
+        entry.setPreviousInAccessOrder(null);
+        entry.setNextInAccessOrder(null);
+        linkedCount--;
+    }
+
+    /**
+     * Fotografia dos contadores, depois de aplicar o trabalho pendente
+     */
+    public Stats getStats() {
+        evictionLock.lock();
+        try {
+            drain();
+        } finally {
+            evictionLock.unlock();
+        }
+        return new Stats(l1Hits.sum(), l2Hits.sum(), l3Hits.sum(), misses.sum(), softDemotions.sum(),
+                gcClears.sum(), promotions.sum(), diskWrites.sum(), expirations.sum(), l1.size(), l2Live.get(),
+                l3.size(), l3.getFileBytes(), l3.getDeadBytes());
+    }
+
+    /**
+     * Limpa e enfileira todas as SoftReferences do L2, como o GC faria sob pressão (exposta para testes)
+     */
+    void clearSoftTier() {
+        for (SoftEntry<K, V> soft : l2.values()) {
+            soft.enqueue();
+        }
+    }
+
+    @Override
+    public void close() {
+        evictionLock.lock();
+        try {
+            l1.clear();
+            l2.clear();
+            l3.close();
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Faixa de chaves: o monitor serializa as mudanças de camada, e a fila guarda o que elas geram para o dreno
+     */
+    private static final class KeyStripe {
+        final ConcurrentLinkedQueue<Runnable> writes = new ConcurrentLinkedQueue<>();
+    }
+
+    /**
+     * Entrada no L2; guarda o prazo fora do referente para continuar na roda depois de limpa
+     */
+    private static final class SoftEntry<K, V> extends SoftReference<CacheEntry<K, V>> implements TimingWheel.Node {
+        final K key;
+        final long writeAndTtl;
+        // Só com o monitor da faixa da chave
+        boolean cleared;
+        private TimingWheel.Node previousInWheel;
+        private TimingWheel.Node nextInWheel;
+
+        SoftEntry(CacheEntry<K, V> entry, ReferenceQueue<CacheEntry<K, V>> queue) {
+            super(entry, queue);
+            this.key = entry.getKey();
+            this.writeAndTtl = entry.getWriteAndTtl();
+        }
+
+        @Override
+        public long getExpiresAtMillis() {
+            return CacheEntry.expiresAtOf(writeAndTtl);
+        }
+
+        @Override
+        public TimingWheel.Node getPreviousInWheel() {
+            return previousInWheel;
+        }
+
+        @Override
+        public void setPreviousInWheel(TimingWheel.Node node) {
+            this.previousInWheel = node;
+        }
+
+        @Override
+        public TimingWheel.Node getNextInWheel() {
+            return nextInWheel;
+        }
+
+        @Override
+        public void setNextInWheel(TimingWheel.Node node) {
+            this.nextInWheel = node;
+        }
+    }
+
+    /**
+     * Fotografia dos contadores do cache
+     */
+    public static final class Stats {
+        private final long l1Hits;
+        private final long l2Hits;
+        private final long l3Hits;
+        private final long misses;
+        private final long softDemotions;
+        private final long gcClears;
+        private final long promotions;
+        private final long diskWrites;
+        private final long expirations;
+        private final int l1Size;
+        private final int l2Size;
+        private final int l3Size;
+        private final long diskBytes;
+        private final long deadDiskBytes;
+
+        Stats(long l1Hits, long l2Hits, long l3Hits, long misses, long softDemotions, long gcClears,
+              long promotions, long diskWrites, long expirations, int l1Size, int l2Size, int l3Size, long diskBytes,
+              long deadDiskBytes) {
+            this.l1Hits = l1Hits;
+            this.l2Hits = l2Hits;
+            this.l3Hits = l3Hits;
+            this.misses = misses;
+            this.softDemotions = softDemotions;
+            this.gcClears = gcClears;
+            this.promotions = promotions;
+            this.diskWrites = diskWrites;
+            this.expirations = expirations;
+            this.l1Size = l1Size;
+            this.l2Size = l2Size;
+            this.l3Size = l3Size;
+            this.diskBytes = diskBytes;
+            this.deadDiskBytes = deadDiskBytes;
+        }
+
+        /**
+         * Consultas: acertos em cada camada mais faltas
+         */
+        public long getRequests() { return l1Hits + l2Hits + l3Hits + misses; }
+
+        public long getHits(Tier tier) {
+            return switch (tier) {
+                case L1_STRONG -> l1Hits;
+                case L2_SOFT -> l2Hits;
+                case L3_DISK -> l3Hits;
+            };
+        }
+
+        /**
+         * Fração de todas as consultas atendidas pela camada
+         */
+        public double getHitRatio(Tier tier) {
+            long requests = getRequests();
+            return requests == 0 ? 0.0 : (double) getHits(tier) / requests;
+        }
+
+        public long getMisses() { return misses; }
+
+        public double getMissRatio() {
+            long requests = getRequests();
+            return requests == 0 ? 0.0 : (double) misses / requests;
+        }
+
+        /**
+         * Entradas rebaixadas do L1 para o L2
+         */
+        public long getSoftDemotions() { return softDemotions; }
+
+        /**
+         * Entradas do L2 limpas pelo GC, que passaram a existir só no disco
+         */
+        public long getGcClears() { return gcClears; }
+
+        public long getPromotions() { return promotions; }
+
+        public long getDiskWrites() { return diskWrites; }
+
+        /**
+         * Entradas removidas por TTL, pela roda ou na leitura
+         */
+        public long getExpirations() { return expirations; }
+
+        public int getL1Size() { return l1Size; }
+
+        /**
+         * Entradas no L2 ainda não limpas pelo GC
+         */
+        public int getL2Size() { return l2Size; }
+
+        public int getL3Size() { return l3Size; }
+
+        public long getDiskBytes() { return diskBytes; }
+
+        public long getDeadDiskBytes() { return deadDiskBytes; }
+
+        @Override
+        public String toString() {
+            return String.format("MultiLevelCache{consultas=%d, L1=%.1f%%, L2=%.1f%%, L3=%.1f%%, faltas=%.1f%% | " +
+                            "tamanhos L1=%d L2=%d L3=%d | rebaixadas=%d, limpas pelo GC=%d, promovidas=%d, " +
+                            "gravações em disco=%d, expiradas=%d, disco=%d KB (%d KB mortos)}",
+                    getRequests(), getHitRatio(Tier.L1_STRONG) * 100, getHitRatio(Tier.L2_SOFT) * 100,
+                    getHitRatio(Tier.L3_DISK) * 100, getMissRatio() * 100, l1Size, l2Size, l3Size,
+                    softDemotions, gcClears, promotions, diskWrites, expirations, diskBytes / 1024, deadDiskBytes / 1024);
+        }
+    }
 }
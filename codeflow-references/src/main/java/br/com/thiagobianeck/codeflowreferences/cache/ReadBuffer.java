@@ -0,0 +1,127 @@
+package br.com.thiagobianeck.codeflowreferences.cache;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Buffers de leitura do {@link MultiLevelCache}: anéis pequenos por faixa, com perda
+ *
+ * Cada leitura registra a entrada acessada no anel da sua faixa, escolhida pelo
+ * ID da thread, com um único CAS e sem lock. Quando o anel está cheio, ou o CAS
+ * perde para outra thread, o registro é descartado. A ordem de acesso é uma
+ * aproximação, e perder alguns registros é melhor que fazer a leitura esperar. Um
+ * único consumidor (quem segura o lock de despejo do cache) esvazia os anéis em
+ * lote.
+ */
+final class ReadBuffer<E> {
+    static final int SUCCESS = 0;
+    static final int FULL = 1;
+    static final int CONTENDED = 2;
+
+    private static final int RING_SIZE = 16;
+    private static final int RING_MASK = RING_SIZE - 1;
+
+    private final Ring[] rings;
+    private final int mask;
+
+    /**
+     * @param stripes quantidade de anéis (arredondada para potência de dois)
+     */
+    ReadBuffer(int stripes) {
+        int count = Integer.highestOneBit(Math.max(1, stripes));
+        this.rings = new Ring[count];
+        for (int i = 0; i < count; i++) {
+            rings[i] = new Ring();
+        }
+        this.mask = count - 1;
+    }
+
+    /**
+     * Registra o elemento; devolve {@link #SUCCESS}, {@link #FULL} ou {@link #CONTENDED}
+     */
+    int offer(E element) {
+        long id = Thread.currentThread().threadId();
+        return rings[(int) ((id * 0x9E3779B97F4A7C15L) >>> 32) & mask].offer(element);
+    }
+
+    /**
+     * Entrega os elementos registrados ao consumidor; só um consumidor por vez
+     */
+    @SuppressWarnings("unchecked")
+    void drainTo(Consumer<? super E> consumer) {
+        for (Ring ring : rings) {
+            ring.drainTo((Consumer<Object>) consumer);
+        }
+    }
+
+    /*
+     * Preenchimento para que head e tail de um anel, e os anéis vizinhos, fiquem em
+     * linhas de cache diferentes. A hierarquia garante a ordem dos campos na memória.
+     */
+
+    @SuppressWarnings("unused")
+    private abstract static class RingHeadPadding {
+        long p00, p01, p02, p03, p04, p05, p06, p07;
+    }
+
+    private abstract static class RingHead extends RingHeadPadding {
+        // Escrito só pelo consumidor
+        volatile long head;
+    }
+
+    @SuppressWarnings("unused")
+    private abstract static class RingTailPadding extends RingHead {
+        long p10, p11, p12, p13, p14, p15, p16, p17;
+    }
+
+    private abstract static class RingTail extends RingTailPadding {
+        // Disputado pelos produtores via CAS
+        volatile long tail;
+    }
+
+    @SuppressWarnings("unused")
+    private static final class Ring extends RingTail {
+        private static final VarHandle TAIL;
+
+        static {
+            try {
+                TAIL = MethodHandles.lookup().findVarHandle(RingTail.class, "tail", long.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        long p20, p21, p22, p23, p24, p25, p26, p27;
+        final AtomicReferenceArray<Object> buffer = new AtomicReferenceArray<>(RING_SIZE);
+
+        int offer(Object element) {
+            long currentTail = tail;
+            if (currentTail - head >= RING_SIZE) {
+                return FULL;
+            }
+            if (!TAIL.compareAndSet(this, currentTail, currentTail + 1)) {
+                return CONTENDED;
+            }
+            buffer.setRelease((int) (currentTail & RING_MASK), element);
+            return SUCCESS;
+        }
+
+        void drainTo(Consumer<Object> consumer) {
+            long currentHead = head;
+            long currentTail = tail;
+            while (currentHead < currentTail) {
+                int index = (int) (currentHead & RING_MASK);
+                Object element = buffer.getAcquire(index);
+                if (element == null) {
+                    break; // Produtor reservou a posição, mas ainda não publicou
+                }
+                buffer.setPlain(index, null);
+                consumer.accept(element);
+                currentHead++;
+            }
+            head = currentHead;
+        }
+    }
+}
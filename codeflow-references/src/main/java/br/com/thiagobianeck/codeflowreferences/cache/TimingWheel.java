@@ -0,0 +1,173 @@
+package br.com.thiagobianeck.codeflowreferences.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Timing wheel hierárquica para expirar entradas do {@link MultiLevelCache} em O(1)
+ *
+ * Cada nível é um anel de baldes, e cada balde é uma lista duplamente encadeada
+ * com sentinela. Agendar e cancelar é só ligar e desligar o nó. Ao avançar o
+ * relógio, apenas os baldes cujo intervalo passou são visitados. Os nós vencidos
+ * são expirados, e os outros descem para um nível mais fino. Cada entrada desce
+ * no máximo uma vez por nível, sem varredura periódica do cache inteiro.
+ *
+ * <pre>
+ * nível:   0        1       2        3       4
+ * balde:   1,02 s   65 s    70 min   37 h    6,2 dias (transbordo)
+ * baldes:  64       64      32       4       1
+ * </pre>
+ *
+ * A resolução do nível 0 é de cerca de 1 s, então uma entrada pode expirar até
+ * um balde depois do prazo. O cache confere o prazo também na leitura.
+ *
+ * Não é thread-safe: o cache usa a roda sob o próprio lock.
+ */
+final class TimingWheel {
+    private static final int[] BUCKETS = {64, 64, 32, 4, 1};
+    private static final int[] SHIFTS = {10, 16, 22, 27, 29};
+
+    /**
+     * Nó agendável; os elos são nulos enquanto o nó está fora da roda
+     */
+    interface Node {
+        long getExpiresAtMillis();
+
+        Node getPreviousInWheel();
+
+        void setPreviousInWheel(Node node);
+
+        Node getNextInWheel();
+
+        void setNextInWheel(Node node);
+    }
+
+    private final Sentinel[][] wheel = new Sentinel[BUCKETS.length][];
+    private final Consumer<Node> onExpire;
+    private long currentMillis;
+
+    TimingWheel(long nowMillis, Consumer<Node> onExpire) {
+        for (int level = 0; level < BUCKETS.length; level++) {
+            wheel[level] = new Sentinel[BUCKETS[level]];
+            for (int bucket = 0; bucket < BUCKETS[level]; bucket++) {
+                wheel[level][bucket] = new Sentinel();
+            }
+        }
+        this.currentMillis = nowMillis;
+        this.onExpire = onExpire;
+    }
+
+    /**
+     * Agenda o nó no balde do seu prazo; nós sem prazo ({@link Long#MAX_VALUE}) são ignorados
+     */
+    void schedule(Node node) {
+        if (node.getExpiresAtMillis() == Long.MAX_VALUE) {
+            return;
+        }
+        Sentinel sentinel = bucketFor(Math.max(node.getExpiresAtMillis(), currentMillis));
+        Node last = sentinel.getPreviousInWheel();
+        node.setPreviousInWheel(last);
+        node.setNextInWheel(sentinel);
+        last.setNextInWheel(node);
+        sentinel.setPreviousInWheel(node);
+    }
+
+    /**
+     * Retira o nó da roda, se estiver nela
+     */
+    void deschedule(Node node) {
+        Node next = node.getNextInWheel();
+        if (next == null) {
+            return;
+        }
+        Node previous = node.getPreviousInWheel();
+        previous.setNextInWheel(next);
+        next.setPreviousInWheel(previous);
+        node.setPreviousInWheel(null);
+        node.setNextInWheel(null);
+    }
+
+    /**
+     * Avança o relógio, expirando os nós vencidos e reagendando os demais dos baldes visitados
+     */
+    void advance(long nowMillis) {
+        long previousMillis = currentMillis;
+        if (nowMillis <= previousMillis) {
+            return;
+        }
+        currentMillis = nowMillis;
+        for (int level = 0; level < SHIFTS.length; level++) {
+            long previousTicks = previousMillis >>> SHIFTS[level];
+            long delta = (nowMillis >>> SHIFTS[level]) - previousTicks;
+            if (delta <= 0) {
+                break; // Níveis mais altos giram ainda mais devagar
+            }
+            expire(level, previousTicks, delta);
+        }
+    }
+
+    private void expire(int level, long previousTicks, long delta) {
+        Sentinel[] buckets = wheel[level];
+        int mask = buckets.length - 1;
+        int steps = (int) Math.min(delta + 1, buckets.length);
+        int start = (int) (previousTicks & mask);
+        for (int i = start; i < start + steps; i++) {
+            Sentinel sentinel = buckets[i & mask];
+            // Desliga o balde inteiro antes de visitar: reagendados podem voltar para ele
+            Node node = sentinel.getNextInWheel();
+            sentinel.setPreviousInWheel(sentinel);
+            sentinel.setNextInWheel(sentinel);
+            while (node != sentinel) {
+                Node next = node.getNextInWheel();
+                node.setPreviousInWheel(null);
+                node.setNextInWheel(null);
+                if (node.getExpiresAtMillis() <= currentMillis) {
+                    onExpire.accept(node);
+                } else {
+                    schedule(node);
+                }
+                node = next;
+            }
+        }
+    }
+
+    private Sentinel bucketFor(long expiresAtMillis) {
+        long delay = expiresAtMillis - currentMillis;
+        for (int level = 0; level < SHIFTS.length - 1; level++) {
+            if (delay < (1L << SHIFTS[level + 1])) {
+                long ticks = expiresAtMillis >>> SHIFTS[level];
+                return wheel[level][(int) (ticks & (BUCKETS[level] - 1))];
+            }
+        }
+        return wheel[SHIFTS.length - 1][0];
+    }
+
+    private static final class Sentinel implements Node {
+        private Node previous = this;
+        private Node next = this;
+
+        @Override
+        public long getExpiresAtMillis() {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public Node getPreviousInWheel() {
+            return previous;
+        }
+
+        @Override
+        public void setPreviousInWheel(Node node) {
+            this.previous = node;
+        }
+
+        @Override
+        public Node getNextInWheel() {
+            return next;
+        }
+
+        @Override
+        public void setNextInWheel(Node node) {
+            this.next = node;
+        }
+    }
+}
@@ -1,4 +1,150 @@
 package br.com.thiagobianeck.codeflowreferences.cleanup;
 
-public class NativeResource {
+import java.lang.ref.Reference;
+import java.nio.ByteBuffer;
+
+/**
+ * Buffer fora da heap, vindo de um {@link SlabAllocator} e liberado pelo {@link ResourceManager}
+ *
+ * O certo é fechar com try-with-resources, que devolve o slab ao alocador na
+ * hora. Se o recurso for esquecido, o manager devolve o slab depois que o GC o
+ * coletar e conta um vazamento. A liberação só captura o alocador e o buffer,
+ * para não prender o recurso.
+ *
+ * O slab nunca sai do recurso: a memória é lida e escrita pelos acessores, que
+ * conferem os limites e lançam {@link IllegalStateException} depois do fechamento.
+ * Um {@link ByteBuffer} entregue a quem chama continuaria apontando para a mesma
+ * memória depois que ela voltasse ao alocador e fosse entregue a outro dono.
+ *
+ * Cada acessor mantém o recurso alcançável até terminar ({@link Reference#reachabilityFence}):
+ * sem isso, se o acesso fosse o último uso de um recurso esquecido, o GC poderia
+ * coletá-lo logo depois de ler o campo, e o slab voltaria ao alocador, e talvez a
+ * outro dono, com a leitura ou escrita ainda em andamento.
+ *
+ * Um recurso tem um dono por vez: fechar enquanto outra thread lê ou escreve não é seguro.
+ */
+public final class NativeResource implements AutoCloseable {
+    private final String name;
+    private final ByteBuffer buffer;
+    private final ResourceManager.Registration registration;
+    private boolean closed;
+
+    public NativeResource(String name, int size, ResourceManager manager) {
+        this(name, size, manager, SlabAllocator.shared());
+    }
+
+    public NativeResource(String name, int size, ResourceManager manager, SlabAllocator allocator) {
+        ByteBuffer allocated = allocator.allocate(size);
+        this.name = name;
+        this.buffer = allocated;
+        try {
+            this.registration = manager.track(this, name, () -> allocator.free(allocated));
+        } catch (RuntimeException e) {
+            allocator.free(allocated);
+            throw e;
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Bytes disponíveis, exatamente o tamanho pedido
+     */
+    public int size() {
+        return buffer.limit();
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public byte getByte(int offset) {
+        try {
+            return open().get(offset);
+        } finally {
+            Reference.reachabilityFence(this);
+        }
+    }
+
+    public void putByte(int offset, byte value) {
+        try {
+            open().put(offset, value);
+        } finally {
+            Reference.reachabilityFence(this);
+        }
+    }
+
+    public int getInt(int offset) {
+        try {
+            return open().getInt(offset);
+        } finally {
+            Reference.reachabilityFence(this);
+        }
+    }
+
+    public void putInt(int offset, int value) {
+        try {
+            open().putInt(offset, value);
+        } finally {
+            Reference.reachabilityFence(this);
+        }
+    }
+
+    public long getLong(int offset) {
+        try {
+            return open().getLong(offset);
+        } finally {
+            Reference.reachabilityFence(this);
+        }
+    }
+
+    public void putLong(int offset, long value) {
+        try {
+            open().putLong(offset, value);
+        } finally {
+            Reference.reachabilityFence(this);
+        }
+    }
+
+    /**
+     * Copia {@code destination.length} bytes a partir de {@code offset} para o array
+     */
+    public void get(int offset, byte[] destination) {
+        try {
+            open().get(offset, destination);
+        } finally {
+            Reference.reachabilityFence(this);
+        }
+    }
+
+    /**
+     * Copia o array inteiro para a memória do recurso a partir de {@code offset}
+     */
+    public void put(int offset, byte[] source) {
+        try {
+            open().put(offset, source);
+        } finally {
+            Reference.reachabilityFence(this);
+        }
+    }
+
+    private ByteBuffer open() {
+        if (closed) {
+            throw new IllegalStateException("Recurso " + name + " já foi fechado");
+        }
+        return buffer;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            registration.close();
+        } finally {
+            // O recurso não pode ser coletado enquanto o fechamento explícito não terminar
+            Reference.reachabilityFence(this);
+        }
+    }
 }
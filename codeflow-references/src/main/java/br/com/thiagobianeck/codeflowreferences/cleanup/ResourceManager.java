@@ -1,4 +1,280 @@
 package br.com.thiagobianeck.codeflowreferences.cleanup;
 
-public class ResourceManager {
+import java.lang.ref.Cleaner;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Rastreia recursos nativos e libera cada um exatamente uma vez, pelo {@link Cleaner}
+ *
+ * Um recurso é liberado de duas formas:
+ * <ul>
+ *   <li>{@link Registration#close()}: libera na hora, na thread de quem fechou.</li>
+ *   <li>O recurso ficou inalcançável sem ser fechado (vazamento): o Cleaner detecta,
+ *       e a liberação vai para uma fila.</li>
+ * </ul>
+ *
+ * O Cleaner tem uma thread daemon própria, e a ação dele só repassa o estado para
+ * a fila. Outra thread daemon, o coletor, esvazia a fila em lotes de até
+ * {@value #BATCH_SIZE} recursos. Assim uma rajada de vazamentos depois de um GC
+ * não segura a thread do Cleaner, e os contadores são atualizados uma vez por lote.
+ *
+ * O estado registrado nunca referencia o recurso, senão ele nunca ficaria
+ * inalcançável. Os recursos pendentes ficam num conjunto por identidade
+ * ({@code equals} e {@code hashCode} de Object), com inclusão e remoção O(1).
+ * Os contadores e a latência de liberação ficam em {@link #getStats()}.
+ */
+public final class ResourceManager implements AutoCloseable {
+    static final int BATCH_SIZE = 256;
+    // O coletor acorda sozinho de tempos em tempos, caso perca um unpark
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final AtomicInteger MANAGER_IDS = new AtomicInteger();
+
+    private final Cleaner cleaner;
+    private final Set<Registration> outstanding = ConcurrentHashMap.newKeySet();
+    private final ConcurrentLinkedQueue<Registration> pending = new ConcurrentLinkedQueue<>();
+    private final Thread reaper;
+    private volatile boolean running = true;
+
+    private final LongAdder tracked = new LongAdder();
+    private final LongAdder closed = new LongAdder();
+    private final LongAdder leaked = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong leakLatencyNanos = new AtomicLong();
+    private final AtomicLong maxLeakLatencyNanos = new AtomicLong();
+
+    public ResourceManager() {
+        int id = MANAGER_IDS.incrementAndGet();
+        this.cleaner = Cleaner.create(runnable -> new Thread(runnable, "resource-cleaner-" + id));
+        this.reaper = new Thread(this::reap, "resource-reaper-" + id);
+        reaper.setDaemon(true);
+        reaper.start();
+    }
+
+    /**
+     * Passa a rastrear o recurso; {@code release} roda uma única vez, no fechamento ou depois do GC
+     *
+     * {@code release} não pode referenciar o recurso, nem indiretamente: uma lambda criada
+     * no construtor do recurso que use um campo dele captura {@code this}. Senão o recurso
+     * nunca fica inalcançável.
+     */
+    public Registration track(Object resource, String name, Runnable release) {
+        if (!running) {
+            throw new IllegalStateException("ResourceManager já foi fechado");
+        }
+        Registration registration = new Registration(name, release);
+        outstanding.add(registration);
+        tracked.increment();
+        registration.cleanable = cleaner.register(resource, registration::onClean);
+        return registration;
+    }
+
+    /**
+     * Laço do coletor: esvazia a fila em lotes até o manager ser fechado
+     */
+    private void reap() {
+        Registration[] batch = new Registration[BATCH_SIZE];
+        while (running || !pending.isEmpty()) {
+            int size = 0;
+            Registration registration;
+            while (size < BATCH_SIZE && (registration = pending.poll()) != null) {
+                batch[size++] = registration;
+            }
+            if (size == 0) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                continue;
+            }
+            releaseBatch(batch, size);
+        }
+    }
+
+    private void releaseBatch(Registration[] batch, int size) {
+        long latencySum = 0;
+        long latencyMax = 0;
+        for (int i = 0; i < size; i++) {
+            Registration registration = batch[i];
+            batch[i] = null;
+            release(registration);
+            long latency = System.nanoTime() - registration.unreachableNanos;
+            latencySum += latency;
+            latencyMax = Math.max(latencyMax, latency);
+        }
+        leaked.add(size);
+        batches.incrementAndGet();
+        leakLatencyNanos.addAndGet(latencySum);
+        maxLeakLatencyNanos.accumulateAndGet(latencyMax, Math::max);
+    }
+
+    private void release(Registration registration) {
+        try {
+            registration.release.run();
+        } catch (RuntimeException e) {
+            failures.increment();
+            System.err.println("Erro ao liberar recurso " + registration.name + ": " + e.getMessage());
+        } finally {
+            outstanding.remove(registration);
+        }
+    }
+
+    /**
+     * Fotografia dos contadores
+     */
+    public Stats getStats() {
+        long leakedCount = leaked.sum();
+        return new Stats(tracked.sum(), outstanding.size(), closed.sum(), leakedCount, failures.sum(),
+                batches.get(), leakedCount == 0 ? 0 : leakLatencyNanos.get() / leakedCount,
+                maxLeakLatencyNanos.get());
+    }
+
+    /**
+     * Para o coletor depois de esvaziar a fila
+     *
+     * Recursos ainda abertos continuam registrados no Cleaner. Se vazarem depois
+     * disso, são liberados na própria thread do Cleaner.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(reaper);
+        try {
+            reaper.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        drainPending();
+    }
+
+    /**
+     * Libera o que sobrou na fila sem o coletor; seguro em paralelo, cada item sai da fila uma vez
+     */
+    private void drainPending() {
+        Registration registration;
+        while ((registration = pending.poll()) != null) {
+            releaseBatch(new Registration[]{registration}, 1);
+        }
+    }
+
+    /**
+     * Registro de um recurso no manager; fechar libera o recurso na hora
+     *
+     * A ação registrada no Cleaner aponta para ele, então só guarda o nome e a liberação.
+     */
+    public final class Registration implements AutoCloseable {
+        private final String name;
+        private final Runnable release;
+        private Cleaner.Cleanable cleanable;
+        // Escrito antes de clean(), que roda a ação na mesma thread
+        private boolean closedExplicitly;
+        private long unreachableNanos;
+
+        private Registration(String name, Runnable release) {
+            this.name = name;
+            this.release = release;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Libera o recurso na thread atual; chamadas repetidas não fazem nada
+         */
+        @Override
+        public void close() {
+            closedExplicitly = true;
+            cleanable.clean();
+        }
+
+        /**
+         * Chamado uma única vez: por {@link #close()} ou pelo Cleaner depois do GC
+         */
+        private void onClean() {
+            if (closedExplicitly) {
+                release(this);
+                closed.increment();
+                return;
+            }
+            unreachableNanos = System.nanoTime();
+            pending.add(this);
+            if (running) {
+                LockSupport.unpark(reaper);
+            } else {
+                drainPending(); // O coletor já parou ou está parando
+            }
+        }
+    }
+
+    /**
+     * Fotografia dos contadores do manager
+     */
+    public static final class Stats {
+        private final long tracked;
+        private final int outstanding;
+        private final long closed;
+        private final long leaked;
+        private final long failures;
+        private final long batches;
+        private final long averageLatencyNanos;
+        private final long maxLatencyNanos;
+
+        Stats(long tracked, int outstanding, long closed, long leaked, long failures, long batches,
+              long averageLatencyNanos, long maxLatencyNanos) {
+            this.tracked = tracked;
+            this.outstanding = outstanding;
+            this.closed = closed;
+            this.leaked = leaked;
+            this.failures = failures;
+            this.batches = batches;
+            this.averageLatencyNanos = averageLatencyNanos;
+            this.maxLatencyNanos = maxLatencyNanos;
+        }
+
+        public long getTracked() { return tracked; }
+
+        /**
+         * Recursos ainda não liberados, incluindo os que estão na fila do coletor
+         */
+        public int getOutstanding() { return outstanding; }
+
+        /**
+         * Recursos liberados, por fechamento ou pelo coletor
+         */
+        public long getCleaned() { return closed + leaked; }
+
+        public long getClosed() { return closed; }
+
+        /**
+         * Recursos que ficaram inalcançáveis sem ser fechados e foram liberados pelo coletor
+         */
+        public long getLeaked() { return leaked; }
+
+        /**
+         * Liberações que lançaram exceção (o recurso sai do rastreamento mesmo assim)
+         */
+        public long getFailures() { return failures; }
+
+        public long getBatches() { return batches; }
+
+        /**
+         * Tempo médio entre o Cleaner detectar o vazamento e o coletor liberar o recurso
+         */
+        public long getAverageLatencyMicros() { return averageLatencyNanos / 1000; }
+
+        public long getMaxLatencyMicros() { return maxLatencyNanos / 1000; }
+
+        @Override
+        public String toString() {
+            return String.format("ResourceManager{rastreados=%d, pendentes=%d, liberados=%d (fechados=%d, " +
+                            "vazados=%d), falhas=%d, lotes=%d, latência média=%d µs, máxima=%d µs}",
+                    tracked, outstanding, getCleaned(), closed, leaked, failures, batches,
+                    getAverageLatencyMicros(), getMaxLatencyMicros());
+        }
+    }
 }
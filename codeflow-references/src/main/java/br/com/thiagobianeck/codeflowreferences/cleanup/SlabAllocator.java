@@ -0,0 +1,253 @@
+package br.com.thiagobianeck.codeflowreferences.cleanup;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Alocador de memória fora da heap por classes de tamanho, sobre {@link ByteBuffer} direto
+ *
+ * Cada {@link ByteBuffer#allocateDirect(int)} passa por {@code Bits.reserveMemory},
+ * que pode chamar {@code System.gc()} e dormir quando o limite de memória direta
+ * está perto. Além disso, cada buffer só é devolvido ao sistema quando o GC o
+ * coleta. Para buffers curtos em alta taxa, o alocador pede ao sistema blocos
+ * grandes e iguais ({@code chunkBytes}), e fatia cada bloco em slabs de uma
+ * classe de tamanho: potências de dois de {@value #MIN_SLAB_SIZE} bytes a
+ * {@value #MAX_SLAB_SIZE} bytes. Um pedido recebe o slab da menor classe que o
+ * comporta. Slabs liberados voltam para a pilha livre da classe e são reusados,
+ * o último liberado primeiro, enquanto ainda está no cache da CPU.
+ *
+ * Os blocos nunca são devolvidos ao sistema; a memória reservada só cresce até
+ * o pico de uso de cada classe. Pedidos acima de {@value #MAX_SLAB_SIZE} bytes
+ * recebem um buffer direto próprio, liberado pelo GC como sempre.
+ *
+ * Cada classe tem seu próprio monitor, então classes diferentes não disputam.
+ * Um slab liberado não pode mais ser usado: a mesma memória volta na próxima alocação.
+ * Por isso cada classe marca num bitmap os slabs entregues, e {@link #free(ByteBuffer)}
+ * recusa o slab já liberado e o buffer que não saiu deste alocador, em vez de
+ * entregar a mesma memória a dois donos.
+ */
+public class SlabAllocator {
+    public static final int MIN_SLAB_SIZE = 64;
+    public static final int MAX_SLAB_SIZE = 64 * 1024;
+    public static final int DEFAULT_CHUNK_BYTES = 1024 * 1024;
+    private static final int MIN_SHIFT = Integer.numberOfTrailingZeros(MIN_SLAB_SIZE);
+
+    private static final SlabAllocator SHARED = new SlabAllocator();
+
+    private final int chunkBytes;
+    private final SizeClass[] sizeClasses;
+
+    private final LongAdder allocations = new LongAdder();
+    private final LongAdder frees = new LongAdder();
+    private final LongAdder largeAllocations = new LongAdder();
+
+    public SlabAllocator() {
+        this(DEFAULT_CHUNK_BYTES);
+    }
+
+    /**
+     * @param chunkBytes bytes pedidos ao sistema de cada vez (no mínimo {@value #MAX_SLAB_SIZE})
+     */
+    public SlabAllocator(int chunkBytes) {
+        if (chunkBytes < MAX_SLAB_SIZE || Integer.bitCount(chunkBytes) != 1) {
+            throw new IllegalArgumentException("chunkBytes deve ser potência de dois >= " + MAX_SLAB_SIZE + ": " +
+                    chunkBytes);
+        }
+        this.chunkBytes = chunkBytes;
+        int classes = Integer.numberOfTrailingZeros(MAX_SLAB_SIZE) - MIN_SHIFT + 1;
+        this.sizeClasses = new SizeClass[classes];
+        for (int i = 0; i < classes; i++) {
+            sizeClasses[i] = new SizeClass(MIN_SLAB_SIZE << i, chunkBytes);
+        }
+    }
+
+    /**
+     * Alocador compartilhado pelos {@link NativeResource} que não recebem um próprio
+     */
+    public static SlabAllocator shared() {
+        return SHARED;
+    }
+
+    /**
+     * Devolve um buffer direto zerado com pelo menos {@code size} bytes e limit igual a {@code size}
+     */
+    public ByteBuffer allocate(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Tamanho negativo: " + size);
+        }
+        allocations.increment();
+        if (size > MAX_SLAB_SIZE) {
+            largeAllocations.increment();
+            return ByteBuffer.allocateDirect(size);
+        }
+        ByteBuffer slab = sizeClassFor(size).pop();
+        // Slab reusado traz o conteúdo do dono anterior; a capacidade é múltipla de 8
+        slab.clear();
+        for (int i = 0; i < size; i += Long.BYTES) {
+            slab.putLong(i, 0L);
+        }
+        return slab.limit(size);
+    }
+
+    /**
+     * Devolve o slab à sua classe; buffers grandes ficam para o GC
+     *
+     * Buffers grandes não são reusados, então não passam pela checagem de dono.
+     *
+     * @throws IllegalArgumentException se o slab não veio deste alocador
+     * @throws IllegalStateException    se o slab já foi liberado
+     */
+    public void free(ByteBuffer buffer) {
+        if (buffer.capacity() > MAX_SLAB_SIZE) {
+            frees.increment();
+            return;
+        }
+        SizeClass sizeClass = sizeClassFor(buffer.capacity());
+        if (sizeClass.slabSize != buffer.capacity()) {
+            throw new IllegalArgumentException("Buffer de " + buffer.capacity() + " bytes não veio deste alocador");
+        }
+        sizeClass.push(buffer);
+        frees.increment();
+    }
+
+    private SizeClass sizeClassFor(int size) {
+        int shift = 32 - Integer.numberOfLeadingZeros(Math.max(size, MIN_SLAB_SIZE) - 1);
+        return sizeClasses[shift - MIN_SHIFT];
+    }
+
+    /**
+     * Fotografia dos contadores
+     */
+    public Stats getStats() {
+        long chunks = 0;
+        long usedBytes = 0;
+        for (SizeClass sizeClass : sizeClasses) {
+            synchronized (sizeClass) {
+                chunks += sizeClass.chunks;
+                usedBytes += (long) (sizeClass.slabCount - sizeClass.freeCount) * sizeClass.slabSize;
+            }
+        }
+        return new Stats(allocations.sum(), frees.sum(), largeAllocations.sum(), chunks, chunks * chunkBytes,
+                usedBytes);
+    }
+
+    /**
+     * Slabs de um tamanho: todos os slabs por índice, a pilha dos livres e o bitmap dos entregues
+     *
+     * O índice de um slab é a posição dele na ordem em que os blocos foram fatiados.
+     * Só a liberação precisa achar o índice a partir do buffer, pela identidade.
+     */
+    private static final class SizeClass {
+        final int slabSize;
+        final int chunkBytes;
+        private ByteBuffer[] slabs = new ByteBuffer[0];
+        private final IdentityHashMap<ByteBuffer, Integer> indexOf = new IdentityHashMap<>();
+        private int[] free = new int[0];
+        private long[] inUse = new long[0];
+        private int freeCount;
+        private int slabCount;
+        private long chunks;
+
+        SizeClass(int slabSize, int chunkBytes) {
+            this.slabSize = slabSize;
+            this.chunkBytes = chunkBytes;
+        }
+
+        synchronized ByteBuffer pop() {
+            if (freeCount == 0) {
+                carveChunk();
+            }
+            int index = free[--freeCount];
+            inUse[index >>> 6] |= 1L << index;
+            return slabs[index];
+        }
+
+        synchronized void push(ByteBuffer slab) {
+            Integer index = indexOf.get(slab);
+            if (index == null) {
+                throw new IllegalArgumentException("Slab de " + slabSize + " bytes não veio deste alocador");
+            }
+            long bit = 1L << index;
+            if ((inUse[index >>> 6] & bit) == 0) {
+                throw new IllegalStateException("Slab de " + slabSize + " bytes liberado duas vezes");
+            }
+            inUse[index >>> 6] &= ~bit;
+            free[freeCount++] = index;
+        }
+
+        /**
+         * Pede um bloco ao sistema e o fatia em slabs livres
+         */
+        private void carveChunk() {
+            ByteBuffer chunk = ByteBuffer.allocateDirect(chunkBytes);
+            int perChunk = chunkBytes / slabSize;
+            int first = slabCount;
+            slabCount += perChunk;
+            chunks++;
+            // Os arrays comportam todos os slabs da classe, então push nunca os cresce
+            slabs = Arrays.copyOf(slabs, slabCount);
+            free = Arrays.copyOf(free, slabCount);
+            inUse = Arrays.copyOf(inUse, (slabCount + 63) >>> 6);
+            for (int i = 0; i < perChunk; i++) {
+                ByteBuffer slab = chunk.slice(i * slabSize, slabSize);
+                slabs[first + i] = slab;
+                indexOf.put(slab, first + i);
+            }
+            // Do fim para o começo, para o primeiro pop devolver o início do bloco
+            for (int i = perChunk - 1; i >= 0; i--) {
+                free[freeCount++] = first + i;
+            }
+        }
+    }
+
+    /**
+     * Fotografia dos contadores do alocador
+     */
+    public static final class Stats {
+        private final long allocations;
+        private final long frees;
+        private final long largeAllocations;
+        private final long chunks;
+        private final long reservedBytes;
+        private final long usedBytes;
+
+        Stats(long allocations, long frees, long largeAllocations, long chunks, long reservedBytes, long usedBytes) {
+            this.allocations = allocations;
+            this.frees = frees;
+            this.largeAllocations = largeAllocations;
+            this.chunks = chunks;
+            this.reservedBytes = reservedBytes;
+            this.usedBytes = usedBytes;
+        }
+
+        public long getAllocations() { return allocations; }
+
+        public long getFrees() { return frees; }
+
+        /**
+         * Pedidos acima de {@value SlabAllocator#MAX_SLAB_SIZE} bytes, atendidos fora dos slabs
+         */
+        public long getLargeAllocations() { return largeAllocations; }
+
+        /**
+         * Blocos pedidos ao sistema; cada um é uma única chamada a {@code allocateDirect}
+         */
+        public long getChunks() { return chunks; }
+
+        public long getReservedBytes() { return reservedBytes; }
+
+        /**
+         * Bytes em slabs entregues e ainda não liberados (pelo tamanho da classe, não do pedido)
+         */
+        public long getUsedBytes() { return usedBytes; }
+
+        @Override
+        public String toString() {
+            return String.format("SlabAllocator{alocações=%d, liberações=%d, grandes=%d, blocos=%d, " +
+                            "reservado=%d KB, em uso=%d KB}",
+                    allocations, frees, largeAllocations, chunks, reservedBytes / 1024, usedBytes / 1024);
+        }
+    }
+}
@@ -1,5 +1,9 @@
 package br.com.thiagobianeck.codeflowreferences.references;
 
+import br.com.thiagobianeck.codeflowreferences.cleanup.NativeResource;
+import br.com.thiagobianeck.codeflowreferences.cleanup.ResourceManager;
+import br.com.thiagobianeck.codeflowreferences.cleanup.SlabAllocator;
+
 import java.lang.ref.PhantomReference;
 import java.lang.ref.ReferenceQueue;
 import java.util.ArrayList;
@@ -67,86 +71,51 @@ public class PhantomReferenceDemo {
     public static void demonstrateResourceManagement() {
         System.out.println("=== RESOURCE MANAGEMENT DEMO ===");
 
-        ResourceManager manager = new ResourceManager();
-
-        // Criar recursos que precisam de cleanup
-        for (int i = 0; i < 5; i++) {
-            NativeResource resource = new NativeResource("Resource-" + i);
-            manager.trackResource(resource);
-        }
-
-        System.out.println("Recursos criados e rastreados: " + manager.getTrackedCount());
-
-        // Forçar coleta de lixo
-        System.gc();
-
-        try {
-            Thread.sleep(1000);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
-
-        // Processar cleanup
-        manager.processCleanup();
-
-        System.out.println("✅ Resource management com Phantom References!");
-        System.out.println();
-    }
-
-    private static class ResourceManager {
-        private final ReferenceQueue<NativeResource> queue = new ReferenceQueue<>();
-        private final List<ResourcePhantomReference> trackedResources = new ArrayList<>();
-
-        public void trackResource(NativeResource resource) {
-            ResourcePhantomReference ref = new ResourcePhantomReference(resource, queue);
-            trackedResources.add(ref);
-        }
-
-        public void processCleanup() {
-            System.out.println("Processando cleanup de recursos...");
-
-            ResourcePhantomReference ref;
-            while ((ref = (ResourcePhantomReference) queue.poll()) != null) {
-                ref.cleanup();
-                trackedResources.remove(ref);
+        try (ResourceManager manager = new ResourceManager()) {
+            // Caminho certo: try-with-resources libera na hora, sem esperar o GC
+            for (int i = 0; i < 5; i++) {
+                try (NativeResource resource = new NativeResource("Resource-" + i, 4096, manager)) {
+                    resource.putInt(0, i);
+                    System.out.println("Recurso em uso: " + resource.getName() + " (" +
+                            resource.size() + " bytes fora da heap)");
+                }
             }
-        }
+            System.out.println("Após fechar: " + manager.getStats());
 
-        public int getTrackedCount() {
-            return trackedResources.size();
-        }
-
-        private static class ResourcePhantomReference extends PhantomReference<NativeResource> {
-            private final String resourceName;
-
-            public ResourcePhantomReference(NativeResource resource, ReferenceQueue<NativeResource> queue) {
-                super(resource, queue);
-                this.resourceName = resource.getName();
+            // Buffers curtos em alta taxa: os slabs liberados são reusados, sem novo allocateDirect
+            for (int i = 0; i < 100_000; i++) {
+                try (NativeResource resource = new NativeResource("Short-" + i, 64 + i % 8192, manager)) {
+                    resource.putByte(0, (byte) i);
+                }
             }
+            System.out.println("Após 100.000 buffers curtos: " + SlabAllocator.shared().getStats());
 
-            public void cleanup() {
-                System.out.println("  -> Limpando recurso: " + resourceName);
-                // Aqui você faria o cleanup real do recurso nativo
+            // Recursos esquecidos: o Cleaner detecta e o coletor libera em lotes
+            for (int i = 0; i < 10_000; i++) {
+                new NativeResource("Leaked-" + i, 1024, manager);
             }
-        }
-    }
+            System.out.println("Recursos esquecidos: " + manager.getStats().getOutstanding());
 
-    private static class NativeResource {
-        private final String name;
+            System.out.println("Forçando Garbage Collection...");
+            System.gc();
+            waitForCleanup(manager, 2000);
 
-        public NativeResource(String name) {
-            this.name = name;
-            System.out.println("Recurso criado: " + name);
+            System.out.println("Após o GC: " + manager.getStats());
+            System.out.println("Memória fora da heap: " + SlabAllocator.shared().getStats());
         }
 
-        public String getName() {
-            return name;
-        }
+        System.out.println("✅ Resource management com Cleaner, sem finalize()!");
+        System.out.println();
+    }
 
-        @Override
-        protected void finalize() throws Throwable {
-            System.out.println("Finalizando recurso: " + name);
-            super.finalize();
+    private static void waitForCleanup(ResourceManager manager, long timeoutMillis) {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        try {
+            while (manager.getStats().getOutstanding() > 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,135 @@
+package br.com.thiagobianeck.codeflowreferences.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testes do cache em três camadas")
+class MultiLevelCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    private MultiLevelCache<String, String> newCache(int l1Capacity) {
+        return new MultiLevelCache<>(l1Capacity, MultiLevelCache.STRING_CODEC, tempDir, 64 * 1024);
+    }
+
+    @Test
+    @DisplayName("Deve rebaixar do L1 para o L2 com cópia em disco e promover de volta no acesso")
+    void testRebaixamentoEPromocao() {
+        try (MultiLevelCache<String, String> cache = newCache(2)) {
+            cache.put("a", "valor a");
+            cache.put("b", "valor b");
+            cache.put("c", "valor c");
+
+            MultiLevelCache.Stats stats = cache.getStats();
+            assertEquals(MultiLevelCache.Tier.L2_SOFT, cache.tierOf("a"), "A menos recente sai do L1");
+            assertEquals(MultiLevelCache.Tier.L1_STRONG, cache.tierOf("c"));
+            assertEquals(2, stats.getL1Size());
+            assertEquals(1, stats.getSoftDemotions());
+            assertEquals(1, stats.getDiskWrites());
+            assertEquals(1, stats.getL3Size());
+
+            assertEquals("valor a", cache.get("a"));
+            stats = cache.getStats();
+            assertEquals(1, stats.getHits(MultiLevelCache.Tier.L2_SOFT));
+            assertEquals(1, stats.getPromotions());
+            assertEquals(MultiLevelCache.Tier.L1_STRONG, cache.tierOf("a"), "O acerto no L2 promove no dreno");
+            assertEquals(MultiLevelCache.Tier.L2_SOFT, cache.tierOf("b"), "A promoção rebaixa a mais antiga");
+            assertTrue(stats.getL1Size() <= 2);
+        }
+    }
+
+    @Test
+    @DisplayName("Depois que o GC limpa o L2, a leitura deve vir do disco e voltar ao L1")
+    void testLeituraDoDisco() {
+        try (MultiLevelCache<String, String> cache = newCache(10)) {
+            for (int i = 0; i < 50; i++) {
+                cache.put("key-" + i, "valor " + i);
+            }
+            assertEquals(40, cache.getStats().getSoftDemotions());
+
+            cache.clearSoftTier();
+            assertEquals(MultiLevelCache.Tier.L3_DISK, cache.tierOf("key-5"));
+
+            assertEquals("valor 5", cache.get("key-5"));
+            MultiLevelCache.Stats stats = cache.getStats();
+            assertEquals(1, stats.getHits(MultiLevelCache.Tier.L3_DISK));
+            assertEquals(MultiLevelCache.Tier.L1_STRONG, cache.tierOf("key-5"));
+            // A promoção rebaixa mais uma entrada do L1; só ela é gravada, a lida do disco já tem cópia
+            assertEquals(41, stats.getDiskWrites());
+
+            assertTrue(cache.remove("key-6"));
+            assertNull(cache.get("key-6"));
+            assertNull(cache.tierOf("key-6"), "Remover apaga também a cópia em disco");
+        }
+    }
+
+    @Test
+    @DisplayName("Escritas, leituras e remoções concorrentes não devem perder valores nem passar do L1")
+    void testOperacoesConcorrentes() throws Exception {
+        int threads = 4;
+        int keysPerThread = 200;
+        int capacity = 50;
+        try (MultiLevelCache<String, String> cache = newCache(capacity)) {
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            List<Future<Map<String, String>>> resultados = new ArrayList<>();
+            try {
+                for (int t = 0; t < threads; t++) {
+                    int thread = t;
+                    resultados.add(executor.submit(() -> {
+                        // Cada thread é dona das suas chaves e sabe o último valor de cada uma
+                        SplittableRandom random = new SplittableRandom(thread);
+                        Map<String, String> esperado = new HashMap<>();
+                        for (int i = 0; i < 20_000; i++) {
+                            String key = "t" + thread + "-" + random.nextInt(keysPerThread);
+                            int operacao = random.nextInt(10);
+                            if (operacao < 6) {
+                                String value = cache.get(key);
+                                assertEquals(esperado.get(key), value, "Leitura de " + key);
+                            } else if (operacao < 9) {
+                                String value = key + " v" + i;
+                                cache.put(key, value);
+                                esperado.put(key, value);
+                            } else {
+                                cache.remove(key);
+                                esperado.remove(key);
+                            }
+                        }
+                        return esperado;
+                    }));
+                }
+
+                Map<String, String> esperado = new HashMap<>();
+                for (Future<Map<String, String>> resultado : resultados) {
+                    esperado.putAll(resultado.get());
+                }
+
+                MultiLevelCache.Stats stats = cache.getStats();
+                assertTrue(stats.getL1Size() <= capacity, "L1 passou da capacidade: " + stats.getL1Size());
+                assertTrue(stats.getL1Size() + stats.getL2Size() <= esperado.size());
+                assertTrue(stats.getL3Size() <= esperado.size(), "Disco não pode ter chaves removidas");
+                for (int t = 0; t < threads; t++) {
+                    for (int k = 0; k < keysPerThread; k++) {
+                        String key = "t" + t + "-" + k;
+                        assertEquals(esperado.get(key), cache.get(key), "Valor final de " + key);
+                    }
+                }
+            } finally {
+                executor.shutdown();
+            }
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package br.com.thiagobianeck.codeflowreferences.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testes da timing wheel e do empacotamento da CacheEntry")
+class TimingWheelTest {
+
+    // Resolução do nível 0: uma entrada pode expirar até um balde depois do prazo
+    private static final long RESOLUTION_MILLIS = 1 << 10;
+
+    private static final long[] DELAYS = {
+            1, (1 << 10) - 1, 1 << 10,
+            (1 << 16) - 1, 1 << 16,
+            (1 << 22) - 1, 1 << 22,
+            (1 << 27) - 1, 1 << 27,
+            (1 << 29) - 1, 1 << 29,
+            (1L << 31) + 12345
+    };
+
+    @Test
+    @DisplayName("Deve expirar no prazo em cada fronteira de nível, avançando aos poucos")
+    void testExpiracaoNasFronteirasDeNivel() {
+        long start = 12_345;
+        List<Node> expirados = new ArrayList<>();
+        TimingWheel wheel = new TimingWheel(start, node -> {
+            ((Node) node).expired = true;
+            expirados.add((Node) node);
+        });
+        List<Node> nodes = new ArrayList<>();
+        for (long delay : DELAYS) {
+            Node node = new Node(start + delay);
+            nodes.add(node);
+            wheel.schedule(node);
+        }
+
+        long end = start + DELAYS[DELAYS.length - 1] + 2 * RESOLUTION_MILLIS;
+        for (long now = start; now <= end; now += 997) {
+            long instante = now;
+            wheel.advance(now);
+            for (Node node : nodes) {
+                if (now < node.expiresAt) {
+                    assertFalse(node.expired, () -> "Expirou antes do prazo: " + node + " em " + instante);
+                } else if (now >= node.expiresAt + RESOLUTION_MILLIS) {
+                    assertTrue(node.expired, () -> "Não expirou depois do prazo: " + node + " em " + instante);
+                }
+            }
+        }
+        assertEquals(DELAYS.length, expirados.size(), "Cada nó expira uma única vez");
+    }
+
+    @Test
+    @DisplayName("Deve expirar todos os vencidos num único salto do relógio e respeitar o cancelamento")
+    void testSaltoECancelamento() {
+        List<Node> expirados = new ArrayList<>();
+        TimingWheel wheel = new TimingWheel(0, node -> expirados.add((Node) node));
+        List<Node> nodes = new ArrayList<>();
+        for (long delay : DELAYS) {
+            Node node = new Node(delay);
+            nodes.add(node);
+            wheel.schedule(node);
+        }
+        Node cancelado = nodes.get(3);
+        wheel.deschedule(cancelado);
+        wheel.schedule(new Node(Long.MAX_VALUE));
+
+        wheel.advance((1 << 22) + RESOLUTION_MILLIS);
+        for (Node node : nodes) {
+            boolean vencido = node.expiresAt <= (1 << 22) && node != cancelado;
+            assertEquals(vencido, expirados.contains(node), node.toString());
+        }
+
+        wheel.advance(Long.MAX_VALUE / 2);
+        assertEquals(DELAYS.length - 1, expirados.size());
+        assertNull(cancelado.getNextInWheel());
+    }
+
+    @Test
+    @DisplayName("CacheEntry deve empacotar tempo, TTL e frequência nos limites de cada campo")
+    void testLimitesDosCamposEmpacotados() {
+        long packed = CacheEntry.packWriteAndTtl(CacheEntry.MAX_MILLIS, CacheEntry.MAX_TTL_SECONDS);
+        assertEquals(CacheEntry.MAX_MILLIS, CacheEntry.writeTimeOf(packed));
+        assertEquals(CacheEntry.MAX_TTL_SECONDS, CacheEntry.ttlSecondsOf(packed));
+
+        long saturado = CacheEntry.packWriteAndTtl(CacheEntry.MAX_MILLIS + 1000, 0);
+        assertEquals(CacheEntry.MAX_MILLIS, CacheEntry.writeTimeOf(saturado), "O tempo satura em vez de invadir o TTL");
+        assertEquals(0, CacheEntry.ttlSecondsOf(saturado));
+        assertEquals(Long.MAX_VALUE, CacheEntry.expiresAtOf(saturado), "TTL 0 significa sem expiração");
+
+        assertThrows(IllegalArgumentException.class,
+                () -> CacheEntry.packWriteAndTtl(0, CacheEntry.MAX_TTL_SECONDS + 1));
+        assertThrows(IllegalArgumentException.class, () -> CacheEntry.packWriteAndTtl(0, -1));
+
+        CacheEntry<String, String> entry = new CacheEntry<>("k", "v", CacheEntry.packWriteAndTtl(1000, 2));
+        assertEquals(3000, entry.getExpiresAtMillis());
+        assertFalse(entry.isExpired(2999));
+        assertTrue(entry.isExpired(3000));
+        assertEquals(1000, entry.getLastAccessMillis());
+
+        for (int i = 0; i < CacheEntry.MAX_FREQUENCY + 10; i++) {
+            entry.recordHit(CacheEntry.MAX_MILLIS + 1);
+        }
+        assertEquals(CacheEntry.MAX_FREQUENCY, entry.getFrequency(), "A frequência satura");
+        assertEquals(CacheEntry.MAX_MILLIS, entry.getLastAccessMillis());
+        assertEquals(1000, entry.getWriteTimeMillis(), "Acessos não mexem no tempo de escrita");
+        assertEquals(2, entry.getTtlSeconds());
+    }
+
+    /**
+     * Nó mínimo para testar a roda sem cache
+     */
+    private static final class Node implements TimingWheel.Node {
+        final long expiresAt;
+        boolean expired;
+        private TimingWheel.Node previous;
+        private TimingWheel.Node next;
+
+        Node(long expiresAt) {
+            this.expiresAt = expiresAt;
+        }
+
+        @Override
+        public long getExpiresAtMillis() {
+            return expiresAt;
+        }
+
+        @Override
+        public TimingWheel.Node getPreviousInWheel() {
+            return previous;
+        }
+
+        @Override
+        public void setPreviousInWheel(TimingWheel.Node node) {
+            this.previous = node;
+        }
+
+        @Override
+        public TimingWheel.Node getNextInWheel() {
+            return next;
+        }
+
+        @Override
+        public void setNextInWheel(TimingWheel.Node node) {
+            this.next = node;
+        }
+
+        @Override
+        public String toString() {
+            return "Node{expiresAt=" + expiresAt + "}";
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package br.com.thiagobianeck.codeflowreferences.cleanup;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testes do gerenciador de recursos nativos")
+class ResourceManagerTest {
+
+    @Test
+    @DisplayName("Deve contar fechados e vazados separadamente e liberar cada recurso uma única vez")
+    void testFechadosEVazados() throws InterruptedException {
+        AtomicInteger liberacoes = new AtomicInteger();
+        try (ResourceManager manager = new ResourceManager()) {
+            Object[] fechados = new Object[30];
+            for (int i = 0; i < fechados.length; i++) {
+                fechados[i] = new Object();
+                ResourceManager.Registration registration =
+                        manager.track(fechados[i], "fechado-" + i, liberacoes::incrementAndGet);
+                registration.close();
+                registration.close(); // Repetir não libera de novo
+            }
+            for (int i = 0; i < 20; i++) {
+                manager.track(new Object(), "vazado-" + i, liberacoes::incrementAndGet);
+            }
+
+            long limite = System.currentTimeMillis() + 10_000;
+            while (manager.getStats().getLeaked() < 20 && System.currentTimeMillis() < limite) {
+                System.gc();
+                Thread.sleep(20);
+            }
+
+            ResourceManager.Stats stats = manager.getStats();
+            assertEquals(50, stats.getTracked());
+            assertEquals(30, stats.getClosed());
+            assertEquals(20, stats.getLeaked());
+            assertEquals(50, stats.getCleaned());
+            assertEquals(0, stats.getOutstanding());
+            assertEquals(50, liberacoes.get());
+            assertTrue(stats.getBatches() >= 1);
+            assertEquals(30, fechados.length); // Mantém os fechados alcançáveis até aqui
+        }
+    }
+
+    @Test
+    @DisplayName("Falha na liberação deve ser contada e tirar o recurso do rastreamento")
+    void testFalhaNaLiberacao() {
+        try (ResourceManager manager = new ResourceManager()) {
+            Object recurso = new Object();
+            manager.track(recurso, "com-falha", () -> {
+                throw new IllegalStateException("falha simulada");
+            }).close();
+
+            ResourceManager.Stats stats = manager.getStats();
+            assertEquals(1, stats.getFailures());
+            assertEquals(1, stats.getClosed());
+            assertEquals(0, stats.getOutstanding());
+        }
+    }
+
+    @Test
+    @DisplayName("Não deve aceitar recursos depois de fechado")
+    void testManagerFechado() {
+        ResourceManager manager = new ResourceManager();
+        manager.close();
+        assertThrows(IllegalStateException.class, () -> manager.track(new Object(), "tarde", () -> { }));
+    }
+}
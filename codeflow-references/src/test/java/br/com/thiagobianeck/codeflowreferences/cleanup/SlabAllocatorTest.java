@@ -0,0 +1,83 @@
+package br.com.thiagobianeck.codeflowreferences.cleanup;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testes do alocador de slabs e do recurso nativo")
+class SlabAllocatorTest {
+
+    @Test
+    @DisplayName("Deve reusar o último slab liberado, zerado, sem pedir novo bloco ao sistema")
+    void testReusoDeSlabs() {
+        SlabAllocator allocator = new SlabAllocator(SlabAllocator.MAX_SLAB_SIZE);
+
+        ByteBuffer primeiro = allocator.allocate(100);
+        assertEquals(128, primeiro.capacity(), "Classe de tamanho: próxima potência de dois");
+        assertEquals(100, primeiro.limit());
+        primeiro.putLong(0, 42L);
+        allocator.free(primeiro);
+
+        ByteBuffer segundo = allocator.allocate(120);
+        assertSame(primeiro, segundo, "O último liberado volta primeiro");
+        assertEquals(0L, segundo.getLong(0), "Slab reusado deve vir zerado");
+
+        for (int i = 0; i < 1000; i++) {
+            allocator.free(allocator.allocate(64 + i % 64));
+        }
+        SlabAllocator.Stats stats = allocator.getStats();
+        assertEquals(2, stats.getChunks(), "Um bloco por classe usada");
+        assertEquals(128, stats.getUsedBytes());
+        assertEquals(1002, stats.getAllocations());
+        assertEquals(1001, stats.getFrees());
+
+        allocator.free(segundo);
+        assertEquals(0, allocator.getStats().getUsedBytes());
+    }
+
+    @Test
+    @DisplayName("Deve recusar liberação dupla e buffer de outro alocador sem corromper a pilha")
+    void testLiberacaoInvalida() {
+        SlabAllocator allocator = new SlabAllocator(SlabAllocator.MAX_SLAB_SIZE);
+        ByteBuffer slab = allocator.allocate(256);
+        allocator.free(slab);
+
+        assertThrows(IllegalStateException.class, () -> allocator.free(slab));
+        assertThrows(IllegalArgumentException.class, () -> allocator.free(ByteBuffer.allocateDirect(256)));
+        assertThrows(IllegalArgumentException.class,
+                () -> allocator.free(new SlabAllocator(SlabAllocator.MAX_SLAB_SIZE).allocate(256)));
+        assertThrows(IllegalArgumentException.class, () -> allocator.free(ByteBuffer.allocateDirect(100)));
+
+        // Se a liberação dupla tivesse entrado na pilha, as duas alocações receberiam o mesmo slab
+        assertNotSame(allocator.allocate(256), allocator.allocate(256));
+        assertEquals(1, allocator.getStats().getFrees());
+    }
+
+    @Test
+    @DisplayName("Recurso fechado não deve dar acesso à memória que voltou ao alocador")
+    void testRecursoFechado() {
+        SlabAllocator allocator = new SlabAllocator(SlabAllocator.MAX_SLAB_SIZE);
+        try (ResourceManager manager = new ResourceManager()) {
+            NativeResource resource = new NativeResource("teste", 100, manager, allocator);
+            resource.putLong(8, 7L);
+            resource.put(16, new byte[]{1, 2, 3});
+            byte[] lidos = new byte[3];
+            resource.get(16, lidos);
+            assertArrayEquals(new byte[]{1, 2, 3}, lidos);
+            assertEquals(7L, resource.getLong(8));
+            assertEquals(100, resource.size());
+            assertThrows(IndexOutOfBoundsException.class, () -> resource.putInt(98, 1), "Só o tamanho pedido");
+
+            resource.close();
+            resource.close();
+            assertTrue(resource.isClosed());
+            assertThrows(IllegalStateException.class, () -> resource.getLong(8));
+            assertThrows(IllegalStateException.class, () -> resource.putByte(0, (byte) 1));
+            assertEquals(0, allocator.getStats().getUsedBytes());
+            assertEquals(1, manager.getStats().getClosed());
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package br.com.thiagobianeck.gcdemobenchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Executa os benchmarks dos caches para cada quantidade de threads, com o GCProfiler ativo
+ *
+ * Configuração por propriedades de sistema (todas opcionais):
+ * <pre>
+ * -Dthreads=1,4,8            quantidades de threads
+ * -DcatalogSize=1000,10000   tamanhos de catálogo
+ * -DreadRatio=0.9,0.5        fração de leituras
+ * -Dinclude=ProductCacheBenchmark   (ou ObjectPoolBenchmark, MultiLevelCacheBenchmark)
+ * -Dresult=target/jmh-result.json
+ * </pre>
+ *
+ * Para a curva de escalabilidade do MultiLevelCache:
+ * {@code -Dinclude=MultiLevelCacheBenchmark -Dthreads=1,2,4,8,16,32,64}.
+ *
+ * Cada execução reporta ops/s (Throughput), percentis de latência incluindo
+ * p99 (SampleTime) e bytes alocados por operação ({@code gc.alloc.rate.norm}).
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException {
+        String include = System.getProperty("include", ProductCacheBenchmark.class.getSimpleName());
+        String result = System.getProperty("result", "target/jmh-result.json");
+
+        for (String threads : System.getProperty("threads", "1,4,8").split(",")) {
+            int threadCount = Integer.parseInt(threads.trim());
+            System.out.println("\n🚀 === BENCHMARK COM " + threadCount + " THREAD(S) ===");
+
+            ChainedOptionsBuilder options = new OptionsBuilder()
+                    .include(include)
+                    .threads(threadCount)
+                    .addProfiler(GCProfiler.class)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(result.replace(".json", "-t" + threadCount + ".json"));
+            param(options, "catalogSize");
+            param(options, "readRatio");
+
+            new Runner(options.build()).run();
+        }
+    }
+
+    private static void param(ChainedOptionsBuilder options, String name) {
+        String values = System.getProperty(name);
+        if (values != null) {
+            options.param(name, values.split(","));
+        }
+    }
+}
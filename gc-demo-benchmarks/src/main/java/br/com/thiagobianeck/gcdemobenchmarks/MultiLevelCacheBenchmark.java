@@ -0,0 +1,167 @@
+package br.com.thiagobianeck.gcdemobenchmarks;
+
+import br.com.thiagobianeck.codeflowreferences.cache.MultiLevelCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Escalabilidade do {@link MultiLevelCache} com o número de threads, contra um LRU com lock global
+ *
+ * Todas as chaves cabem no L1, então a carga mede só o caminho quente: leituras
+ * sem lock no cache novo contra o monitor único do {@link LinkedHashMap}. Com
+ * {@code readRatio=1.0} o ops/s do cache novo deve crescer quase linearmente
+ * com as threads, e o do LRU sincronizado deve parar de crescer (ou cair) logo
+ * nas primeiras. Rode pelo {@link BenchmarkRunner}:
+ * <pre>
+ * -Dinclude=MultiLevelCacheBenchmark -Dthreads=1,2,4,8,16,32,64
+ * </pre>
+ * Com mais threads que núcleos o ganho para; o ponto em que isso acontece é o
+ * limite da máquina, não do cache.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@Threads(4)
+@State(Scope.Benchmark)
+public class MultiLevelCacheBenchmark {
+
+    @Param({"MultiLevelCache", "SynchronizedLru"})
+    public String implementation;
+
+    @Param({"10000", "100000"})
+    public int catalogSize;
+
+    @Param({"1.0", "0.9"})
+    public double readRatio;
+
+    private CacheUnderTest cache;
+    private Integer[] keys;
+    private String[] values;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        cache = switch (implementation) {
+            case "MultiLevelCache" -> new TieredCache(catalogSize);
+            case "SynchronizedLru" -> new SynchronizedLru(catalogSize);
+            default -> throw new IllegalArgumentException("Implementação desconhecida: " + implementation);
+        };
+
+        // Chaves e valores criados antes: mede o cache, não o boxing nem a concatenação
+        keys = new Integer[catalogSize];
+        values = new String[catalogSize];
+        for (int i = 0; i < catalogSize; i++) {
+            keys[i] = i;
+            values[i] = "Produto " + i;
+            cache.write(keys[i], values[i]);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        cache.close();
+    }
+
+    @Benchmark
+    public Object mixed(ThreadState thread) {
+        int index = thread.random.nextInt(catalogSize);
+        if (readRatio >= 1.0 || thread.random.nextDouble() < readRatio) {
+            return cache.read(keys[index]);
+        }
+        cache.write(keys[index], values[index]);
+        return values[index];
+    }
+
+    /**
+     * Gerador por thread para não disputar um Random compartilhado
+     */
+    @State(Scope.Thread)
+    public static class ThreadState {
+        final SplittableRandom random = new SplittableRandom(Thread.currentThread().threadId());
+    }
+
+    /**
+     * Operações comuns aos dois caches
+     */
+    interface CacheUnderTest {
+        String read(Integer key);
+
+        void write(Integer key, String value);
+
+        void close();
+    }
+
+    static final class TieredCache implements CacheUnderTest {
+        private final MultiLevelCache<Integer, String> cache;
+
+        TieredCache(int capacity) {
+            this.cache = new MultiLevelCache<>(capacity, MultiLevelCache.STRING_CODEC);
+        }
+
+        @Override
+        public String read(Integer key) {
+            return cache.get(key);
+        }
+
+        @Override
+        public void write(Integer key, String value) {
+            cache.put(key, value);
+        }
+
+        @Override
+        public void close() {
+            cache.close();
+        }
+    }
+
+    /**
+     * LRU clássico: LinkedHashMap em ordem de acesso, com um monitor para tudo
+     *
+     * Até a leitura precisa do lock, porque reordena a lista.
+     */
+    static final class SynchronizedLru implements CacheUnderTest {
+        private final Map<Integer, String> map;
+
+        SynchronizedLru(int capacity) {
+            this.map = new LinkedHashMap<>(capacity * 4 / 3 + 1, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, String> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+
+        @Override
+        public synchronized String read(Integer key) {
+            return map.get(key);
+        }
+
+        @Override
+        public synchronized void write(Integer key, String value) {
+            map.put(key, value);
+        }
+
+        @Override
+        public synchronized void close() {
+            map.clear();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package br.com.thiagobianeck.gcdemobenchmarks;
+
+import br.com.thiagobianeck.gcdemoproject.model.Product;
+import br.com.thiagobianeck.gcdemoproject.pool.ObjectPool;
+import br.com.thiagobianeck.gcdemoproject.pool.Pools;
+import br.com.thiagobianeck.gcdemoproject.store.ProductRecordFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Alocação por operação com e sem {@link ObjectPool}, para StringBuilder, byte[] e ByteBuffer direto
+ *
+ * Cada par faz o mesmo trabalho; só muda a origem do buffer. Rode com
+ * {@code -prof gc} e compare {@code gc.alloc.rate.norm}: as variantes com pool
+ * devem ficar perto de zero bytes/op. O objeto é entregue ao Blackhole para a
+ * análise de escape não eliminar a alocação das variantes sem pool.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms512m", "-Xmx512m"})
+@Threads(4)
+@State(Scope.Benchmark)
+public class ObjectPoolBenchmark {
+    private static final int BUFFER_SIZE = 4 * 1024;
+
+    private ObjectPool<StringBuilder> builders;
+    private ObjectPool<byte[]> arrays;
+    private ObjectPool<ByteBuffer> directBuffers;
+    private ByteBuffer record;
+
+    @Setup
+    public void setUp() {
+        builders = Pools.newStringBuilderPool("benchmark", Pools.STRING_BUILDER_CAPACITY, 64);
+        arrays = Pools.newByteArrayPool("benchmark", BUFFER_SIZE, 64);
+        directBuffers = Pools.newDirectBufferPool("benchmark", BUFFER_SIZE, 64);
+
+        record = ByteBuffer.allocate(ProductRecordFormat.RECORD_SIZE);
+        ProductRecordFormat.write(record, 0, new Product(42L, "Produto 42", "Descrição do produto 42",
+                new BigDecimal("19.90"), "Categoria 2"));
+    }
+
+    @Benchmark
+    public void stringBuilderAllocated(Blackhole blackhole) {
+        StringBuilder builder = new StringBuilder(Pools.STRING_BUILDER_CAPACITY);
+        appendLine(builder);
+        blackhole.consume(builder);
+    }
+
+    @Benchmark
+    public void stringBuilderPooled(Blackhole blackhole) {
+        StringBuilder builder = builders.acquire();
+        appendLine(builder);
+        blackhole.consume(builder);
+        builders.release(builder);
+    }
+
+    @Benchmark
+    public void byteArrayAllocated(Blackhole blackhole) {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        record.get(0, buffer, 0, ProductRecordFormat.RECORD_SIZE);
+        blackhole.consume(buffer);
+    }
+
+    @Benchmark
+    public void byteArrayPooled(Blackhole blackhole) {
+        byte[] buffer = arrays.acquire();
+        record.get(0, buffer, 0, ProductRecordFormat.RECORD_SIZE);
+        blackhole.consume(buffer);
+        arrays.release(buffer);
+    }
+
+    @Benchmark
+    public void directBufferAllocated(Blackhole blackhole) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        buffer.put(0, record, 0, ProductRecordFormat.RECORD_SIZE);
+        blackhole.consume(buffer);
+    }
+
+    @Benchmark
+    public void directBufferPooled(Blackhole blackhole) {
+        ByteBuffer buffer = directBuffers.acquire();
+        buffer.put(0, record, 0, ProductRecordFormat.RECORD_SIZE);
+        blackhole.consume(buffer);
+        directBuffers.release(buffer);
+    }
+
+    /**
+     * Leitura de um registro off-heap: os três textos passam pelo array do pool compartilhado
+     */
+    @Benchmark
+    public Product recordRead() {
+        return ProductRecordFormat.read(record, 0);
+    }
+
+    private static void appendLine(StringBuilder builder) {
+        builder.append("Produto ").append(42).append(';').append("Categoria 2").append(';').append(1990L);
+    }
+}
@@ -0,0 +1,181 @@
+package br.com.thiagobianeck.gcdemobenchmarks;
+
+import br.com.thiagobianeck.gcdemoproject.cache.ImprovedProductCache;
+import br.com.thiagobianeck.gcdemoproject.cache.ProductCache;
+import br.com.thiagobianeck.gcdemoproject.model.Product;
+import br.com.thiagobianeck.gcdemoproject.model.ProductTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Carga mista de leituras por ID e escritas de um produto sobre os dois caches
+ *
+ * Parâmetros: implementação, tamanho do catálogo e fração de leituras. O número
+ * de threads vem de {@code -t} na linha de comando ou do {@link BenchmarkRunner}.
+ * Rode com {@code -prof gc} para obter bytes/op ({@code gc.alloc.rate.norm}).
+ *
+ * {@link ProductCache} não é thread-safe, então suas operações são serializadas
+ * aqui, como qualquer chamador real teria de fazer. A lista estática dele cresce
+ * a cada escrita e é esvaziada a cada iteração para o benchmark não estourar a heap.
+ * Como as escritas vão para o fim da lista, a busca linear por ID para na cópia
+ * carregada no início da iteração: a varredura de uma leitura não passa de
+ * {@code catalogSize}, mas a lista (e o trabalho do GC) cresce durante a iteração,
+ * e as leituras devolvem o valor antigo.
+ *
+ * No {@link ImprovedProductCache}, cada escrita é um delta de um produto com a
+ * próxima versão, escolhida sob o lock do cache. Toda escrita é aplicada, nenhuma
+ * é descartada como atrasada, e custa a cópia da categoria do produto, o preço de
+ * publicar snapshots imutáveis.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@Threads(4)
+@State(Scope.Benchmark)
+public class ProductCacheBenchmark {
+
+    @Param({"ProductCache", "ImprovedProductCache"})
+    public String implementation;
+
+    @Param({"1000", "10000"})
+    public int catalogSize;
+
+    @Param({"0.9", "0.5"})
+    public double readRatio;
+
+    private CacheUnderTest cache;
+    private Product[] updates;
+    private PrintStream originalOut;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Os caches imprimem a cada carga; no benchmark isso só mede o console
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        cache = switch (implementation) {
+            case "ProductCache" -> new LegacyCache(catalogSize);
+            case "ImprovedProductCache" -> new ImprovedCache(catalogSize);
+            default -> throw new IllegalArgumentException("Implementação desconhecida: " + implementation);
+        };
+
+        // Produtos das escritas criados antes: mede o cache, não o construtor de Product
+        updates = new Product[catalogSize];
+        for (int i = 0; i < catalogSize; i++) {
+            updates[i] = new Product((long) i, "Produto " + i, "Descrição atualizada do produto " + i,
+                    new BigDecimal(i % 1000 + 1), "Categoria " + (i % 10));
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void resetIteration() {
+        cache.reset();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    @Benchmark
+    public Object mixed(ThreadState thread) {
+        int id = thread.random.nextInt(catalogSize);
+        if (thread.random.nextDouble() < readRatio) {
+            return cache.read(id);
+        }
+        cache.write(updates[id]);
+        return updates[id];
+    }
+
+    /**
+     * Gerador por thread para não disputar um Random compartilhado
+     */
+    @State(Scope.Thread)
+    public static class ThreadState {
+        final SplittableRandom random = new SplittableRandom(Thread.currentThread().threadId());
+    }
+
+    /**
+     * Operações comuns aos dois caches
+     */
+    interface CacheUnderTest {
+        Product read(long id);
+
+        void write(Product product);
+
+        void reset();
+    }
+
+    static final class LegacyCache implements CacheUnderTest {
+        private final ProductCache cache;
+
+        LegacyCache(int catalogSize) {
+            this.cache = new ProductCache(catalogSize);
+        }
+
+        @Override
+        public synchronized Product read(long id) {
+            return cache.getProductById(id);
+        }
+
+        @Override
+        public synchronized void write(Product product) {
+            cache.addProduct(product);
+        }
+
+        @Override
+        public synchronized void reset() {
+            cache.clearCache();
+            cache.loadProducts();
+        }
+    }
+
+    static final class ImprovedCache implements CacheUnderTest {
+        private final ImprovedProductCache cache;
+        private final ProductTable catalog;
+
+        ImprovedCache(int catalogSize) {
+            this.cache = new ImprovedProductCache(catalogSize);
+            this.catalog = new ProductTable(catalogSize);
+            for (int i = 0; i < catalogSize; i++) {
+                catalog.add(i, "Produto " + i, "Descrição do produto " + i, 100L * (i % 1000 + 1),
+                        "Categoria " + (i % 10), System.currentTimeMillis());
+            }
+        }
+
+        @Override
+        public Product read(long id) {
+            return cache.getProductById(id);
+        }
+
+        @Override
+        public void write(Product product) {
+            cache.updateProduct(product);
+        }
+
+        @Override
+        public void reset() {
+            cache.loadProducts(catalog);
+        }
+    }
+}
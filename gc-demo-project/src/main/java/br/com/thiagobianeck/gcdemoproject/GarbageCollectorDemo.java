@@ -1,20 +1,50 @@
 package br.com.thiagobianeck.gcdemoproject;
 
+import br.com.thiagobianeck.gcdemoproject.cache.AdaptiveCacheSizer;
 import br.com.thiagobianeck.gcdemoproject.cache.ImprovedProductCache;
 import br.com.thiagobianeck.gcdemoproject.cache.ProductCache;
+import br.com.thiagobianeck.gcdemoproject.cache.ProductOrder;
+import br.com.thiagobianeck.gcdemoproject.model.Product;
+import br.com.thiagobianeck.gcdemoproject.model.ProductTable;
 import br.com.thiagobianeck.gcdemoproject.model.User;
+import br.com.thiagobianeck.gcdemoproject.pool.ObjectPool;
+import br.com.thiagobianeck.gcdemoproject.pool.Pools;
+import br.com.thiagobianeck.gcdemoproject.store.BulkProductLoader;
+import br.com.thiagobianeck.gcdemoproject.util.AllocationProfiler;
+import br.com.thiagobianeck.gcdemoproject.util.GcPauseRecorder;
+import br.com.thiagobianeck.gcdemoproject.util.LeakDetector;
 import br.com.thiagobianeck.gcdemoproject.util.MemoryMonitor;
+import br.com.thiagobianeck.gcdemoproject.util.MemorySampler;
+import br.com.thiagobianeck.gcdemoproject.util.MetricsExporter;
+import br.com.thiagobianeck.gcdemoproject.util.StringInterner;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
 import java.lang.ref.WeakReference;
 import java.lang.ref.SoftReference;
 import java.lang.ref.PhantomReference;
 import java.lang.ref.ReferenceQueue;
+import java.math.BigDecimal;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Demonstração completa do funcionamento do Garbage Collector
  *
+ * Os cenários rodam em sequência na mesma JVM, então cada um herda a heap e o JIT
+ * do anterior. Para comparar coletores com números reproduzíveis, use
+ * {@link br.com.thiagobianeck.gcdemoproject.scenario.ScenarioRunner}.
+ *
  * @author Thiago Bianeck
  * @version 1.0
  */
@@ -51,13 +81,27 @@ public class GarbageCollectorDemo {
 
         ProductCache cacheProblematico = new ProductCache();
 
-        // Simula o problema: acúmulo de objetos
-        for (int i = 0; i < 5; i++) {
-            cacheProblematico.loadProducts();
-            memoryMonitor.printMemoryInfo("Iteração " + (i + 1));
-        }
+        // Detector avalia a old-gen após cada GC; janela curta para caber na demo
+        try (LeakDetector detector = new LeakDetector(5, 0.9, 100 * 1024, LeakDetector.CaptureMode.CLASS_HISTOGRAM,
+                java.time.Duration.ofMinutes(10), java.nio.file.Path.of(System.getProperty("java.io.tmpdir"))).start()) {
+            // Simula o problema: acúmulo de objetos
+            for (int i = 0; i < 5; i++) {
+                cacheProblematico.loadProducts();
+                System.gc();
+                memoryMonitor.printMemoryInfo("Iteração " + (i + 1));
+            }
 
-        System.out.println("❌ Problema identificado: Objetos acumulando na memória!");
+            try {
+                Thread.sleep(2000); // Tempo para a captura do histograma terminar
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (detector.getLastReport() != null) {
+                System.out.println("❌ Problema identificado automaticamente: Objetos acumulando na memória!");
+            } else {
+                System.out.println("❌ Problema identificado: Objetos acumulando na memória!");
+            }
+        }
     }
 
     /**
@@ -78,12 +122,27 @@ public class GarbageCollectorDemo {
         memoryMonitor.printMemoryInfo("Após limpeza");
 
         ImprovedProductCache cacheOtimizado = new ImprovedProductCache();
+        // Estatísticas visíveis no JConsole em br.com.thiagobianeck.gcdemoproject:type=CacheStats
+        cacheOtimizado.getStats().register("ImprovedProductCache");
+
+        // Capacidade acompanha a ocupação da old-gen após cada GC
+        try (AdaptiveCacheSizer sizer = new AdaptiveCacheSizer(cacheOtimizado, 0.5, 0.8, 0.25, 1000)) {
+            sizer.start();
+            // Demonstra o cache otimizado
+            for (int i = 0; i < 5; i++) {
+                cacheOtimizado.loadProducts();
+                memoryMonitor.printMemoryInfo("Iteração otimizada " + (i + 1));
+            }
+        }
 
-        // Demonstra o cache otimizado
-        for (int i = 0; i < 5; i++) {
-            cacheOtimizado.loadProducts();
-            memoryMonitor.printMemoryInfo("Iteração otimizada " + (i + 1));
+        // Atualizações incrementais: só o que mudou desde a última versão
+        for (int i = 0; i < 3; i++) {
+            cacheOtimizado.refreshProducts();
         }
+        System.out.println("🔁 Catálogo na versão " + cacheOtimizado.getCatalogVersion() + " após refresh incremental");
+
+        System.out.println("📈 " + cacheOtimizado.getCacheInfo());
+        System.out.println("📊 " + cacheOtimizado.getStats());
 
         System.out.println("✅ Solução implementada: Memória controlada!");
     }
@@ -156,6 +215,77 @@ public class GarbageCollectorDemo {
         System.out.println("- Heap usada: " + formatBytes(memoryBean.getHeapMemoryUsage().getUsed()));
         System.out.println("- Heap máxima: " + formatBytes(memoryBean.getHeapMemoryUsage().getMax()));
         System.out.println("- Non-Heap usada: " + formatBytes(memoryBean.getNonHeapMemoryUsage().getUsed()));
+
+        // Amostragem contínua: histórico em buffer circular, consultado por janela
+        try (MemorySampler sampler = new MemorySampler(java.time.Duration.ofMillis(20), 256).start();
+             GcPauseRecorder pauseRecorder = new GcPauseRecorder().start()) {
+            memoryMonitor.attachSampler(sampler);
+            long fim = System.currentTimeMillis() + 500;
+            while (System.currentTimeMillis() < fim) {
+                byte[] lixo = new byte[64 * 1024];
+                lixo[0] = 1;
+            }
+            System.out.println("\nAmostragem contínua (última janela de 1s):");
+            System.out.println("- " + sampler.getStats("heap.used", java.time.Duration.ofSeconds(1)));
+            System.out.println("- Uso da heap (amostrado): " + String.format("%.1f%%", memoryMonitor.getHeapUsagePercent()));
+
+            // Pausas individuais, não só o tempo acumulado
+            System.out.println("\nPausas de GC no período:");
+            System.out.println("- " + pauseRecorder.closeWindow());
+            pauseRecorder.getRecentEvents().stream()
+                    .skip(Math.max(0, pauseRecorder.getRecentEvents().size() - 3))
+                    .forEach(event -> System.out.println("  └─ " + event));
+
+            // Mesmas métricas para o Prometheus, em /metrics (porta livre no loopback, aberta só nesta seção)
+            try (MetricsExporter exporter = new MetricsExporter(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0))
+                    .attachSampler(sampler)
+                    .attachPauseRecorder(pauseRecorder)
+                    .start()) {
+                raspar(exporter);
+            }
+            memoryMonitor.attachSampler(null);
+        }
+
+        // Bytes alocados por operação, medidos pelo contador da thread
+        if (AllocationProfiler.isSupported()) {
+            AllocationProfiler profiler = new AllocationProfiler();
+            ProductCache cacheProblematico = new ProductCache();
+            ImprovedProductCache cacheOtimizado = new ImprovedProductCache();
+            cacheOtimizado.loadProducts();
+            for (int i = 0; i < 20; i++) {
+                profiler.measure("ProductCache.loadProducts", cacheProblematico::loadProducts);
+                profiler.measure("ImprovedProductCache.getProductsByCategory",
+                        () -> cacheOtimizado.getProductsByCategory("Categoria 3"));
+                profiler.measure("ImprovedProductCache.getProductsByCategory(PRICE)",
+                        () -> cacheOtimizado.getProductsByCategory("Categoria 3", ProductOrder.PRICE));
+            }
+            cacheProblematico.clearCache();
+
+            System.out.println("\nAlocação por operação:");
+            profiler.getAllStats().values().forEach(stats -> System.out.println("- " + stats));
+        }
+    }
+
+    /**
+     * Faz um scrape de /metrics enquanto o exporter está aberto e mostra as primeiras amostras
+     */
+    private static void raspar(MetricsExporter exporter) {
+        URI uri = URI.create("http://" + InetAddress.getLoopbackAddress().getHostAddress() + ":" +
+                exporter.getPort() + "/metrics");
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            HttpResponse<String> resposta = client.send(HttpRequest.newBuilder(uri).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            System.out.println("\n📡 Scrape de /metrics: HTTP " + resposta.statusCode() + ", " +
+                    resposta.body().lines().count() + " linhas OpenMetrics");
+            resposta.body().lines()
+                    .filter(linha -> !linha.startsWith("#"))
+                    .limit(3)
+                    .forEach(linha -> System.out.println("  └─ " + linha));
+        } catch (IOException e) {
+            System.out.println("⚠️ Scrape de /metrics falhou: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
     }
 
     /**
@@ -175,6 +305,12 @@ public class GarbageCollectorDemo {
 
         // 4. Lazy initialization
         demonstrarLazyInitialization();
+
+        // 5. Representação colunar
+        demonstrarTabelaColunar();
+
+        // 6. Carga em massa de arquivos exportados
+        demonstrarCargaEmMassa();
     }
 
     private static void demonstrarReutilizacaoObjetos() {
@@ -213,31 +349,56 @@ public class GarbageCollectorDemo {
         System.out.println("- str1 == str2: " + (str1 == str2) + " (string literals)");
         System.out.println("- str1 == str3: " + (str1 == str3) + " (new String)");
         System.out.println("- str1 == str4: " + (str1 == str4) + " (após intern())");
+
+        // Interner de domínio: tabela própria e fraca, usada pelos carregadores de produtos
+        StringInterner interner = StringInterner.domain();
+        ProductCache cache = new ProductCache();
+        for (int i = 0; i < 3; i++) {
+            cache.loadProducts();
+        }
+        List<Product> produtos = cache.getAllProducts();
+        System.out.println("- \"Produto 0\" da 1ª e da 2ª carga, mesma instância: " +
+                (produtos.get(0).getName() == produtos.get(1000).getName()));
+        System.out.println("- " + interner);
+        System.out.println("- -XX:+UseStringDeduplication ativo: " + isVmOptionEnabled("UseStringDeduplication"));
+        cache.clearCache();
+    }
+
+    private static boolean isVmOptionEnabled(String option) {
+        com.sun.management.HotSpotDiagnosticMXBean diagnostic = java.lang.management.ManagementFactory
+                .getPlatformMXBean(com.sun.management.HotSpotDiagnosticMXBean.class);
+        return diagnostic != null && Boolean.parseBoolean(diagnostic.getVMOption(option).getValue());
     }
 
     private static void demonstrarObjectPools() {
         System.out.println("\n3. Object Pools:");
 
-        // Exemplo simples de pool
-        Queue<StringBuilder> pool = new ArrayDeque<>();
-
-        // Inicializa pool
-        for (int i = 0; i < 10; i++) {
-            pool.offer(new StringBuilder());
+        // Pool thread-safe: pilha local por thread + faixas compartilhadas, com reset na devolução
+        ObjectPool<StringBuilder> pool = Pools.newStringBuilderPool("demo", 64, 16);
+
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            int thread = t;
+            threads[t] = Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    StringBuilder sb = pool.acquire();
+                    try {
+                        sb.append("Thread ").append(thread).append(" - item ").append(i);
+                    } finally {
+                        pool.release(sb); // Reset limpa o conteúdo antes do próximo uso
+                    }
+                }
+            });
         }
-
-        // Usa objeto do pool
-        StringBuilder sb = pool.poll();
-        if (sb != null) {
-            sb.append("Usando objeto do pool");
-            System.out.println("- " + sb.toString());
-
-            // Retorna ao pool após uso
-            sb.setLength(0); // Limpa
-            pool.offer(sb);
+        for (Thread thread : threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
         }
 
-        System.out.println("- Pool size: " + pool.size());
+        System.out.println("- " + pool);
     }
 
     private static void demonstrarLazyInitialization() {
@@ -266,6 +427,50 @@ public class GarbageCollectorDemo {
         System.out.println("- Cache usado pela primeira vez");
     }
 
+    private static void demonstrarTabelaColunar() {
+        System.out.println("\n5. Tabela colunar (struct-of-arrays):");
+
+        List<Product> produtos = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            produtos.add(new Product((long) i, "Produto " + i, "Descrição do produto " + i,
+                    new BigDecimal(i % 1000 + 1), "Categoria " + (i % 10)));
+        }
+
+        ProductTable tabela = ProductTable.from(produtos);
+        System.out.println(tabela.compareWith(produtos));
+
+        ImprovedProductCache cache = new ImprovedProductCache(20_000);
+        cache.loadProducts(tabela);
+        System.out.println("- Produto via visão: " + cache.getProductById(42L));
+    }
+
+    private static void demonstrarCargaEmMassa() {
+        System.out.println("\n6. Carga em massa (arquivo mapeado, blocos em paralelo):");
+
+        try {
+            Path arquivo = Files.createTempFile("produtos", ".csv");
+            try {
+                try (BufferedWriter writer = Files.newBufferedWriter(arquivo, StandardCharsets.UTF_8)) {
+                    writer.write("id,name,description,price,category\n");
+                    for (int i = 0; i < 200_000; i++) {
+                        writer.write(i + ",Produto " + i + ",\"Descrição, com vírgula " + i + "\"," +
+                                (i % 1000 + 1) + ".90,Categoria " + (i % 10) + "\n");
+                    }
+                }
+
+                ImprovedProductCache cache = new ImprovedProductCache(20_000);
+                BulkProductLoader loader = new BulkProductLoader(ForkJoinPool.commonPool(), 1024 * 1024,
+                        BulkProductLoader.DEFAULT_BATCH_SIZE);
+                System.out.println(cache.loadProducts(arquivo, loader));
+                System.out.println("- Produto carregado: " + cache.getProductById(42L));
+            } finally {
+                Files.deleteIfExists(arquivo);
+            }
+        } catch (IOException e) {
+            System.out.println("❌ Erro na carga em massa: " + e.getMessage());
+        }
+    }
+
     private static String formatBytes(long bytes) {
         if (bytes < 1024) return bytes + " B";
         if (bytes < 1024 * 1024) return String.format("%.1f KB", bytes / 1024.0);
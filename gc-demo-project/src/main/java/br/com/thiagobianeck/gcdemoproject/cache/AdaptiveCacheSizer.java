@@ -0,0 +1,190 @@
+package br.com.thiagobianeck.gcdemoproject.cache;
+
+import br.com.thiagobianeck.gcdemoproject.util.GcNotifications;
+import br.com.thiagobianeck.gcdemoproject.util.MemoryMonitor;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryNotificationInfo;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryUsage;
+
+/**
+ * Ajusta a capacidade do {@link ImprovedProductCache} conforme a pressão de memória
+ *
+ * Em vez de depender só da política opaca da JVM para limpar SoftReferences (que
+ * costuma apagar tudo de uma vez antes de um Full GC), o cache encolhe aos poucos
+ * quando a ocupação da geração antiga após o GC passa da marca alta e volta a
+ * crescer quando fica abaixo da marca baixa.
+ *
+ * Os sinais vêm das notificações de fim de coleta dos GarbageCollectorMXBeans e do
+ * threshold de uso após coleta ({@code collectionUsageThreshold}) da pool old-gen.
+ * Só contam coletas que limparam a old-gen: depois de uma coleta jovem ela só
+ * cresceu com a promoção, e o uso pós-coleta da pool ainda é o da última major.
+ */
+public class AdaptiveCacheSizer implements AutoCloseable {
+    private final ImprovedProductCache cache;
+    private final MemoryPoolMXBean oldGenPool;
+    private final MemoryMonitor memoryMonitor = new MemoryMonitor();
+    private final double lowWatermark;
+    private final double highWatermark;
+    private final int baselineSize;
+    private final int minimumSize;
+    private final int step;
+
+    private final NotificationListener thresholdListener = this::onThresholdExceeded;
+    private GcNotifications.Subscription gcSubscription;
+    private volatile boolean thresholdArmed;
+    // O bean da pool é global da JVM: o threshold de quem veio antes volta no close()
+    private long previousThreshold;
+
+    /**
+     * @param cache         cache a ser redimensionado
+     * @param lowWatermark  ocupação pós-GC (0.0 a 1.0) abaixo da qual o cache cresce
+     * @param highWatermark ocupação pós-GC (0.0 a 1.0) acima da qual o cache encolhe
+     * @param stepRatio     fração da capacidade original ajustada a cada passo
+     * @param minimumSize   capacidade mínima, nunca reduzida abaixo disso
+     */
+    public AdaptiveCacheSizer(ImprovedProductCache cache, double lowWatermark, double highWatermark,
+                              double stepRatio, int minimumSize) {
+        if (lowWatermark <= 0.0 || highWatermark >= 1.0 || lowWatermark >= highWatermark) {
+            throw new IllegalArgumentException("Marcas inválidas: baixa=" + lowWatermark + ", alta=" + highWatermark);
+        }
+        if (stepRatio <= 0.0 || stepRatio > 1.0) {
+            throw new IllegalArgumentException("stepRatio deve estar entre 0 e 1: " + stepRatio);
+        }
+        this.cache = cache;
+        this.oldGenPool = MemoryMonitor.findOldGenPool();
+        this.lowWatermark = lowWatermark;
+        this.highWatermark = highWatermark;
+        this.baselineSize = cache.getMaximumSize();
+        this.minimumSize = Math.max(1, Math.min(minimumSize, baselineSize));
+        this.step = Math.max(1, (int) (baselineSize * stepRatio));
+    }
+
+    /**
+     * Passa a escutar as notificações de GC e o threshold da pool old-gen
+     */
+    public synchronized AdaptiveCacheSizer start() {
+        if (gcSubscription != null) {
+            return this;
+        }
+
+        if (oldGenPool != null) {
+            long max = oldGenPool.getUsage().getMax();
+            if (max > 0) {
+                previousThreshold = oldGenPool.getCollectionUsageThreshold();
+                oldGenPool.setCollectionUsageThreshold((long) (max * highWatermark));
+                thresholdArmed = true;
+            }
+        }
+        ((NotificationEmitter) ManagementFactory.getMemoryMXBean())
+                .addNotificationListener(thresholdListener, null, null);
+        gcSubscription = GcNotifications.subscribe(info -> {
+            if (oldGenPool == null) {
+                // Sem pool old-gen identificável, só as majors dizem algo sobre a heap inteira
+                if (info.getGcAction().contains("major")) {
+                    onOccupancy(memoryMonitor.getHeapUsagePercent() / 100);
+                }
+                return;
+            }
+            MemoryUsage before = info.getGcInfo().getMemoryUsageBeforeGc().get(oldGenPool.getName());
+            MemoryUsage after = info.getGcInfo().getMemoryUsageAfterGc().get(oldGenPool.getName());
+            if (before != null && after != null) {
+                onCollection(info.getGcAction(), before, after);
+            }
+        });
+        return this;
+    }
+
+    /**
+     * Aplica um passo de ajuste para a ocupação informada
+     *
+     * @return a nova capacidade do cache
+     */
+    synchronized int adjust(double occupancy) {
+        int current = cache.getMaximumSize();
+        int target = current;
+
+        if (occupancy > highWatermark) {
+            target = Math.max(minimumSize, current - step);
+        } else if (occupancy >= 0 && occupancy < lowWatermark) {
+            target = Math.min(baselineSize, current + step);
+        }
+
+        if (target != current) {
+            cache.setMaximumSize(target);
+            System.out.printf("📐 Capacidade do cache ajustada: %d -> %d (ocupação pós-GC %.1f%%)%n",
+                    current, target, occupancy * 100);
+        }
+        return target;
+    }
+
+    /**
+     * Avalia uma coleta pelo uso da old-gen antes e depois dela, vindo da própria notificação
+     *
+     * Como no {@code LeakDetector}, só conta a coleta que se declara major ou que
+     * encolheu a old-gen (mista no G1, pausas do ciclo concorrente).
+     */
+    void onCollection(String gcAction, MemoryUsage oldGenBefore, MemoryUsage oldGenAfter) {
+        if (!gcAction.contains("major") && oldGenAfter.getUsed() >= oldGenBefore.getUsed()) {
+            return;
+        }
+        double occupancy = occupancy(oldGenAfter);
+        if (occupancy >= 0) {
+            onOccupancy(occupancy);
+        }
+    }
+
+    private void onOccupancy(double occupancy) {
+        // Com o threshold armado, a redução chega pela notificação da pool (um passo por coleta)
+        if (thresholdArmed && occupancy > highWatermark) {
+            return;
+        }
+        adjust(occupancy);
+    }
+
+    private void onThresholdExceeded(Notification notification, Object handback) {
+        if (!MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED.equals(notification.getType())) {
+            return;
+        }
+        MemoryNotificationInfo info = MemoryNotificationInfo.from((CompositeData) notification.getUserData());
+        if (oldGenPool != null && oldGenPool.getName().equals(info.getPoolName())) {
+            // O threshold de uso após coleta só dispara depois de uma coleta da própria pool
+            double occupancy = occupancy(info.getUsage());
+            if (occupancy >= 0) {
+                adjust(occupancy);
+            }
+        }
+    }
+
+    /**
+     * Ocupação (0.0 a 1.0) do uso informado, ou -1 se o tamanho da pool for desconhecido
+     */
+    private static double occupancy(MemoryUsage usage) {
+        long max = usage.getMax() > 0 ? usage.getMax() : usage.getCommitted();
+        return max > 0 ? (double) usage.getUsed() / max : -1;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (gcSubscription == null) {
+            return;
+        }
+        gcSubscription.close();
+        gcSubscription = null;
+        if (thresholdArmed) {
+            oldGenPool.setCollectionUsageThreshold(previousThreshold);
+            thresholdArmed = false;
+        }
+        try {
+            ((NotificationEmitter) ManagementFactory.getMemoryMXBean()).removeNotificationListener(thresholdListener);
+        } catch (ListenerNotFoundException e) {
+            // Já removido
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package br.com.thiagobianeck.gcdemoproject.cache;
+
+import br.com.thiagobianeck.gcdemoproject.model.Product;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Conjunto de alterações do catálogo desde a última versão publicada
+ *
+ * Produtos são identificados pelo ID: {@code upserts} traz os novos e os alterados,
+ * {@code removedIds} os que saíram do catálogo. A versão é monotônica; deltas com
+ * versão menor ou igual à do snapshot atual são ignorados (duplicados ou atrasados).
+ */
+public class CatalogDelta {
+    private final long version;
+    private final List<Product> upserts;
+    private final Set<Long> removedIds;
+
+    public CatalogDelta(long version, List<Product> upserts, Set<Long> removedIds) {
+        this.version = version;
+        this.upserts = List.copyOf(upserts);
+        this.removedIds = Set.copyOf(removedIds);
+    }
+
+    public long getVersion() { return version; }
+
+    public List<Product> getUpserts() { return upserts; }
+
+    public Set<Long> getRemovedIds() { return removedIds; }
+
+    public boolean isEmpty() {
+        return upserts.isEmpty() && removedIds.isEmpty();
+    }
+
+    public int size() {
+        return upserts.size() + removedIds.size();
+    }
+
+    @Override
+    public String toString() {
+        return "CatalogDelta{" +
+                "version=" + version +
+                ", upserts=" + upserts.size() +
+                ", removed=" + removedIds.size() +
+                '}';
+    }
+}
@@ -1,10 +1,27 @@
 package br.com.thiagobianeck.gcdemoproject.cache;
 
+import br.com.thiagobianeck.gcdemoproject.jfr.CacheEvictionEvent;
+import br.com.thiagobianeck.gcdemoproject.jfr.CatalogReloadEvent;
+import br.com.thiagobianeck.gcdemoproject.jfr.ProductLoadEvent;
+import br.com.thiagobianeck.gcdemoproject.jfr.SoftReferenceClearedEvent;
 import br.com.thiagobianeck.gcdemoproject.model.Product;
+import br.com.thiagobianeck.gcdemoproject.model.ProductTable;
+import br.com.thiagobianeck.gcdemoproject.store.BulkProductLoader;
+import br.com.thiagobianeck.gcdemoproject.store.OffHeapProductStore;
+import br.com.thiagobianeck.gcdemoproject.util.CacheStats;
 
-import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
 import java.lang.ref.SoftReference;
 
 /**
@@ -12,10 +29,55 @@ import java.lang.ref.SoftReference;
  * Esta é a solução que Marina propôs
  */
 public class ImprovedProductCache {
-    private final Map<String, SoftReference<List<Product>>> categoryCache = new ConcurrentHashMap<>();
-    private final Map<Long, SoftReference<Product>> productCache = new ConcurrentHashMap<>();
-    private static final Random random = new Random();
+    private final AtomicReference<CatalogSnapshot> catalog = new AtomicReference<>(CatalogSnapshot.EMPTY);
+    private final Object reloadLock = new Object();
+    // Estado usado só pelos escritores (protegido por reloadLock)
+    private final Map<Long, String> categoryIndex = new HashMap<>();
+    // Também alterado por purgeCategory, que roda no caminho de leitura sem reloadLock
+    private final Set<String> lostCategories = ConcurrentHashMap.newKeySet();
+    // Mudanças no mapa e na política acontecem juntas, sob o monitor de evictionPolicy
+    private final Map<Long, ProductReference> productCache = new ConcurrentHashMap<>();
     private static final int MAX_CACHE_SIZE = 10000;
+    private static final double DEFAULT_WINDOW_RATIO = 0.01;
+    private static final int MAX_DRAIN_PER_OPERATION = 32;
+
+    private final TinyLfuPolicy<Long> evictionPolicy;
+    private final ReferenceQueue<Object> collectedQueue = new ReferenceQueue<>();
+    private final CacheStats stats = new CacheStats(productCache::size);
+    private final LongAdder collectedCategories = new LongAdder();
+    private volatile OffHeapProductStore offHeapStore;
+
+    private final SimulatedProductDatabase database;
+    private final Map<Long, CompletableFuture<Product>> inFlightLoads = new ConcurrentHashMap<>();
+    private final ExecutorService loadExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private volatile ProductLoader loader;
+    private volatile long refreshAfterWriteNanos;
+    private volatile long expireAfterWriteNanos;
+
+    public ImprovedProductCache() {
+        this(MAX_CACHE_SIZE);
+    }
+
+    public ImprovedProductCache(int maximumSize) {
+        this(maximumSize, DEFAULT_WINDOW_RATIO);
+    }
+
+    /**
+     * @param maximumSize número máximo de produtos mantidos no cache
+     * @param windowRatio fração do cache usada pela janela LRU do W-TinyLFU
+     */
+    public ImprovedProductCache(int maximumSize, double windowRatio) {
+        this(maximumSize, windowRatio, new SimulatedProductDatabase());
+    }
+
+    /**
+     * @param database banco (simulado) usado nas cargas e como loader padrão
+     */
+    public ImprovedProductCache(int maximumSize, double windowRatio, SimulatedProductDatabase database) {
+        this.evictionPolicy = new TinyLfuPolicy<>(maximumSize, windowRatio);
+        this.database = database;
+        this.loader = database;
+    }
 
     /*
      * 🔄 SOLUÇÃO: Carrega produtos de forma otimizada
@@ -25,139 +87,727 @@ public class ImprovedProductCache {
 
     /**
      * ✅ SOLUÇÃO: Gerencia memória adequadamente
+     *
+     * O novo catálogo é montado à parte e publicado com uma única troca atômica,
+     * então leitores nunca veem categorias antigas misturadas com novas.
      */
     public void loadProducts() {
         System.out.println("🔄 Carregando produtos (método otimizado)...");
 
-        // Limpa cache antigo se necessário
-        cleanupCache();
-
         // Simula carregamento do banco de dados
-        List<Product> newProducts = simulateProductsFromDatabase();
+        publishCatalog(database.findAll());
+    }
+
+    /**
+     * Recarrega o catálogo em uma virtual thread; leitores seguem no snapshot atual até a troca
+     */
+    public CompletableFuture<Void> loadProductsAsync() {
+        return CompletableFuture.runAsync(this::loadProducts, loadExecutor);
+    }
+
+    /**
+     * Carrega o catálogo a partir de uma {@link ProductTable} colunar
+     *
+     * Os produtos em cache passam a ser visões leves sobre a tabela, que concentra
+     * os dados em poucos arrays primitivos.
+     */
+    public void loadProducts(ProductTable table) {
+        System.out.println("🔄 Carregando produtos da tabela colunar (" + table.size() + " linhas)...");
+        // Uma visão por linha, compartilhada entre o cache por ID e as listas por categoria
+        publishCatalog(new ArrayList<>(table.views()));
+    }
+
+    /**
+     * Carrega o catálogo de um arquivo exportado (CSV ou binário) com o {@link BulkProductLoader}
+     *
+     * Os lotes chegam em paralelo e são acumulados; o catálogo é publicado uma única
+     * vez no final. Aplicar cada lote como delta remontaria as categorias tocadas a
+     * cada lote, e leitores veriam um catálogo pela metade durante a carga.
+     */
+    public BulkProductLoader.Result loadProducts(Path file, BulkProductLoader loader) {
+        System.out.println("🔄 Carregando produtos de " + file.getFileName() + "...");
+        List<Product> loaded = new ArrayList<>();
+        BulkProductLoader.Result result = loader.load(file, batch -> {
+            synchronized (loaded) {
+                loaded.addAll(batch);
+            }
+        });
+        publishCatalog(loaded);
+        return result;
+    }
+
+    private void publishCatalog(List<Product> newProducts) {
+        CatalogReloadEvent reloadEvent = new CatalogReloadEvent();
+        reloadEvent.begin();
+        synchronized (reloadLock) {
+            // Remove entradas já coletadas pelo GC
+            cleanupCache();
+
+            CatalogSnapshot current = catalog.get();
+
+            // Organiza por categoria usando SoftReference
+            Map<String, List<Product>> productsByCategory = new HashMap<>();
+            Map<Long, String> newIndex = new HashMap<>();
+            for (Product product : newProducts) {
+                productsByCategory.computeIfAbsent(product.getCategory(), k -> new ArrayList<>()).add(product);
+                newIndex.put(product.getId(), product.getCategory());
+            }
+
+            Map<String, CategoryReference> categories = new HashMap<>();
+            for (Map.Entry<String, List<Product>> entry : productsByCategory.entrySet()) {
+                categories.put(entry.getKey(), new CategoryReference(entry.getKey(), entry.getValue(), collectedQueue));
+            }
+            CatalogSnapshot next = new CatalogSnapshot(current.version + 1, categories);
+            catalog.set(next);
 
-        // Organiza por categoria usando SoftReference
-        Map<String, List<Product>> productsByCategory = new HashMap<>();
-        for (Product product : newProducts) {
-            productsByCategory.computeIfAbsent(product.getCategory(), k -> new ArrayList<>()).add(product);
+            // Cache individual de produtos: atualiza os presentes e esquece os que saíram
+            OffHeapProductStore store = offHeapStore;
+            for (Product product : newProducts) {
+                putProduct(product);
+                if (store != null) {
+                    store.put(product);
+                }
+            }
+            for (Long id : categoryIndex.keySet()) {
+                if (!newIndex.containsKey(id)) {
+                    removeProduct(id);
+                }
+            }
+            categoryIndex.clear();
+            categoryIndex.putAll(newIndex);
+            lostCategories.clear();
 
-            // Cache individual de produtos
-            productCache.put(product.getId(), new SoftReference<>(product));
+            reloadEvent.commit(next.version, false, newProducts.size(), next.categories.size());
+            System.out.println("📦 Catálogo v" + next.version + " publicado - Categorias: " + next.categories.size() +
+                    ", Produtos: " + productCache.size());
         }
+    }
 
-        // Atualiza cache por categoria
-        for (Map.Entry<String, List<Product>> entry : productsByCategory.entrySet()) {
-            categoryCache.put(entry.getKey(), new SoftReference<>(entry.getValue()));
+    /**
+     * Atualiza o catálogo com as mudanças do banco desde a versão atual
+     */
+    public boolean refreshProducts() {
+        return applyDelta(database.findChangesSince(catalog.get().version));
+    }
+
+    /**
+     * Aplica apenas as mudanças do delta e publica um novo snapshot
+     *
+     * Somente as categorias afetadas são remontadas; as demais são compartilhadas
+     * com o snapshot anterior, então o custo acompanha o volume de mudanças e não
+     * o tamanho do catálogo.
+     *
+     * @return false se o delta for mais antigo que a versão publicada
+     */
+    public boolean applyDelta(CatalogDelta delta) {
+        CatalogReloadEvent reloadEvent = new CatalogReloadEvent();
+        reloadEvent.begin();
+        synchronized (reloadLock) {
+            drainCollectedReferences(Integer.MAX_VALUE);
+
+            CatalogSnapshot current = catalog.get();
+            if (delta.getVersion() <= current.version) {
+                return false;
+            }
+
+            Set<Long> changedIds = new HashSet<>(delta.getRemovedIds());
+            Map<String, List<Product>> upsertsByCategory = new HashMap<>();
+            for (Product product : delta.getUpserts()) {
+                changedIds.add(product.getId());
+                upsertsByCategory.computeIfAbsent(product.getCategory(), k -> new ArrayList<>()).add(product);
+            }
+
+            // Categorias de destino dos upserts e de origem dos produtos alterados ou removidos
+            Set<String> touched = new HashSet<>(upsertsByCategory.keySet());
+            for (Long id : changedIds) {
+                String previousCategory = categoryIndex.get(id);
+                if (previousCategory != null) {
+                    touched.add(previousCategory);
+                }
+            }
+
+            Map<String, CategoryReference> categories = new HashMap<>(current.categories);
+            for (String category : touched) {
+                CategoryReference previousRef = current.categories.get(category);
+                CategoryView previousView = previousRef != null ? previousRef.get() : null;
+                List<Product> previous = previousView != null ? previousView.products : null;
+                if (previousRef != null && previous == null) {
+                    lostCategories.add(category);
+                }
+                if (lostCategories.contains(category)) {
+                    // Lista já coletada pelo GC: não há base para aplicar o delta até a próxima carga completa
+                    categories.remove(category);
+                    continue;
+                }
+
+                List<Product> rebuilt = new ArrayList<>();
+                if (previous != null) {
+                    for (Product product : previous) {
+                        if (!changedIds.contains(product.getId())) {
+                            rebuilt.add(product);
+                        }
+                    }
+                }
+                rebuilt.addAll(upsertsByCategory.getOrDefault(category, Collections.emptyList()));
+
+                if (rebuilt.isEmpty()) {
+                    categories.remove(category);
+                } else {
+                    categories.put(category, new CategoryReference(category, rebuilt, collectedQueue));
+                }
+            }
+            catalog.set(new CatalogSnapshot(delta.getVersion(), categories));
+
+            OffHeapProductStore store = offHeapStore;
+            for (Long id : delta.getRemovedIds()) {
+                categoryIndex.remove(id);
+                removeProduct(id);
+            }
+            for (Product product : delta.getUpserts()) {
+                categoryIndex.put(product.getId(), product.getCategory());
+                putProduct(product);
+                if (store != null) {
+                    store.put(product);
+                }
+            }
+            reloadEvent.commit(delta.getVersion(), true, delta.size(), categories.size());
+            return true;
+        }
+    }
+
+    /**
+     * Grava um único produto como um delta com a próxima versão
+     *
+     * A versão é escolhida sob o mesmo lock que aplica o delta, então escritores
+     * concorrentes nunca são descartados como atrasados. Só a categoria do produto
+     * (e a anterior, se ele mudou de categoria) é remontada.
+     */
+    public void updateProduct(Product product) {
+        synchronized (reloadLock) {
+            applyDelta(new CatalogDelta(catalog.get().version + 1, List.of(product), Set.of()));
         }
+    }
 
-        System.out.println("📦 Cache atualizado - Categorias: " + categoryCache.size() +
-                ", Produtos: " + productCache.size());
+    /**
+     * Versão do snapshot de catálogo publicado
+     */
+    public long getCatalogVersion() {
+        return catalog.get().version;
+    }
+
+    /**
+     * Usa um armazenamento fora da heap como segundo nível do cache por ID
+     *
+     * Toda carga e delta passam a gravar também no armazenamento, e um produto que
+     * não está no cache (ou cuja SoftReference foi coletada) é decodificado de lá.
+     * Se o arquivo já tiver dados de uma execução anterior, eles ficam disponíveis
+     * imediatamente, sem recarregar o catálogo.
+     */
+    public void attachOffHeapStore(OffHeapProductStore store) {
+        this.offHeapStore = store;
+    }
+
+    /**
+     * Define a fonte usada por {@link #getOrLoad(Long)} e as janelas de atualização
+     *
+     * @param refreshAfterWrite idade a partir da qual um acerto devolve o valor atual e
+     *                          dispara uma recarga em segundo plano (zero desativa)
+     * @param expireAfterWrite  idade a partir da qual o valor não é mais servido e a
+     *                          leitura espera a recarga (zero desativa)
+     */
+    public void attachLoader(ProductLoader loader, Duration refreshAfterWrite, Duration expireAfterWrite) {
+        if (!expireAfterWrite.isZero() && !refreshAfterWrite.isZero() && refreshAfterWrite.compareTo(expireAfterWrite) >= 0) {
+            throw new IllegalArgumentException("refreshAfterWrite deve ser menor que expireAfterWrite");
+        }
+        this.loader = loader;
+        this.refreshAfterWriteNanos = refreshAfterWrite.toNanos();
+        this.expireAfterWriteNanos = expireAfterWrite.toNanos();
+    }
+
+    /**
+     * Busca o produto e, se não estiver em cache, carrega pelo loader
+     *
+     * Leituras concorrentes do mesmo ID que não acham o produto compartilham uma única carga.
+     */
+    public Product getOrLoad(Long id) {
+        try {
+            return getOrLoadAsync(id).join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException("Falha ao carregar produto " + id, e.getCause());
+        }
+    }
+
+    /**
+     * Versão assíncrona de {@link #getOrLoad(Long)}; a carga roda em uma virtual thread
+     */
+    public CompletableFuture<Product> getOrLoadAsync(Long id) {
+        drainCollectedReferences(MAX_DRAIN_PER_OPERATION);
+
+        ProductReference ref = productCache.get(id);
+        Product product = ref != null ? ref.get() : null;
+        if (product != null) {
+            long age = System.nanoTime() - ref.writeNanos;
+            long expireAfter = expireAfterWriteNanos;
+            if (expireAfter == 0 || age < expireAfter) {
+                stats.recordHit();
+                evictionPolicy.onAccess(id);
+
+                long refreshAfter = refreshAfterWriteNanos;
+                if (refreshAfter > 0 && age >= refreshAfter) {
+                    // Stale-while-revalidate: devolve o valor atual e atualiza em segundo plano
+                    loadAsync(id);
+                }
+                return CompletableFuture.completedFuture(product);
+            }
+        } else if (ref != null) {
+            purgeProduct(ref);
+        }
+
+        stats.recordMiss();
+        if (product == null) {
+            Product stored = loadFromOffHeapStore(id);
+            if (stored != null) {
+                return CompletableFuture.completedFuture(stored);
+            }
+        }
+        return loadAsync(id);
+    }
+
+    /**
+     * Carga com deduplicação por chave (single-flight)
+     */
+    private CompletableFuture<Product> loadAsync(Long id) {
+        CompletableFuture<Product> existing = inFlightLoads.get(id);
+        if (existing != null) {
+            return existing;
+        }
+
+        CompletableFuture<Product> future = new CompletableFuture<>();
+        existing = inFlightLoads.putIfAbsent(id, future);
+        if (existing != null) {
+            return existing;
+        }
+
+        ProductLoader currentLoader = loader;
+        loadExecutor.execute(() -> {
+            ProductLoadEvent loadEvent = new ProductLoadEvent();
+            loadEvent.begin();
+            long start = System.nanoTime();
+            try {
+                Product loaded = currentLoader.load(id);
+                stats.recordLoadSuccess(System.nanoTime() - start);
+                loadEvent.commit(id, "loader", true);
+                if (loaded != null) {
+                    putProduct(loaded);
+                }
+                future.complete(loaded);
+            } catch (Throwable e) {
+                stats.recordLoadFailure(System.nanoTime() - start);
+                loadEvent.commit(id, "loader", false);
+                future.completeExceptionally(e);
+            } finally {
+                inFlightLoads.remove(id, future);
+            }
+        });
+        return future;
     }
 
     /**
      * Busca produtos por categoria
+     *
+     * Retorna a lista imutável compartilhada do snapshot atual, sem cópia.
      */
     public List<Product> getProductsByCategory(String category) {
-        SoftReference<List<Product>> ref = categoryCache.get(category);
+        return getProductsByCategory(category, ProductOrder.CATALOG);
+    }
+
+    /**
+     * Busca produtos por categoria na ordem pedida
+     *
+     * As versões ordenadas são calculadas uma única vez por snapshot e reaproveitadas
+     * por todas as requisições seguintes.
+     */
+    public List<Product> getProductsByCategory(String category, ProductOrder order) {
+        CategoryView view = findCategory(category);
+        return view != null ? view.ordered(order) : List.of();
+    }
+
+    /**
+     * Página de produtos da categoria: visão imutável de {@code limit} itens a partir de {@code offset}
+     *
+     * Nenhum elemento é copiado; a página é apenas uma janela sobre a lista compartilhada.
+     */
+    public List<Product> getProductsByCategory(String category, ProductOrder order, int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("offset e limit não podem ser negativos: " + offset + ", " + limit);
+        }
+        List<Product> products = getProductsByCategory(category, order);
+        int from = Math.min(offset, products.size());
+        int to = (int) Math.min((long) from + limit, products.size());
+        return products.subList(from, to);
+    }
+
+    /**
+     * Quantidade de produtos na categoria (para montar a paginação)
+     */
+    public int getCategorySize(String category) {
+        CategoryView view = findCategory(category);
+        return view != null ? view.products.size() : 0;
+    }
+
+    private CategoryView findCategory(String category) {
+        drainCollectedReferences(MAX_DRAIN_PER_OPERATION);
+
+        CategoryReference ref = catalog.get().categories.get(category);
         if (ref != null) {
-            List<Product> products = ref.get();
-            if (products != null) {
-                return new ArrayList<>(products);
-            } else {
-                // Referência foi coletada pelo GC, remove do cache
-                categoryCache.remove(category);
+            CategoryView view = ref.get();
+            if (view != null) {
+                return view;
             }
+            // Referência foi coletada pelo GC e ainda não chegou à fila
+            purgeCategory(ref);
         }
-        return new ArrayList<>();
+        return null;
     }
 
     /**
      * Busca produto por ID
      */
     public Product getProductById(Long id) {
-        SoftReference<Product> ref = productCache.get(id);
+        drainCollectedReferences(MAX_DRAIN_PER_OPERATION);
+
+        ProductReference ref = productCache.get(id);
         if (ref != null) {
             Product product = ref.get();
             if (product != null) {
+                stats.recordHit();
+                evictionPolicy.onAccess(id);
                 return product;
             } else {
-                // Referência foi coletada pelo GC, remove do cache
-                productCache.remove(id);
+                // Referência foi coletada pelo GC e ainda não chegou à fila
+                purgeProduct(ref);
             }
         }
-        return null;
+        stats.recordMiss();
+        return loadFromOffHeapStore(id);
+    }
+
+    private Product loadFromOffHeapStore(Long id) {
+        OffHeapProductStore store = offHeapStore;
+        if (store == null) {
+            return null;
+        }
+        ProductLoadEvent loadEvent = new ProductLoadEvent();
+        loadEvent.begin();
+        long start = System.nanoTime();
+        Product product = store.get(id);
+        if (product != null) {
+            stats.recordLoadSuccess(System.nanoTime() - start);
+            loadEvent.commit(id, "offheap", true);
+            putProduct(product);
+        }
+        return product;
+    }
+
+    /**
+     * Insere o produto e remove os que a política W-TinyLFU escolheu como vítimas
+     */
+    private void putProduct(Product product) {
+        drainCollectedReferences(MAX_DRAIN_PER_OPERATION);
+
+        Long id = product.getId();
+        ProductReference ref = new ProductReference(id, product, System.nanoTime(), collectedQueue);
+        List<Long> evicted;
+        synchronized (evictionPolicy) {
+            productCache.put(id, ref);
+            evicted = evictionPolicy.onInsert(id);
+            // Sob o mesmo monitor, ninguém regrava a vítima entre a escolha e a remoção
+            for (Long victim : evicted) {
+                productCache.remove(victim);
+            }
+        }
+        for (Long victim : evicted) {
+            recordEviction(victim, CacheStats.RemovalCause.SIZE);
+        }
+    }
+
+    private void removeProduct(Long id) {
+        boolean removed;
+        synchronized (evictionPolicy) {
+            removed = productCache.remove(id) != null;
+            if (removed) {
+                evictionPolicy.onRemove(id);
+            }
+        }
+        if (removed) {
+            recordEviction(id, CacheStats.RemovalCause.EXPLICIT);
+        }
+        OffHeapProductStore store = offHeapStore;
+        if (store != null) {
+            store.remove(id);
+        }
     }
 
     /**
      * Limpeza proativa do cache
+     *
+     * O limite de tamanho é garantido pela política W-TinyLFU a cada inserção,
+     * então aqui só restam as referências já coletadas pelo GC, que estão na fila.
      */
     private void cleanupCache() {
-        // Remove referências vazias
-        categoryCache.entrySet().removeIf(entry -> entry.getValue().get() == null);
-        productCache.entrySet().removeIf(entry -> entry.getValue().get() == null);
-
-        // Se ainda está muito grande, força limpeza
-        if (productCache.size() > MAX_CACHE_SIZE) {
-            System.out.println("🧹 Cache muito grande, forçando limpeza...");
+        drainCollectedReferences(Integer.MAX_VALUE);
+    }
 
-            // Remove metade dos itens mais antigos (simulação)
-            Iterator<Map.Entry<Long, SoftReference<Product>>> iterator = productCache.entrySet().iterator();
-            int toRemove = productCache.size() / 2;
-            int removed = 0;
+    /**
+     * Remove até {@code maxEntries} entradas cujas SoftReferences o GC já limpou
+     *
+     * Cada referência enfileirada sabe a própria chave, então a remoção custa O(1)
+     * e o trabalho fica distribuído entre as operações de leitura e escrita.
+     */
+    private void drainCollectedReferences(int maxEntries) {
+        Reference<?> ref;
+        for (int i = 0; i < maxEntries && (ref = collectedQueue.poll()) != null; i++) {
+            if (ref instanceof ProductReference productRef) {
+                purgeProduct(productRef);
+            } else if (ref instanceof CategoryReference categoryRef) {
+                purgeCategory(categoryRef);
+            }
+        }
+    }
 
-            while (iterator.hasNext() && removed < toRemove) {
-                iterator.next();
-                iterator.remove();
-                removed++;
+    private void purgeProduct(ProductReference ref) {
+        boolean removed;
+        synchronized (evictionPolicy) {
+            // remove(key, value) evita apagar uma entrada mais nova para o mesmo ID
+            removed = productCache.remove(ref.id, ref);
+            if (removed) {
+                evictionPolicy.onRemove(ref.id);
             }
         }
+        if (removed) {
+            stats.recordEviction(CacheStats.RemovalCause.COLLECTED);
+            SoftReferenceClearedEvent.emit("product", ref.id);
+        }
+    }
+
+    private void recordEviction(Long id, CacheStats.RemovalCause cause) {
+        stats.recordEviction(cause);
+        CacheEvictionEvent.emit(id, cause.name(), 1);
+    }
+
+    /**
+     * Tira do snapshot a categoria coletada, sem reloadLock
+     *
+     * Roda no caminho de leitura, que não pode esperar uma recarga inteira. Se um
+     * escritor publicar um snapshot montado antes desta troca, a referência limpa
+     * volta para o snapshot e é removida de novo na próxima leitura da categoria.
+     */
+    private void purgeCategory(CategoryReference ref) {
+        CatalogSnapshot current;
+        do {
+            current = catalog.get();
+            if (current.categories.get(ref.category) != ref) {
+                return;
+            }
+        } while (!catalog.compareAndSet(current, current.withoutCategory(ref.category)));
+        lostCategories.add(ref.category);
+        collectedCategories.increment();
+        SoftReferenceClearedEvent.emit("category", ref.category);
     }
 
     /**
      * Informações do cache
+     *
+     * Lê apenas contadores mantidos incrementalmente, sem percorrer as entradas.
      */
     public String getCacheInfo() {
-        int activeCategoryCache = 0;
-        int activeProductCache = 0;
+        drainCollectedReferences(MAX_DRAIN_PER_OPERATION);
 
-        for (SoftReference<List<Product>> ref : categoryCache.values()) {
-            if (ref.get() != null) activeCategoryCache++;
+        return String.format("Cache Info - Categorias: %d (coletadas: %d), Produtos: %d/%d (coletados: %d), Hit rate: %.2f%%",
+                catalog.get().categories.size(), collectedCategories.sum(),
+                productCache.size(), evictionPolicy.getMaximumSize(), stats.getCollectedEvictionCount(),
+                getHitRate() * 100);
+    }
+
+    /**
+     * Número de produtos removidos porque o GC limpou a SoftReference
+     */
+    public long getCollectedProductCount() {
+        return stats.getCollectedEvictionCount();
+    }
+
+    /**
+     * Taxa de acerto das buscas por ID desde a criação do cache (0.0 a 1.0)
+     */
+    public double getHitRate() {
+        return stats.getHitRate();
+    }
+
+    public long getHitCount() {
+        return stats.getHitCount();
+    }
+
+    public long getMissCount() {
+        return stats.getMissCount();
+    }
+
+    /**
+     * Contadores detalhados (cargas, remoções por causa, latência); publique com {@link CacheStats#register(String)}
+     */
+    public CacheStats getStats() {
+        return stats;
+    }
+
+    public int getMaximumSize() {
+        return evictionPolicy.getMaximumSize();
+    }
+
+    /**
+     * Altera a capacidade em tempo de execução, removendo os excedentes escolhidos pela política
+     */
+    public void setMaximumSize(int maximumSize) {
+        List<Long> evicted;
+        synchronized (evictionPolicy) {
+            evicted = evictionPolicy.setMaximumSize(maximumSize);
+            for (Long victim : evicted) {
+                productCache.remove(victim);
+            }
         }
+        for (Long victim : evicted) {
+            recordEviction(victim, CacheStats.RemovalCause.SIZE);
+        }
+    }
 
-        for (SoftReference<Product> ref : productCache.values()) {
-            if (ref.get() != null) activeProductCache++;
+    /**
+     * IDs no mapa do cache, lidos sob o monitor da política (exposto para diagnóstico e testes)
+     */
+    Set<Long> cachedProductIds() {
+        synchronized (evictionPolicy) {
+            return new HashSet<>(productCache.keySet());
         }
+    }
 
-        return String.format("Cache Info - Categorias: %d/%d, Produtos: %d/%d",
-                activeCategoryCache, categoryCache.size(),
-                activeProductCache, productCache.size());
+    /**
+     * IDs rastreados pela política W-TinyLFU (exposto para diagnóstico e testes)
+     */
+    Set<Long> trackedProductIds() {
+        return evictionPolicy.keys();
+    }
+
+    /**
+     * SoftReference em cache do produto, ou null (exposta para testes da fila de referências)
+     */
+    Reference<Product> productReference(Long id) {
+        return productCache.get(id);
     }
 
     /**
      * Limpa todo o cache
      */
     public void clearCache() {
-        categoryCache.clear();
-        productCache.clear();
+        synchronized (reloadLock) {
+            catalog.set(new CatalogSnapshot(catalog.get().version + 1, Collections.emptyMap()));
+            categoryIndex.clear();
+            lostCategories.clear();
+        }
+        int cleared;
+        synchronized (evictionPolicy) {
+            cleared = productCache.size();
+            productCache.clear();
+            evictionPolicy.clear();
+        }
+        stats.recordEvictions(CacheStats.RemovalCause.EXPLICIT, cleared);
+        CacheEvictionEvent.emit(-1, CacheStats.RemovalCause.EXPLICIT.name(), cleared);
         System.out.println("🧹 Cache limpo completamente");
     }
 
     /**
-     * Simula busca no banco de dados
+     * Snapshot imutável do catálogo por categoria, publicado por troca atômica
      */
-    private List<Product> simulateProductsFromDatabase() {
-        List<Product> products = new ArrayList<>();
+    private static final class CatalogSnapshot {
+        static final CatalogSnapshot EMPTY = new CatalogSnapshot(0, Collections.emptyMap());
 
-        for (int i = 0; i < 1000; i++) {
-            Product product = new Product(
-                    (long) i,
-                    "Produto " + i,
-                    "Descrição do produto " + i,
-                    new BigDecimal(random.nextInt(1000) + 1),
-                    "Categoria " + (i % 10)
-            );
-            products.add(product);
+        final long version;
+        final Map<String, CategoryReference> categories;
+
+        CatalogSnapshot(long version, Map<String, CategoryReference> categories) {
+            this.version = version;
+            this.categories = Collections.unmodifiableMap(categories);
+        }
+
+        CatalogSnapshot withoutCategory(String category) {
+            Map<String, CategoryReference> remaining = new HashMap<>(categories);
+            remaining.remove(category);
+            return new CatalogSnapshot(version, remaining);
+        }
+    }
+
+    /**
+     * SoftReference que lembra a chave do produto para remoção direta via ReferenceQueue
+     */
+    private static final class ProductReference extends SoftReference<Product> {
+        private final Long id;
+        private final long writeNanos;
+
+        ProductReference(Long id, Product product, long writeNanos, ReferenceQueue<Object> queue) {
+            super(product, queue);
+            this.id = id;
+            this.writeNanos = writeNanos;
+        }
+    }
+
+    /**
+     * SoftReference que lembra o nome da categoria para remoção direta via ReferenceQueue
+     */
+    private static final class CategoryReference extends SoftReference<CategoryView> {
+        private final String category;
+
+        CategoryReference(String category, List<Product> products, ReferenceQueue<Object> queue) {
+            super(new CategoryView(products), queue);
+            this.category = category;
         }
+    }
+
+    /**
+     * Produtos de uma categoria em listas imutáveis compartilhadas entre os leitores
+     */
+    private static final class CategoryView {
+        private static final Comparator<Product> BY_PRICE =
+                Comparator.comparing(Product::getPrice).thenComparing(Product::getId);
+        private static final Comparator<Product> BY_NAME =
+                Comparator.comparing(Product::getName).thenComparing(Product::getId);
+
+        private final List<Product> products;
+        private volatile List<Product> byPrice;
+        private volatile List<Product> byName;
 
-        return products;
+        CategoryView(List<Product> products) {
+            this.products = List.copyOf(products);
+        }
+
+        List<Product> ordered(ProductOrder order) {
+            switch (order) {
+                case PRICE:
+                    List<Product> price = byPrice;
+                    if (price == null) {
+                        byPrice = price = sorted(BY_PRICE);
+                    }
+                    return price;
+                case NAME:
+                    List<Product> name = byName;
+                    if (name == null) {
+                        byName = name = sorted(BY_NAME);
+                    }
+                    return name;
+                default:
+                    return products;
+            }
+        }
+
+        private List<Product> sorted(Comparator<Product> comparator) {
+            List<Product> sorted = new ArrayList<>(products);
+            sorted.sort(comparator);
+            return Collections.unmodifiableList(sorted);
+        }
     }
 }
@@ -1,6 +1,8 @@
 package br.com.thiagobianeck.gcdemoproject.cache;
 
 import br.com.thiagobianeck.gcdemoproject.model.Product;
+import br.com.thiagobianeck.gcdemoproject.util.CacheStats;
+import br.com.thiagobianeck.gcdemoproject.util.StringInterner;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
@@ -14,6 +16,19 @@ import java.util.Random;
 public class ProductCache {
     private static List<Product> allProducts = new ArrayList<>();
     private static final Random random = new Random();
+    private final CacheStats stats = new CacheStats(() -> allProducts.size());
+    private final int catalogSize;
+
+    public ProductCache() {
+        this(1000);
+    }
+
+    /**
+     * @param catalogSize quantidade de produtos devolvida por cada carga simulada
+     */
+    public ProductCache(int catalogSize) {
+        this.catalogSize = catalogSize;
+    }
 
     /**
      * ❌ PROBLEMA: Acumula objetos sem limpar
@@ -22,7 +37,9 @@ public class ProductCache {
         System.out.println("🔄 Carregando produtos (método problemático)...");
 
         // Simula carregamento do banco de dados
+        long start = System.nanoTime();
         List<Product> newProducts = simulateProductsFromDatabase();
+        stats.recordLoadSuccess(System.nanoTime() - start);
 
         // PROBLEMA: Adiciona sem limpar a lista anterior
         allProducts.addAll(newProducts);
@@ -30,6 +47,27 @@ public class ProductCache {
         System.out.println("📦 Total de produtos no cache: " + allProducts.size());
     }
 
+    /**
+     * ❌ PROBLEMA: Adiciona sem verificar se o produto já existe
+     */
+    public void addProduct(Product product) {
+        allProducts.add(product);
+    }
+
+    /**
+     * ❌ PROBLEMA: Busca linear; com duplicatas acumuladas, fica mais lenta a cada carga
+     */
+    public Product getProductById(Long id) {
+        for (Product product : allProducts) {
+            if (product.getId().equals(id)) {
+                stats.recordHit();
+                return product;
+            }
+        }
+        stats.recordMiss();
+        return null;
+    }
+
     public List<Product> getAllProducts() {
         return new ArrayList<>(allProducts);
     }
@@ -38,19 +76,35 @@ public class ProductCache {
         return allProducts.size();
     }
 
+    /**
+     * Única forma de liberar a memória acumulada (ninguém chamava...)
+     */
+    public void clearCache() {
+        stats.recordEvictions(CacheStats.RemovalCause.EXPLICIT, allProducts.size());
+        allProducts.clear();
+    }
+
+    /**
+     * Estatísticas do cache; sem política de remoção, o tamanho estimado só cresce
+     */
+    public CacheStats getStats() {
+        return stats;
+    }
+
     /**
      * Simula busca no banco de dados
      */
     private List<Product> simulateProductsFromDatabase() {
         List<Product> products = new ArrayList<>();
+        StringInterner interner = StringInterner.domain();
 
-        for (int i = 0; i < 1000; i++) {
+        for (int i = 0; i < catalogSize; i++) {
             Product product = new Product(
                     (long) i,
-                    "Produto " + i,
+                    interner.intern("Produto " + i),
                     "Descrição do produto " + i + " com detalhes extensos para ocupar mais memória",
                     new BigDecimal(random.nextInt(1000) + 1),
-                    "Categoria " + (i % 10)
+                    interner.intern("Categoria " + (i % 10))
             );
             products.add(product);
         }
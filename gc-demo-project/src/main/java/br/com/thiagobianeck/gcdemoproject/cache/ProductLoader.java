@@ -0,0 +1,17 @@
+package br.com.thiagobianeck.gcdemoproject.cache;
+
+import br.com.thiagobianeck.gcdemoproject.model.Product;
+
+/**
+ * Fonte de dados consultada pelo cache quando um produto não está disponível
+ */
+@FunctionalInterface
+public interface ProductLoader {
+
+    /**
+     * Carrega o produto da fonte (banco, serviço remoto...)
+     *
+     * @return o produto, ou null se ele não existir
+     */
+    Product load(Long id) throws Exception;
+}
@@ -0,0 +1,13 @@
+package br.com.thiagobianeck.gcdemoproject.cache;
+
+/**
+ * Ordem dos produtos nas consultas por categoria
+ */
+public enum ProductOrder {
+    /** Ordem em que os produtos chegaram no catálogo */
+    CATALOG,
+    /** Menor preço primeiro */
+    PRICE,
+    /** Ordem alfabética do nome */
+    NAME
+}
@@ -0,0 +1,118 @@
+package br.com.thiagobianeck.gcdemoproject.cache;
+
+import br.com.thiagobianeck.gcdemoproject.model.Product;
+import br.com.thiagobianeck.gcdemoproject.util.StringInterner;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Banco de dados simulado que alimenta o {@link ImprovedProductCache}
+ *
+ * Cada consulta pode esperar uma latência configurável, o que permite observar
+ * (e testar) o comportamento do cache diante de um backend lento.
+ */
+public class SimulatedProductDatabase implements ProductLoader {
+    private static final int CATALOG_SIZE = 1000;
+
+    private final Random random = new Random();
+    private final Duration latency;
+    private final AtomicLong queryCount = new AtomicLong();
+
+    public SimulatedProductDatabase() {
+        this(Duration.ZERO);
+    }
+
+    /**
+     * @param latency tempo de espera aplicado a cada consulta
+     */
+    public SimulatedProductDatabase(Duration latency) {
+        this.latency = latency;
+    }
+
+    /**
+     * Simula busca no banco de dados
+     */
+    public List<Product> findAll() {
+        simulateLatency();
+        List<Product> products = new ArrayList<>();
+
+        for (int i = 0; i < CATALOG_SIZE; i++) {
+            products.add(newProduct(i));
+        }
+
+        return products;
+    }
+
+    /**
+     * Simula a busca de um único produto; IDs fora do catálogo não existem
+     */
+    public Product findById(Long id) {
+        simulateLatency();
+        if (id == null || id < 0 || id >= CATALOG_SIZE) {
+            return null;
+        }
+        return newProduct(id);
+    }
+
+    @Override
+    public Product load(Long id) {
+        return findById(id);
+    }
+
+    /**
+     * Simula a consulta incremental ao banco: poucos produtos com preço alterado,
+     * alguns novos e alguns removidos desde a versão informada
+     */
+    public CatalogDelta findChangesSince(long version) {
+        simulateLatency();
+        List<Product> upserts = new ArrayList<>();
+        Set<Long> removedIds = new HashSet<>();
+
+        for (int n = 0; n < 10; n++) {
+            upserts.add(newProduct(random.nextInt(CATALOG_SIZE)));
+        }
+        upserts.add(newProduct(CATALOG_SIZE + version));
+        removedIds.add((long) random.nextInt(CATALOG_SIZE));
+        removedIds.removeIf(id -> upserts.stream().anyMatch(p -> p.getId().equals(id)));
+
+        return new CatalogDelta(version + 1, upserts, removedIds);
+    }
+
+    /**
+     * Quantidade de consultas recebidas (útil para verificar deduplicação)
+     */
+    public long getQueryCount() {
+        return queryCount.get();
+    }
+
+    private Product newProduct(long i) {
+        // Cada consulta gera Strings novas; nome e categoria repetem entre cargas e entre produtos
+        StringInterner interner = StringInterner.domain();
+        return new Product(
+                i,
+                interner.intern("Produto " + i),
+                "Descrição do produto " + i,
+                new BigDecimal(random.nextInt(1000) + 1),
+                interner.intern("Categoria " + (i % 10))
+        );
+    }
+
+    private void simulateLatency() {
+        queryCount.incrementAndGet();
+        if (latency.isZero()) {
+            return;
+        }
+        try {
+            Thread.sleep(latency);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package br.com.thiagobianeck.gcdemoproject.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Política de admissão/remoção W-TinyLFU
+ *
+ * O espaço é dividido em uma janela LRU pequena (novas entradas) e uma área
+ * principal SLRU (probation + protected). Quando a janela transborda, o candidato
+ * que sai dela só entra na área principal se for mais frequente, segundo o
+ * {@link FrequencySketch}, do que a vítima da probation. Assim itens "quentes"
+ * sobrevivem a rajadas de itens acessados uma única vez.
+ *
+ * A política guarda apenas as chaves; quem a utiliza remove do armazenamento
+ * as chaves retornadas por {@link #onInsert(Object)}. Para o armazenamento e a
+ * política conterem as mesmas chaves, quem usa faz as duas mudanças dentro do
+ * monitor da política, que é reentrante.
+ */
+public class TinyLfuPolicy<K> {
+    private static final double PROTECTED_RATIO = 0.8;
+
+    private final FrequencySketch sketch;
+    private final LinkedHashMap<K, Boolean> window = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<K, Boolean> probation = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<K, Boolean> protectedSegment = new LinkedHashMap<>(16, 0.75f, true);
+    private final double windowRatio;
+
+    private int maximumSize;
+    private int windowMaximum;
+    private int mainMaximum;
+    private int protectedMaximum;
+
+    /**
+     * @param maximumSize número máximo de chaves mantidas
+     * @param windowRatio fração do tamanho reservada à janela LRU (ex.: 0.01)
+     */
+    public TinyLfuPolicy(int maximumSize, double windowRatio) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize deve ser positivo: " + maximumSize);
+        }
+        if (windowRatio <= 0.0 || windowRatio >= 1.0) {
+            throw new IllegalArgumentException("windowRatio deve estar entre 0 e 1: " + windowRatio);
+        }
+        this.sketch = new FrequencySketch(maximumSize);
+        this.windowRatio = windowRatio;
+        resize(maximumSize);
+    }
+
+    /**
+     * Registra um acesso (hit) à chave
+     */
+    public synchronized void onAccess(K key) {
+        sketch.increment(key);
+
+        if (window.get(key) != null || protectedSegment.get(key) != null) {
+            return;
+        }
+        if (probation.remove(key) != null) {
+            protectedSegment.put(key, Boolean.TRUE);
+            demoteProtectedOverflow();
+        }
+    }
+
+    /**
+     * Registra a inserção de uma chave e retorna as chaves que devem ser removidas
+     */
+    public synchronized List<K> onInsert(K key) {
+        if (contains(key)) {
+            onAccess(key);
+            return Collections.emptyList();
+        }
+
+        sketch.increment(key);
+        window.put(key, Boolean.TRUE);
+        return evictIfNeeded();
+    }
+
+    /**
+     * Esquece a chave (remoção explícita ou coletada pelo GC)
+     */
+    public synchronized void onRemove(K key) {
+        if (window.remove(key) == null && probation.remove(key) == null) {
+            protectedSegment.remove(key);
+        }
+    }
+
+    /**
+     * Altera o limite de chaves e retorna as que precisam sair para respeitá-lo
+     */
+    public synchronized List<K> setMaximumSize(int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize deve ser positivo: " + maximumSize);
+        }
+        resize(maximumSize);
+        return evictIfNeeded();
+    }
+
+    public synchronized int getMaximumSize() {
+        return maximumSize;
+    }
+
+    public synchronized int size() {
+        return window.size() + probation.size() + protectedSegment.size();
+    }
+
+    public synchronized void clear() {
+        window.clear();
+        probation.clear();
+        protectedSegment.clear();
+    }
+
+    /**
+     * Frequência estimada da chave (exposta para diagnóstico e testes)
+     */
+    public synchronized int frequency(K key) {
+        return sketch.frequency(key);
+    }
+
+    /**
+     * Cópia das chaves rastreadas nos três segmentos (exposta para diagnóstico e testes)
+     */
+    synchronized Set<K> keys() {
+        Set<K> keys = new HashSet<>(window.keySet());
+        keys.addAll(probation.keySet());
+        keys.addAll(protectedSegment.keySet());
+        return keys;
+    }
+
+    private boolean contains(K key) {
+        return window.containsKey(key) || probation.containsKey(key) || protectedSegment.containsKey(key);
+    }
+
+    private void resize(int maximumSize) {
+        this.maximumSize = maximumSize;
+        this.windowMaximum = Math.max(1, (int) (maximumSize * windowRatio));
+        this.mainMaximum = Math.max(0, maximumSize - windowMaximum);
+        this.protectedMaximum = (int) (mainMaximum * PROTECTED_RATIO);
+    }
+
+    private List<K> evictIfNeeded() {
+        List<K> evicted = null;
+
+        // Candidatos saem da janela e disputam espaço na área principal
+        while (window.size() > windowMaximum) {
+            K candidate = removeEldest(window);
+            if (probation.size() + protectedSegment.size() < mainMaximum) {
+                probation.put(candidate, Boolean.TRUE);
+                continue;
+            }
+
+            LinkedHashMap<K, Boolean> victimSegment = probation.isEmpty() ? protectedSegment : probation;
+            K victim = eldest(victimSegment);
+            if (victim != null && sketch.frequency(candidate) > sketch.frequency(victim)) {
+                victimSegment.remove(victim);
+                probation.put(candidate, Boolean.TRUE);
+                evicted = append(evicted, victim);
+            } else {
+                evicted = append(evicted, candidate);
+            }
+        }
+
+        demoteProtectedOverflow();
+
+        // Após uma redução de tamanho a área principal pode continuar acima do limite
+        while (size() > maximumSize) {
+            if (!probation.isEmpty()) {
+                evicted = append(evicted, removeEldest(probation));
+            } else if (!protectedSegment.isEmpty()) {
+                evicted = append(evicted, removeEldest(protectedSegment));
+            } else {
+                evicted = append(evicted, removeEldest(window));
+            }
+        }
+
+        return evicted == null ? Collections.emptyList() : evicted;
+    }
+
+    private void demoteProtectedOverflow() {
+        while (protectedSegment.size() > protectedMaximum) {
+            probation.put(removeEldest(protectedSegment), Boolean.TRUE);
+        }
+    }
+
+    private static <K> List<K> append(List<K> evicted, K key) {
+        if (evicted == null) {
+            evicted = new ArrayList<>();
+        }
+        evicted.add(key);
+        return evicted;
+    }
+
+    private static <K> K eldest(LinkedHashMap<K, Boolean> segment) {
+        return segment.isEmpty() ? null : segment.keySet().iterator().next();
+    }
+
+    private static <K> K removeEldest(LinkedHashMap<K, Boolean> segment) {
+        Iterator<K> iterator = segment.keySet().iterator();
+        K key = iterator.next();
+        iterator.remove();
+        return key;
+    }
+}
@@ -0,0 +1,193 @@
+package br.com.thiagobianeck.gcdemoproject.jfr;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Consumidor em processo que alinha a atividade do cache com as coletas do GC
+ *
+ * Assina, via {@link RecordingStream}, os eventos do cache deste pacote e o
+ * {@code jdk.GarbageCollection}. Cada coleta abre um {@link GcCorrelation}, e
+ * os eventos do cache que começam depois dela (até a próxima) são somados nele.
+ * É o intervalo em que a ReferenceQueue entrega as SoftReferences limpas por
+ * aquela coleta. Assim, uma pausa longa seguida de muitas limpezas e cargas
+ * aparece em uma única linha do tempo.
+ *
+ * Eventos anteriores à primeira coleta observada são contados em
+ * {@link #getUncorrelatedCount()}.
+ */
+public class CacheActivityStream implements AutoCloseable {
+    private static final String GARBAGE_COLLECTION = "jdk.GarbageCollection";
+    private static final int DEFAULT_HISTORY = 128;
+
+    private final RecordingStream stream = new RecordingStream();
+    private final Deque<GcCorrelation> history = new ArrayDeque<>();
+    private final int historySize;
+    private final List<Consumer<GcCorrelation>> listeners = new ArrayList<>();
+    private GcCorrelation current;
+    private long uncorrelated;
+
+    public CacheActivityStream() {
+        this(DEFAULT_HISTORY);
+    }
+
+    /**
+     * @param historySize quantidade de coletas mantidas para consulta
+     */
+    public CacheActivityStream(int historySize) {
+        this.historySize = historySize;
+
+        stream.enable(GARBAGE_COLLECTION);
+        stream.enable(ProductLoadEvent.NAME).withThreshold(Duration.ZERO);
+        stream.enable(CacheEvictionEvent.NAME);
+        stream.enable(SoftReferenceClearedEvent.NAME);
+        stream.enable(CatalogReloadEvent.NAME).withThreshold(Duration.ZERO);
+
+        stream.onEvent(GARBAGE_COLLECTION, this::onGarbageCollection);
+        stream.onEvent(ProductLoadEvent.NAME, this::onCacheEvent);
+        stream.onEvent(CacheEvictionEvent.NAME, this::onCacheEvent);
+        stream.onEvent(SoftReferenceClearedEvent.NAME, this::onCacheEvent);
+        stream.onEvent(CatalogReloadEvent.NAME, this::onCacheEvent);
+    }
+
+    /**
+     * Começa a gravar e consumir em segundo plano
+     */
+    public CacheActivityStream start() {
+        stream.startAsync();
+        return this;
+    }
+
+    /**
+     * Chamado a cada coleta concluída, quando a próxima começa (o resumo está fechado)
+     */
+    public synchronized void onCollectionClosed(Consumer<GcCorrelation> listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void close() {
+        stream.close();
+    }
+
+    /**
+     * Coletas observadas, da mais antiga para a mais recente (a última ainda acumula eventos)
+     */
+    public synchronized List<GcCorrelation> getCorrelations() {
+        List<GcCorrelation> copy = new ArrayList<>(history.size());
+        for (GcCorrelation correlation : history) {
+            copy.add(correlation.copy());
+        }
+        return copy;
+    }
+
+    public synchronized long getUncorrelatedCount() {
+        return uncorrelated;
+    }
+
+    private synchronized void onGarbageCollection(RecordedEvent event) {
+        GcCorrelation closed = current;
+        current = new GcCorrelation(event.getLong("gcId"), event.getString("name"), event.getString("cause"),
+                event.getStartTime(), event.getEndTime(), event.getDuration("longestPause"));
+        history.addLast(current);
+        if (history.size() > historySize) {
+            history.removeFirst();
+        }
+        if (closed != null) {
+            for (Consumer<GcCorrelation> listener : listeners) {
+                listener.accept(closed.copy());
+            }
+        }
+    }
+
+    private synchronized void onCacheEvent(RecordedEvent event) {
+        if (current == null || event.getStartTime().isBefore(current.gcEnd)) {
+            uncorrelated++;
+            return;
+        }
+        switch (event.getEventType().getName()) {
+            case ProductLoadEvent.NAME -> {
+                if (event.getBoolean("success")) current.loads++;
+                else current.loadFailures++;
+            }
+            case CacheEvictionEvent.NAME -> current.evictions += event.getInt("count");
+            case SoftReferenceClearedEvent.NAME -> current.softReferencesCleared++;
+            case CatalogReloadEvent.NAME -> current.reloads++;
+            default -> uncorrelated++;
+        }
+    }
+
+    /**
+     * Uma coleta e a atividade do cache que a seguiu
+     */
+    public static final class GcCorrelation {
+        private final long gcId;
+        private final String collector;
+        private final String cause;
+        private final Instant gcStart;
+        private final Instant gcEnd;
+        private final Duration longestPause;
+        private long loads;
+        private long loadFailures;
+        private long evictions;
+        private long softReferencesCleared;
+        private long reloads;
+
+        GcCorrelation(long gcId, String collector, String cause, Instant gcStart, Instant gcEnd, Duration longestPause) {
+            this.gcId = gcId;
+            this.collector = collector;
+            this.cause = cause;
+            this.gcStart = gcStart;
+            this.gcEnd = gcEnd;
+            this.longestPause = longestPause;
+        }
+
+        GcCorrelation copy() {
+            GcCorrelation copy = new GcCorrelation(gcId, collector, cause, gcStart, gcEnd, longestPause);
+            copy.loads = loads;
+            copy.loadFailures = loadFailures;
+            copy.evictions = evictions;
+            copy.softReferencesCleared = softReferencesCleared;
+            copy.reloads = reloads;
+            return copy;
+        }
+
+        public long getGcId() { return gcId; }
+
+        public String getCollector() { return collector; }
+
+        public String getCause() { return cause; }
+
+        public Instant getGcStart() { return gcStart; }
+
+        public Instant getGcEnd() { return gcEnd; }
+
+        public Duration getLongestPause() { return longestPause; }
+
+        public long getLoads() { return loads; }
+
+        public long getLoadFailures() { return loadFailures; }
+
+        public long getEvictions() { return evictions; }
+
+        public long getSoftReferencesCleared() { return softReferencesCleared; }
+
+        public long getReloads() { return reloads; }
+
+        @Override
+        public String toString() {
+            return String.format("GC #%d %s (%s, pausa máx %.2f ms) -> cargas=%d (falhas=%d), remoções=%d, " +
+                            "soft refs limpas=%d, recargas=%d",
+                    gcId, collector, cause, longestPause.toNanos() / 1e6, loads, loadFailures, evictions,
+                    softReferencesCleared, reloads);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package br.com.thiagobianeck.gcdemoproject.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Remoção de entradas pela política de tamanho ou pela aplicação
+ *
+ * Entradas cuja SoftReference o GC limpou geram {@link SoftReferenceClearedEvent}.
+ */
+@Name(CacheEvictionEvent.NAME)
+@Label("Remoção do Cache")
+@Category({"GC Demo", "Cache"})
+@Description("Entradas removidas do cache por tamanho (SIZE) ou pela aplicação (EXPLICIT)")
+@StackTrace(false)
+public class CacheEvictionEvent extends Event {
+    public static final String NAME = "br.com.thiagobianeck.gcdemo.CacheEviction";
+
+    @Label("ID do Produto")
+    @Description("-1 quando o evento agrupa várias entradas")
+    long productId;
+
+    @Label("Causa")
+    String cause;
+
+    @Label("Quantidade")
+    int count;
+
+    public static void emit(long productId, String cause, int count) {
+        CacheEvictionEvent event = new CacheEvictionEvent();
+        if (event.shouldCommit()) {
+            event.productId = productId;
+            event.cause = cause;
+            event.count = count;
+            event.commit();
+        }
+    }
+}
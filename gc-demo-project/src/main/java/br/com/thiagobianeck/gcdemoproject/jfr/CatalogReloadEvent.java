@@ -0,0 +1,43 @@
+package br.com.thiagobianeck.gcdemoproject.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Publicação de um novo snapshot do catálogo, por carga completa ou delta
+ */
+@Name(CatalogReloadEvent.NAME)
+@Label("Recarga do Catálogo")
+@Category({"GC Demo", "Cache"})
+@Description("Publicação de um novo snapshot do catálogo")
+@StackTrace(false)
+public class CatalogReloadEvent extends Event {
+    public static final String NAME = "br.com.thiagobianeck.gcdemo.CatalogReload";
+
+    @Label("Versão")
+    long version;
+
+    @Label("Incremental")
+    boolean delta;
+
+    @Label("Produtos Alterados")
+    int products;
+
+    @Label("Categorias")
+    int categories;
+
+    public void commit(long version, boolean delta, int products, int categories) {
+        end();
+        if (shouldCommit()) {
+            this.version = version;
+            this.delta = delta;
+            this.products = products;
+            this.categories = categories;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package br.com.thiagobianeck.gcdemoproject.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Carga de um produto que não estava no cache (loader ou armazenamento off-heap)
+ *
+ * Uso: {@code begin()} antes da carga e {@link #commit(long, String, boolean)} depois.
+ * Com o evento desabilitado, o JIT reduz tudo a quase nada.
+ */
+@Name(ProductLoadEvent.NAME)
+@Label("Carga de Produto")
+@Category({"GC Demo", "Cache"})
+@Description("Carga de um produto ausente no cache")
+@StackTrace(false)
+public class ProductLoadEvent extends Event {
+    public static final String NAME = "br.com.thiagobianeck.gcdemo.ProductLoad";
+
+    @Label("ID do Produto")
+    long productId;
+
+    @Label("Origem")
+    @Description("loader ou offheap")
+    String source;
+
+    @Label("Sucesso")
+    boolean success;
+
+    public void commit(long productId, String source, boolean success) {
+        end();
+        if (shouldCommit()) {
+            this.productId = productId;
+            this.source = source;
+            this.success = success;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package br.com.thiagobianeck.gcdemoproject.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * SoftReference do cache limpa pelo GC e retirada da ReferenceQueue
+ */
+@Name(SoftReferenceClearedEvent.NAME)
+@Label("SoftReference Limpa")
+@Category({"GC Demo", "Cache"})
+@Description("Entrada do cache cuja SoftReference foi limpa pelo GC")
+@StackTrace(false)
+public class SoftReferenceClearedEvent extends Event {
+    public static final String NAME = "br.com.thiagobianeck.gcdemo.SoftReferenceCleared";
+
+    @Label("Tipo")
+    @Description("product ou category")
+    String kind;
+
+    @Label("Chave")
+    String key;
+
+    public static void emit(String kind, Object key) {
+        SoftReferenceClearedEvent event = new SoftReferenceClearedEvent();
+        if (event.shouldCommit()) {
+            event.kind = kind;
+            event.key = String.valueOf(key);
+            event.commit();
+        }
+    }
+}
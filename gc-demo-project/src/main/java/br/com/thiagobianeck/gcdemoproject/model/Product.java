@@ -24,6 +24,14 @@ public class Product {
         this.createdAt = LocalDateTime.now();
     }
 
+    /**
+     * Usado por visões que leem os demais dados de outra estrutura (ex.: {@link ProductTable})
+     */
+    protected Product(Long id, String category) {
+        this.id = id;
+        this.category = category;
+    }
+
     // Getters e Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -46,23 +54,23 @@ public class Product {
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
+        if (!(o instanceof Product)) return false;
         Product product = (Product) o;
-        return Objects.equals(id, product.id);
+        return Objects.equals(getId(), product.getId());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id);
+        return Objects.hash(getId());
     }
 
     @Override
     public String toString() {
         return "Product{" +
-                "id=" + id +
-                ", name='" + name + '\'' +
-                ", price=" + price +
-                ", category='" + category + '\'' +
+                "id=" + getId() +
+                ", name='" + getName() + '\'' +
+                ", price=" + getPrice() +
+                ", category='" + getCategory() + '\'' +
                 '}';
     }
 }
\ No newline at end of file
@@ -0,0 +1,391 @@
+package br.com.thiagobianeck.gcdemoproject.model;
+
+import br.com.thiagobianeck.gcdemoproject.util.LongIntIndex;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Representação colunar (struct-of-arrays) de um catálogo de produtos
+ *
+ * Em vez de um objeto {@link Product} por item, com {@code Long}, {@code BigDecimal},
+ * {@code LocalDateTime} e várias Strings, cada atributo fica em um array primitivo:
+ * IDs e preços em centavos como {@code long}, datas em epoch millis, categorias
+ * codificadas por dicionário e nomes/descrições em um único arena de bytes UTF-8.
+ *
+ * Quem precisa da API antiga usa {@link #view(int)}: uma visão leve (flyweight)
+ * que estende {@link Product} e decodifica os campos sob demanda.
+ *
+ * Concorrência: um único escritor ({@link #add}) e qualquer número de leitores das
+ * linhas já adicionadas (getters por linha e visões). Os arrays ficam num
+ * {@link Columns} imutável, trocado por inteiro quando cresce, e {@code size} é
+ * volátil e escrito por último: quem lê {@code size} primeiro vê a linha completa.
+ * {@link #indexOf(long)} só é seguro sem escrita concorrente.
+ */
+public class ProductTable {
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+    private static final int INITIAL_CAPACITY = 1024;
+
+    // Publicados para os leitores: columns antes de size, e size por último
+    private volatile Columns columns;
+    private volatile int size;
+    // Só do escritor
+    private int arenaSize;
+
+    // Lido sem lock pelas visões; cresce raramente
+    private final List<String> categoryDictionary = new CopyOnWriteArrayList<>();
+    private final Map<String, Integer> categoryLookup = new HashMap<>();
+
+    // Índice id -> linha sem boxing
+    private final LongIntIndex rowIndex;
+
+    public ProductTable() {
+        this(INITIAL_CAPACITY);
+    }
+
+    public ProductTable(int initialCapacity) {
+        int capacity = Math.max(16, initialCapacity);
+        this.columns = new Columns(new long[capacity], new long[capacity], new long[capacity], new int[capacity],
+                new int[2 * capacity + 1], new byte[capacity * 32]);
+        this.rowIndex = new LongIntIndex(capacity);
+    }
+
+    /**
+     * Monta a tabela a partir de produtos já existentes
+     */
+    public static ProductTable from(Collection<Product> products) {
+        ProductTable table = new ProductTable(products.size());
+        for (Product product : products) {
+            table.add(product);
+        }
+        return table;
+    }
+
+    public int add(Product product) {
+        return add(product.getId(), product.getName(), product.getDescription(),
+                toCents(product.getPrice()), product.getCategory(),
+                product.getCreatedAt().atZone(ZONE).toInstant().toEpochMilli());
+    }
+
+    /**
+     * Adiciona uma linha e retorna seu índice
+     */
+    public int add(long id, String name, String description, long priceInCents, String category, long createdAtEpochMillis) {
+        if (indexOf(id) >= 0) {
+            throw new IllegalArgumentException("ID duplicado na tabela: " + id);
+        }
+        int row = size;
+        ensureCapacity(row + 1);
+
+        Columns c = columns;
+        c.ids[row] = id;
+        c.priceCents[row] = priceInCents;
+        c.createdAtMillis[row] = createdAtEpochMillis;
+        c.categoryCodes[row] = encodeCategory(category);
+        appendString(2 * row, name);
+        appendString(2 * row + 1, description);
+        rowIndex.put(id, row);
+
+        size = row + 1; // Publica a linha
+        return row;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Linha do produto com o ID informado, ou -1
+     */
+    public int indexOf(long id) {
+        return rowIndex.get(id);
+    }
+
+    public long getId(int row) {
+        return columnsFor(row).ids[row];
+    }
+
+    public long getPriceCents(int row) {
+        return columnsFor(row).priceCents[row];
+    }
+
+    public long getCreatedAtMillis(int row) {
+        return columnsFor(row).createdAtMillis[row];
+    }
+
+    /**
+     * Categoria da linha; a String é a mesma instância do dicionário (sem alocação)
+     */
+    public String getCategory(int row) {
+        return categoryDictionary.get(columnsFor(row).categoryCodes[row]);
+    }
+
+    public String getName(int row) {
+        return decodeString(columnsFor(row), 2 * row);
+    }
+
+    public String getDescription(int row) {
+        return decodeString(columnsFor(row), 2 * row + 1);
+    }
+
+    /**
+     * Visão {@link Product} somente leitura da linha
+     */
+    public Product view(int row) {
+        Columns c = columnsFor(row);
+        return new ProductView(this, row, c.ids[row], categoryDictionary.get(c.categoryCodes[row]));
+    }
+
+    /**
+     * Todas as linhas como visões, criadas sob demanda ao percorrer a lista
+     */
+    public List<Product> views() {
+        return new AbstractList<>() {
+            @Override
+            public Product get(int index) {
+                return view(index);
+            }
+
+            @Override
+            public int size() {
+                return ProductTable.this.size;
+            }
+        };
+    }
+
+    public int getCategoryCount() {
+        return categoryDictionary.size();
+    }
+
+    /**
+     * Bytes ocupados pelos arrays da tabela (capacidade reservada incluída)
+     */
+    public long estimatedBytes() {
+        Columns c = columns;
+        long bytes = arrayBytes(c.ids.length, 8) * 3
+                + arrayBytes(c.categoryCodes.length, 4)
+                + arrayBytes(c.stringOffsets.length, 4)
+                + arrayBytes(c.arena.length, 1)
+                + rowIndex.estimatedBytes();
+        for (String category : categoryDictionary) {
+            bytes += estimateStringBytes(category);
+        }
+        return bytes;
+    }
+
+    /**
+     * Compara a memória estimada da lista de objetos com a desta tabela
+     *
+     * Quem guarda as visões (como o cache ao carregar a tabela) paga também uma
+     * visão por linha, então a comparação conta a tabela com todas elas.
+     */
+    public String compareWith(Collection<Product> products) {
+        long objectBytes = 0;
+        for (Product product : products) {
+            objectBytes += estimateProductBytes(product);
+        }
+        int rows = size;
+        long tableBytes = estimatedBytes();
+        long viewBytes = 0;
+        for (int row = 0; row < rows; row++) {
+            viewBytes += estimateViewBytes(getId(row));
+        }
+        long retainedBytes = tableBytes + viewBytes;
+
+        return String.format(
+                "Comparação de memória (%d produtos)%n" +
+                "  ├─ Objetos Product: %,d bytes (%.1f bytes/produto)%n" +
+                "  ├─ ProductTable:    %,d bytes (%.1f bytes/produto, %d categorias no dicionário)%n" +
+                "  ├─ + uma visão por linha: %,d bytes (%.1f bytes/produto)%n" +
+                "  └─ Redução: %.1fx só a tabela, %.1fx com as visões",
+                products.size(),
+                objectBytes, (double) objectBytes / Math.max(1, products.size()),
+                tableBytes, (double) tableBytes / Math.max(1, rows), categoryDictionary.size(),
+                retainedBytes, (double) retainedBytes / Math.max(1, rows),
+                (double) objectBytes / Math.max(1, tableBytes), (double) objectBytes / Math.max(1, retainedBytes));
+    }
+
+    /**
+     * Estimativa do grafo de um Product com compressed oops: o objeto, Long,
+     * BigDecimal, LocalDateTime (com LocalDate e LocalTime) e as três Strings
+     */
+    static long estimateProductBytes(Product product) {
+        long bytes = 40;                 // Product: cabeçalho + 6 referências
+        bytes += 16;                     // Long
+        bytes += 40;                     // BigDecimal (valor compacto)
+        bytes += 24 + 24 + 24;           // LocalDateTime + LocalDate + LocalTime
+        bytes += estimateStringBytes(product.getName());
+        bytes += estimateStringBytes(product.getDescription());
+        bytes += estimateStringBytes(product.getCategory());
+        return bytes;
+    }
+
+    /**
+     * Estimativa de uma visão retida: o objeto (cabeçalho, 6 referências herdadas,
+     * tabela e linha) e o Long do ID, fora do cache de {@link Long#valueOf(long)}
+     */
+    static long estimateViewBytes(long id) {
+        long bytes = 48;
+        if (id < -128 || id > 127) {
+            bytes += 16;
+        }
+        return bytes;
+    }
+
+    private static long estimateStringBytes(String value) {
+        if (value == null) return 0;
+        // String (24) + byte[] (16 + conteúdo; 2 bytes/char se não for Latin-1)
+        boolean latin1 = value.chars().allMatch(c -> c < 256);
+        return 24 + arrayBytes(value.length() * (latin1 ? 1L : 2L), 1);
+    }
+
+    private static long arrayBytes(long length, int elementSize) {
+        return (16 + length * elementSize + 7) & ~7L;
+    }
+
+    private static long toCents(BigDecimal price) {
+        return price.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private int encodeCategory(String category) {
+        Integer code = categoryLookup.get(category);
+        if (code == null) {
+            code = categoryDictionary.size();
+            categoryDictionary.add(category);
+            categoryLookup.put(category, code);
+        }
+        return code;
+    }
+
+    private void appendString(int slot, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        Columns c = columns;
+        if (arenaSize + bytes.length > c.arena.length) {
+            byte[] arena = Arrays.copyOf(c.arena, Math.max(c.arena.length * 2, arenaSize + bytes.length));
+            c = new Columns(c.ids, c.priceCents, c.createdAtMillis, c.categoryCodes, c.stringOffsets, arena);
+            columns = c;
+        }
+        System.arraycopy(bytes, 0, c.arena, arenaSize, bytes.length);
+        c.stringOffsets[slot] = arenaSize;
+        arenaSize += bytes.length;
+        c.stringOffsets[slot + 1] = arenaSize;
+    }
+
+    private static String decodeString(Columns c, int slot) {
+        int start = c.stringOffsets[slot];
+        return new String(c.arena, start, c.stringOffsets[slot + 1] - start, StandardCharsets.UTF_8);
+    }
+
+    private void ensureCapacity(int required) {
+        Columns c = columns;
+        if (required <= c.ids.length) {
+            return;
+        }
+        int capacity = Math.max(required, c.ids.length * 2);
+        columns = new Columns(Arrays.copyOf(c.ids, capacity), Arrays.copyOf(c.priceCents, capacity),
+                Arrays.copyOf(c.createdAtMillis, capacity), Arrays.copyOf(c.categoryCodes, capacity),
+                Arrays.copyOf(c.stringOffsets, 2 * capacity + 1), c.arena);
+    }
+
+    /**
+     * Confere a linha e devolve os arrays que a contêm; lê size antes de columns
+     */
+    private Columns columnsFor(int row) {
+        int published = size;
+        if (row < 0 || row >= published) {
+            throw new IndexOutOfBoundsException("Linha " + row + " fora da tabela de " + published);
+        }
+        return columns;
+    }
+
+    /**
+     * Arrays da tabela; crescer cria outro Columns, e os campos final publicam as cópias com segurança
+     */
+    private static final class Columns {
+        final long[] ids;
+        final long[] priceCents;
+        final long[] createdAtMillis;
+        final int[] categoryCodes;
+        // Texto k da linha r: k = 2r (nome) e 2r + 1 (descrição), ocupando arena[offsets[k], offsets[k + 1])
+        final int[] stringOffsets;
+        final byte[] arena;
+
+        Columns(long[] ids, long[] priceCents, long[] createdAtMillis, int[] categoryCodes, int[] stringOffsets,
+                byte[] arena) {
+            this.ids = ids;
+            this.priceCents = priceCents;
+            this.createdAtMillis = createdAtMillis;
+            this.categoryCodes = categoryCodes;
+            this.stringOffsets = stringOffsets;
+            this.arena = arena;
+        }
+    }
+
+    /**
+     * Flyweight: a tabela e o número da linha; nome, descrição, preço e data são lidos sob demanda
+     *
+     * ID e categoria vão para os campos herdados de {@link Product} na criação: o Long
+     * do ID é criado uma vez por visão, não a cada {@code getId()} (que equals e
+     * hashCode chamam), e a categoria é a instância do dicionário. Os outros quatro
+     * campos herdados ficam nulos; guardar ali os valores decodificados traria de
+     * volta a memória que a tabela economiza.
+     */
+    private static final class ProductView extends Product {
+        private final ProductTable table;
+        private final int row;
+
+        ProductView(ProductTable table, int row, long id, String category) {
+            super(id, category);
+            this.table = table;
+            this.row = row;
+        }
+
+        @Override
+        public String getName() { return table.getName(row); }
+
+        @Override
+        public String getDescription() { return table.getDescription(row); }
+
+        @Override
+        public BigDecimal getPrice() { return BigDecimal.valueOf(table.getPriceCents(row), 2); }
+
+        @Override
+        public LocalDateTime getCreatedAt() {
+            return LocalDateTime.ofInstant(Instant.ofEpochMilli(table.getCreatedAtMillis(row)), ZONE);
+        }
+
+        @Override
+        public void setId(Long id) { throw readOnly(); }
+
+        @Override
+        public void setName(String name) { throw readOnly(); }
+
+        @Override
+        public void setDescription(String description) { throw readOnly(); }
+
+        @Override
+        public void setPrice(BigDecimal price) { throw readOnly(); }
+
+        @Override
+        public void setCategory(String category) { throw readOnly(); }
+
+        @Override
+        public void setCreatedAt(LocalDateTime createdAt) { throw readOnly(); }
+
+        private static UnsupportedOperationException readOnly() {
+            return new UnsupportedOperationException("Visão de ProductTable é somente leitura");
+        }
+    }
+}
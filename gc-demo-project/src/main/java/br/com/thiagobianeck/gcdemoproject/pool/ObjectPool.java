@@ -0,0 +1,393 @@
+package br.com.thiagobianeck.gcdemoproject.pool;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Pool de objetos thread-safe e limitado, para buffers caros de recriar
+ *
+ * O caminho rápido é uma pilha pequena por thread de plataforma, sem sincronização.
+ * Quando ela está vazia (ou cheia, na devolução), o pool recorre a listas
+ * compartilhadas divididas em faixas (stripes), cada uma com seu próprio monitor.
+ * A faixa é escolhida pelo ID da thread, então threads diferentes raramente
+ * disputam o mesmo lock. Threads virtuais pulam a pilha local: elas são muitas e
+ * efêmeras, e cada uma levaria objetos presos consigo.
+ *
+ * Objetos ociosos ficam limitados a {@code maxIdle} nas faixas, mais {@code localSize}
+ * por thread de plataforma. Devoluções além disso são descartadas para o GC. O
+ * {@link Reset} limpa o objeto na devolução e pode recusá-lo (por exemplo, um
+ * StringBuilder que cresceu demais), para o pool não reter memória inflada.
+ *
+ * Com rastreamento de vazamento ativo, uma fração das aquisições guarda a pilha de
+ * chamadas em uma {@link WeakReference}. Se o objeto for coletado sem ter sido
+ * devolvido, o vazamento é contado e reportado com o local da aquisição.
+ */
+public class ObjectPool<T> {
+    private static final int DEFAULT_LOCAL_SIZE = 4;
+
+    /**
+     * Limpa o objeto para reuso; devolve false para descartá-lo
+     */
+    @FunctionalInterface
+    public interface Reset<T> {
+        boolean reset(T object);
+    }
+
+    private final String name;
+    private final Supplier<T> factory;
+    private final Reset<T> reset;
+    private final int localSize;
+    private final ThreadLocal<LocalStack> local;
+    private final Stripe[] stripes;
+    private final int stripeMask;
+
+    private final int leakSampling;
+    private final ReferenceQueue<Object> leakQueue = new ReferenceQueue<>();
+    // Aquisições rastreadas por identityHashCode, com encadeamento para colisões
+    private final Map<Integer, LeakTrace> outstanding = new HashMap<>();
+    private volatile Consumer<StackTraceElement[]> leakListener;
+
+    private final LongAdder acquires = new LongAdder();
+    private final LongAdder localHits = new LongAdder();
+    private final LongAdder sharedHits = new LongAdder();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder releases = new LongAdder();
+    private final LongAdder discarded = new LongAdder();
+    private final LongAdder leaks = new LongAdder();
+
+    public ObjectPool(String name, Supplier<T> factory, Reset<T> reset, int maxIdle) {
+        this(name, factory, reset, maxIdle, DEFAULT_LOCAL_SIZE, 0);
+    }
+
+    /**
+     * @param maxIdle      objetos ociosos mantidos nas faixas compartilhadas
+     * @param localSize    objetos ociosos por thread de plataforma (0 desativa o caminho local)
+     * @param leakSampling rastreia 1 a cada N aquisições (0 desativa, 1 rastreia todas)
+     */
+    public ObjectPool(String name, Supplier<T> factory, Reset<T> reset, int maxIdle, int localSize, int leakSampling) {
+        if (maxIdle < 1 || localSize < 0 || leakSampling < 0) {
+            throw new IllegalArgumentException("Parâmetros inválidos: maxIdle=" + maxIdle +
+                    ", localSize=" + localSize + ", leakSampling=" + leakSampling);
+        }
+        this.name = name;
+        this.factory = factory;
+        this.reset = reset;
+        this.localSize = localSize;
+        this.local = ThreadLocal.withInitial(() -> new LocalStack(localSize));
+        this.leakSampling = leakSampling;
+        this.leakListener = trace -> System.out.println("⚠️ Pool '" + name + "': objeto coletado sem ser devolvido, " +
+                "obtido em " + (trace.length > 0 ? trace[0] : "?"));
+
+        int stripeCount = Math.min(Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1), maxIdle);
+        stripeCount = Integer.highestOneBit(Math.max(1, stripeCount));
+        this.stripes = new Stripe[stripeCount];
+        int perStripe = (maxIdle + stripeCount - 1) / stripeCount;
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(perStripe);
+        }
+        this.stripeMask = stripeCount - 1;
+    }
+
+    /**
+     * Obtém um objeto ocioso ou cria um novo; devolva-o com {@link #release(Object)}
+     */
+    public T acquire() {
+        acquires.increment();
+        T object = pollLocal();
+        if (object != null) {
+            localHits.increment();
+        } else {
+            object = pollShared();
+            if (object != null) {
+                sharedHits.increment();
+            } else {
+                object = factory.get();
+                created.increment();
+            }
+        }
+        if (leakSampling > 0) {
+            drainLeaks();
+            if (leakSampling == 1 || ThreadLocalRandom.current().nextInt(leakSampling) == 0) {
+                track(object);
+            }
+        }
+        return object;
+    }
+
+    /**
+     * Devolve o objeto ao pool; o chamador não deve mais usá-lo
+     */
+    public void release(T object) {
+        if (object == null) {
+            return;
+        }
+        releases.increment();
+        if (leakSampling > 0) {
+            untrack(object);
+        }
+        if (!reset.reset(object)) {
+            discarded.increment();
+            return;
+        }
+        if (offerLocal(object)) {
+            return;
+        }
+        if (!stripes[stripeIndex()].offer(object)) {
+            discarded.increment();
+        }
+    }
+
+    /**
+     * Substitui o aviso padrão de vazamento; recebe a pilha de chamadas da aquisição
+     */
+    public void onLeak(Consumer<StackTraceElement[]> listener) {
+        this.leakListener = listener;
+    }
+
+    private T pollLocal() {
+        if (localSize == 0 || Thread.currentThread().isVirtual()) {
+            return null;
+        }
+        LocalStack stack = local.get();
+        if (stack.size == 0) {
+            return null;
+        }
+        @SuppressWarnings("unchecked")
+        T object = (T) stack.items[--stack.size];
+        stack.items[stack.size] = null;
+        return object;
+    }
+
+    private boolean offerLocal(T object) {
+        if (localSize == 0 || Thread.currentThread().isVirtual()) {
+            return false;
+        }
+        LocalStack stack = local.get();
+        if (stack.size == stack.items.length) {
+            return false;
+        }
+        stack.items[stack.size++] = object;
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T pollShared() {
+        int start = stripeIndex();
+        for (int i = 0; i <= stripeMask; i++) {
+            Stripe stripe = stripes[(start + i) & stripeMask];
+            if (stripe.approximateSize > 0) {
+                Object object = stripe.poll();
+                if (object != null) {
+                    return (T) object;
+                }
+            }
+        }
+        return null;
+    }
+
+    private int stripeIndex() {
+        long id = Thread.currentThread().threadId();
+        return (int) ((id * 0x9E3779B97F4A7C15L) >>> 32) & stripeMask;
+    }
+
+    private void track(T object) {
+        int hash = System.identityHashCode(object);
+        LeakTrace trace = new LeakTrace(object, leakQueue, hash, callerFrames());
+        synchronized (outstanding) {
+            trace.next = outstanding.put(hash, trace);
+        }
+    }
+
+    private void untrack(T object) {
+        int hash = System.identityHashCode(object);
+        synchronized (outstanding) {
+            LeakTrace previous = null;
+            for (LeakTrace trace = outstanding.get(hash); trace != null; previous = trace, trace = trace.next) {
+                if (trace.refersTo(object)) {
+                    unlink(hash, previous, trace);
+                    trace.clear(); // Referência limpa manualmente não é enfileirada
+                    return;
+                }
+            }
+        }
+    }
+
+    private void drainLeaks() {
+        Reference<?> reference;
+        while ((reference = leakQueue.poll()) != null) {
+            LeakTrace leaked = (LeakTrace) reference;
+            synchronized (outstanding) {
+                LeakTrace previous = null;
+                for (LeakTrace trace = outstanding.get(leaked.hash); trace != null; previous = trace, trace = trace.next) {
+                    if (trace == leaked) {
+                        unlink(leaked.hash, previous, trace);
+                        break;
+                    }
+                }
+            }
+            leaks.increment();
+            leakListener.accept(leaked.acquiredAt);
+        }
+    }
+
+    private void unlink(int hash, LeakTrace previous, LeakTrace trace) {
+        if (previous != null) {
+            previous.next = trace.next;
+        } else if (trace.next != null) {
+            outstanding.put(hash, trace.next);
+        } else {
+            outstanding.remove(hash);
+        }
+    }
+
+    private static StackTraceElement[] callerFrames() {
+        StackTraceElement[] frames = new Throwable().getStackTrace();
+        List<StackTraceElement> callers = new ArrayList<>(frames.length);
+        for (StackTraceElement frame : frames) {
+            if (!frame.getClassName().equals(ObjectPool.class.getName())) {
+                callers.add(frame);
+            }
+        }
+        return callers.toArray(StackTraceElement[]::new);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getAcquireCount() {
+        return acquires.sum();
+    }
+
+    public long getLocalHitCount() {
+        return localHits.sum();
+    }
+
+    public long getSharedHitCount() {
+        return sharedHits.sum();
+    }
+
+    /**
+     * Objetos criados pela fábrica (aquisições que não encontraram objeto ocioso)
+     */
+    public long getCreatedCount() {
+        return created.sum();
+    }
+
+    public long getReleaseCount() {
+        return releases.sum();
+    }
+
+    /**
+     * Devoluções descartadas: recusadas pelo {@link Reset} ou com o pool cheio
+     */
+    public long getDiscardedCount() {
+        return discarded.sum();
+    }
+
+    /**
+     * Fração das aquisições atendidas com objetos reutilizados
+     */
+    public double getReuseRate() {
+        long total = acquires.sum();
+        return total == 0 ? 0.0 : (double) (localHits.sum() + sharedHits.sum()) / total;
+    }
+
+    /**
+     * Objetos rastreados que foram coletados sem devolução (processa a fila antes de responder)
+     */
+    public long getLeakCount() {
+        if (leakSampling > 0) {
+            drainLeaks();
+        }
+        return leaks.sum();
+    }
+
+    /**
+     * Objetos ociosos nas faixas compartilhadas (as pilhas locais não entram na conta)
+     */
+    public int getIdleCount() {
+        int idle = 0;
+        for (Stripe stripe : stripes) {
+            idle += stripe.approximateSize;
+        }
+        return idle;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Pool %s{aquisições=%d, criados=%d, reuso=%.1f%% (local=%d, compartilhado=%d), " +
+                        "descartados=%d, ociosos=%d, vazamentos=%d}",
+                name, getAcquireCount(), getCreatedCount(), getReuseRate() * 100, getLocalHitCount(),
+                getSharedHitCount(), getDiscardedCount(), getIdleCount(), leaks.sum());
+    }
+
+    /**
+     * Pilha de objetos ociosos de uma thread de plataforma (acessada só por ela)
+     */
+    private static final class LocalStack {
+        final Object[] items;
+        int size;
+
+        LocalStack(int capacity) {
+            this.items = new Object[capacity];
+        }
+    }
+
+    /**
+     * Faixa compartilhada: pilha limitada protegida pelo próprio monitor
+     */
+    private static final class Stripe {
+        private final Object[] items;
+        private int size;
+        // Lido sem lock para pular faixas vazias
+        volatile int approximateSize;
+
+        Stripe(int capacity) {
+            this.items = new Object[capacity];
+        }
+
+        synchronized Object poll() {
+            if (size == 0) {
+                return null;
+            }
+            Object object = items[--size];
+            items[size] = null;
+            approximateSize = size;
+            return object;
+        }
+
+        synchronized boolean offer(Object object) {
+            if (size == items.length) {
+                return false;
+            }
+            items[size++] = object;
+            approximateSize = size;
+            return true;
+        }
+    }
+
+    /**
+     * Aquisição rastreada; enfileirada pelo GC se o objeto morrer sem ser devolvido
+     */
+    private static final class LeakTrace extends WeakReference<Object> {
+        final int hash;
+        final StackTraceElement[] acquiredAt;
+        LeakTrace next;
+
+        LeakTrace(Object referent, ReferenceQueue<Object> queue, int hash, StackTraceElement[] acquiredAt) {
+            super(referent, queue);
+            this.hash = hash;
+            this.acquiredAt = acquiredAt;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package br.com.thiagobianeck.gcdemoproject.pool;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Fábricas de pools para os buffers usados pelos carregadores, e as instâncias compartilhadas
+ *
+ * Buffers devolvidos não são zerados: quem os obtém deve escrever antes de ler.
+ */
+public final class Pools {
+    public static final int STRING_BUILDER_CAPACITY = 256;
+    public static final int MAX_STRING_BUILDER_CAPACITY = 16 * 1024;
+    public static final int SCRATCH_SIZE = 4 * 1024;
+    public static final int DIRECT_BUFFER_SIZE = 64 * 1024;
+
+    private static final ObjectPool<byte[]> SCRATCH_BYTES = newByteArrayPool("scratchBytes", SCRATCH_SIZE, 256);
+    private static final ObjectPool<ByteBuffer> DIRECT_BUFFERS = newDirectBufferPool("directBuffers", DIRECT_BUFFER_SIZE, 64);
+
+    private Pools() {
+    }
+
+    /**
+     * Arrays de {@value #SCRATCH_SIZE} bytes para decodificação e cópias temporárias
+     */
+    public static ObjectPool<byte[]> scratchBytes() {
+        return SCRATCH_BYTES;
+    }
+
+    /**
+     * Buffers diretos de {@value #DIRECT_BUFFER_SIZE} bytes, cuja alocação e liberação são caras;
+     * usados pelo {@code BulkProductLoader} para procurar as fronteiras dos blocos
+     */
+    public static ObjectPool<ByteBuffer> directBuffers() {
+        return DIRECT_BUFFERS;
+    }
+
+    /**
+     * Pool de StringBuilders; os que passarem de {@value #MAX_STRING_BUILDER_CAPACITY} chars são descartados
+     *
+     * Não há instância compartilhada: os carregadores decodificam bytes direto para
+     * String, e concatenações simples já alocam uma única String.
+     */
+    public static ObjectPool<StringBuilder> newStringBuilderPool(String name, int initialCapacity, int maxIdle) {
+        return new ObjectPool<>(name, () -> new StringBuilder(initialCapacity), builder -> {
+            builder.setLength(0);
+            return builder.capacity() <= MAX_STRING_BUILDER_CAPACITY;
+        }, maxIdle);
+    }
+
+    public static ObjectPool<byte[]> newByteArrayPool(String name, int size, int maxIdle) {
+        return new ObjectPool<>(name, () -> new byte[size], bytes -> bytes.length == size, maxIdle);
+    }
+
+    public static ObjectPool<ByteBuffer> newDirectBufferPool(String name, int size, int maxIdle) {
+        return new ObjectPool<>(name, () -> ByteBuffer.allocateDirect(size), buffer -> {
+            buffer.clear().order(ByteOrder.BIG_ENDIAN);
+            return buffer.capacity() == size && buffer.isDirect();
+        }, maxIdle);
+    }
+}
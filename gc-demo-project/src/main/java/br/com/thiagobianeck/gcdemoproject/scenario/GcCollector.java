@@ -0,0 +1,58 @@
+package br.com.thiagobianeck.gcdemoproject.scenario;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coletores comparados pelo {@link ScenarioRunner}, com as flags que os selecionam
+ */
+public enum GcCollector {
+    SERIAL("Serial", "-XX:+UseSerialGC"),
+    PARALLEL("Parallel", "-XX:+UseParallelGC"),
+    G1("G1", "-XX:+UseG1GC"),
+    ZGC("ZGC", "-XX:+UseZGC"),
+    ZGC_GENERATIONAL("ZGC geracional", "-XX:+UseZGC", "-XX:+ZGenerational"),
+    SHENANDOAH("Shenandoah", "-XX:+UseShenandoahGC");
+
+    private final String label;
+    private final List<String> flags;
+
+    GcCollector(String label, String... flags) {
+        this.label = label;
+        this.flags = List.of(flags);
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public List<String> getFlags() {
+        return flags;
+    }
+
+    /**
+     * Verifica se a JVM informada aceita as flags (Shenandoah, por exemplo, não existe em todos os builds)
+     */
+    public boolean isAvailable(String javaBinary) {
+        List<String> command = new ArrayList<>();
+        command.add(javaBinary);
+        command.addAll(flags);
+        command.add("-version");
+        try {
+            Process process = new ProcessBuilder(command).redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+                return false;
+            }
+            return process.exitValue() == 0;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package br.com.thiagobianeck.gcdemoproject.scenario;
+
+import br.com.thiagobianeck.gcdemoproject.util.LongHistogram;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ponto de entrada da JVM filha: executa uma carga e grava o resultado
+ *
+ * Uso: {@code ScenarioChild <WORKLOAD> <duraçãoMillis> <arquivoResultado>}. As
+ * pausas são gravadas por uma {@link Recording} JFR apenas com eventos de GC e
+ * lidas do arquivo ao final, fora da medição. A saída padrão das cargas é
+ * descartada: os caches imprimem a cada recarga, e isso mediria o console.
+ */
+public final class ScenarioChild {
+    private static final String PAUSE_EVENT = "jdk.GCPhasePause";
+    private static final String GC_EVENT = "jdk.GarbageCollection";
+
+    private ScenarioChild() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            System.err.println("Uso: ScenarioChild <WORKLOAD> <duraçãoMillis> <arquivoResultado>");
+            System.exit(2);
+        }
+        Workload workload = Workload.valueOf(args[0]);
+        long durationMillis = Long.parseLong(args[1]);
+        Path resultFile = Path.of(args[2]);
+
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        Properties result = new Properties();
+        LongAdder operations = new LongAdder();
+        ScenarioResult.Status status = ScenarioResult.Status.OK;
+        Path jfrFile = Files.createTempFile("scenario-" + workload.name().toLowerCase(), ".jfr");
+
+        try (Recording recording = new Recording()) {
+            recording.enable(PAUSE_EVENT).withThreshold(Duration.ZERO);
+            recording.enable(GC_EVENT).withThreshold(Duration.ZERO);
+            recording.start();
+
+            long start = System.nanoTime();
+            try {
+                workload.run(start + durationMillis * 1_000_000, operations);
+            } catch (OutOfMemoryError e) {
+                status = ScenarioResult.Status.OUT_OF_MEMORY;
+            }
+            long elapsed = System.nanoTime() - start;
+
+            recording.stop();
+            recording.dump(jfrFile);
+            result.setProperty(ScenarioResult.OPERATIONS, Long.toString(operations.sum()));
+            result.setProperty(ScenarioResult.ELAPSED_NANOS, Long.toString(elapsed));
+        }
+
+        LongHistogram pauses = new LongHistogram();
+        long gcCount = 0;
+        List<RecordedEvent> events = RecordingFile.readAllEvents(jfrFile);
+        for (RecordedEvent event : events) {
+            if (event.getEventType().getName().equals(PAUSE_EVENT)) {
+                pauses.record(event.getDuration().toNanos());
+            } else {
+                gcCount++;
+            }
+        }
+        Files.deleteIfExists(jfrFile);
+
+        LongHistogram.Snapshot snapshot = pauses.snapshot();
+        result.setProperty(ScenarioResult.STATUS, status.name());
+        result.setProperty(ScenarioResult.GC_COUNT, Long.toString(gcCount));
+        result.setProperty(ScenarioResult.PAUSE_COUNT, Long.toString(snapshot.getCount()));
+        result.setProperty(ScenarioResult.PAUSE_P50, Long.toString(snapshot.getValueAtPercentile(50) / 1000));
+        result.setProperty(ScenarioResult.PAUSE_P99, Long.toString(snapshot.getValueAtPercentile(99) / 1000));
+        result.setProperty(ScenarioResult.PAUSE_P999, Long.toString(snapshot.getValueAtPercentile(99.9) / 1000));
+        result.setProperty(ScenarioResult.PAUSE_MAX, Long.toString(snapshot.getMax() / 1000));
+        result.setProperty(ScenarioResult.PAUSE_TOTAL, Long.toString(pauses.getSum() / 1000));
+        result.setProperty(ScenarioResult.PEAK_RSS, Long.toString(peakRssBytes()));
+
+        try (Writer writer = Files.newBufferedWriter(resultFile, StandardCharsets.UTF_8)) {
+            result.store(writer, workload.name());
+        }
+        console.println("✅ " + workload.name() + ": " + operations.sum() + " operações (" + status + ")");
+    }
+
+    /**
+     * Pico de memória residente do processo ({@code VmHWM} em /proc/self/status), ou -1
+     */
+    static long peakRssBytes() {
+        Path status = Path.of("/proc/self/status");
+        if (!Files.isReadable(status)) {
+            return -1;
+        }
+        try {
+            for (String line : Files.readAllLines(status)) {
+                if (line.startsWith("VmHWM:")) {
+                    String kilobytes = line.substring("VmHWM:".length()).replace("kB", "").trim();
+                    return Long.parseLong(kilobytes) * 1024;
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            return -1;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,144 @@
+package br.com.thiagobianeck.gcdemoproject.scenario;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Relatório comparativo dos cenários em JSON (para ferramentas) e Markdown (para leitura)
+ *
+ * O JSON é escrito à mão, sem dependências, com números no formato de
+ * {@link Locale#ROOT}. No Markdown, cada carga vira uma tabela com uma linha por coletor.
+ */
+public class ScenarioReport {
+    private final String javaVersion;
+    private final String heap;
+    private final Duration duration;
+    private final Instant generatedAt;
+    private final List<ScenarioResult> results;
+
+    public ScenarioReport(String javaVersion, String heap, Duration duration, Instant generatedAt,
+                          List<ScenarioResult> results) {
+        this.javaVersion = javaVersion;
+        this.heap = heap;
+        this.duration = duration;
+        this.generatedAt = generatedAt;
+        this.results = List.copyOf(results);
+    }
+
+    public List<ScenarioResult> getResults() {
+        return results;
+    }
+
+    /**
+     * Grava {@code report.json} e {@code report.md} no diretório
+     */
+    public void write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        Files.writeString(directory.resolve("report.json"), toJson(), StandardCharsets.UTF_8);
+        Files.writeString(directory.resolve("report.md"), toMarkdown(), StandardCharsets.UTF_8);
+    }
+
+    public String toJson() {
+        StringBuilder json = new StringBuilder(1024);
+        json.append("{\n");
+        json.append("  \"generatedAt\": ").append(quote(generatedAt.toString())).append(",\n");
+        json.append("  \"javaVersion\": ").append(quote(javaVersion)).append(",\n");
+        json.append("  \"heap\": ").append(quote(heap)).append(",\n");
+        json.append("  \"durationMillis\": ").append(duration.toMillis()).append(",\n");
+        json.append("  \"results\": [");
+        for (int i = 0; i < results.size(); i++) {
+            ScenarioResult result = results.get(i);
+            json.append(i == 0 ? "\n" : ",\n");
+            json.append("    {")
+                    .append("\"workload\": ").append(quote(result.getWorkload().name()))
+                    .append(", \"collector\": ").append(quote(result.getCollector().name()))
+                    .append(", \"jvmFlags\": ").append(quote(String.join(" ", result.getCollector().getFlags())))
+                    .append(", \"status\": ").append(quote(result.getStatus().name()))
+                    .append(", \"message\": ").append(quote(result.getMessage()))
+                    .append(", \"operations\": ").append(result.getOperations())
+                    .append(", \"elapsedNanos\": ").append(result.getElapsedNanos())
+                    .append(", \"throughputOpsPerSecond\": ").append(number(result.getThroughput(), 1))
+                    .append(", \"gcCount\": ").append(result.getGcCount())
+                    .append(", \"pauseCount\": ").append(result.getPauseCount())
+                    .append(", \"pauseP50Micros\": ").append(result.getPauseP50Micros())
+                    .append(", \"pauseP99Micros\": ").append(result.getPauseP99Micros())
+                    .append(", \"pauseP999Micros\": ").append(result.getPauseP999Micros())
+                    .append(", \"pauseMaxMicros\": ").append(result.getPauseMaxMicros())
+                    .append(", \"pauseTotalMicros\": ").append(result.getPauseTotalMicros())
+                    .append(", \"pausePercent\": ").append(number(result.getPausePercent(), 3))
+                    .append(", \"peakRssBytes\": ").append(result.getPeakRssBytes())
+                    .append('}');
+        }
+        json.append(results.isEmpty() ? "]\n" : "\n  ]\n");
+        json.append("}\n");
+        return json.toString();
+    }
+
+    public String toMarkdown() {
+        StringBuilder md = new StringBuilder(1024);
+        md.append("# Comparação de coletores por cenário\n\n");
+        md.append("- Java: ").append(javaVersion).append('\n');
+        md.append("- Heap: `-Xms").append(heap).append(" -Xmx").append(heap).append("`\n");
+        md.append("- Duração por cenário: ").append(duration.toMillis()).append(" ms, cada um em uma JVM nova\n");
+        md.append("- Gerado em: ").append(generatedAt).append("\n");
+
+        for (Workload workload : Workload.values()) {
+            List<ScenarioResult> rows = results.stream().filter(r -> r.getWorkload() == workload).toList();
+            if (rows.isEmpty()) {
+                continue;
+            }
+            md.append("\n## ").append(workload.getLabel()).append(" (`").append(workload.name()).append("`)\n\n");
+            md.append("| Coletor | Status | ops/s | GCs | Pausas | p50 (µs) | p99 (µs) | p99.9 (µs) | Máx (µs) " +
+                    "| Tempo em pausa | RSS pico (MB) |\n");
+            md.append("|---|---|---:|---:|---:|---:|---:|---:|---:|---:|---:|\n");
+            for (ScenarioResult r : rows) {
+                md.append("| ").append(r.getCollector().getLabel())
+                        .append(" | ").append(r.getStatus() == ScenarioResult.Status.FAILED
+                                ? "FAILED: " + r.getMessage().replace("|", "\\|") : r.getStatus().name())
+                        .append(" | ").append(number(r.getThroughput(), 0))
+                        .append(" | ").append(r.getGcCount())
+                        .append(" | ").append(r.getPauseCount())
+                        .append(" | ").append(r.getPauseP50Micros())
+                        .append(" | ").append(r.getPauseP99Micros())
+                        .append(" | ").append(r.getPauseP999Micros())
+                        .append(" | ").append(r.getPauseMaxMicros())
+                        .append(" | ").append(number(r.getPausePercent(), 2)).append('%')
+                        .append(" | ").append(r.getPeakRssBytes() < 0 ? "n/d" : number(r.getPeakRssBytes() / 1048576.0, 1))
+                        .append(" |\n");
+            }
+        }
+        return md.toString();
+    }
+
+    private static String number(double value, int decimals) {
+        return String.format(Locale.ROOT, "%." + decimals + "f", value);
+    }
+
+    private static String quote(String value) {
+        StringBuilder quoted = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> quoted.append("\\\"");
+                case '\\' -> quoted.append("\\\\");
+                case '\n' -> quoted.append("\\n");
+                case '\r' -> quoted.append("\\r");
+                case '\t' -> quoted.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        quoted.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        quoted.append(c);
+                    }
+                }
+            }
+        }
+        return quoted.append('"').toString();
+    }
+}
@@ -0,0 +1,145 @@
+package br.com.thiagobianeck.gcdemoproject.scenario;
+
+import java.util.Properties;
+
+/**
+ * Resultado de uma carga em uma JVM filha com um coletor
+ *
+ * O {@link ScenarioChild} grava os números em um arquivo {@link Properties}, que
+ * o {@link ScenarioRunner} lê com {@link #fromProperties}. Pausas vêm dos eventos
+ * JFR {@code jdk.GCPhasePause}, com precisão de nanossegundos em qualquer
+ * coletor, e são reportadas em microssegundos.
+ */
+public class ScenarioResult {
+    static final String STATUS = "status";
+    static final String MESSAGE = "message";
+    static final String OPERATIONS = "operations";
+    static final String ELAPSED_NANOS = "elapsedNanos";
+    static final String GC_COUNT = "gcCount";
+    static final String PAUSE_COUNT = "pauseCount";
+    static final String PAUSE_P50 = "pauseP50Micros";
+    static final String PAUSE_P99 = "pauseP99Micros";
+    static final String PAUSE_P999 = "pauseP999Micros";
+    static final String PAUSE_MAX = "pauseMaxMicros";
+    static final String PAUSE_TOTAL = "pauseTotalMicros";
+    static final String PEAK_RSS = "peakRssBytes";
+
+    public enum Status {
+        OK,
+        /** A carga terminou com OutOfMemoryError; as operações até ali continuam válidas */
+        OUT_OF_MEMORY,
+        /** A JVM filha falhou, expirou ou não gravou resultado */
+        FAILED
+    }
+
+    private final GcCollector collector;
+    private final Workload workload;
+    private final Status status;
+    private final String message;
+    private final long operations;
+    private final long elapsedNanos;
+    private final long gcCount;
+    private final long pauseCount;
+    private final long pauseP50Micros;
+    private final long pauseP99Micros;
+    private final long pauseP999Micros;
+    private final long pauseMaxMicros;
+    private final long pauseTotalMicros;
+    private final long peakRssBytes;
+
+    public ScenarioResult(GcCollector collector, Workload workload, Status status, String message,
+                          long operations, long elapsedNanos, long gcCount, long pauseCount,
+                          long pauseP50Micros, long pauseP99Micros, long pauseP999Micros, long pauseMaxMicros,
+                          long pauseTotalMicros, long peakRssBytes) {
+        this.collector = collector;
+        this.workload = workload;
+        this.status = status;
+        this.message = message;
+        this.operations = operations;
+        this.elapsedNanos = elapsedNanos;
+        this.gcCount = gcCount;
+        this.pauseCount = pauseCount;
+        this.pauseP50Micros = pauseP50Micros;
+        this.pauseP99Micros = pauseP99Micros;
+        this.pauseP999Micros = pauseP999Micros;
+        this.pauseMaxMicros = pauseMaxMicros;
+        this.pauseTotalMicros = pauseTotalMicros;
+        this.peakRssBytes = peakRssBytes;
+    }
+
+    static ScenarioResult failed(GcCollector collector, Workload workload, String message) {
+        return new ScenarioResult(collector, workload, Status.FAILED, message, 0, 0, 0, 0, 0, 0, 0, 0, 0, -1);
+    }
+
+    static ScenarioResult fromProperties(GcCollector collector, Workload workload, Properties properties) {
+        return new ScenarioResult(collector, workload,
+                Status.valueOf(properties.getProperty(STATUS, Status.FAILED.name())),
+                properties.getProperty(MESSAGE, ""),
+                getLong(properties, OPERATIONS), getLong(properties, ELAPSED_NANOS),
+                getLong(properties, GC_COUNT), getLong(properties, PAUSE_COUNT),
+                getLong(properties, PAUSE_P50), getLong(properties, PAUSE_P99), getLong(properties, PAUSE_P999),
+                getLong(properties, PAUSE_MAX), getLong(properties, PAUSE_TOTAL),
+                Long.parseLong(properties.getProperty(PEAK_RSS, "-1")));
+    }
+
+    private static long getLong(Properties properties, String key) {
+        return Long.parseLong(properties.getProperty(key, "0"));
+    }
+
+    public GcCollector getCollector() { return collector; }
+
+    public Workload getWorkload() { return workload; }
+
+    public Status getStatus() { return status; }
+
+    public String getMessage() { return message; }
+
+    public long getOperations() { return operations; }
+
+    public long getElapsedNanos() { return elapsedNanos; }
+
+    public long getGcCount() { return gcCount; }
+
+    public long getPauseCount() { return pauseCount; }
+
+    public long getPauseP50Micros() { return pauseP50Micros; }
+
+    public long getPauseP99Micros() { return pauseP99Micros; }
+
+    public long getPauseP999Micros() { return pauseP999Micros; }
+
+    public long getPauseMaxMicros() { return pauseMaxMicros; }
+
+    public long getPauseTotalMicros() { return pauseTotalMicros; }
+
+    /**
+     * Pico de memória residente da JVM filha (VmHWM), ou -1 fora do Linux
+     *
+     * O ZGC não geracional mapeia a heap em três visões, e o VmHWM conta as
+     * páginas de cada uma; o valor dele fica inflado em relação aos demais.
+     */
+    public long getPeakRssBytes() { return peakRssBytes; }
+
+    public double getThroughput() {
+        return elapsedNanos == 0 ? 0.0 : operations / (elapsedNanos / 1e9);
+    }
+
+    /**
+     * Fração do tempo de execução passada em pausas do GC
+     */
+    public double getPausePercent() {
+        return elapsedNanos == 0 ? 0.0 : pauseTotalMicros * 1000.0 / elapsedNanos * 100;
+    }
+
+    @Override
+    public String toString() {
+        if (status == Status.FAILED) {
+            return String.format("%s / %s: FALHOU (%s)", workload.getLabel(), collector.getLabel(), message);
+        }
+        return String.format("%s / %s: %,.0f ops/s, pausas p50=%dµs p99=%dµs máx=%dµs (%.2f%% do tempo), " +
+                        "RSS pico=%,d KB%s",
+                workload.getLabel(), collector.getLabel(), getThroughput(), pauseP50Micros, pauseP99Micros,
+                pauseMaxMicros, getPausePercent(), peakRssBytes / 1024,
+                status == Status.OUT_OF_MEMORY ? " [OutOfMemoryError]" : "");
+    }
+}
@@ -0,0 +1,157 @@
+package br.com.thiagobianeck.gcdemoproject.scenario;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executa cada carga em uma JVM filha nova, para cada coletor disponível, e gera o relatório
+ *
+ * Ao contrário do {@code GarbageCollectorDemo}, que roda tudo em um processo com
+ * {@code System.gc()} e pausas fixas, aqui nenhum cenário herda a heap, o JIT ou
+ * os objetos do anterior. A ordem não altera os resultados. A heap é fixa
+ * ({@code -Xms} = {@code -Xmx}) para que os coletores disputem o mesmo espaço.
+ *
+ * Configuração por propriedades de sistema (todas opcionais):
+ * <pre>
+ * -Dscenario.collectors=SERIAL,G1,ZGC     padrão: todos os disponíveis
+ * -Dscenario.workloads=LEAKY_CACHE        padrão: todas as cargas
+ * -Dscenario.heap=256m
+ * -Dscenario.seconds=5
+ * -Dscenario.output=target/gc-scenarios   report.json, report.md e um .log por JVM filha
+ * </pre>
+ */
+public class ScenarioRunner {
+    private static final Duration EXIT_GRACE = Duration.ofSeconds(60);
+
+    private final String javaBinary;
+    private final String classPath;
+    private final String heap;
+    private final Duration duration;
+    private final Path outputDirectory;
+
+    public ScenarioRunner(String heap, Duration duration, Path outputDirectory) {
+        this(Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                System.getProperty("java.class.path"), heap, duration, outputDirectory);
+    }
+
+    public ScenarioRunner(String javaBinary, String classPath, String heap, Duration duration, Path outputDirectory) {
+        this.javaBinary = javaBinary;
+        this.classPath = classPath;
+        this.heap = heap;
+        this.duration = duration;
+        this.outputDirectory = outputDirectory;
+    }
+
+    /**
+     * Coletores da lista aceitos por esta JVM
+     */
+    public List<GcCollector> availableCollectors(List<GcCollector> candidates) {
+        List<GcCollector> available = new ArrayList<>();
+        for (GcCollector collector : candidates) {
+            if (collector.isAvailable(javaBinary)) {
+                available.add(collector);
+            } else {
+                System.out.println("⚠️ Coletor indisponível nesta JVM: " + collector.getLabel());
+            }
+        }
+        return available;
+    }
+
+    /**
+     * Executa todas as combinações, carga por carga, e devolve o relatório
+     */
+    public ScenarioReport runAll(List<GcCollector> collectors, List<Workload> workloads) throws IOException {
+        Files.createDirectories(outputDirectory);
+        List<ScenarioResult> results = new ArrayList<>();
+        for (Workload workload : workloads) {
+            for (GcCollector collector : collectors) {
+                System.out.println("▶️ " + workload.getLabel() + " com " + collector.getLabel() + "...");
+                ScenarioResult result = run(collector, workload);
+                System.out.println("   " + result);
+                results.add(result);
+            }
+        }
+        return new ScenarioReport(System.getProperty("java.version"), heap, duration, Instant.now(), results);
+    }
+
+    /**
+     * Executa uma carga em uma JVM filha com o coletor informado
+     */
+    public ScenarioResult run(GcCollector collector, Workload workload) throws IOException {
+        String baseName = workload.name().toLowerCase() + "-" + collector.name().toLowerCase();
+        Path resultFile = outputDirectory.resolve(baseName + ".properties");
+        Path logFile = outputDirectory.resolve(baseName + ".log");
+        Files.deleteIfExists(resultFile);
+
+        List<String> command = new ArrayList<>();
+        command.add(javaBinary);
+        command.addAll(collector.getFlags());
+        command.add("-Xms" + heap);
+        command.add("-Xmx" + heap);
+        command.add("-cp");
+        command.add(classPath);
+        command.add(ScenarioChild.class.getName());
+        command.add(workload.name());
+        command.add(Long.toString(duration.toMillis()));
+        command.add(resultFile.toString());
+
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(logFile.toFile())
+                .start();
+        try {
+            if (!process.waitFor(duration.plus(EXIT_GRACE).toMillis(), TimeUnit.MILLISECONDS)) {
+                process.destroyForcibly();
+                return ScenarioResult.failed(collector, workload, "tempo esgotado");
+            }
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+            return ScenarioResult.failed(collector, workload, "interrompido");
+        }
+
+        if (process.exitValue() != 0 || !Files.exists(resultFile)) {
+            return ScenarioResult.failed(collector, workload, "saída " + process.exitValue() + ", ver " + logFile);
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(resultFile, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        return ScenarioResult.fromProperties(collector, workload, properties);
+    }
+
+    public static void main(String[] args) throws IOException {
+        List<GcCollector> collectors = parse(System.getProperty("scenario.collectors"), GcCollector.class);
+        List<Workload> workloads = parse(System.getProperty("scenario.workloads"), Workload.class);
+        String heap = System.getProperty("scenario.heap", "256m");
+        Duration duration = Duration.ofSeconds(Long.parseLong(System.getProperty("scenario.seconds", "5")));
+        Path output = Path.of(System.getProperty("scenario.output", "target/gc-scenarios"));
+
+        System.out.println("\n🧪 === CENÁRIOS DE GC EM JVMS SEPARADAS ===");
+        ScenarioRunner runner = new ScenarioRunner(heap, duration, output);
+        ScenarioReport report = runner.runAll(runner.availableCollectors(collectors), workloads);
+        report.write(output);
+        System.out.println("\n📄 Relatório: " + output.resolve("report.md") + " e " + output.resolve("report.json"));
+    }
+
+    private static <E extends Enum<E>> List<E> parse(String names, Class<E> type) {
+        if (names == null || names.isBlank()) {
+            return Arrays.asList(type.getEnumConstants());
+        }
+        List<E> values = new ArrayList<>();
+        for (String name : names.split(",")) {
+            values.add(Enum.valueOf(type, name.trim().toUpperCase()));
+        }
+        return values;
+    }
+}
@@ -0,0 +1,145 @@
+package br.com.thiagobianeck.gcdemoproject.scenario;
+
+import br.com.thiagobianeck.gcdemoproject.cache.ImprovedProductCache;
+import br.com.thiagobianeck.gcdemoproject.cache.ProductCache;
+import br.com.thiagobianeck.gcdemoproject.pool.Pools;
+import br.com.thiagobianeck.gcdemoproject.store.ProductRecordFormat;
+
+import java.nio.ByteBuffer;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Cargas executadas pelo {@link ScenarioChild}, cada uma em uma JVM nova
+ *
+ * Todas rodam até o prazo e contam operações em {@code operations}, que continua
+ * válido mesmo se a carga terminar em {@link OutOfMemoryError}.
+ */
+public enum Workload {
+    /**
+     * {@link ProductCache} recarregado sem limpeza: a heap cresce até o fim ou até estourar
+     */
+    LEAKY_CACHE("Cache com vazamento") {
+        @Override
+        void run(long deadlineNanos, LongAdder operations) {
+            ProductCache cache = new ProductCache(1000);
+            try {
+                for (long i = 0; System.nanoTime() < deadlineNanos; i++) {
+                    cache.loadProducts();
+                    cache.getProductById(i % 1000);
+                    operations.increment();
+                }
+            } finally {
+                cache.clearCache(); // A lista é estática; libera a heap para o relatório
+            }
+        }
+    },
+
+    /**
+     * {@link ImprovedProductCache}: leituras por ID e categoria com recargas incrementais periódicas
+     */
+    SOFT_REFERENCE_CACHE("Cache com SoftReference") {
+        @Override
+        void run(long deadlineNanos, LongAdder operations) {
+            ImprovedProductCache cache = new ImprovedProductCache(1000);
+            cache.loadProducts();
+            SplittableRandom random = new SplittableRandom(42);
+            for (long i = 0; System.nanoTime() < deadlineNanos; i++) {
+                cache.getOrLoad((long) random.nextInt(1500));
+                cache.getProductsByCategory(CATEGORIES[random.nextInt(CATEGORIES.length)]);
+                if (i % 10_000 == 9_999) {
+                    cache.refreshProducts();
+                }
+                operations.increment();
+            }
+        }
+    },
+
+    /**
+     * Serialização de blocos de registros em arrays obtidos do pool compartilhado
+     */
+    POOLED_BUFFERS("Buffers com pool") {
+        @Override
+        void run(long deadlineNanos, LongAdder operations) {
+            runInThreads(deadlineNanos, operations, () -> Pools.scratchBytes().acquire(),
+                    bytes -> Pools.scratchBytes().release(bytes));
+        }
+    },
+
+    /**
+     * A mesma serialização, com um array novo por bloco
+     */
+    UNPOOLED_BUFFERS("Buffers sem pool") {
+        @Override
+        void run(long deadlineNanos, LongAdder operations) {
+            runInThreads(deadlineNanos, operations, () -> new byte[Pools.SCRATCH_SIZE], bytes -> { });
+        }
+    };
+
+    private static final String[] CATEGORIES = new String[10];
+    private static final int BUFFER_THREADS = 4;
+
+    static {
+        for (int i = 0; i < CATEGORIES.length; i++) {
+            CATEGORIES[i] = "Categoria " + i;
+        }
+    }
+
+    private final String label;
+
+    Workload(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    abstract void run(long deadlineNanos, LongAdder operations);
+
+    private static void runInThreads(long deadlineNanos, LongAdder operations,
+                                     Supplier<byte[]> acquire, Consumer<byte[]> release) {
+        // Campos prontos: cada operação mede só a serialização e a origem do buffer
+        int recordsPerBlock = Pools.SCRATCH_SIZE / ProductRecordFormat.RECORD_SIZE;
+        String[] names = new String[recordsPerBlock];
+        String[] descriptions = new String[recordsPerBlock];
+        for (int i = 0; i < recordsPerBlock; i++) {
+            names[i] = "Produto " + i;
+            descriptions[i] = "Descrição do produto " + i;
+        }
+        long createdAt = System.currentTimeMillis();
+
+        Thread[] threads = new Thread[BUFFER_THREADS];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = Thread.ofPlatform().start(() -> {
+                long checksum = 0;
+                while (System.nanoTime() < deadlineNanos) {
+                    byte[] bytes = acquire.get();
+                    ByteBuffer block = ByteBuffer.wrap(bytes);
+                    for (int r = 0; r < recordsPerBlock; r++) {
+                        ProductRecordFormat.write(block, r * ProductRecordFormat.RECORD_SIZE, r, (r + 1) * 100L,
+                                createdAt, names[r], CATEGORIES[r % CATEGORIES.length], descriptions[r]);
+                    }
+                    for (int r = 0; r < recordsPerBlock; r++) {
+                        checksum += ProductRecordFormat.readPriceCents(block, r * ProductRecordFormat.RECORD_SIZE);
+                    }
+                    release.accept(bytes);
+                    operations.increment();
+                }
+                if (checksum == 42) {
+                    System.out.print(""); // Mantém o checksum vivo para o JIT
+                }
+            });
+        }
+        for (Thread thread : threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,595 @@
+package br.com.thiagobianeck.gcdemoproject.store;
+
+import br.com.thiagobianeck.gcdemoproject.model.Product;
+import br.com.thiagobianeck.gcdemoproject.pool.Pools;
+import br.com.thiagobianeck.gcdemoproject.util.StringInterner;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Carga em massa de produtos a partir de arquivos exportados, mapeados em memória e lidos em paralelo
+ *
+ * Formatos aceitos:
+ * <ul>
+ *   <li>CSV UTF-8 {@code id,nome,descrição,preço,categoria}, com BOM e cabeçalho opcionais,
+ *       campos entre aspas ({@code ""} escapa aspas) e fim de linha LF ou CRLF.
+ *       Quebras de linha dentro de aspas não são aceitas: os blocos são divididos
+ *       em quebras de linha.</li>
+ *   <li>Binário no {@link ProductRecordFormat} (o arquivo do {@link OffHeapProductStore}),
+ *       reconhecido pelo número mágico; registros apagados são ignorados.</li>
+ * </ul>
+ *
+ * O arquivo é dividido em blocos de cerca de {@code chunkBytes}, com as fronteiras
+ * ajustadas para o início de um registro. Cada bloco é mapeado e analisado por uma
+ * tarefa do {@link ForkJoinPool}. IDs e preços são lidos direto dos bytes. Textos
+ * passam por um array do pool, sem String intermediária. Categorias repetidas
+ * saem de um dicionário de bytes por bloco, e só nomes, descrições e categorias
+ * novas viram Strings. Os produtos seguem para o consumidor em lotes, à medida que
+ * ficam prontos. Linhas inválidas são contadas e ignoradas, sem interromper a carga.
+ */
+public class BulkProductLoader {
+    public static final int DEFAULT_CHUNK_BYTES = 32 * 1024 * 1024;
+    public static final int DEFAULT_BATCH_SIZE = 10_000;
+    private static final int MAX_CHUNK_BYTES = 1 << 30;
+    private static final byte[] UTF8_BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+
+    public enum Format {
+        CSV,
+        BINARY
+    }
+
+    private final ForkJoinPool pool;
+    private final int chunkBytes;
+    private final int batchSize;
+
+    public BulkProductLoader() {
+        this(ForkJoinPool.commonPool(), DEFAULT_CHUNK_BYTES, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * @param chunkBytes tamanho aproximado de cada bloco analisado por uma tarefa (até 1 GB)
+     * @param batchSize  produtos por lote entregue ao consumidor
+     */
+    public BulkProductLoader(ForkJoinPool pool, int chunkBytes, int batchSize) {
+        if (chunkBytes < 1 || chunkBytes > MAX_CHUNK_BYTES || batchSize < 1) {
+            throw new IllegalArgumentException("Parâmetros inválidos: chunkBytes=" + chunkBytes +
+                    ", batchSize=" + batchSize);
+        }
+        this.pool = pool;
+        this.chunkBytes = chunkBytes;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Carrega o arquivo no formato detectado pelo conteúdo
+     *
+     * @param sink recebe os lotes; é chamado por várias threads ao mesmo tempo
+     */
+    public Result load(Path file, Consumer<List<Product>> sink) {
+        return load(file, detectFormat(file), sink);
+    }
+
+    public Result load(Path file, Format format, Consumer<List<Product>> sink) {
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long[] boundaries = format == Format.CSV ? csvBoundaries(channel) : binaryBoundaries(channel);
+            Counters counters = new Counters();
+            pool.invoke(new ChunkTask(channel, format, boundaries, 0, boundaries.length - 1, sink, counters));
+            return new Result(file, format, boundaries[boundaries.length - 1] - boundaries[0],
+                    counters.records.sum(), counters.malformed.sum(), boundaries.length - 1,
+                    System.nanoTime() - start, counters.firstError.get());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao carregar " + file, e);
+        }
+    }
+
+    /**
+     * {@link Format#BINARY} se o arquivo começar com o número mágico do {@link ProductRecordFormat}
+     */
+    public static Format detectFormat(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(4);
+            while (magic.hasRemaining() && channel.read(magic) > 0) {
+                // Lê os 4 primeiros bytes
+            }
+            return !magic.hasRemaining() && magic.getInt(0) == ProductRecordFormat.MAGIC ? Format.BINARY : Format.CSV;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao ler " + file, e);
+        }
+    }
+
+    /**
+     * Fronteiras dos blocos: cada uma é o início de uma linha; a primeira pula o BOM e o cabeçalho
+     */
+    private long[] csvBoundaries(FileChannel channel) throws IOException {
+        long size = channel.size();
+        List<Long> boundaries = new ArrayList<>();
+        long first = dataStart(channel, size);
+        boundaries.add(first);
+        long position = first;
+        while (position < size) {
+            long next = position + chunkBytes >= size ? size : nextLineStart(channel, position + chunkBytes, size);
+            boundaries.add(next);
+            position = next;
+        }
+        if (boundaries.size() == 1) {
+            boundaries.add(first); // Arquivo vazio ou só cabeçalho: um bloco vazio
+        }
+        return boundaries.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    /**
+     * Início da primeira linha de dados: depois do BOM, se houver, e do cabeçalho
+     *
+     * A primeira linha é cabeçalho quando o primeiro campo, sem as aspas, não
+     * começa como número; um ID entre aspas ({@code "42",...}) é dado.
+     */
+    private static long dataStart(FileChannel channel, long size) throws IOException {
+        if (size == 0) {
+            return 0;
+        }
+        MappedByteBuffer head = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(size, UTF8_BOM.length + 2));
+        int start = 0;
+        if (head.limit() >= UTF8_BOM.length && head.get(0) == UTF8_BOM[0] && head.get(1) == UTF8_BOM[1]
+                && head.get(2) == UTF8_BOM[2]) {
+            start = UTF8_BOM.length;
+        }
+        int probe = start < head.limit() && head.get(start) == '"' ? start + 1 : start;
+        if (probe < head.limit()) {
+            byte b = head.get(probe);
+            if (b == '-' || (b >= '0' && b <= '9')) {
+                return start;
+            }
+        }
+        return nextLineStart(channel, start + 1, size); // Cabeçalho
+    }
+
+    /**
+     * Primeira posição em {@code from} ou depois que começa uma linha (logo após um '\n')
+     *
+     * Lê janelas num buffer direto do pool em vez de mapear cada uma: a fronteira
+     * costuma estar a poucos bytes, e um mapeamento por fronteira custaria uma
+     * chamada de sistema e um Cleaner.
+     */
+    private static long nextLineStart(FileChannel channel, long from, long size) throws IOException {
+        ByteBuffer window = Pools.directBuffers().acquire();
+        try {
+            long position = from - 1;
+            while (position < size) {
+                window.clear().limit((int) Math.min(window.capacity(), size - position));
+                while (window.hasRemaining() && channel.read(window, position + window.position()) > 0) {
+                    // Leituras posicionais podem devolver menos bytes que o pedido
+                }
+                int length = window.position();
+                if (length == 0) {
+                    break; // Arquivo encolheu durante a leitura
+                }
+                for (int i = 0; i < length; i++) {
+                    if (window.get(i) == '\n') {
+                        return position + i + 1;
+                    }
+                }
+                position += length;
+            }
+            return size;
+        } finally {
+            Pools.directBuffers().release(window);
+        }
+    }
+
+    private long[] binaryBoundaries(FileChannel channel) throws IOException {
+        MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, ProductRecordFormat.HEADER_SIZE);
+        long records = ProductRecordFormat.readRecordCount(header);
+        // O cabeçalho pode estar à frente dos dados se o arquivo foi truncado
+        long available = (channel.size() - ProductRecordFormat.HEADER_SIZE) / ProductRecordFormat.RECORD_SIZE;
+        records = Math.min(records, Math.max(0, available));
+
+        long recordsPerChunk = Math.max(1, chunkBytes / ProductRecordFormat.RECORD_SIZE);
+        int chunks = (int) Math.max(1, (records + recordsPerChunk - 1) / recordsPerChunk);
+        long[] boundaries = new long[chunks + 1];
+        for (int i = 0; i <= chunks; i++) {
+            boundaries[i] = ProductRecordFormat.recordOffset(Math.min(records, i * recordsPerChunk));
+        }
+        return boundaries;
+    }
+
+    /**
+     * Divide o intervalo de blocos ao meio até sobrar um, que é mapeado e analisado
+     */
+    @SuppressWarnings("serial") // Tarefas do ForkJoinPool nunca são serializadas
+    private final class ChunkTask extends RecursiveAction {
+        private final FileChannel channel;
+        private final Format format;
+        private final long[] boundaries;
+        private final int from;
+        private final int to;
+        private final Consumer<List<Product>> sink;
+        private final Counters counters;
+
+        ChunkTask(FileChannel channel, Format format, long[] boundaries, int from, int to,
+                  Consumer<List<Product>> sink, Counters counters) {
+            this.channel = channel;
+            this.format = format;
+            this.boundaries = boundaries;
+            this.from = from;
+            this.to = to;
+            this.sink = sink;
+            this.counters = counters;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new ChunkTask(channel, format, boundaries, from, middle, sink, counters),
+                        new ChunkTask(channel, format, boundaries, middle, to, sink, counters));
+                return;
+            }
+            long start = boundaries[from];
+            long length = boundaries[to] - start;
+            if (length == 0) {
+                return;
+            }
+            MappedByteBuffer chunk;
+            try {
+                chunk = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Erro ao mapear bloco em " + start, e);
+            }
+            Batcher batcher = new Batcher(sink, batchSize, counters);
+            if (format == Format.CSV) {
+                new CsvChunkParser(chunk, start, batcher, counters).parse();
+            } else {
+                parseBinaryChunk(chunk, batcher);
+            }
+            batcher.flush();
+        }
+    }
+
+    private static void parseBinaryChunk(MappedByteBuffer chunk, Batcher batcher) {
+        for (int offset = 0; offset + ProductRecordFormat.RECORD_SIZE <= chunk.limit();
+             offset += ProductRecordFormat.RECORD_SIZE) {
+            if (ProductRecordFormat.isLive(chunk, offset)) {
+                batcher.add(ProductRecordFormat.read(chunk, offset));
+            }
+        }
+    }
+
+    /**
+     * Analisa as linhas de um bloco CSV; cada campo é copiado (sem aspas) para o array de trabalho
+     */
+    private static final class CsvChunkParser {
+        private final MappedByteBuffer chunk;
+        private final long chunkStart;
+        private final Batcher batcher;
+        private final Counters counters;
+        private final CategoryCache categories = new CategoryCache();
+        private final byte[] pooled = Pools.scratchBytes().acquire();
+        private byte[] field = pooled;
+        private int fieldLength;
+        private int position;
+        private int lineEnd;
+        private boolean moreFields;
+
+        CsvChunkParser(MappedByteBuffer chunk, long chunkStart, Batcher batcher, Counters counters) {
+            this.chunk = chunk;
+            this.chunkStart = chunkStart;
+            this.batcher = batcher;
+            this.counters = counters;
+        }
+
+        void parse() {
+            try {
+                int limit = chunk.limit();
+                int lineStart = 0;
+                while (lineStart < limit) {
+                    int newline = lineStart;
+                    while (newline < limit && chunk.get(newline) != '\n') {
+                        newline++;
+                    }
+                    lineEnd = newline > lineStart && chunk.get(newline - 1) == '\r' ? newline - 1 : newline;
+                    if (lineEnd > lineStart) {
+                        parseLine(lineStart);
+                    }
+                    lineStart = newline + 1;
+                }
+            } finally {
+                Pools.scratchBytes().release(pooled);
+            }
+        }
+
+        private void parseLine(int lineStart) {
+            position = lineStart;
+            moreFields = true;
+            try {
+                long id = parseLong(nextField());
+                String name = StringInterner.domain().intern(text(nextField()));
+                String description = text(nextField());
+                long priceCents = parseCents(nextField());
+                // nextField() pode trocar field por um array maior: leia o tamanho antes
+                int categoryLength = nextField();
+                String category = categories.lookup(field, categoryLength);
+                if (moreFields) {
+                    throw new IllegalArgumentException("colunas além das 5 esperadas");
+                }
+                batcher.add(new Product(id, name, description, BigDecimal.valueOf(priceCents, 2), category));
+            } catch (IllegalArgumentException | ArithmeticException e) {
+                // ArithmeticException: número fora do intervalo de long (multiplyExact/addExact)
+                counters.malformed.increment();
+                counters.firstError.compareAndSet(null, "byte " + (chunkStart + lineStart) + ": " + e.getMessage());
+            }
+        }
+
+        /**
+         * Copia o próximo campo para {@code field} e devolve seu tamanho
+         */
+        private int nextField() {
+            if (!moreFields) {
+                throw new IllegalArgumentException("faltam colunas");
+            }
+            fieldLength = 0;
+            if (position < lineEnd && chunk.get(position) == '"') {
+                position++;
+                while (true) {
+                    if (position >= lineEnd) {
+                        throw new IllegalArgumentException("aspas não fechadas");
+                    }
+                    byte b = chunk.get(position++);
+                    if (b == '"') {
+                        if (position < lineEnd && chunk.get(position) == '"') {
+                            append((byte) '"');
+                            position++;
+                        } else {
+                            break;
+                        }
+                    } else {
+                        append(b);
+                    }
+                }
+                if (position < lineEnd && chunk.get(position) != ',') {
+                    throw new IllegalArgumentException("caractere inesperado após aspas");
+                }
+            } else {
+                while (position < lineEnd && chunk.get(position) != ',') {
+                    append(chunk.get(position++));
+                }
+            }
+            moreFields = position < lineEnd;
+            position++; // Pula a vírgula
+            return fieldLength;
+        }
+
+        private void append(byte b) {
+            if (fieldLength == field.length) {
+                field = Arrays.copyOf(field, field.length * 2); // Campo maior que o array do pool
+            }
+            field[fieldLength++] = b;
+        }
+
+        private String text(int length) {
+            return new String(field, 0, length, StandardCharsets.UTF_8);
+        }
+
+        private long parseLong(int length) {
+            int i = 0;
+            boolean negative = length > 0 && field[0] == '-';
+            if (negative) i++;
+            if (i == length) {
+                throw new IllegalArgumentException("número vazio");
+            }
+            long value = 0;
+            for (; i < length; i++) {
+                int digit = field[i] - '0';
+                if (digit < 0 || digit > 9) {
+                    throw new IllegalArgumentException("número inválido: " + text(length));
+                }
+                value = Math.addExact(Math.multiplyExact(value, 10), digit);
+            }
+            return negative ? -value : value;
+        }
+
+        /**
+         * Preço decimal em centavos; com mais de duas casas, arredonda como {@link ProductRecordFormat#toCents}
+         */
+        private long parseCents(int length) {
+            int dot = -1;
+            for (int i = 0; i < length; i++) {
+                if (field[i] == '.') {
+                    dot = i;
+                    break;
+                }
+            }
+            if (dot < 0) {
+                return Math.multiplyExact(parseLong(length), 100);
+            }
+            int decimals = length - dot - 1;
+            if (decimals > 2) {
+                return ProductRecordFormat.toCents(new BigDecimal(text(length)));
+            }
+            // Junta parte inteira e decimal no próprio array: "12.5" -> "125" e completa com zeros
+            System.arraycopy(field, dot + 1, field, dot, decimals);
+            long cents = parseLong(length - 1);
+            for (int i = decimals; i < 2; i++) {
+                cents = Math.multiplyExact(cents, 10);
+            }
+            return cents;
+        }
+    }
+
+    /**
+     * Dicionário bytes -> String das categorias de um bloco, para não decodificar valores repetidos
+     */
+    private static final class CategoryCache {
+        private static final int MAX_ENTRIES = 4096;
+
+        private byte[][] keys = new byte[64][];
+        private String[] values = new String[64];
+        private int size;
+
+        String lookup(byte[] bytes, int length) {
+            int hash = 1;
+            for (int i = 0; i < length; i++) {
+                hash = 31 * hash + bytes[i];
+            }
+            int mask = keys.length - 1;
+            int slot = (hash ^ (hash >>> 16)) & mask;
+            while (keys[slot] != null) {
+                if (Arrays.equals(keys[slot], 0, keys[slot].length, bytes, 0, length)) {
+                    return values[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+
+            String value = StringInterner.domain().intern(new String(bytes, 0, length, StandardCharsets.UTF_8));
+            if (size < MAX_ENTRIES) {
+                keys[slot] = Arrays.copyOf(bytes, length);
+                values[slot] = value;
+                if (++size * 2 > keys.length) {
+                    grow();
+                }
+            }
+            return value;
+        }
+
+        private void grow() {
+            byte[][] oldKeys = keys;
+            String[] oldValues = values;
+            keys = new byte[oldKeys.length * 2][];
+            values = new String[oldKeys.length * 2];
+            int mask = keys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] == null) {
+                    continue;
+                }
+                int hash = 1;
+                for (byte b : oldKeys[i]) {
+                    hash = 31 * hash + b;
+                }
+                int slot = (hash ^ (hash >>> 16)) & mask;
+                while (keys[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * Acumula produtos e entrega lotes completos ao consumidor
+     */
+    private static final class Batcher {
+        private final Consumer<List<Product>> sink;
+        private final int batchSize;
+        private final Counters counters;
+        private List<Product> batch;
+
+        Batcher(Consumer<List<Product>> sink, int batchSize, Counters counters) {
+            this.sink = sink;
+            this.batchSize = batchSize;
+            this.counters = counters;
+            this.batch = new ArrayList<>(batchSize);
+        }
+
+        void add(Product product) {
+            batch.add(product);
+            if (batch.size() == batchSize) {
+                flush();
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+
+        void flush() {
+            if (!batch.isEmpty()) {
+                counters.records.add(batch.size());
+                sink.accept(batch);
+            }
+        }
+    }
+
+    private static final class Counters {
+        final LongAdder records = new LongAdder();
+        final LongAdder malformed = new LongAdder();
+        final AtomicReference<String> firstError = new AtomicReference<>();
+    }
+
+    /**
+     * Resumo de uma carga
+     */
+    public static final class Result {
+        private final Path file;
+        private final Format format;
+        private final long bytes;
+        private final long records;
+        private final long malformed;
+        private final int chunks;
+        private final long elapsedNanos;
+        private final String firstError;
+
+        Result(Path file, Format format, long bytes, long records, long malformed, int chunks, long elapsedNanos,
+               String firstError) {
+            this.file = file;
+            this.format = format;
+            this.bytes = bytes;
+            this.records = records;
+            this.malformed = malformed;
+            this.chunks = chunks;
+            this.elapsedNanos = elapsedNanos;
+            this.firstError = firstError;
+        }
+
+        public Path getFile() { return file; }
+
+        public Format getFormat() { return format; }
+
+        /**
+         * Bytes de dados analisados (sem cabeçalhos)
+         */
+        public long getBytes() { return bytes; }
+
+        public long getRecords() { return records; }
+
+        public long getMalformed() { return malformed; }
+
+        public int getChunks() { return chunks; }
+
+        public long getElapsedNanos() { return elapsedNanos; }
+
+        /**
+         * Primeira linha inválida encontrada (posição e motivo), ou null
+         */
+        public String getFirstError() { return firstError; }
+
+        public double getMegabytesPerSecond() {
+            return elapsedNanos == 0 ? 0.0 : bytes / (1024.0 * 1024.0) / (elapsedNanos / 1e9);
+        }
+
+        public double getRecordsPerSecond() {
+            return elapsedNanos == 0 ? 0.0 : records / (elapsedNanos / 1e9);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("📥 %s (%s): %,d registros, %,d bytes em %,.1f ms - %,.1f MB/s, %,.0f registros/s, " +
+                            "%d blocos, %d linhas inválidas%s",
+                    file.getFileName(), format, records, bytes, elapsedNanos / 1e6, getMegabytesPerSecond(),
+                    getRecordsPerSecond(), chunks, malformed, firstError != null ? " (primeira: " + firstError + ")" : "");
+        }
+    }
+}
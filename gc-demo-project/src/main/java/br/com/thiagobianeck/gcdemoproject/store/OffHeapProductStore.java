@@ -0,0 +1,280 @@
+package br.com.thiagobianeck.gcdemoproject.store;
+
+import br.com.thiagobianeck.gcdemoproject.model.Product;
+import br.com.thiagobianeck.gcdemoproject.util.LongIntIndex;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Armazenamento de produtos fora da heap, em um arquivo mapeado em memória
+ *
+ * Os registros seguem o {@link ProductRecordFormat} e ficam nas páginas do arquivo
+ * mapeado, fora do alcance do GC: a heap guarda apenas o índice primitivo
+ * ID -> número do registro. Um {@link Product} só é criado quando alguém o pede
+ * em {@link #get(long)}, então o trabalho do GC não cresce com o catálogo.
+ *
+ * O arquivo é mapeado em segmentos (um MappedByteBuffer tem no máximo 2 GB) e,
+ * ao reabrir um arquivo existente, basta remapeá-lo e reconstruir o índice.
+ * Mapear reserva o segmento inteiro no arquivo, então o tamanho do segmento vem
+ * da quantidade esperada de produtos ({@link #openForCatalog(Path, int)}), até
+ * {@value #DEFAULT_RECORDS_PER_SEGMENT} registros (256 MB).
+ *
+ * Uma remoção marca o registro como apagado e guarda o número dele numa pilha de
+ * livres. O próximo ID novo reusa esse registro antes de o arquivo crescer, então
+ * o arquivo para no pico de produtos vivos, e não no total já gravado.
+ */
+public class OffHeapProductStore implements AutoCloseable {
+    public static final int DEFAULT_RECORDS_PER_SEGMENT = 1 << 20; // 256 MB por segmento
+    // Segmento de quem não informa a quantidade esperada: 1 MB
+    static final int MIN_RECORDS_PER_SEGMENT = 1 << 12;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+    private final int recordsPerSegment;
+    private final LongIntIndex index;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private int recordCount;
+    // Registros apagados, prontos para reuso
+    private int[] freeRecords = new int[16];
+    private int freeCount;
+
+    /**
+     * @param minRecordsPerSegment tamanho desejado do segmento; cresce até o máximo se o arquivo já tiver mais registros
+     */
+    private OffHeapProductStore(FileChannel channel, int minRecordsPerSegment, int maxRecordsPerSegment)
+            throws IOException {
+        this.channel = channel;
+        this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, ProductRecordFormat.HEADER_SIZE);
+
+        // Arquivo novo: o mapeamento acabou de criar o cabeçalho zerado
+        if (header.getInt(0) == 0) {
+            ProductRecordFormat.writeHeader(header, 0);
+        }
+        this.recordCount = Math.toIntExact(ProductRecordFormat.readRecordCount(header));
+        this.recordsPerSegment = Math.min(Math.max(minRecordsPerSegment, recordCount), maxRecordsPerSegment);
+        this.index = new LongIntIndex(Math.max(1024, recordCount));
+        rebuildIndex();
+    }
+
+    /**
+     * Abre (ou cria) o arquivo sem quantidade esperada: segmentos do tamanho dos registros já existentes
+     */
+    public static OffHeapProductStore open(Path file) {
+        return openForCatalog(file, 0);
+    }
+
+    /**
+     * Abre (ou cria) o arquivo com segmentos do tamanho do catálogo esperado
+     *
+     * Um catálogo pequeno mapeia só o que precisa, e um arquivo existente maior
+     * que o esperado é remapeado com segmentos do tamanho dele.
+     */
+    public static OffHeapProductStore openForCatalog(Path file, int expectedProducts) {
+        return open(file, Math.max(expectedProducts, MIN_RECORDS_PER_SEGMENT), DEFAULT_RECORDS_PER_SEGMENT);
+    }
+
+    /**
+     * Abre (ou cria) o arquivo e remapeia os registros já existentes, com segmentos de tamanho fixo
+     */
+    public static OffHeapProductStore open(Path file, int recordsPerSegment) {
+        return open(file, recordsPerSegment, recordsPerSegment);
+    }
+
+    private static OffHeapProductStore open(Path file, int minRecordsPerSegment, int maxRecordsPerSegment) {
+        if (minRecordsPerSegment <= 0
+                || (long) maxRecordsPerSegment * ProductRecordFormat.RECORD_SIZE > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("recordsPerSegment inválido: " + minRecordsPerSegment);
+        }
+        try {
+            FileChannel channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            return new OffHeapProductStore(channel, Math.min(minRecordsPerSegment, maxRecordsPerSegment),
+                    maxRecordsPerSegment);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao abrir armazenamento " + file, e);
+        }
+    }
+
+    /**
+     * Grava o produto; um ID existente é sobrescrito no mesmo registro, e um ID novo reusa um registro apagado
+     */
+    public void put(Product product) {
+        lock.writeLock().lock();
+        try {
+            int record = index.get(product.getId());
+            if (record >= 0) {
+                ProductRecordFormat.write(segmentOf(record), offsetInSegment(record), product);
+                return;
+            }
+            if (freeCount > 0) {
+                record = freeRecords[--freeCount];
+            } else {
+                record = recordCount;
+                ensureSegmentFor(record);
+                recordCount++;
+                ProductRecordFormat.writeHeader(header, recordCount);
+            }
+            ProductRecordFormat.write(segmentOf(record), offsetInSegment(record), product);
+            index.put(product.getId(), record);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Decodifica o produto sob demanda, ou devolve null se o ID não existir
+     */
+    public Product get(long id) {
+        lock.readLock().lock();
+        try {
+            int record = index.get(id);
+            return record < 0 ? null : ProductRecordFormat.read(segmentOf(record), offsetInSegment(record));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean contains(long id) {
+        lock.readLock().lock();
+        try {
+            return index.get(id) >= 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean remove(long id) {
+        lock.writeLock().lock();
+        try {
+            int record = index.remove(id);
+            if (record < 0) {
+                return false;
+            }
+            ProductRecordFormat.markDeleted(segmentOf(record), offsetInSegment(record));
+            pushFree(record);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Quantidade de produtos vivos
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Bytes de registros no arquivo (incluindo os apagados)
+     */
+    public long fileBytes() {
+        lock.readLock().lock();
+        try {
+            return ProductRecordFormat.recordOffset(recordCount);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Registros apagados à espera de reuso
+     */
+    public int freeRecords() {
+        lock.readLock().lock();
+        try {
+            return freeCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Registros por segmento mapeado
+     */
+    public int recordsPerSegment() {
+        return recordsPerSegment;
+    }
+
+    /**
+     * Força a gravação das páginas alteradas no disco
+     */
+    public void force() {
+        lock.readLock().lock();
+        try {
+            header.force();
+            for (MappedByteBuffer segment : segments) {
+                segment.force();
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        force();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao fechar armazenamento", e);
+        }
+    }
+
+    private void rebuildIndex() {
+        for (int record = 0; record < recordCount; record++) {
+            ensureSegmentFor(record);
+            MappedByteBuffer segment = segmentOf(record);
+            int offset = offsetInSegment(record);
+            if (ProductRecordFormat.isLive(segment, offset)) {
+                index.put(ProductRecordFormat.readId(segment, offset), record);
+            } else {
+                pushFree(record);
+            }
+        }
+    }
+
+    private void pushFree(int record) {
+        if (freeCount == freeRecords.length) {
+            freeRecords = Arrays.copyOf(freeRecords, freeCount * 2);
+        }
+        freeRecords[freeCount++] = record;
+    }
+
+    private void ensureSegmentFor(int record) {
+        int segment = record / recordsPerSegment;
+        while (segments.size() <= segment) {
+            long start = ProductRecordFormat.recordOffset((long) segments.size() * recordsPerSegment);
+            long length = (long) recordsPerSegment * ProductRecordFormat.RECORD_SIZE;
+            try {
+                segments.add(channel.map(FileChannel.MapMode.READ_WRITE, start, length));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Erro ao mapear segmento " + segments.size(), e);
+            }
+        }
+    }
+
+    private MappedByteBuffer segmentOf(int record) {
+        return segments.get(record / recordsPerSegment);
+    }
+
+    private int offsetInSegment(int record) {
+        return (record % recordsPerSegment) * ProductRecordFormat.RECORD_SIZE;
+    }
+}
@@ -0,0 +1,192 @@
+package br.com.thiagobianeck.gcdemoproject.store;
+
+import br.com.thiagobianeck.gcdemoproject.model.Product;
+import br.com.thiagobianeck.gcdemoproject.pool.Pools;
+import br.com.thiagobianeck.gcdemoproject.util.StringInterner;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Formato binário de registro fixo para produtos
+ *
+ * Arquivo: cabeçalho de {@value #HEADER_SIZE} bytes seguido de registros de
+ * {@value #RECORD_SIZE} bytes. Por ter tamanho fixo, o registro N fica sempre em
+ * {@code HEADER_SIZE + N * RECORD_SIZE}, o que permite acesso direto e divisão
+ * do arquivo em blocos alinhados.
+ *
+ * <pre>
+ * Cabeçalho: magic(4) versão(4) tamanhoRegistro(4) reservado(4) quantidade(8) ...
+ * Registro:  id(8) preçoCentavos(8) criadoEmMillis(8) flags(1) tamNome(1) tamCategoria(1)
+ *            reservado(1) tamDescrição(2) reservado(2) nome(64) categoria(32) descrição(128)
+ * </pre>
+ *
+ * Textos são gravados em UTF-8 e truncados na fronteira de caractere quando
+ * excedem o espaço do campo. Todos os acessos são absolutos, sem alterar a
+ * posição do buffer.
+ */
+public final class ProductRecordFormat {
+    public static final int MAGIC = 0x50524431; // "PRD1"
+    public static final int FORMAT_VERSION = 1;
+    public static final int HEADER_SIZE = 64;
+    public static final int RECORD_SIZE = 256;
+
+    public static final int NAME_CAPACITY = 64;
+    public static final int CATEGORY_CAPACITY = 32;
+    public static final int DESCRIPTION_CAPACITY = 128;
+
+    private static final int HEADER_MAGIC = 0;
+    private static final int HEADER_VERSION = 4;
+    private static final int HEADER_RECORD_SIZE = 8;
+    private static final int HEADER_COUNT = 16;
+
+    private static final int ID = 0;
+    private static final int PRICE = 8;
+    private static final int CREATED_AT = 16;
+    private static final int FLAGS = 24;
+    private static final int NAME_LENGTH = 25;
+    private static final int CATEGORY_LENGTH = 26;
+    private static final int DESCRIPTION_LENGTH = 28;
+    private static final int NAME = 32;
+    private static final int CATEGORY = NAME + NAME_CAPACITY;
+    private static final int DESCRIPTION = CATEGORY + CATEGORY_CAPACITY;
+
+    private static final byte LIVE = 1;
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private ProductRecordFormat() {
+    }
+
+    public static long recordOffset(long record) {
+        return HEADER_SIZE + record * RECORD_SIZE;
+    }
+
+    public static void writeHeader(ByteBuffer header, long recordCount) {
+        header.putInt(HEADER_MAGIC, MAGIC);
+        header.putInt(HEADER_VERSION, FORMAT_VERSION);
+        header.putInt(HEADER_RECORD_SIZE, RECORD_SIZE);
+        header.putLong(HEADER_COUNT, recordCount);
+    }
+
+    /**
+     * Valida o cabeçalho e devolve a quantidade de registros gravados
+     */
+    public static long readRecordCount(ByteBuffer header) {
+        if (header.getInt(HEADER_MAGIC) != MAGIC) {
+            throw new IllegalStateException("Arquivo não está no formato de produtos (magic inválido)");
+        }
+        if (header.getInt(HEADER_VERSION) != FORMAT_VERSION || header.getInt(HEADER_RECORD_SIZE) != RECORD_SIZE) {
+            throw new IllegalStateException("Versão de formato não suportada: " + header.getInt(HEADER_VERSION));
+        }
+        return header.getLong(HEADER_COUNT);
+    }
+
+    public static void write(ByteBuffer buffer, int offset, Product product) {
+        write(buffer, offset, product.getId(), toCents(product.getPrice()),
+                product.getCreatedAt().atZone(ZONE).toInstant().toEpochMilli(),
+                product.getName(), product.getCategory(), product.getDescription());
+    }
+
+    public static void write(ByteBuffer buffer, int offset, long id, long priceCents, long createdAtMillis,
+                             String name, String category, String description) {
+        buffer.putLong(offset + ID, id);
+        buffer.putLong(offset + PRICE, priceCents);
+        buffer.putLong(offset + CREATED_AT, createdAtMillis);
+        buffer.put(offset + NAME_LENGTH, (byte) encode(buffer, offset + NAME, NAME_CAPACITY, name));
+        buffer.put(offset + CATEGORY_LENGTH, (byte) encode(buffer, offset + CATEGORY, CATEGORY_CAPACITY, category));
+        buffer.putShort(offset + DESCRIPTION_LENGTH,
+                (short) encode(buffer, offset + DESCRIPTION, DESCRIPTION_CAPACITY, description));
+        // A flag é gravada por último: um registro só fica visível depois de completo
+        buffer.put(offset + FLAGS, LIVE);
+    }
+
+    public static Product read(ByteBuffer buffer, int offset) {
+        // Um único array do pool serve de área de cópia para os três textos do registro
+        byte[] scratch = Pools.scratchBytes().acquire();
+        try {
+            Product product = new Product(
+                    buffer.getLong(offset + ID),
+                    StringInterner.domain().intern(
+                            decode(buffer, offset + NAME, Byte.toUnsignedInt(buffer.get(offset + NAME_LENGTH)), scratch)),
+                    decode(buffer, offset + DESCRIPTION,
+                            Short.toUnsignedInt(buffer.getShort(offset + DESCRIPTION_LENGTH)), scratch),
+                    BigDecimal.valueOf(buffer.getLong(offset + PRICE), 2),
+                    StringInterner.domain().intern(
+                            decode(buffer, offset + CATEGORY, Byte.toUnsignedInt(buffer.get(offset + CATEGORY_LENGTH)), scratch))
+            );
+            product.setCreatedAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(buffer.getLong(offset + CREATED_AT)), ZONE));
+            return product;
+        } finally {
+            Pools.scratchBytes().release(scratch);
+        }
+    }
+
+    public static long readId(ByteBuffer buffer, int offset) {
+        return buffer.getLong(offset + ID);
+    }
+
+    public static long readPriceCents(ByteBuffer buffer, int offset) {
+        return buffer.getLong(offset + PRICE);
+    }
+
+    public static boolean isLive(ByteBuffer buffer, int offset) {
+        return buffer.get(offset + FLAGS) == LIVE;
+    }
+
+    public static void markDeleted(ByteBuffer buffer, int offset) {
+        buffer.put(offset + FLAGS, (byte) 0);
+    }
+
+    public static long toCents(BigDecimal price) {
+        return price.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Grava o texto em UTF-8 direto no buffer, sem array intermediário, e devolve os bytes usados
+     */
+    private static int encode(ByteBuffer buffer, int offset, int capacity, String value) {
+        if (value == null) {
+            return 0;
+        }
+        int length = 0;
+        for (int i = 0; i < value.length(); ) {
+            int codePoint = value.codePointAt(i);
+            int bytes = codePoint < 0x80 ? 1 : codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+            if (length + bytes > capacity) {
+                break;
+            }
+            int at = offset + length;
+            switch (bytes) {
+                case 1 -> buffer.put(at, (byte) codePoint);
+                case 2 -> {
+                    buffer.put(at, (byte) (0xC0 | (codePoint >> 6)));
+                    buffer.put(at + 1, (byte) (0x80 | (codePoint & 0x3F)));
+                }
+                case 3 -> {
+                    buffer.put(at, (byte) (0xE0 | (codePoint >> 12)));
+                    buffer.put(at + 1, (byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                    buffer.put(at + 2, (byte) (0x80 | (codePoint & 0x3F)));
+                }
+                default -> {
+                    buffer.put(at, (byte) (0xF0 | (codePoint >> 18)));
+                    buffer.put(at + 1, (byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                    buffer.put(at + 2, (byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                    buffer.put(at + 3, (byte) (0x80 | (codePoint & 0x3F)));
+                }
+            }
+            length += bytes;
+            i += Character.charCount(codePoint);
+        }
+        return length;
+    }
+
+    private static String decode(ByteBuffer buffer, int offset, int length, byte[] scratch) {
+        buffer.get(offset, scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+}
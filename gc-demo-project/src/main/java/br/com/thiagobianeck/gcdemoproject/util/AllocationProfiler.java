@@ -0,0 +1,167 @@
+package br.com.thiagobianeck.gcdemoproject.util;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Mede quantos bytes cada operação aloca, pelo contador de alocação da própria thread
+ *
+ * Usa {@link com.sun.management.ThreadMXBean#getCurrentThreadAllocatedBytes()}: a
+ * diferença do contador antes e depois do trecho é exatamente o que a thread
+ * alocou nele (TLABs incluídos), sem depender de GC ou de amostragem. Os
+ * resultados são agregados por nome de operação em um {@link LongHistogram}.
+ *
+ * Threads virtuais: no JDK 21 o contador devolve -1 para elas (a thread virtual
+ * troca de carrier, e o contador da carrier misturaria outras tarefas). Essas
+ * medições são contadas em {@link #getUnsupportedCount()} e não entram nas
+ * estatísticas. Em versões que suportarem o contador, passam a ser registradas
+ * normalmente, sem mudança no código.
+ */
+public class AllocationProfiler {
+    private static final com.sun.management.ThreadMXBean THREAD_BEAN = threadBean();
+
+    private final Map<String, LongHistogram> operations = new ConcurrentHashMap<>();
+    private final LongAdder unsupported = new LongAdder();
+    private final long overhead;
+
+    public AllocationProfiler() {
+        this.overhead = calibrate();
+    }
+
+    /**
+     * Se a JVM oferece o contador de alocação por thread
+     */
+    public static boolean isSupported() {
+        return THREAD_BEAN != null && THREAD_BEAN.isThreadAllocatedMemoryEnabled();
+    }
+
+    /**
+     * Bytes alocados pela thread atual até agora, ou -1 se indisponível
+     */
+    public static long currentThreadAllocatedBytes() {
+        return THREAD_BEAN != null ? THREAD_BEAN.getCurrentThreadAllocatedBytes() : -1;
+    }
+
+    /**
+     * Executa o trecho e registra o que ele alocou na operação informada
+     */
+    public <T> T measure(String operation, Supplier<T> region) {
+        long start = currentThreadAllocatedBytes();
+        try {
+            return region.get();
+        } finally {
+            end(operation, start);
+        }
+    }
+
+    public void measure(String operation, Runnable region) {
+        long start = currentThreadAllocatedBytes();
+        try {
+            region.run();
+        } finally {
+            end(operation, start);
+        }
+    }
+
+    /**
+     * Versão sem lambda para caminhos quentes: {@code long s = currentThreadAllocatedBytes(); ...; end(op, s)}
+     */
+    public void end(String operation, long start) {
+        long now = currentThreadAllocatedBytes();
+        if (start < 0 || now < 0) {
+            unsupported.increment();
+            return;
+        }
+        operations.computeIfAbsent(operation, k -> new LongHistogram())
+                .record(Math.max(0, now - start - overhead));
+    }
+
+    /**
+     * Estatísticas da operação, ou null se ela nunca foi medida
+     */
+    public OperationStats getStats(String operation) {
+        LongHistogram histogram = operations.get(operation);
+        return histogram == null ? null : new OperationStats(operation, histogram.snapshot());
+    }
+
+    /**
+     * Estatísticas de todas as operações, em ordem alfabética
+     */
+    public Map<String, OperationStats> getAllStats() {
+        Map<String, OperationStats> all = new TreeMap<>();
+        operations.forEach((name, histogram) -> all.put(name, new OperationStats(name, histogram.snapshot())));
+        return all;
+    }
+
+    /**
+     * Medições descartadas porque o contador não estava disponível (ex.: threads virtuais)
+     */
+    public long getUnsupportedCount() {
+        return unsupported.sum();
+    }
+
+    public void reset() {
+        operations.clear();
+        unsupported.reset();
+    }
+
+    /**
+     * Bytes atribuídos à própria leitura do contador, descontados de cada medição
+     */
+    private static long calibrate() {
+        long minimum = Long.MAX_VALUE;
+        for (int i = 0; i < 10; i++) {
+            long start = currentThreadAllocatedBytes();
+            long end = currentThreadAllocatedBytes();
+            if (start < 0 || end < 0) {
+                return 0;
+            }
+            minimum = Math.min(minimum, end - start);
+        }
+        return minimum;
+    }
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported()) {
+            bean.setThreadAllocatedMemoryEnabled(true);
+            return bean;
+        }
+        return null;
+    }
+
+    /**
+     * Bytes alocados por execução de uma operação
+     */
+    public static final class OperationStats {
+        private final String operation;
+        private final LongHistogram.Snapshot snapshot;
+
+        OperationStats(String operation, LongHistogram.Snapshot snapshot) {
+            this.operation = operation;
+            this.snapshot = snapshot;
+        }
+
+        public String getOperation() { return operation; }
+
+        public long getCount() { return snapshot.getCount(); }
+
+        public double getMeanBytes() { return snapshot.getMean(); }
+
+        public long getP50Bytes() { return snapshot.getValueAtPercentile(50); }
+
+        public long getP99Bytes() { return snapshot.getValueAtPercentile(99); }
+
+        public long getMaxBytes() { return snapshot.getMax(); }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %d execuções, média %,.0f B, p50 %,d B, p99 %,d B, máx %,d B",
+                    operation, getCount(), getMeanBytes(), getP50Bytes(), getP99Bytes(), getMaxBytes());
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package br.com.thiagobianeck.gcdemoproject.util;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Contadores de um cache: acertos, falhas, cargas, remoções por causa e latência de carga
+ *
+ * Todos os contadores são {@link LongAdder}, que espalham os incrementos em
+ * células por thread: gravar uma estatística no caminho quente não disputa
+ * a mesma linha de cache entre os núcleos. A soma só é feita na leitura.
+ *
+ * Com {@link #register(String)} as estatísticas ficam visíveis via JMX em
+ * {@code br.com.thiagobianeck.gcdemoproject:type=CacheStats,name=...}.
+ */
+public class CacheStats implements CacheStatsMXBean {
+    public static final String JMX_DOMAIN = "br.com.thiagobianeck.gcdemoproject";
+
+    /**
+     * Motivo da saída de uma entrada do cache
+     */
+    public enum RemovalCause {
+        /** Escolhida pela política de tamanho */
+        SIZE,
+        /** A referência foi limpa pelo GC */
+        COLLECTED,
+        /** Removida pela aplicação */
+        EXPLICIT
+    }
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loadSuccesses = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder[] evictions = new LongAdder[RemovalCause.values().length];
+    private final LongHistogram loadLatencyNanos = new LongHistogram();
+    private final LongSupplier sizeSupplier;
+    private volatile ObjectName objectName;
+
+    public CacheStats() {
+        this(() -> -1);
+    }
+
+    /**
+     * @param sizeSupplier fornece o tamanho atual do cache para {@link #getEstimatedSize()}
+     */
+    public CacheStats(LongSupplier sizeSupplier) {
+        this.sizeSupplier = sizeSupplier;
+        for (int i = 0; i < evictions.length; i++) {
+            evictions[i] = new LongAdder();
+        }
+    }
+
+    public void recordHit() {
+        hits.increment();
+    }
+
+    public void recordMiss() {
+        misses.increment();
+    }
+
+    public void recordLoadSuccess(long elapsedNanos) {
+        loadSuccesses.increment();
+        loadLatencyNanos.record(elapsedNanos);
+    }
+
+    public void recordLoadFailure(long elapsedNanos) {
+        loadFailures.increment();
+        loadLatencyNanos.record(elapsedNanos);
+    }
+
+    public void recordEviction(RemovalCause cause) {
+        evictions[cause.ordinal()].increment();
+    }
+
+    public void recordEvictions(RemovalCause cause, int count) {
+        evictions[cause.ordinal()].add(count);
+    }
+
+    public long getEvictionCount(RemovalCause cause) {
+        return evictions[cause.ordinal()].sum();
+    }
+
+    /**
+     * Histograma de latência das cargas, em nanossegundos
+     */
+    public LongHistogram getLoadLatency() {
+        return loadLatencyNanos;
+    }
+
+    @Override
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    @Override
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    @Override
+    public long getRequestCount() {
+        return hits.sum() + misses.sum();
+    }
+
+    @Override
+    public double getHitRate() {
+        long hitCount = hits.sum();
+        long requests = hitCount + misses.sum();
+        return requests == 0 ? 0.0 : (double) hitCount / requests;
+    }
+
+    @Override
+    public long getLoadSuccessCount() {
+        return loadSuccesses.sum();
+    }
+
+    @Override
+    public long getLoadFailureCount() {
+        return loadFailures.sum();
+    }
+
+    @Override
+    public long getSizeEvictionCount() {
+        return getEvictionCount(RemovalCause.SIZE);
+    }
+
+    @Override
+    public long getCollectedEvictionCount() {
+        return getEvictionCount(RemovalCause.COLLECTED);
+    }
+
+    @Override
+    public long getExplicitEvictionCount() {
+        return getEvictionCount(RemovalCause.EXPLICIT);
+    }
+
+    @Override
+    public long getEvictionCount() {
+        long total = 0;
+        for (LongAdder eviction : evictions) {
+            total += eviction.sum();
+        }
+        return total;
+    }
+
+    @Override
+    public double getAverageLoadMillis() {
+        return loadLatencyNanos.getMean() / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    @Override
+    public double getLoadLatencyP50Millis() {
+        return toMillis(loadLatencyNanos.getValueAtPercentile(50));
+    }
+
+    @Override
+    public double getLoadLatencyP99Millis() {
+        return toMillis(loadLatencyNanos.getValueAtPercentile(99));
+    }
+
+    @Override
+    public double getLoadLatencyMaxMillis() {
+        return toMillis(loadLatencyNanos.getMax());
+    }
+
+    @Override
+    public long getEstimatedSize() {
+        return sizeSupplier.getAsLong();
+    }
+
+    @Override
+    public void reset() {
+        hits.reset();
+        misses.reset();
+        loadSuccesses.reset();
+        loadFailures.reset();
+        for (LongAdder eviction : evictions) {
+            eviction.reset();
+        }
+        loadLatencyNanos.reset();
+    }
+
+    /**
+     * Publica as estatísticas no MBeanServer da plataforma com o nome informado
+     *
+     * Se já houver um MBean com o mesmo nome (outra instância do cache), ele é substituído.
+     */
+    public ObjectName register(String cacheName) {
+        try {
+            ObjectName name = new ObjectName(JMX_DOMAIN + ":type=CacheStats,name=" + ObjectName.quote(cacheName));
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            unregister();
+            try {
+                server.registerMBean(this, name);
+            } catch (InstanceAlreadyExistsException e) {
+                server.unregisterMBean(name);
+                server.registerMBean(this, name);
+            }
+            this.objectName = name;
+            return name;
+        } catch (JMException e) {
+            throw new IllegalStateException("Erro ao registrar estatísticas do cache " + cacheName, e);
+        }
+    }
+
+    /**
+     * Remove o MBean registrado por {@link #register(String)}, se houver
+     */
+    public void unregister() {
+        ObjectName name = objectName;
+        if (name == null) {
+            return;
+        }
+        objectName = null;
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+        } catch (InstanceNotFoundException e) {
+            // Já removido ou substituído
+        } catch (JMException e) {
+            throw new IllegalStateException("Erro ao remover MBean " + name, e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CacheStats{hits=%d, misses=%d, hitRate=%.2f%%, loads=%d/%d falhas, " +
+                        "evictions[size=%d, collected=%d, explicit=%d], loadP99=%.2fms}",
+                getHitCount(), getMissCount(), getHitRate() * 100,
+                getLoadSuccessCount(), getLoadFailureCount(),
+                getSizeEvictionCount(), getCollectedEvictionCount(), getExplicitEvictionCount(),
+                getLoadLatencyP99Millis());
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
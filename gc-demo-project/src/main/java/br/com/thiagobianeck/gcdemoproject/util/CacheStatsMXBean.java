@@ -0,0 +1,54 @@
+package br.com.thiagobianeck.gcdemoproject.util;
+
+/**
+ * Atributos de {@link CacheStats} expostos via JMX (JConsole, VisualVM, Prometheus JMX exporter)
+ */
+public interface CacheStatsMXBean {
+
+    long getHitCount();
+
+    long getMissCount();
+
+    long getRequestCount();
+
+    /**
+     * Taxa de acerto acumulada (0.0 a 1.0)
+     */
+    double getHitRate();
+
+    long getLoadSuccessCount();
+
+    long getLoadFailureCount();
+
+    /**
+     * Remoções feitas pela política de tamanho
+     */
+    long getSizeEvictionCount();
+
+    /**
+     * Remoções porque o GC limpou a referência
+     */
+    long getCollectedEvictionCount();
+
+    /**
+     * Remoções pedidas pela aplicação (delta, remoção, limpeza)
+     */
+    long getExplicitEvictionCount();
+
+    long getEvictionCount();
+
+    double getAverageLoadMillis();
+
+    double getLoadLatencyP50Millis();
+
+    double getLoadLatencyP99Millis();
+
+    double getLoadLatencyMaxMillis();
+
+    /**
+     * Quantidade de entradas no cache, ou -1 se o cache não informar
+     */
+    long getEstimatedSize();
+
+    void reset();
+}
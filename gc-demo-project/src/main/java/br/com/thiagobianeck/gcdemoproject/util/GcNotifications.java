@@ -0,0 +1,65 @@
+package br.com.thiagobianeck.gcdemoproject.util;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Assinatura das notificações de fim de coleta emitidas pelos GarbageCollectorMXBeans
+ *
+ * Cada coleta concluída gera um {@link GarbageCollectionNotificationInfo} com duração,
+ * causa, nome do coletor e uso das pools antes e depois.
+ */
+public final class GcNotifications {
+
+    private GcNotifications() {
+    }
+
+    /**
+     * Registra o listener em todos os coletores da JVM
+     *
+     * @return assinatura que deve ser fechada para remover o listener
+     */
+    public static Subscription subscribe(Consumer<GarbageCollectionNotificationInfo> listener) {
+        NotificationListener adapter = (Notification notification, Object handback) -> {
+            if (GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+                listener.accept(GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData()));
+            }
+        };
+
+        List<NotificationEmitter> emitters = new ArrayList<>();
+        for (GarbageCollectorMXBean gcBean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (gcBean instanceof NotificationEmitter emitter) {
+                emitter.addNotificationListener(adapter, null, null);
+                emitters.add(emitter);
+            }
+        }
+
+        return () -> {
+            for (NotificationEmitter emitter : emitters) {
+                try {
+                    emitter.removeNotificationListener(adapter);
+                } catch (ListenerNotFoundException e) {
+                    // Já removido
+                }
+            }
+        };
+    }
+
+    /**
+     * Assinatura ativa; fechar remove o listener dos coletores
+     */
+    public interface Subscription extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
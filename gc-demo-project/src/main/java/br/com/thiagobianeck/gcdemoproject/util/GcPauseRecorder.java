@@ -0,0 +1,319 @@
+package br.com.thiagobianeck.gcdemoproject.util;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import java.lang.management.MemoryUsage;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registro de cada coleta a partir das notificações do GC, com percentis de pausa
+ *
+ * Os contadores cumulativos ({@code getCollectionCount()}, {@code getCollectionTime()})
+ * escondem as pausas individuais: 100 pausas de 1 ms e uma de 100 ms somam o
+ * mesmo tempo. Aqui cada notificação vira um {@link GcEvent} (coletor, ação,
+ * causa, duração e uso das pools antes e depois), e a duração entra em um
+ * {@link LongHistogram} acumulado e em outro da janela atual.
+ *
+ * Os beans "... Cycles" (ZGC Cycles, ZGC Major/Minor Cycles, Shenandoah Cycles)
+ * reportam a duração do ciclo concorrente, não uma pausa, e ficam em um histograma
+ * separado. O nome do coletor não basta: o bean "G1 Concurrent GC" reporta as
+ * pausas Remark e Cleanup do G1 (ação "end of concurrent GC pause"), muitas vezes
+ * as mais longas, e elas contam como pausa, assim como as dos beans "... Pauses".
+ *
+ * Taxas por janela, estimadas como nas ferramentas de análise de log de GC:
+ * <ul>
+ *   <li>alocação: heap antes desta coleta - heap depois da anterior</li>
+ *   <li>promoção: crescimento da old-gen durante as coletas da young-gen</li>
+ * </ul>
+ * A precisão das durações é de milissegundos, a da própria notificação.
+ */
+public class GcPauseRecorder implements AutoCloseable {
+    private static final int DEFAULT_RECENT_EVENTS = 256;
+
+    private final LongHistogram pauses = new LongHistogram();
+    private final LongHistogram concurrentCycles = new LongHistogram();
+    private final Deque<GcEvent> recentEvents = new ArrayDeque<>();
+    private final int recentCapacity;
+
+    // Estado da janela atual (protegido por this)
+    private LongHistogram windowPauses = new LongHistogram();
+    private long windowStartNanos = System.nanoTime();
+    private long windowAllocatedBytes;
+    private long windowPromotedBytes;
+
+    private long totalAllocatedBytes;
+    private long totalPromotedBytes;
+    private long lastHeapAfterGc = -1;
+
+    private GcNotifications.Subscription subscription;
+
+    public GcPauseRecorder() {
+        this(DEFAULT_RECENT_EVENTS);
+    }
+
+    /**
+     * @param recentCapacity quantidade de eventos individuais mantidos para consulta
+     */
+    public GcPauseRecorder(int recentCapacity) {
+        this.recentCapacity = recentCapacity;
+    }
+
+    /**
+     * Passa a receber as notificações de todos os coletores
+     */
+    public synchronized GcPauseRecorder start() {
+        if (subscription == null) {
+            subscription = GcNotifications.subscribe(info -> record(
+                    info.getGcName(), info.getGcAction(), info.getGcCause(),
+                    info.getGcInfo().getStartTime(), info.getGcInfo().getDuration(),
+                    info.getGcInfo().getMemoryUsageBeforeGc(), info.getGcInfo().getMemoryUsageAfterGc()));
+        }
+        return this;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (subscription != null) {
+            subscription.close();
+            subscription = null;
+        }
+    }
+
+    /**
+     * Registra uma coleta; chamado pela thread de notificações do JMX
+     *
+     * @see GarbageCollectionNotificationInfo
+     */
+    synchronized void record(String collector, String action, String cause, long startMillis, long durationMillis,
+                             Map<String, MemoryUsage> before, Map<String, MemoryUsage> after) {
+        GcEvent event = new GcEvent(collector, action, cause, startMillis, durationMillis, before, after);
+
+        if (event.isConcurrent()) {
+            concurrentCycles.record(durationMillis);
+        } else {
+            pauses.record(durationMillis);
+            windowPauses.record(durationMillis);
+        }
+
+        long heapBefore = event.getHeapUsedBefore();
+        if (lastHeapAfterGc >= 0 && heapBefore > lastHeapAfterGc) {
+            long allocated = heapBefore - lastHeapAfterGc;
+            totalAllocatedBytes += allocated;
+            windowAllocatedBytes += allocated;
+        }
+        lastHeapAfterGc = event.getHeapUsedAfter();
+
+        if (event.isYoungCollection()) {
+            long promoted = event.getOldGenUsedAfter() - event.getOldGenUsedBefore();
+            if (promoted > 0) {
+                totalPromotedBytes += promoted;
+                windowPromotedBytes += promoted;
+            }
+        }
+
+        recentEvents.addLast(event);
+        if (recentEvents.size() > recentCapacity) {
+            recentEvents.removeFirst();
+        }
+    }
+
+    /**
+     * Histograma acumulado das pausas, em milissegundos
+     */
+    public LongHistogram getPauseHistogram() {
+        return pauses;
+    }
+
+    /**
+     * Histograma acumulado dos ciclos concorrentes, em milissegundos
+     */
+    public LongHistogram getConcurrentCycleHistogram() {
+        return concurrentCycles;
+    }
+
+    public synchronized List<GcEvent> getRecentEvents() {
+        return Collections.unmodifiableList(new ArrayList<>(recentEvents));
+    }
+
+    public synchronized long getAllocatedBytes() {
+        return totalAllocatedBytes;
+    }
+
+    public synchronized long getPromotedBytes() {
+        return totalPromotedBytes;
+    }
+
+    /**
+     * Fecha a janela atual, devolve seu resumo e começa uma nova
+     */
+    public synchronized Window closeWindow() {
+        long now = System.nanoTime();
+        Window window = new Window(windowPauses.snapshot(), now - windowStartNanos,
+                windowAllocatedBytes, windowPromotedBytes);
+        windowPauses = new LongHistogram();
+        windowStartNanos = now;
+        windowAllocatedBytes = 0;
+        windowPromotedBytes = 0;
+        return window;
+    }
+
+    /**
+     * Uma coleta individual
+     */
+    public static final class GcEvent {
+        private final String collector;
+        private final String action;
+        private final String cause;
+        private final long startMillis;
+        private final long durationMillis;
+        private final Map<String, MemoryUsage> before;
+        private final Map<String, MemoryUsage> after;
+
+        GcEvent(String collector, String action, String cause, long startMillis, long durationMillis,
+                Map<String, MemoryUsage> before, Map<String, MemoryUsage> after) {
+            this.collector = collector;
+            this.action = action;
+            this.cause = cause;
+            this.startMillis = startMillis;
+            this.durationMillis = durationMillis;
+            this.before = Map.copyOf(before);
+            this.after = Map.copyOf(after);
+        }
+
+        public String getCollector() { return collector; }
+
+        public String getAction() { return action; }
+
+        public String getCause() { return cause; }
+
+        /**
+         * Início em milissegundos desde o início da JVM
+         */
+        public long getStartMillis() { return startMillis; }
+
+        public long getDurationMillis() { return durationMillis; }
+
+        public Map<String, MemoryUsage> getUsageBefore() { return before; }
+
+        public Map<String, MemoryUsage> getUsageAfter() { return after; }
+
+        /**
+         * Ciclo concorrente (não é pausa da aplicação): só os beans "... Cycles"
+         */
+        public boolean isConcurrent() {
+            return collector.endsWith("Cycles") && !action.contains("pause");
+        }
+
+        /**
+         * Coleta da young-gen ("end of minor GC" ou coletor de young-gen)
+         */
+        public boolean isYoungCollection() {
+            return action.contains("minor") || collector.contains("Young") || collector.equals("Copy")
+                    || collector.equals("PS Scavenge");
+        }
+
+        public long getHeapUsedBefore() {
+            return heapUsed(before);
+        }
+
+        public long getHeapUsedAfter() {
+            return heapUsed(after);
+        }
+
+        public long getOldGenUsedBefore() {
+            return oldGenUsed(before);
+        }
+
+        public long getOldGenUsedAfter() {
+            return oldGenUsed(after);
+        }
+
+        private static long heapUsed(Map<String, MemoryUsage> usage) {
+            long used = 0;
+            for (Map.Entry<String, MemoryUsage> entry : usage.entrySet()) {
+                if (isHeapPool(entry.getKey())) {
+                    used += entry.getValue().getUsed();
+                }
+            }
+            return used;
+        }
+
+        private static long oldGenUsed(Map<String, MemoryUsage> usage) {
+            long used = 0;
+            for (Map.Entry<String, MemoryUsage> entry : usage.entrySet()) {
+                String pool = entry.getKey();
+                if (pool.contains("Old") || pool.contains("Tenured")) {
+                    used += entry.getValue().getUsed();
+                }
+            }
+            return used;
+        }
+
+        private static boolean isHeapPool(String pool) {
+            return pool.contains("Eden") || pool.contains("Survivor") || pool.contains("Old")
+                    || pool.contains("Tenured") || pool.contains("Generation") || pool.equals("ZHeap")
+                    || pool.equals("Shenandoah") || pool.contains("Humongous");
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s [%s] %s: %d ms, heap %,d -> %,d bytes",
+                    collector, action, cause, durationMillis, getHeapUsedBefore(), getHeapUsedAfter());
+        }
+    }
+
+    /**
+     * Resumo de uma janela: percentis de pausa e taxas de alocação e promoção
+     */
+    public static final class Window {
+        private final LongHistogram.Snapshot pauses;
+        private final long durationNanos;
+        private final long allocatedBytes;
+        private final long promotedBytes;
+
+        Window(LongHistogram.Snapshot pauses, long durationNanos, long allocatedBytes, long promotedBytes) {
+            this.pauses = pauses;
+            this.durationNanos = durationNanos;
+            this.allocatedBytes = allocatedBytes;
+            this.promotedBytes = promotedBytes;
+        }
+
+        public long getPauseCount() { return pauses.getCount(); }
+
+        public long getP50Millis() { return pauses.getValueAtPercentile(50); }
+
+        public long getP99Millis() { return pauses.getValueAtPercentile(99); }
+
+        public long getP999Millis() { return pauses.getValueAtPercentile(99.9); }
+
+        public long getMaxMillis() { return pauses.getMax(); }
+
+        public long getDurationNanos() { return durationNanos; }
+
+        public long getAllocatedBytes() { return allocatedBytes; }
+
+        public long getPromotedBytes() { return promotedBytes; }
+
+        public double getAllocationRateBytesPerSecond() {
+            return durationNanos > 0 ? allocatedBytes * 1e9 / durationNanos : 0;
+        }
+
+        public double getPromotionRateBytesPerSecond() {
+            return durationNanos > 0 ? promotedBytes * 1e9 / durationNanos : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Janela de %.1fs: %d pausas (p50=%d ms, p99=%d ms, p99.9=%d ms, max=%d ms), " +
+                            "alocação %.1f MB/s, promoção %.1f MB/s",
+                    durationNanos / 1e9, getPauseCount(), getP50Millis(), getP99Millis(), getP999Millis(),
+                    getMaxMillis(), getAllocationRateBytesPerSecond() / (1024 * 1024),
+                    getPromotionRateBytesPerSecond() / (1024 * 1024));
+        }
+    }
+}
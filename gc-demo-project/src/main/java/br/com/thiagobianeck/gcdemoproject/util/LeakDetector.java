@@ -0,0 +1,354 @@
+package br.com.thiagobianeck.gcdemoproject.util;
+
+import com.sun.management.HotSpotDiagnosticMXBean;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryUsage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Detector automático de vazamento de memória pela tendência da old-gen após o GC
+ *
+ * O que sobra na old-gen depois de cada coleta que a limpa é o "piso" da aplicação.
+ * Com um vazamento como o do {@code ProductCache}, esse piso cresce de forma
+ * sustentada. Só contam as coletas que recuperaram espaço da old-gen (major, mista
+ * ou fim de ciclo concorrente): entre elas, cada coleta jovem só promove objetos e
+ * faz a old-gen crescer, vazando ou não. Depois de cada uma dessas coletas, o uso
+ * da old-gen entra em uma janela deslizante, e o teste de tendência de Mann-Kendall
+ * diz com que confiança a série é crescente. Como o teste é não paramétrico,
+ * flutuações isoladas não enganam.
+ *
+ * Ao passar da confiança configurada (e de um crescimento mínimo), o detector
+ * captura um histograma de classes (DiagnosticCommand {@code GC.class_histogram})
+ * ou um heap dump ({@link HotSpotDiagnosticMXBean#dumpHeap}). As capturas rodam
+ * fora da thread de notificações e têm intervalo mínimo entre si, pois as duas
+ * pausam a aplicação e o detector não pode virar o incidente.
+ */
+public class LeakDetector implements AutoCloseable {
+
+    /**
+     * O que capturar quando um vazamento é suspeito
+     */
+    public enum CaptureMode {
+        NONE,
+        CLASS_HISTOGRAM,
+        HEAP_DUMP
+    }
+
+    private static final int HISTOGRAM_LINES = 15;
+    private static final DateTimeFormatter DUMP_NAME =
+            DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneId.systemDefault());
+
+    private final int windowSize;
+    private final double confidence;
+    private final long minGrowthBytes;
+    private final CaptureMode captureMode;
+    private final Duration minCaptureInterval;
+    private final Path dumpDirectory;
+
+    private final Deque<long[]> samples = new ArrayDeque<>(); // {epochMillis, bytes}
+    private final AtomicBoolean capturing = new AtomicBoolean();
+    private final ExecutorService captureExecutor = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().daemon().name("leak-detector-capture").factory());
+    private volatile Consumer<LeakReport> listener = report -> System.out.println("🚨 " + report);
+    private volatile Instant lastCapture = Instant.EPOCH;
+    private volatile LeakReport lastReport;
+    private MemoryPoolMXBean oldGenPool;
+    private GcNotifications.Subscription subscription;
+
+    /**
+     * Janela de 20 coletas, 95% de confiança, crescimento mínimo de 1 MB e
+     * histograma de classes no máximo a cada 10 minutos
+     */
+    public LeakDetector() {
+        this(20, 0.95, 1024 * 1024, CaptureMode.CLASS_HISTOGRAM, Duration.ofMinutes(10),
+                Path.of(System.getProperty("java.io.tmpdir")));
+    }
+
+    /**
+     * @param windowSize         quantidade de amostras pós-GC avaliadas
+     * @param confidence         confiança mínima (0.5 a 1.0) de que a série é crescente
+     * @param minGrowthBytes     crescimento mínimo na janela para reportar
+     * @param captureMode        o que capturar ao suspeitar de vazamento
+     * @param minCaptureInterval intervalo mínimo entre duas capturas
+     * @param dumpDirectory      diretório dos heap dumps
+     */
+    public LeakDetector(int windowSize, double confidence, long minGrowthBytes, CaptureMode captureMode,
+                        Duration minCaptureInterval, Path dumpDirectory) {
+        if (windowSize < 4 || confidence <= 0.5 || confidence >= 1.0) {
+            throw new IllegalArgumentException("Janela deve ter ao menos 4 amostras e confiança entre 0.5 e 1.0");
+        }
+        this.windowSize = windowSize;
+        this.confidence = confidence;
+        this.minGrowthBytes = minGrowthBytes;
+        this.captureMode = captureMode;
+        this.minCaptureInterval = minCaptureInterval;
+        this.dumpDirectory = dumpDirectory;
+    }
+
+    /**
+     * Passa a avaliar o uso da old-gen após cada coleta que a limpa
+     */
+    public synchronized LeakDetector start() {
+        if (subscription == null) {
+            oldGenPool = MemoryMonitor.findOldGenPool();
+            if (oldGenPool == null) {
+                throw new IllegalStateException("Pool da old-gen não encontrada");
+            }
+            String poolName = oldGenPool.getName();
+            subscription = GcNotifications.subscribe(info -> {
+                MemoryUsage before = info.getGcInfo().getMemoryUsageBeforeGc().get(poolName);
+                MemoryUsage after = info.getGcInfo().getMemoryUsageAfterGc().get(poolName);
+                if (before != null && after != null) {
+                    onCollection(System.currentTimeMillis(), info.getGcAction(), before.getUsed(), after.getUsed());
+                }
+            });
+        }
+        return this;
+    }
+
+    /**
+     * Recebe cada relatório de suspeita (padrão: imprime no console)
+     */
+    public void onLeakSuspected(Consumer<LeakReport> listener) {
+        this.listener = listener;
+    }
+
+    public LeakReport getLastReport() {
+        return lastReport;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (subscription != null) {
+            subscription.close();
+            subscription = null;
+        }
+        captureExecutor.shutdown();
+    }
+
+    /**
+     * Avalia uma coleta: vira amostra só se recuperou espaço da old-gen
+     *
+     * Coletas jovens só promovem para a old-gen, então o uso depois delas mede a
+     * promoção desde a última major, não o piso. Uma coleta que encolheu a old-gen
+     * (mista no G1, fim de ciclo concorrente, major) ou que se declara major conta.
+     */
+    void onCollection(long epochMillis, String gcAction, long oldGenBeforeBytes, long oldGenAfterBytes) {
+        if (gcAction.contains("major") || oldGenAfterBytes < oldGenBeforeBytes) {
+            recordSample(epochMillis, oldGenAfterBytes);
+        }
+    }
+
+    /**
+     * Adiciona uma amostra pós-GC e avalia a janela
+     */
+    synchronized void recordSample(long epochMillis, long oldGenUsedBytes) {
+        samples.addLast(new long[]{epochMillis, oldGenUsedBytes});
+        if (samples.size() > windowSize) {
+            samples.removeFirst();
+        }
+        if (samples.size() < windowSize) {
+            return;
+        }
+
+        long[] values = new long[samples.size()];
+        int i = 0;
+        for (long[] sample : samples) {
+            values[i++] = sample[1];
+        }
+        double trendConfidence = mannKendallConfidence(values);
+        long growth = values[values.length - 1] - values[0];
+        if (trendConfidence < confidence || growth < minGrowthBytes) {
+            return;
+        }
+
+        long elapsedMillis = samples.getLast()[0] - samples.getFirst()[0];
+        double growthPerMinute = elapsedMillis > 0 ? growth * 60_000.0 / elapsedMillis : 0;
+        // Recomeça a janela: a próxima suspeita precisa de uma nova série completa
+        samples.clear();
+
+        LeakReport report = new LeakReport(Instant.ofEpochMilli(epochMillis), trendConfidence, values[0],
+                values[values.length - 1], growthPerMinute, values.length);
+        scheduleCapture(report);
+    }
+
+    private void scheduleCapture(LeakReport report) {
+        Instant now = Instant.now();
+        boolean allowed = captureMode != CaptureMode.NONE
+                && Duration.between(lastCapture, now).compareTo(minCaptureInterval) >= 0
+                && capturing.compareAndSet(false, true);
+        if (!allowed) {
+            report.captureSkipped = captureMode != CaptureMode.NONE;
+            publish(report);
+            return;
+        }
+        lastCapture = now;
+
+        captureExecutor.execute(() -> {
+            try {
+                if (captureMode == CaptureMode.HEAP_DUMP) {
+                    report.heapDump = dumpHeap();
+                } else {
+                    report.classHistogram = classHistogram();
+                }
+            } catch (RuntimeException e) {
+                report.captureError = e.toString();
+            } finally {
+                capturing.set(false);
+                publish(report);
+            }
+        });
+    }
+
+    private void publish(LeakReport report) {
+        lastReport = report;
+        listener.accept(report);
+    }
+
+    /**
+     * Primeiras linhas do histograma de classes (ordenado por bytes ocupados)
+     */
+    static String classHistogram() {
+        try {
+            ObjectName diagnostic = new ObjectName("com.sun.management:type=DiagnosticCommand");
+            String histogram = (String) ManagementFactory.getPlatformMBeanServer().invoke(diagnostic,
+                    "gcClassHistogram", new Object[]{new String[0]}, new String[]{String[].class.getName()});
+            return histogram.lines().limit(HISTOGRAM_LINES + 2).reduce((a, b) -> a + "\n" + b).orElse("");
+        } catch (JMException e) {
+            throw new IllegalStateException("Erro ao capturar histograma de classes", e);
+        }
+    }
+
+    private Path dumpHeap() {
+        try {
+            Files.createDirectories(dumpDirectory);
+            Path file = dumpDirectory.resolve("leak-" + DUMP_NAME.format(Instant.now()) + ".hprof");
+            ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class).dumpHeap(file.toString(), true);
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao gravar heap dump", e);
+        }
+    }
+
+    /**
+     * Confiança (0 a 1) de que a série é crescente, pelo teste de Mann-Kendall
+     *
+     * S soma o sinal de todos os pares (j > i); sob a hipótese de ausência de
+     * tendência, S é aproximadamente normal com variância n(n-1)(2n+5)/18.
+     */
+    static double mannKendallConfidence(long[] values) {
+        int n = values.length;
+        long s = 0;
+        for (int i = 0; i < n - 1; i++) {
+            for (int j = i + 1; j < n; j++) {
+                s += Long.signum(values[j] - values[i]);
+            }
+        }
+        double variance = n * (n - 1.0) * (2.0 * n + 5.0) / 18.0;
+        if (s <= 0 || variance == 0) {
+            return 0.0;
+        }
+        double z = (s - 1) / Math.sqrt(variance); // correção de continuidade
+        return normalCdf(z);
+    }
+
+    private static double normalCdf(double z) {
+        return 0.5 * (1 + erf(z / Math.sqrt(2)));
+    }
+
+    /**
+     * Aproximação de Abramowitz e Stegun (7.1.26), erro absoluto < 1.5e-7
+     */
+    private static double erf(double x) {
+        double sign = Math.signum(x);
+        x = Math.abs(x);
+        double t = 1 / (1 + 0.3275911 * x);
+        double y = 1 - ((((1.061405429 * t - 1.453152027) * t + 1.421413741) * t - 0.284496736) * t
+                + 0.254829592) * t * Math.exp(-x * x);
+        return sign * y;
+    }
+
+    /**
+     * Suspeita de vazamento e o que foi capturado
+     */
+    public static final class LeakReport {
+        private final Instant detectedAt;
+        private final double confidence;
+        private final long firstBytes;
+        private final long lastBytes;
+        private final double growthBytesPerMinute;
+        private final int samples;
+        private volatile String classHistogram;
+        private volatile Path heapDump;
+        private volatile boolean captureSkipped;
+        private volatile String captureError;
+
+        LeakReport(Instant detectedAt, double confidence, long firstBytes, long lastBytes,
+                   double growthBytesPerMinute, int samples) {
+            this.detectedAt = detectedAt;
+            this.confidence = confidence;
+            this.firstBytes = firstBytes;
+            this.lastBytes = lastBytes;
+            this.growthBytesPerMinute = growthBytesPerMinute;
+            this.samples = samples;
+        }
+
+        public Instant getDetectedAt() { return detectedAt; }
+
+        public double getConfidence() { return confidence; }
+
+        public long getFirstBytes() { return firstBytes; }
+
+        public long getLastBytes() { return lastBytes; }
+
+        public double getGrowthBytesPerMinute() { return growthBytesPerMinute; }
+
+        public int getSamples() { return samples; }
+
+        /**
+         * Topo do histograma de classes, ou null se não foi capturado
+         */
+        public String getClassHistogram() { return classHistogram; }
+
+        /**
+         * Arquivo do heap dump, ou null se não foi capturado
+         */
+        public Path getHeapDump() { return heapDump; }
+
+        /**
+         * Captura suprimida pelo limite de frequência
+         */
+        public boolean isCaptureSkipped() { return captureSkipped; }
+
+        public String getCaptureError() { return captureError; }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder(String.format(
+                    "Possível vazamento: old-gen pós-GC %,d -> %,d bytes em %d coletas (%.1f%% de confiança, %,.0f bytes/min)",
+                    firstBytes, lastBytes, samples, confidence * 100, growthBytesPerMinute));
+            if (captureSkipped) sb.append(" [captura suprimida pelo limite de frequência]");
+            if (captureError != null) sb.append(" [erro na captura: ").append(captureError).append(']');
+            if (heapDump != null) sb.append("\n  └─ Heap dump: ").append(heapDump);
+            if (classHistogram != null) sb.append('\n').append(classHistogram);
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package br.com.thiagobianeck.gcdemoproject.util;
+
+import java.util.Arrays;
+
+/**
+ * Mapa long -> int com endereçamento aberto e sondagem linear, sem boxing
+ *
+ * Usado como índice ID -> posição em estruturas que guardam os dados em arrays
+ * ou buffers. Valores negativos são reservados: {@link #get(long)} devolve -1
+ * quando a chave não existe. Não é thread-safe.
+ */
+public class LongIntIndex {
+    private static final int EMPTY = -1;
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+
+    public LongIntIndex(int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    public int get(long key) {
+        int mask = keys.length - 1;
+        for (int slot = mix(key) & mask; ; slot = (slot + 1) & mask) {
+            int value = values[slot];
+            if (value == EMPTY) return EMPTY;
+            if (keys[slot] == key) return value;
+        }
+    }
+
+    /**
+     * Associa a chave ao valor (não negativo) e devolve o valor anterior, ou -1
+     */
+    public int put(long key, int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Valor não pode ser negativo: " + value);
+        }
+        if ((size + 1) * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+
+        int mask = keys.length - 1;
+        for (int slot = mix(key) & mask; ; slot = (slot + 1) & mask) {
+            int current = values[slot];
+            if (current == EMPTY) {
+                keys[slot] = key;
+                values[slot] = value;
+                size++;
+                return EMPTY;
+            }
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return current;
+            }
+        }
+    }
+
+    /**
+     * Remove a chave e devolve o valor que estava associado, ou -1
+     */
+    public int remove(long key) {
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (values[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        int removed = values[slot];
+        if (removed == EMPTY) {
+            return EMPTY;
+        }
+
+        // Deslocamento para trás: mantém as sequências de sondagem sem lápides
+        int gap = slot;
+        for (int next = (gap + 1) & mask; values[next] != EMPTY; next = (next + 1) & mask) {
+            int home = mix(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+        }
+        values[gap] = EMPTY;
+        size--;
+        return removed;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        Arrays.fill(values, EMPTY);
+        size = 0;
+    }
+
+    /**
+     * Bytes ocupados pelos arrays do índice
+     */
+    public long estimatedBytes() {
+        return 32L + keys.length * 8L + values.length * 4L;
+    }
+
+    private void rehash(int newLength) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(newLength);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != EMPTY) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private void allocate(int length) {
+        keys = new long[length];
+        values = new int[length];
+        Arrays.fill(values, EMPTY);
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        // Fator de carga máximo de 0.5 para sondagem curta
+        return Integer.highestOneBit(Math.max(4, expectedSize * 2) - 1) << 1;
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -2,6 +2,8 @@ package br.com.thiagobianeck.gcdemoproject.util;
 
 import java.lang.management.ManagementFactory;
 import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
 import java.lang.management.MemoryUsage;
 import java.text.DecimalFormat;
 
@@ -11,6 +13,7 @@ import java.text.DecimalFormat;
 public class MemoryMonitor {
     private final MemoryMXBean memoryBean;
     private final DecimalFormat df = new DecimalFormat("#,##0.00");
+    private volatile MemorySampler sampler;
 
     public MemoryMonitor() {
         this.memoryBean = ManagementFactory.getMemoryMXBean();
@@ -46,10 +49,26 @@ public class MemoryMonitor {
         System.out.println("  └─ Máxima JVM: " + formatBytes(runtime.maxMemory()));
     }
 
+    /**
+     * Passa a responder {@link #getHeapUsagePercent()} pela última amostra do amostrador
+     */
+    public void attachSampler(MemorySampler sampler) {
+        this.sampler = sampler;
+    }
+
     /**
      * Obtém uso atual da heap em percentual
+     *
+     * Com um {@link MemorySampler} anexado, lê a amostra mais recente em vez de consultar a JVM.
      */
     public double getHeapUsagePercent() {
+        MemorySampler current = sampler;
+        if (current != null) {
+            double sampled = current.getHeapUsagePercent();
+            if (sampled >= 0) {
+                return sampled;
+            }
+        }
         MemoryUsage heapUsage = memoryBean.getHeapMemoryUsage();
         return (double) heapUsage.getUsed() / heapUsage.getMax() * 100;
     }
@@ -61,6 +80,39 @@ public class MemoryMonitor {
         return getHeapUsagePercent() > 80.0;
     }
 
+    /**
+     * Localiza a pool da geração antiga (G1 Old Gen, PS Old Gen, Tenured Gen...)
+     *
+     * Se nenhum nome for reconhecido, usa a última pool de heap que suporta
+     * threshold de uso após coleta. Retorna null se não houver nenhuma.
+     */
+    public static MemoryPoolMXBean findOldGenPool() {
+        MemoryPoolMXBean fallback = null;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() != MemoryType.HEAP || !pool.isCollectionUsageThresholdSupported()) {
+                continue;
+            }
+            String name = pool.getName();
+            if (name.contains("Old") || name.contains("Tenured")) {
+                return pool;
+            }
+            fallback = pool;
+        }
+        return fallback;
+    }
+
+    /**
+     * Ocupação (0.0 a 1.0) da pool logo após a última coleta, ou -1 se desconhecida
+     */
+    public static double getOccupancyAfterGc(MemoryPoolMXBean pool) {
+        MemoryUsage usage = pool.getCollectionUsage();
+        if (usage == null) {
+            return -1;
+        }
+        long max = usage.getMax() > 0 ? usage.getMax() : usage.getCommitted();
+        return max > 0 ? (double) usage.getUsed() / max : -1;
+    }
+
     /**
      * Formata bytes para formato legível
      */
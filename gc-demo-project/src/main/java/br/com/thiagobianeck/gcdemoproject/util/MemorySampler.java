@@ -0,0 +1,280 @@
+package br.com.thiagobianeck.gcdemoproject.util;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryUsage;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Amostragem contínua de memória em um buffer circular pré-alocado
+ *
+ * A cada intervalo, uma thread daemon grava heap, non-heap e o uso de cada
+ * {@link MemoryPoolMXBean} em arrays primitivos alocados na criação. As séries
+ * se chamam {@code heap.used}, {@code heap.committed}, {@code heap.max},
+ * {@code nonheap.used}, {@code nonheap.committed} e {@code pool.<nome>.used}.
+ *
+ * O buffer é lock-free: há um único escritor, e cada posição tem uma sequência
+ * (seqlock). O escritor marca a posição como "em escrita" antes de gravá-la e
+ * a publica depois. O leitor descarta a amostra se a sequência mudou durante a
+ * leitura. Consultas nunca bloqueiam o amostrador, e vice-versa.
+ *
+ * A própria gravação não aloca. Só os {@link MemoryUsage} devolvidos pela
+ * API de gerenciamento (poucos bytes por pool) ficam como lixo a cada amostra.
+ */
+public class MemorySampler implements AutoCloseable {
+    private static final VarHandle SEQUENCES = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private static final int HEAP_USED = 0;
+    private static final int HEAP_COMMITTED = 1;
+    private static final int HEAP_MAX = 2;
+    private static final int NON_HEAP_USED = 3;
+    private static final int NON_HEAP_COMMITTED = 4;
+    private static final int FIXED_SERIES = 5;
+
+    private final MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
+    private final List<MemoryPoolMXBean> pools;
+    private final String[] seriesNames;
+    private final int seriesCount;
+    private final int capacity;
+    private final Duration interval;
+
+    // Posição i do anel: timestamps[i], values[i * seriesCount ...] e sequences[i]
+    private final long[] timestamps;
+    private final long[] values;
+    private final long[] sequences;
+    private volatile long written;
+
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * @param interval intervalo entre amostras
+     * @param capacity quantidade de amostras mantidas (as mais antigas são sobrescritas)
+     */
+    public MemorySampler(Duration interval, int capacity) {
+        if (interval.isNegative() || interval.isZero() || capacity < 2) {
+            throw new IllegalArgumentException("Intervalo deve ser positivo e capacidade >= 2");
+        }
+        this.interval = interval;
+        this.capacity = capacity;
+        this.pools = List.copyOf(ManagementFactory.getMemoryPoolMXBeans());
+
+        List<String> names = new ArrayList<>(List.of(
+                "heap.used", "heap.committed", "heap.max", "nonheap.used", "nonheap.committed"));
+        for (MemoryPoolMXBean pool : pools) {
+            names.add("pool." + pool.getName() + ".used");
+        }
+        this.seriesNames = names.toArray(String[]::new);
+        this.seriesCount = seriesNames.length;
+
+        this.timestamps = new long[capacity];
+        this.values = new long[capacity * seriesCount];
+        this.sequences = new long[capacity];
+    }
+
+    /**
+     * Inicia a amostragem periódica em uma thread daemon
+     */
+    public synchronized MemorySampler start() {
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(
+                    Thread.ofPlatform().daemon().name("memory-sampler").factory());
+            scheduler.scheduleAtFixedRate(this::sample, 0, interval.toNanos(), TimeUnit.NANOSECONDS);
+        }
+        return this;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Grava uma amostra; chamado apenas pela thread do amostrador (ou por testes, sem ela)
+     */
+    void sample() {
+        long index = written;
+        int slot = (int) (index % capacity);
+        int base = slot * seriesCount;
+
+        // Seqlock: ímpar = em escrita; par = publicada
+        SEQUENCES.setOpaque(sequences, slot, 2 * index + 1);
+        VarHandle.storeStoreFence();
+
+        MemoryUsage heap = memoryBean.getHeapMemoryUsage();
+        values[base + HEAP_USED] = heap.getUsed();
+        values[base + HEAP_COMMITTED] = heap.getCommitted();
+        values[base + HEAP_MAX] = heap.getMax();
+        MemoryUsage nonHeap = memoryBean.getNonHeapMemoryUsage();
+        values[base + NON_HEAP_USED] = nonHeap.getUsed();
+        values[base + NON_HEAP_COMMITTED] = nonHeap.getCommitted();
+        for (int p = 0; p < pools.size(); p++) {
+            MemoryUsage usage = pools.get(p).getUsage();
+            values[base + FIXED_SERIES + p] = usage != null ? usage.getUsed() : -1;
+        }
+        timestamps[slot] = System.nanoTime();
+
+        SEQUENCES.setRelease(sequences, slot, 2 * index + 2);
+        written = index + 1;
+    }
+
+    public String[] getSeriesNames() {
+        return seriesNames.clone();
+    }
+
+    /**
+     * Total de amostras gravadas desde a criação (inclusive as já sobrescritas)
+     */
+    public long getSampleCount() {
+        return written;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Valor mais recente da série, ou -1 se ainda não houver amostra
+     */
+    public long getLatest(String series) {
+        return getLatest(seriesIndex(series));
+    }
+
+    /**
+     * Valor mais recente da série pelo índice (ver {@link #getSeriesNames()}), sem busca por nome
+     */
+    public long getLatest(int s) {
+        if (s < 0 || s >= seriesCount) {
+            throw new IndexOutOfBoundsException("Série " + s + " fora de " + seriesCount);
+        }
+        long end = written;
+        for (long index = end - 1; index >= 0 && index >= end - capacity; index--) {
+            int slot = (int) (index % capacity);
+            long sequence = (long) SEQUENCES.getAcquire(sequences, slot);
+            long value = values[slot * seriesCount + s];
+            VarHandle.loadLoadFence();
+            if (sequence == 2 * index + 2 && (long) SEQUENCES.getVolatile(sequences, slot) == sequence) {
+                return value;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Uso de heap em percentual pela amostra mais recente, ou -1 se ainda não houver amostra
+     */
+    public double getHeapUsagePercent() {
+        long used = getLatest("heap.used");
+        long max = getLatest("heap.max");
+        return used < 0 || max <= 0 ? -1 : (double) used / max * 100;
+    }
+
+    /**
+     * Mínimo, máximo, média e taxa de variação da série nas amostras da janela
+     */
+    public WindowStats getStats(String series, Duration window) {
+        int s = seriesIndex(series);
+        long cutoff = System.nanoTime() - window.toNanos();
+        long end = written;
+
+        long count = 0;
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        double sum = 0;
+        long newestValue = 0, newestTime = 0, oldestValue = 0, oldestTime = 0;
+
+        // Da mais nova para a mais antiga, até sair da janela ou alcançar posições sobrescritas
+        for (long index = end - 1; index >= 0 && index >= end - capacity; index--) {
+            int slot = (int) (index % capacity);
+            long sequence = (long) SEQUENCES.getAcquire(sequences, slot);
+            long time = timestamps[slot];
+            long value = values[slot * seriesCount + s];
+            VarHandle.loadLoadFence();
+            if (sequence != 2 * index + 2 || (long) SEQUENCES.getVolatile(sequences, slot) != sequence) {
+                break; // O escritor já deu a volta no anel
+            }
+            if (time < cutoff) {
+                break;
+            }
+
+            if (count == 0) {
+                newestValue = value;
+                newestTime = time;
+            }
+            oldestValue = value;
+            oldestTime = time;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+            sum += value;
+            count++;
+        }
+
+        if (count == 0) {
+            return new WindowStats(series, 0, 0, 0, 0, 0);
+        }
+        double seconds = (newestTime - oldestTime) / 1e9;
+        double rate = seconds > 0 ? (newestValue - oldestValue) / seconds : 0;
+        return new WindowStats(series, count, min, max, sum / count, rate);
+    }
+
+    private int seriesIndex(String series) {
+        for (int i = 0; i < seriesCount; i++) {
+            if (seriesNames[i].equals(series)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Série desconhecida: " + series);
+    }
+
+    /**
+     * Resumo de uma série em uma janela de tempo
+     */
+    public static final class WindowStats {
+        private final String series;
+        private final long count;
+        private final long min;
+        private final long max;
+        private final double average;
+        private final double ratePerSecond;
+
+        WindowStats(String series, long count, long min, long max, double average, double ratePerSecond) {
+            this.series = series;
+            this.count = count;
+            this.min = min;
+            this.max = max;
+            this.average = average;
+            this.ratePerSecond = ratePerSecond;
+        }
+
+        public String getSeries() { return series; }
+
+        public long getCount() { return count; }
+
+        public long getMin() { return min; }
+
+        public long getMax() { return max; }
+
+        public double getAverage() { return average; }
+
+        /**
+         * Variação por segundo entre a amostra mais antiga e a mais nova da janela
+         */
+        public double getRatePerSecond() { return ratePerSecond; }
+
+        @Override
+        public String toString() {
+            return String.format("%s{amostras=%d, min=%,d, max=%,d, média=%,.0f, taxa=%,.0f/s}",
+                    series, count, min, max, average, ratePerSecond);
+        }
+    }
+}
@@ -0,0 +1,439 @@
+package br.com.thiagobianeck.gcdemoproject.util;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryUsage;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Endpoint HTTP {@code /metrics} no formato OpenMetrics (Prometheus) para memória, GC e caches
+ *
+ * Servido pelo {@code com.sun.net.httpserver} do próprio JDK. Cada linha de métrica
+ * tem seu prefixo (nome + labels) convertido em bytes uma única vez, no registro.
+ * A cada scrape, só os valores são escritos, dígito a dígito, em um buffer de bytes
+ * reutilizado. A renderização não cria Strings, formatadores nem iteradores por
+ * métrica, e o custo de um scrape não cresce com o número de JVMs raspadas.
+ *
+ * Memória e pools vêm do {@link MemorySampler}, quando anexado, sem alocação.
+ * Sem ele, cada scrape lê os MXBeans, que devolvem um {@link MemoryUsage} por pool.
+ */
+public class MetricsExporter implements AutoCloseable {
+    public static final String CONTENT_TYPE = "application/openmetrics-text; version=1.0.0; charset=utf-8";
+    private static final int INITIAL_BUFFER = 16 * 1024;
+
+    private final InetSocketAddress address;
+    private final MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
+    private final MemoryPoolMXBean[] pools;
+    private final byte[][] poolLines;
+    private final GarbageCollectorMXBean[] collectors;
+    private final byte[][] gcCountLines;
+    private final byte[][] gcTimeLines;
+
+    private volatile MemorySampler sampler;
+    private volatile int[] samplerPoolSeries = new int[0];
+    private volatile GcPauseRecorder pauseRecorder;
+    private volatile CacheLines[] caches = new CacheLines[0];
+
+    // Buffer de saída reutilizado entre scrapes (protegido por this)
+    private byte[] buffer = new byte[INITIAL_BUFFER];
+    private int length;
+    private final byte[] digits = new byte[20];
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * @param address endereço de escuta; porta 0 escolhe uma porta livre
+     */
+    public MetricsExporter(InetSocketAddress address) {
+        this.address = address;
+
+        List<MemoryPoolMXBean> poolBeans = ManagementFactory.getMemoryPoolMXBeans();
+        this.pools = poolBeans.toArray(MemoryPoolMXBean[]::new);
+        this.poolLines = new byte[pools.length][];
+        for (int i = 0; i < pools.length; i++) {
+            poolLines[i] = line("jvm_memory_pool_used_bytes", "pool", pools[i].getName());
+        }
+
+        List<GarbageCollectorMXBean> gcBeans = ManagementFactory.getGarbageCollectorMXBeans();
+        this.collectors = gcBeans.toArray(GarbageCollectorMXBean[]::new);
+        this.gcCountLines = new byte[collectors.length][];
+        this.gcTimeLines = new byte[collectors.length][];
+        for (int i = 0; i < collectors.length; i++) {
+            gcCountLines[i] = line("jvm_gc_collections_total", "gc", collectors[i].getName());
+            gcTimeLines[i] = line("jvm_gc_collection_seconds_total", "gc", collectors[i].getName());
+        }
+    }
+
+    /**
+     * Passa a ler memória e pools das amostras do amostrador
+     */
+    public synchronized MetricsExporter attachSampler(MemorySampler sampler) {
+        String[] names = sampler.getSeriesNames();
+        int[] series = new int[pools.length];
+        Arrays.fill(series, -1);
+        for (int i = 0; i < pools.length; i++) {
+            String wanted = "pool." + pools[i].getName() + ".used";
+            for (int s = 0; s < names.length; s++) {
+                if (names[s].equals(wanted)) {
+                    series[i] = s;
+                }
+            }
+        }
+        this.samplerPoolSeries = series;
+        this.sampler = sampler;
+        return this;
+    }
+
+    /**
+     * Exporta os percentis de pausa registrados pelo {@link GcPauseRecorder}
+     */
+    public MetricsExporter attachPauseRecorder(GcPauseRecorder recorder) {
+        this.pauseRecorder = recorder;
+        return this;
+    }
+
+    /**
+     * Exporta os contadores do cache com o label {@code cache="name"}
+     */
+    public synchronized MetricsExporter registerCache(String name, CacheStats stats) {
+        CacheLines[] updated = Arrays.copyOf(caches, caches.length + 1);
+        updated[caches.length] = new CacheLines(name, stats);
+        caches = updated;
+        return this;
+    }
+
+    public synchronized MetricsExporter start() {
+        if (server != null) {
+            return this;
+        }
+        try {
+            server = HttpServer.create(address, 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao abrir endpoint de métricas em " + address, e);
+        }
+        executor = Executors.newSingleThreadExecutor(
+                Thread.ofPlatform().daemon().name("metrics-exporter").factory());
+        server.setExecutor(executor);
+        server.createContext("/metrics", this::handle);
+        server.start();
+        return this;
+    }
+
+    public synchronized int getPort() {
+        if (server == null) {
+            throw new IllegalStateException("Exportador não iniciado");
+        }
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+            server = null;
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            synchronized (this) {
+                int size = render();
+                exchange.sendResponseHeaders(200, size);
+                try (OutputStream body = exchange.getResponseBody()) {
+                    body.write(buffer, 0, size);
+                }
+            }
+        }
+    }
+
+    /**
+     * Renderiza todas as métricas no buffer interno e devolve a quantidade de bytes
+     */
+    synchronized int render() {
+        length = 0;
+        renderMemory();
+        renderGc();
+        renderCaches();
+        write(EOF);
+        return length;
+    }
+
+    /**
+     * Cópia do último conteúdo renderizado (uso em testes e diagnósticos)
+     */
+    synchronized String lastRendered() {
+        return new String(buffer, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private void renderMemory() {
+        MemorySampler currentSampler = sampler;
+        long heapUsed, heapCommitted, heapMax, nonHeapUsed, nonHeapCommitted;
+        if (currentSampler != null && currentSampler.getSampleCount() > 0) {
+            heapUsed = currentSampler.getLatest(0);
+            heapCommitted = currentSampler.getLatest(1);
+            heapMax = currentSampler.getLatest(2);
+            nonHeapUsed = currentSampler.getLatest(3);
+            nonHeapCommitted = currentSampler.getLatest(4);
+        } else {
+            currentSampler = null;
+            MemoryUsage heap = memoryBean.getHeapMemoryUsage();
+            MemoryUsage nonHeap = memoryBean.getNonHeapMemoryUsage();
+            heapUsed = heap.getUsed();
+            heapCommitted = heap.getCommitted();
+            heapMax = heap.getMax();
+            nonHeapUsed = nonHeap.getUsed();
+            nonHeapCommitted = nonHeap.getCommitted();
+        }
+
+        write(TYPE_MEMORY_USED);
+        sample(HEAP_USED, heapUsed);
+        sample(NON_HEAP_USED, nonHeapUsed);
+        write(TYPE_MEMORY_COMMITTED);
+        sample(HEAP_COMMITTED, heapCommitted);
+        sample(NON_HEAP_COMMITTED, nonHeapCommitted);
+        write(TYPE_MEMORY_MAX);
+        sample(HEAP_MAX, heapMax);
+
+        write(TYPE_POOL_USED);
+        int[] series = samplerPoolSeries;
+        for (int i = 0; i < pools.length; i++) {
+            long used;
+            if (currentSampler != null && series[i] >= 0) {
+                used = currentSampler.getLatest(series[i]);
+            } else {
+                MemoryUsage usage = pools[i].getUsage();
+                used = usage != null ? usage.getUsed() : -1;
+            }
+            if (used >= 0) {
+                sample(poolLines[i], used);
+            }
+        }
+    }
+
+    private void renderGc() {
+        write(TYPE_GC_COUNT);
+        for (int i = 0; i < collectors.length; i++) {
+            sample(gcCountLines[i], Math.max(0, collectors[i].getCollectionCount()));
+        }
+        write(TYPE_GC_TIME);
+        for (int i = 0; i < collectors.length; i++) {
+            write(gcTimeLines[i]);
+            writeFixed(Math.max(0, collectors[i].getCollectionTime()), 3);
+            writeByte('\n');
+        }
+
+        GcPauseRecorder recorder = pauseRecorder;
+        if (recorder != null) {
+            LongHistogram pauses = recorder.getPauseHistogram();
+            write(TYPE_GC_PAUSE);
+            quantile(GC_PAUSE_P50, pauses.getValueAtPercentile(50), 3);
+            quantile(GC_PAUSE_P99, pauses.getValueAtPercentile(99), 3);
+            quantile(GC_PAUSE_P999, pauses.getValueAtPercentile(99.9), 3);
+            sample(GC_PAUSE_COUNT, pauses.getCount());
+            quantile(GC_PAUSE_SUM, pauses.getSum(), 3);
+        }
+    }
+
+    private void renderCaches() {
+        CacheLines[] current = caches;
+        if (current.length == 0) {
+            return;
+        }
+        write(TYPE_CACHE_HITS);
+        for (CacheLines cache : current) sample(cache.hits, cache.stats.getHitCount());
+        write(TYPE_CACHE_MISSES);
+        for (CacheLines cache : current) sample(cache.misses, cache.stats.getMissCount());
+        write(TYPE_CACHE_LOADS);
+        for (CacheLines cache : current) {
+            sample(cache.loadSuccess, cache.stats.getLoadSuccessCount());
+            sample(cache.loadFailure, cache.stats.getLoadFailureCount());
+        }
+        write(TYPE_CACHE_EVICTIONS);
+        for (CacheLines cache : current) {
+            sample(cache.evictionsSize, cache.stats.getSizeEvictionCount());
+            sample(cache.evictionsCollected, cache.stats.getCollectedEvictionCount());
+            sample(cache.evictionsExplicit, cache.stats.getExplicitEvictionCount());
+        }
+        write(TYPE_CACHE_SIZE);
+        for (CacheLines cache : current) {
+            long size = cache.stats.getEstimatedSize();
+            if (size >= 0) sample(cache.size, size);
+        }
+        write(TYPE_CACHE_LOAD_DURATION);
+        for (CacheLines cache : current) {
+            LongHistogram latency = cache.stats.getLoadLatency();
+            quantile(cache.loadP50, latency.getValueAtPercentile(50), 9);
+            quantile(cache.loadP99, latency.getValueAtPercentile(99), 9);
+            sample(cache.loadCount, latency.getCount());
+            quantile(cache.loadSum, latency.getSum(), 9);
+        }
+    }
+
+    private void sample(byte[] prefix, long value) {
+        write(prefix);
+        writeLong(value);
+        writeByte('\n');
+    }
+
+    private void quantile(byte[] prefix, long value, int scale) {
+        write(prefix);
+        writeFixed(value, scale);
+        writeByte('\n');
+    }
+
+    private void write(byte[] bytes) {
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buffer, length, bytes.length);
+        length += bytes.length;
+    }
+
+    private void writeByte(char c) {
+        ensure(1);
+        buffer[length++] = (byte) c;
+    }
+
+    private void writeLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            write(LONG_MIN);
+            return;
+        }
+        if (value < 0) {
+            writeByte('-');
+            value = -value;
+        }
+        int count = 0;
+        do {
+            digits[count++] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+        ensure(count);
+        while (count > 0) {
+            buffer[length++] = digits[--count];
+        }
+    }
+
+    /**
+     * Escreve {@code value / 10^scale} com {@code scale} casas decimais (ex.: ms -> s com scale 3)
+     */
+    private void writeFixed(long value, int scale) {
+        long divisor = 1;
+        for (int i = 0; i < scale; i++) divisor *= 10;
+        if (value < 0) {
+            writeByte('-');
+            value = -value;
+        }
+        writeLong(value / divisor);
+        writeByte('.');
+        long fraction = value % divisor;
+        for (long d = divisor / 10; d > 0; d /= 10) {
+            writeByte((char) ('0' + (fraction / d) % 10));
+        }
+    }
+
+    private void ensure(int extra) {
+        if (length + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + extra));
+        }
+    }
+
+    private static byte[] line(String metric, String label, String value) {
+        return (metric + "{" + label + "=\"" + escape(value) + "\"} ").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] line(String metric, String labels) {
+        return (metric + "{" + labels + "} ").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static final byte[] EOF = ascii("# EOF\n");
+    private static final byte[] LONG_MIN = ascii(Long.toString(Long.MIN_VALUE));
+
+    private static final byte[] TYPE_MEMORY_USED = ascii("# TYPE jvm_memory_used_bytes gauge\n");
+    private static final byte[] TYPE_MEMORY_COMMITTED = ascii("# TYPE jvm_memory_committed_bytes gauge\n");
+    private static final byte[] TYPE_MEMORY_MAX = ascii("# TYPE jvm_memory_max_bytes gauge\n");
+    private static final byte[] TYPE_POOL_USED = ascii("# TYPE jvm_memory_pool_used_bytes gauge\n");
+    private static final byte[] HEAP_USED = line("jvm_memory_used_bytes", "area", "heap");
+    private static final byte[] NON_HEAP_USED = line("jvm_memory_used_bytes", "area", "nonheap");
+    private static final byte[] HEAP_COMMITTED = line("jvm_memory_committed_bytes", "area", "heap");
+    private static final byte[] NON_HEAP_COMMITTED = line("jvm_memory_committed_bytes", "area", "nonheap");
+    private static final byte[] HEAP_MAX = line("jvm_memory_max_bytes", "area", "heap");
+
+    private static final byte[] TYPE_GC_COUNT = ascii("# TYPE jvm_gc_collections counter\n");
+    private static final byte[] TYPE_GC_TIME = ascii("# TYPE jvm_gc_collection_seconds counter\n");
+    private static final byte[] TYPE_GC_PAUSE = ascii("# TYPE jvm_gc_pause_seconds summary\n");
+    private static final byte[] GC_PAUSE_P50 = line("jvm_gc_pause_seconds", "quantile", "0.5");
+    private static final byte[] GC_PAUSE_P99 = line("jvm_gc_pause_seconds", "quantile", "0.99");
+    private static final byte[] GC_PAUSE_P999 = line("jvm_gc_pause_seconds", "quantile", "0.999");
+    private static final byte[] GC_PAUSE_COUNT = ascii("jvm_gc_pause_seconds_count ");
+    private static final byte[] GC_PAUSE_SUM = ascii("jvm_gc_pause_seconds_sum ");
+
+    private static final byte[] TYPE_CACHE_HITS = ascii("# TYPE cache_hits counter\n");
+    private static final byte[] TYPE_CACHE_MISSES = ascii("# TYPE cache_misses counter\n");
+    private static final byte[] TYPE_CACHE_LOADS = ascii("# TYPE cache_loads counter\n");
+    private static final byte[] TYPE_CACHE_EVICTIONS = ascii("# TYPE cache_evictions counter\n");
+    private static final byte[] TYPE_CACHE_SIZE = ascii("# TYPE cache_size gauge\n");
+    private static final byte[] TYPE_CACHE_LOAD_DURATION = ascii("# TYPE cache_load_duration_seconds summary\n");
+
+    /**
+     * Prefixos pré-codificados das linhas de um cache
+     */
+    private static final class CacheLines {
+        final CacheStats stats;
+        final byte[] hits;
+        final byte[] misses;
+        final byte[] loadSuccess;
+        final byte[] loadFailure;
+        final byte[] evictionsSize;
+        final byte[] evictionsCollected;
+        final byte[] evictionsExplicit;
+        final byte[] size;
+        final byte[] loadP50;
+        final byte[] loadP99;
+        final byte[] loadCount;
+        final byte[] loadSum;
+
+        CacheLines(String name, CacheStats stats) {
+            this.stats = stats;
+            String cache = "cache=\"" + escape(name) + "\"";
+            this.hits = line("cache_hits_total", cache);
+            this.misses = line("cache_misses_total", cache);
+            this.loadSuccess = line("cache_loads_total", cache + ",result=\"success\"");
+            this.loadFailure = line("cache_loads_total", cache + ",result=\"failure\"");
+            this.evictionsSize = line("cache_evictions_total", cache + ",cause=\"size\"");
+            this.evictionsCollected = line("cache_evictions_total", cache + ",cause=\"collected\"");
+            this.evictionsExplicit = line("cache_evictions_total", cache + ",cause=\"explicit\"");
+            this.size = line("cache_size", cache);
+            this.loadP50 = line("cache_load_duration_seconds", cache + ",quantile=\"0.5\"");
+            this.loadP99 = line("cache_load_duration_seconds", cache + ",quantile=\"0.99\"");
+            this.loadCount = line("cache_load_duration_seconds_count", cache);
+            this.loadSum = line("cache_load_duration_seconds_sum", cache);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package br.com.thiagobianeck.gcdemoproject.util;
+
+import java.lang.ref.WeakReference;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Canonicalização concorrente de Strings de domínio (categorias, nomes) com referências fracas
+ *
+ * Ao contrário de {@link String#intern()}, a tabela é do próprio pool. As cópias
+ * canônicas só vivem enquanto algum objeto as referencia: quando o último produto
+ * de uma categoria é coletado, a entrada desaparece junto. A tabela é dividida em
+ * faixas de {@link WeakHashMap}, cada uma com seu monitor, escolhidas pelo hash da
+ * String. Threads que internam valores diferentes raramente disputam o mesmo lock.
+ *
+ * Comparação com {@code -XX:+UseStringDeduplication}: a deduplicação do GC faz
+ * Strings iguais compartilharem o mesmo {@code byte[]}, mas cada String continua
+ * existindo (24 bytes), e só depois de sobreviver a algumas coletas. Aqui a cópia
+ * é descartada na carga. {@link #getBytesSaved()} estima a economia total, e
+ * {@link #getArrayBytesSaved()} estima a parte que a deduplicação também obteria.
+ */
+public class StringInterner {
+    private static final StringInterner DOMAIN = new StringInterner();
+    // Com compressed oops: cabeçalho (12) + value (4) + hash (4) + coder/hashIsZero (2), alinhado a 8
+    private static final long STRING_OBJECT_BYTES = 24;
+
+    private final Stripe[] stripes;
+    private final int stripeMask;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAdder bytesSaved = new LongAdder();
+    private final LongAdder arrayBytesSaved = new LongAdder();
+
+    /**
+     * Instância compartilhada usada pelos carregadores de produtos
+     */
+    public static StringInterner domain() {
+        return DOMAIN;
+    }
+
+    public StringInterner() {
+        this(Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 4 - 1));
+    }
+
+    /**
+     * @param stripeCount quantidade de faixas (arredondada para potência de dois)
+     */
+    public StringInterner(int stripeCount) {
+        int count = Integer.highestOneBit(Math.max(1, stripeCount));
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.stripeMask = count - 1;
+    }
+
+    /**
+     * Devolve a instância canônica igual a {@code value} (ou o próprio valor, se for o primeiro)
+     */
+    public String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        requests.increment();
+        int hash = value.hashCode();
+        Stripe stripe = stripes[(hash ^ (hash >>> 16)) & stripeMask];
+        String canonical;
+        synchronized (stripe) {
+            WeakReference<String> reference = stripe.table.get(value);
+            canonical = reference != null ? reference.get() : null;
+            if (canonical == null) {
+                // O valor não pode referenciar a chave com força, ou a entrada nunca sairia
+                stripe.table.put(value, new WeakReference<>(value));
+                return value;
+            }
+        }
+        if (canonical != value) {
+            duplicates.increment();
+            long arrayBytes = estimateArrayBytes(value);
+            arrayBytesSaved.add(arrayBytes);
+            bytesSaved.add(STRING_OBJECT_BYTES + arrayBytes);
+        }
+        return canonical;
+    }
+
+    /**
+     * Chamadas a {@link #intern(String)}
+     */
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    /**
+     * Chamadas que receberam uma cópia já existente e descartaram a própria
+     */
+    public long getDuplicateCount() {
+        return duplicates.sum();
+    }
+
+    /**
+     * Strings canônicas ainda vivas (as coletadas saem da conta conforme as faixas são acessadas)
+     */
+    public int getUniqueCount() {
+        int unique = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                unique += stripe.table.size();
+            }
+        }
+        return unique;
+    }
+
+    /**
+     * Bytes estimados das cópias descartadas: objeto String + array
+     */
+    public long getBytesSaved() {
+        return bytesSaved.sum();
+    }
+
+    /**
+     * Parte de {@link #getBytesSaved()} nos arrays, a única que {@code -XX:+UseStringDeduplication} recupera
+     */
+    public long getArrayBytesSaved() {
+        return arrayBytesSaved.sum();
+    }
+
+    public void resetStats() {
+        requests.reset();
+        duplicates.reset();
+        bytesSaved.reset();
+        arrayBytesSaved.reset();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Interner{chamadas=%,d, únicas vivas=%,d, duplicatas=%,d, economia=%,d KB " +
+                        "(deduplicação do GC: só %,d KB dos arrays)}",
+                getRequestCount(), getUniqueCount(), getDuplicateCount(), getBytesSaved() / 1024,
+                getArrayBytesSaved() / 1024);
+    }
+
+    static long estimateArrayBytes(String value) {
+        boolean latin1 = true;
+        for (int i = 0; i < value.length() && latin1; i++) {
+            latin1 = value.charAt(i) < 256;
+        }
+        long content = value.length() * (latin1 ? 1L : 2L);
+        return (16 + content + 7) & ~7L;
+    }
+
+    private static final class Stripe {
+        // Chave fraca: a entrada some quando a String canônica deixa de ser usada
+        final WeakHashMap<String, WeakReference<String>> table = new WeakHashMap<>();
+    }
+}
@@ -0,0 +1,335 @@
+package br.com.thiagobianeck.gcdemoproject.cache;
+
+import br.com.thiagobianeck.gcdemoproject.model.Product;
+import br.com.thiagobianeck.gcdemoproject.util.MemoryMonitor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryUsage;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+@DisplayName("Testes do cache otimizado de produtos")
+class ImprovedProductCacheTest {
+
+    @Test
+    @DisplayName("Deve respeitar o limite de tamanho configurado")
+    void testLimiteDeTamanho() {
+        ImprovedProductCache cache = new ImprovedProductCache(100);
+        cache.loadProducts();
+
+        int presentes = 0;
+        for (long id = 0; id < 1000; id++) {
+            if (cache.getProductById(id) != null) presentes++;
+        }
+
+        assertTrue(presentes <= 100, "Cache não pode passar do limite: " + presentes);
+        assertEquals(100, cache.getMaximumSize());
+    }
+
+    @Test
+    @DisplayName("W-TinyLFU deve manter chaves frequentes diante de chaves acessadas uma vez")
+    void testPoliticaMantemChavesQuentes() {
+        TinyLfuPolicy<Long> policy = new TinyLfuPolicy<>(100, 0.01);
+
+        for (long id = 0; id < 50; id++) {
+            assertTrue(policy.onInsert(id).isEmpty());
+        }
+        for (int round = 0; round < 5; round++) {
+            for (long id = 0; id < 50; id++) {
+                policy.onAccess(id);
+            }
+        }
+
+        // Rajada de chaves frias, cada uma vista uma única vez, enquanto as quentes seguem em uso
+        int quentesRemovidas = 0;
+        for (long id = 1_000; id < 11_000; id++) {
+            policy.onAccess(id % 50);
+            List<Long> evicted = policy.onInsert(id);
+            for (Long key : evicted) {
+                if (key < 50) quentesRemovidas++;
+            }
+        }
+
+        assertEquals(0, quentesRemovidas, "Chaves quentes não deveriam ser removidas");
+        assertEquals(100, policy.size());
+    }
+
+    @Test
+    @DisplayName("Deve reduzir o conjunto de chaves ao diminuir o limite")
+    void testReducaoDeLimite() {
+        TinyLfuPolicy<Long> policy = new TinyLfuPolicy<>(100, 0.1);
+        for (long id = 0; id < 100; id++) {
+            policy.onInsert(id);
+        }
+
+        List<Long> evicted = policy.setMaximumSize(40);
+
+        assertEquals(60, evicted.size());
+        assertEquals(40, policy.size());
+    }
+
+    @Test
+    @DisplayName("Deve calcular a taxa de acerto")
+    void testTaxaDeAcerto() {
+        ImprovedProductCache cache = new ImprovedProductCache(2000);
+        cache.loadProducts();
+
+        assertNotNull(cache.getProductById(1L));
+        assertNull(cache.getProductById(-1L));
+
+        assertEquals(0.5, cache.getHitRate(), 0.0001);
+    }
+
+    @Test
+    @DisplayName("Deve encolher e crescer a capacidade em passos conforme a ocupação pós-GC")
+    void testDimensionamentoAdaptativo() {
+        ImprovedProductCache cache = new ImprovedProductCache(1000);
+        AdaptiveCacheSizer sizer = new AdaptiveCacheSizer(cache, 0.5, 0.8, 0.25, 300);
+
+        assertEquals(750, sizer.adjust(0.9));
+        assertEquals(500, sizer.adjust(0.95));
+        assertEquals(300, sizer.adjust(0.95));
+        assertEquals(300, sizer.adjust(0.99), "Não deve passar do mínimo");
+        assertEquals(300, sizer.adjust(0.6), "Entre as marcas a capacidade não muda");
+        assertEquals(550, sizer.adjust(0.3));
+        assertEquals(800, sizer.adjust(0.1));
+        assertEquals(1000, sizer.adjust(0.1));
+        assertEquals(1000, sizer.adjust(0.1), "Não deve passar da capacidade original");
+        assertEquals(1000, cache.getMaximumSize());
+    }
+
+    @Test
+    @DisplayName("Coletas jovens não devem redimensionar; só as que limpam a old-gen")
+    void testDimensionamentoSoNasColetasDaOldGen() {
+        ImprovedProductCache cache = new ImprovedProductCache(1000);
+        AdaptiveCacheSizer sizer = new AdaptiveCacheSizer(cache, 0.5, 0.8, 0.25, 300);
+        assertEquals(750, sizer.adjust(0.9));
+
+        // Old-gen enchendo pela promoção: o uso é baixo, mas a coleta jovem não a limpou
+        for (int used = 100; used < 400; used += 50) {
+            sizer.onCollection("end of minor GC", oldGen(used), oldGen(used + 50));
+        }
+        assertEquals(750, cache.getMaximumSize(), "Coleta jovem não pode fazer o cache crescer");
+
+        sizer.onCollection("end of minor GC", oldGen(850), oldGen(900));
+        assertEquals(750, cache.getMaximumSize());
+
+        sizer.onCollection("end of mixed GC", oldGen(900), oldGen(300));
+        assertEquals(1000, cache.getMaximumSize(), "Coleta que limpou a old-gen libera o crescimento");
+
+        sizer.onCollection("end of major GC", oldGen(950), oldGen(950));
+        assertEquals(750, cache.getMaximumSize(), "Major conta mesmo sem recuperar espaço");
+    }
+
+    @Test
+    @DisplayName("Fechar o dimensionador deve devolver o threshold que a pool old-gen tinha antes")
+    void testRestauraThresholdDaPool() {
+        MemoryPoolMXBean pool = MemoryMonitor.findOldGenPool();
+        assumeTrue(pool != null && pool.getUsage().getMax() > 0, "Sem pool old-gen com tamanho máximo");
+        long original = pool.getCollectionUsageThreshold();
+        try {
+            pool.setCollectionUsageThreshold(12345);
+            try (AdaptiveCacheSizer sizer = new AdaptiveCacheSizer(new ImprovedProductCache(1000), 0.5, 0.8, 0.25, 300)) {
+                sizer.start();
+                assertNotEquals(12345, pool.getCollectionUsageThreshold());
+            }
+            assertEquals(12345, pool.getCollectionUsageThreshold());
+        } finally {
+            pool.setCollectionUsageThreshold(original);
+        }
+    }
+
+    private static MemoryUsage oldGen(long used) {
+        return new MemoryUsage(0, used, 1000, 1000);
+    }
+
+    @Test
+    @DisplayName("Delta deve aplicar apenas as mudanças e publicar nova versão")
+    void testDeltaRefresh() {
+        ImprovedProductCache cache = new ImprovedProductCache(2000);
+        cache.loadProducts();
+        long versao = cache.getCatalogVersion();
+
+        Product movido = new Product(1L, "Produto 1", "Nova descrição", new BigDecimal("9.99"), "Categoria 2");
+        Product novo = new Product(5000L, "Produto 5000", "Novo", new BigDecimal("1.00"), "Categoria 0");
+        boolean aplicado = cache.applyDelta(new CatalogDelta(versao + 1, List.of(movido, novo), Set.of(3L)));
+
+        assertTrue(aplicado);
+        assertEquals(versao + 1, cache.getCatalogVersion());
+        assertFalse(cache.getProductsByCategory("Categoria 1").stream().anyMatch(p -> p.getId() == 1L));
+        assertTrue(cache.getProductsByCategory("Categoria 2").contains(movido));
+        assertTrue(cache.getProductsByCategory("Categoria 0").contains(novo));
+        assertFalse(cache.getProductsByCategory("Categoria 3").stream().anyMatch(p -> p.getId() == 3L));
+        assertEquals(100, cache.getProductsByCategory("Categoria 5").size(), "Categoria não afetada");
+        assertNull(cache.getProductById(3L));
+        assertEquals(new BigDecimal("9.99"), cache.getProductById(1L).getPrice());
+
+        assertFalse(cache.applyDelta(new CatalogDelta(versao, List.of(), Set.of(10L))), "Delta antigo deve ser ignorado");
+        assertNotNull(cache.getProductById(10L));
+    }
+
+    @Test
+    @DisplayName("Consultas por categoria devem devolver visões imutáveis e paginadas")
+    void testLeituraPaginada() {
+        ImprovedProductCache cache = new ImprovedProductCache(2000);
+        cache.loadProducts();
+
+        List<Product> categoria = cache.getProductsByCategory("Categoria 4");
+        assertSame(categoria, cache.getProductsByCategory("Categoria 4"), "Não deve copiar a cada chamada");
+        assertThrows(UnsupportedOperationException.class, () -> categoria.add(categoria.get(0)));
+
+        List<Product> porPreco = cache.getProductsByCategory("Categoria 4", ProductOrder.PRICE);
+        assertSame(porPreco, cache.getProductsByCategory("Categoria 4", ProductOrder.PRICE));
+        for (int i = 1; i < porPreco.size(); i++) {
+            assertTrue(porPreco.get(i - 1).getPrice().compareTo(porPreco.get(i).getPrice()) <= 0);
+        }
+
+        List<Product> pagina = cache.getProductsByCategory("Categoria 4", ProductOrder.PRICE, 90, 20);
+        assertEquals(10, pagina.size());
+        assertEquals(porPreco.get(90), pagina.get(0));
+        assertEquals(100, cache.getCategorySize("Categoria 4"));
+        assertTrue(cache.getProductsByCategory("Inexistente", ProductOrder.NAME, 0, 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Misses concorrentes do mesmo ID devem gerar uma única carga")
+    void testCargaUnicaPorChave() {
+        SimulatedProductDatabase banco = new SimulatedProductDatabase(Duration.ofMillis(100));
+        ImprovedProductCache cache = new ImprovedProductCache(100, 0.01, banco);
+
+        List<CompletableFuture<Product>> cargas = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            cargas.add(cache.getOrLoadAsync(42L));
+        }
+        for (CompletableFuture<Product> carga : cargas) {
+            assertEquals(42L, carga.join().getId());
+        }
+
+        assertEquals(1, banco.getQueryCount());
+        assertSame(cache.getOrLoad(42L), cache.getProductById(42L));
+        assertNull(cache.getOrLoad(5000L), "ID inexistente no banco");
+    }
+
+    @Test
+    @DisplayName("Valor vencido para atualização deve ser servido enquanto recarrega em segundo plano")
+    void testRefreshAntecipado() throws Exception {
+        SimulatedProductDatabase banco = new SimulatedProductDatabase(Duration.ofMillis(200));
+        ImprovedProductCache cache = new ImprovedProductCache(100, 0.01, banco);
+        cache.attachLoader(banco, Duration.ofMillis(50), Duration.ofSeconds(30));
+
+        Product original = cache.getOrLoad(7L);
+        Thread.sleep(60);
+
+        long inicio = System.nanoTime();
+        assertSame(original, cache.getOrLoad(7L), "Deve devolver o valor atual sem esperar");
+        assertTrue(System.nanoTime() - inicio < Duration.ofMillis(150).toNanos());
+        cache.getOrLoad(7L);
+
+        long limite = System.currentTimeMillis() + 5000;
+        while (cache.getProductById(7L) == original && System.currentTimeMillis() < limite) {
+            Thread.sleep(10);
+        }
+        assertNotSame(original, cache.getProductById(7L), "A recarga deve substituir o valor");
+        assertEquals(2, banco.getQueryCount(), "Leituras durante a recarga não devem dispará-la de novo");
+    }
+
+    @Test
+    @DisplayName("Inserções e despejos concorrentes devem manter mapa e política com as mesmas chaves")
+    void testPutEDespejoConcorrentes() throws Exception {
+        ImprovedProductCache cache = new ImprovedProductCache(100, 0.1, new SimulatedProductDatabase());
+
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+        try {
+            List<Future<?>> tarefas = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                tarefas.add(executor.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < 5000; i++) {
+                        // Poucas chaves para as mesmas IDs serem inseridas e despejadas ao mesmo tempo
+                        cache.getOrLoad((long) random.nextInt(300));
+                    }
+                }));
+            }
+            tarefas.add(executor.submit(() -> {
+                for (int i = 0; i < 200; i++) {
+                    cache.setMaximumSize(i % 2 == 0 ? 50 : 100);
+                }
+            }));
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        Set<Long> noMapa = cache.cachedProductIds();
+        assertTrue(noMapa.size() <= cache.getMaximumSize(), "Cache passou do limite: " + noMapa.size());
+        assertEquals(noMapa, cache.trackedProductIds(), "Política e mapa devem conter as mesmas chaves");
+    }
+
+    @Test
+    @DisplayName("Referência enfileirada deve tirar o produto do mapa e da política")
+    void testReferenciaColetadaSaiDoCache() {
+        ImprovedProductCache cache = new ImprovedProductCache(2000, 0.01, new SimulatedProductDatabase());
+        assertNotNull(cache.getOrLoad(5L));
+        assertNotNull(cache.getOrLoad(6L));
+        assertTrue(cache.trackedProductIds().contains(5L));
+
+        // enqueue() limpa a referência e a põe na fila, como o GC faria
+        assertTrue(cache.productReference(5L).enqueue());
+        assertNotNull(cache.getProductById(6L), "A leitura esvazia a fila de referências");
+
+        assertFalse(cache.cachedProductIds().contains(5L));
+        assertFalse(cache.trackedProductIds().contains(5L));
+        assertEquals(cache.cachedProductIds(), cache.trackedProductIds());
+        assertEquals(1, cache.getCollectedProductCount());
+    }
+
+    @Test
+    @DisplayName("Escritas concorrentes de um produto devem ser todas aplicadas, cada uma com sua versão")
+    void testEscritasConcorrentesDeUmProduto() throws Exception {
+        ImprovedProductCache cache = new ImprovedProductCache(2000);
+        cache.loadProducts();
+        long versao = cache.getCatalogVersion();
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> tarefas = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                long primeiro = t * 100L;
+                tarefas.add(executor.submit(() -> {
+                    for (long id = primeiro; id < primeiro + 100; id++) {
+                        cache.updateProduct(new Product(id, "Produto " + id, "Atualizado",
+                                new BigDecimal("2.50"), "Categoria " + (id % 10)));
+                    }
+                }));
+            }
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(versao + 400, cache.getCatalogVersion(), "Nenhuma escrita pode ser descartada como atrasada");
+        for (long id = 0; id < 400; id++) {
+            assertEquals("Atualizado", cache.getProductById(id).getDescription());
+        }
+        assertTrue(cache.getProductsByCategory("Categoria 3").stream()
+                .filter(p -> p.getId() < 400)
+                .allMatch(p -> p.getDescription().equals("Atualizado")));
+    }
+}
@@ -0,0 +1,44 @@
+package br.com.thiagobianeck.gcdemoproject.jfr;
+
+import br.com.thiagobianeck.gcdemoproject.cache.ImprovedProductCache;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testes dos eventos JFR do cache")
+class CacheActivityStreamTest {
+
+    @Test
+    @DisplayName("Atividade do cache deve ser atribuída à coleta que a precedeu")
+    void testCorrelacaoComGc() throws Exception {
+        try (CacheActivityStream stream = new CacheActivityStream().start()) {
+            // Dá tempo para a gravação começar antes da coleta
+            Thread.sleep(200);
+            System.gc();
+
+            ImprovedProductCache cache = new ImprovedProductCache(100);
+            cache.loadProducts();
+            cache.getOrLoad(5000L); // fora do catálogo: sempre vai ao loader
+
+            CacheActivityStream.GcCorrelation ultima = null;
+            long limite = System.currentTimeMillis() + 15_000;
+            while (System.currentTimeMillis() < limite) {
+                List<CacheActivityStream.GcCorrelation> correlacoes = stream.getCorrelations();
+                long remocoes = correlacoes.stream().mapToLong(CacheActivityStream.GcCorrelation::getEvictions).sum();
+                long recargas = correlacoes.stream().mapToLong(CacheActivityStream.GcCorrelation::getReloads).sum();
+                long cargas = correlacoes.stream().mapToLong(CacheActivityStream.GcCorrelation::getLoads).sum();
+                if (remocoes >= 900 && recargas >= 1 && cargas >= 1) {
+                    ultima = correlacoes.get(correlacoes.size() - 1);
+                    break;
+                }
+                Thread.sleep(100);
+            }
+
+            assertNotNull(ultima, "Eventos do cache não foram correlacionados a nenhuma coleta");
+            assertNotNull(ultima.getCollector());
+        }
+    }
+}
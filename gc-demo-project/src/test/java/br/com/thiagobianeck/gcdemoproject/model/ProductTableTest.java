@@ -0,0 +1,117 @@
+package br.com.thiagobianeck.gcdemoproject.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testes da tabela colunar de produtos")
+class ProductTableTest {
+
+    @Test
+    @DisplayName("Visões devem reproduzir os dados dos produtos originais")
+    void testVisoesEquivalentes() {
+        List<Product> produtos = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            produtos.add(new Product((long) i * 7, "Produto " + i, "Descrição do produto " + i,
+                    new BigDecimal(i % 1000 + 1).add(new BigDecimal("0.25")), "Categoria " + (i % 10)));
+        }
+
+        ProductTable tabela = ProductTable.from(produtos);
+
+        assertEquals(3000, tabela.size());
+        assertEquals(10, tabela.getCategoryCount());
+        for (Product original : produtos) {
+            Product visao = tabela.view(tabela.indexOf(original.getId()));
+            assertEquals(original, visao);
+            assertEquals(original.getName(), visao.getName());
+            assertEquals(original.getDescription(), visao.getDescription());
+            assertEquals(0, original.getPrice().compareTo(visao.getPrice()));
+            assertEquals(original.getCategory(), visao.getCategory());
+        }
+        assertEquals(-1, tabela.indexOf(1));
+        assertSame(tabela.getCategory(0), tabela.getCategory(10), "Categorias vêm do dicionário");
+    }
+
+    @Test
+    @DisplayName("Visões devem ser somente leitura e rejeitar IDs duplicados")
+    void testSomenteLeitura() {
+        ProductTable tabela = new ProductTable();
+        tabela.add(1L, "Produto", "Descrição", 1999, "Categoria", 0L);
+
+        assertThrows(UnsupportedOperationException.class, () -> tabela.view(0).setName("Outro"));
+        assertThrows(IllegalArgumentException.class, () -> tabela.add(1L, "X", "Y", 1, "Categoria", 0L));
+        assertEquals(new BigDecimal("19.99"), tabela.view(0).getPrice());
+    }
+
+    @Test
+    @DisplayName("Tabela deve ocupar menos memória que os objetos")
+    void testComparacaoDeMemoria() {
+        List<Product> produtos = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            produtos.add(new Product((long) i, "Produto " + i, "Descrição " + i,
+                    new BigDecimal(i % 100 + 1), "Categoria " + (i % 10)));
+        }
+        ProductTable tabela = ProductTable.from(produtos);
+
+        long bytesObjetos = 0;
+        for (Product produto : produtos) {
+            bytesObjetos += ProductTable.estimateProductBytes(produto);
+        }
+        assertTrue(tabela.estimatedBytes() * 3 < bytesObjetos);
+        String comparacao = tabela.compareWith(produtos);
+        assertTrue(comparacao.contains("Redução"));
+        assertTrue(comparacao.contains("com as visões"), "Deve contar as visões retidas");
+        assertEquals(48, ProductTable.estimateViewBytes(100));
+        assertEquals(64, ProductTable.estimateViewBytes(1000), "Long fora do cache de valueOf");
+    }
+
+    @Test
+    @DisplayName("Visão deve criar o Long do ID uma vez e usar a categoria do dicionário")
+    void testVisaoSemAlocacaoPorLeitura() {
+        ProductTable tabela = new ProductTable(16);
+        int row = tabela.add(1_000_000L, "Mouse", "Mouse óptico", 1990, "Periféricos", 0);
+
+        Product visao = tabela.view(row);
+        assertSame(visao.getId(), visao.getId());
+        assertSame(tabela.getCategory(row), visao.getCategory());
+    }
+
+    @Test
+    @DisplayName("Leitores concorrentes devem ver linhas completas enquanto a tabela cresce")
+    void testLeituraDuranteCrescimento() throws InterruptedException {
+        ProductTable tabela = new ProductTable(16);
+        int total = 50_000;
+        AtomicReference<Throwable> falha = new AtomicReference<>();
+        Thread leitor = new Thread(() -> {
+            try {
+                while (tabela.size() < total) {
+                    int row = tabela.size() - 1;
+                    if (row < 0) {
+                        continue;
+                    }
+                    Product visao = tabela.view(row);
+                    long id = visao.getId();
+                    if (id != row || !visao.getName().equals("Produto " + row)
+                            || tabela.getPriceCents(row) != row * 10L) {
+                        throw new AssertionError("Linha incompleta: " + row);
+                    }
+                }
+            } catch (Throwable t) {
+                falha.set(t);
+            }
+        });
+        leitor.start();
+        for (int i = 0; i < total; i++) {
+            tabela.add(i, "Produto " + i, "Descrição " + i, i * 10L, "Categoria " + (i % 50), i);
+        }
+        leitor.join();
+
+        assertNull(falha.get(), () -> String.valueOf(falha.get()));
+    }
+}
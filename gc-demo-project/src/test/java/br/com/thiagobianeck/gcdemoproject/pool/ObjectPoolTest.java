@@ -0,0 +1,97 @@
+package br.com.thiagobianeck.gcdemoproject.pool;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testes do pool de objetos")
+class ObjectPoolTest {
+
+    @Test
+    @DisplayName("Deve reutilizar objetos, aplicar o reset e respeitar o limite")
+    void testReusoResetELimite() {
+        ObjectPool<StringBuilder> pool = new ObjectPool<>("teste", StringBuilder::new, sb -> {
+            sb.setLength(0);
+            return sb.capacity() <= 64;
+        }, 1, 0, 0);
+
+        StringBuilder primeiro = pool.acquire();
+        primeiro.append("conteúdo");
+        pool.release(primeiro);
+        StringBuilder segundo = pool.acquire();
+        assertSame(primeiro, segundo);
+        assertEquals(0, segundo.length(), "Reset deve limpar o objeto");
+
+        StringBuilder extra = pool.acquire();
+        pool.release(segundo);
+        pool.release(extra); // Pool com um único lugar: descartado
+        StringBuilder inflado = pool.acquire();
+        inflado.append("x".repeat(1000));
+        pool.release(inflado); // Recusado pelo reset
+
+        assertEquals(4, pool.getAcquireCount());
+        assertEquals(2, pool.getCreatedCount());
+        assertEquals(2, pool.getDiscardedCount());
+        assertEquals(0, pool.getIdleCount());
+    }
+
+    @Test
+    @DisplayName("Threads concorrentes nunca devem receber o mesmo objeto ao mesmo tempo")
+    void testConcorrencia() throws Exception {
+        ObjectPool<int[]> pool = new ObjectPool<>("concorrente", () -> new int[1], array -> true, 8);
+        Set<int[]> emUso = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+        AtomicInteger conflitos = new AtomicInteger();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            Future<?>[] tarefas = new Future<?>[8];
+            for (int t = 0; t < tarefas.length; t++) {
+                tarefas[t] = executor.submit(() -> {
+                    for (int i = 0; i < 20_000; i++) {
+                        int[] objeto = pool.acquire();
+                        if (!emUso.add(objeto)) conflitos.incrementAndGet();
+                        objeto[0]++;
+                        emUso.remove(objeto);
+                        pool.release(objeto);
+                    }
+                });
+            }
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get();
+            }
+        }
+
+        assertEquals(0, conflitos.get());
+        assertEquals(160_000, pool.getAcquireCount());
+        assertTrue(pool.getReuseRate() > 0.99, pool.toString());
+    }
+
+    @Test
+    @DisplayName("Deve detectar objetos coletados sem devolução")
+    void testDeteccaoDeVazamento() throws InterruptedException {
+        ObjectPool<byte[]> pool = new ObjectPool<>("vazamento", () -> new byte[1024], bytes -> true, 4, 0, 1);
+        StackTraceElement[][] origem = new StackTraceElement[1][];
+        pool.onLeak(trace -> origem[0] = trace);
+
+        pool.release(pool.acquire()); // Devolvido: não é vazamento
+        pool.acquire(); // Esquecido
+
+        for (int i = 0; i < 50 && pool.getLeakCount() == 0; i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+
+        assertEquals(1, pool.getLeakCount());
+        assertNotNull(origem[0]);
+        assertEquals(ObjectPoolTest.class.getName(), origem[0][0].getClassName(),
+                "A pilha deve começar no chamador de acquire()");
+    }
+}
@@ -0,0 +1,57 @@
+package br.com.thiagobianeck.gcdemoproject.scenario;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testes do executor de cenários de GC")
+class ScenarioRunnerTest {
+
+    @TempDir
+    Path saida;
+
+    @Test
+    @DisplayName("Deve executar a carga em uma JVM filha e gravar o relatório")
+    void testExecucaoEmJvmFilha() throws Exception {
+        ScenarioRunner runner = new ScenarioRunner("64m", Duration.ofMillis(500), saida);
+
+        ScenarioReport report = runner.runAll(List.of(GcCollector.SERIAL), List.of(Workload.UNPOOLED_BUFFERS));
+        report.write(saida);
+
+        ScenarioResult result = report.getResults().get(0);
+        assertEquals(ScenarioResult.Status.OK, result.getStatus(), result.toString());
+        assertTrue(result.getOperations() > 0, result.toString());
+        assertTrue(result.getPauseCount() > 0, "Array novo por operação deve provocar coletas: " + result);
+        assertTrue(result.getElapsedNanos() >= Duration.ofMillis(500).toNanos());
+        assertTrue(Files.readString(saida.resolve("report.md")).contains("| Serial | OK |"));
+        assertTrue(Files.exists(saida.resolve("report.json")));
+    }
+
+    @Test
+    @DisplayName("Deve gerar JSON válido com escape e falhas no relatório")
+    void testFormatoDoRelatorio() {
+        ScenarioResult ok = new ScenarioResult(GcCollector.G1, Workload.LEAKY_CACHE, ScenarioResult.Status.OK, "",
+                1000, 2_000_000_000L, 5, 6, 100, 900, 950, 1000, 3000, 200L * 1024 * 1024);
+        ScenarioResult falha = ScenarioResult.failed(GcCollector.ZGC, Workload.LEAKY_CACHE, "saída \"1\"");
+        ScenarioReport report = new ScenarioReport("21", "256m", Duration.ofSeconds(2),
+                Instant.parse("2026-01-01T00:00:00Z"), List.of(ok, falha));
+
+        String json = report.toJson();
+        assertTrue(json.contains("\"collector\": \"G1\""));
+        assertTrue(json.contains("\"throughputOpsPerSecond\": 500.0"));
+        assertTrue(json.contains("\"pausePercent\": 0.150"));
+        assertTrue(json.contains("\"message\": \"saída \\\"1\\\"\""));
+
+        String md = report.toMarkdown();
+        assertTrue(md.contains("| G1 | OK | 500 | 5 | 6 | 100 | 900 | 950 | 1000 | 0.15% | 200.0 |"), md);
+        assertTrue(md.contains("| ZGC | FAILED: saída \"1\""), md);
+    }
+}
@@ -0,0 +1,138 @@
+package br.com.thiagobianeck.gcdemoproject.store;
+
+import br.com.thiagobianeck.gcdemoproject.cache.ImprovedProductCache;
+import br.com.thiagobianeck.gcdemoproject.model.Product;
+import br.com.thiagobianeck.gcdemoproject.pool.Pools;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testes da carga em massa de produtos")
+class BulkProductLoaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Deve carregar CSV com cabeçalho, aspas e CRLF em vários blocos, contando linhas inválidas")
+    void testCargaCsv() throws IOException {
+        StringBuilder csv = new StringBuilder("id,name,description,price,category\r\n");
+        for (int i = 0; i < 5000; i++) {
+            csv.append(i).append(",Produto ").append(i).append(",\"Diz \"\"olá\"\", ção ").append(i)
+                    .append("\",").append(i % 100).append('.').append(i % 10).append(",Categoria ")
+                    .append(i % 7).append("\r\n");
+        }
+        csv.append("abc,Quebrado,Sem preço,x,Categoria 1\r\n");
+        csv.append("9999,\"Aspas abertas,Descrição,1.00,Categoria 1\r\n");
+        csv.append("99999999999999999999,Estouro,ID fora do intervalo,1.00,Categoria 1\r\n");
+        csv.append("9998,Estouro,Preço fora do intervalo,99999999999999999.99,Categoria 1\r\n");
+        Path arquivo = tempDir.resolve("produtos.csv");
+        Files.writeString(arquivo, csv, StandardCharsets.UTF_8);
+
+        Map<Long, Product> carregados = new ConcurrentHashMap<>();
+        long buffersAntes = Pools.directBuffers().getAcquireCount();
+        long devolvidosAntes = Pools.directBuffers().getReleaseCount();
+        BulkProductLoader loader = new BulkProductLoader(ForkJoinPool.commonPool(), 4096, 100);
+        BulkProductLoader.Result resultado = loader.load(arquivo,
+                lote -> lote.forEach(p -> assertNull(carregados.put(p.getId(), p), "ID duplicado: " + p.getId())));
+        long buffersUsados = Pools.directBuffers().getAcquireCount() - buffersAntes;
+        assertTrue(buffersUsados >= resultado.getChunks() - 1, "Fronteiras lidas com buffers do pool");
+        assertEquals(buffersUsados, Pools.directBuffers().getReleaseCount() - devolvidosAntes);
+
+        assertEquals(BulkProductLoader.Format.CSV, resultado.getFormat());
+        assertTrue(resultado.getChunks() > 10, "Arquivo deve ser dividido em vários blocos");
+        assertEquals(5000, resultado.getRecords());
+        assertEquals(5000, carregados.size());
+        assertEquals(4, resultado.getMalformed());
+        assertNotNull(resultado.getFirstError());
+
+        Product produto = carregados.get(1234L);
+        assertEquals("Produto 1234", produto.getName());
+        assertEquals("Diz \"olá\", ção 1234", produto.getDescription());
+        assertEquals(new BigDecimal("34.40"), produto.getPrice());
+        assertEquals("Categoria 2", produto.getCategory());
+        assertSame(produto.getCategory(), carregados.get(2L).getCategory(), "Categorias devem ser canônicas");
+        assertTrue(resultado.getMegabytesPerSecond() > 0);
+    }
+
+    @Test
+    @DisplayName("Deve carregar o formato binário ignorando registros apagados e publicar no cache")
+    void testCargaBinariaNoCache() {
+        Path arquivo = tempDir.resolve("produtos.bin");
+        try (OffHeapProductStore store = OffHeapProductStore.open(arquivo, 64)) {
+            for (long id = 0; id < 1000; id++) {
+                store.put(new Product(id, "Produto " + id, "Descrição " + id,
+                        new BigDecimal("19.90"), "Categoria " + (id % 5)));
+            }
+            store.remove(10L);
+        }
+
+        ImprovedProductCache cache = new ImprovedProductCache(2000);
+        BulkProductLoader loader = new BulkProductLoader(ForkJoinPool.commonPool(),
+                ProductRecordFormat.RECORD_SIZE * 50, 64);
+        BulkProductLoader.Result resultado = cache.loadProducts(arquivo, loader);
+
+        assertEquals(BulkProductLoader.Format.BINARY, resultado.getFormat());
+        assertEquals(20, resultado.getChunks());
+        assertEquals(999, resultado.getRecords());
+        Product produto = cache.getProductById(777L);
+        assertEquals("Descrição 777", produto.getDescription());
+        assertEquals(new BigDecimal("19.90"), produto.getPrice());
+        assertEquals(200, cache.getProductsByCategory("Categoria 2").size());
+    }
+
+    @Test
+    @DisplayName("Deve manter a primeira linha de dados com BOM ou ID entre aspas e ignorar o BOM do cabeçalho")
+    void testPrimeiraLinhaComBomEAspas() throws IOException {
+        BulkProductLoader loader = new BulkProductLoader(ForkJoinPool.commonPool(), 4096, 100);
+        String bom = "\uFEFF";
+        String[] arquivos = {
+                bom + "1,Produto 1,Descrição,1.00,Categoria\n2,Produto 2,Descrição,2.00,Categoria\n",
+                "\"1\",Produto 1,Descrição,1.00,Categoria\n\"2\",Produto 2,Descrição,2.00,Categoria\n",
+                bom + "\"1\",Produto 1,Descrição,1.00,Categoria\n2,Produto 2,Descrição,2.00,Categoria\n",
+                bom + "id,name,description,price,category\n1,Produto 1,Descrição,1.00,Categoria\n"
+                        + "2,Produto 2,Descrição,2.00,Categoria\n",
+                "\"id\",\"name\",\"description\",\"price\",\"category\"\n1,Produto 1,Descrição,1.00,Categoria\n"
+                        + "2,Produto 2,Descrição,2.00,Categoria\n"
+        };
+        for (int i = 0; i < arquivos.length; i++) {
+            Path arquivo = tempDir.resolve("primeira-" + i + ".csv");
+            Files.writeString(arquivo, arquivos[i], StandardCharsets.UTF_8);
+
+            Map<Long, Product> carregados = new ConcurrentHashMap<>();
+            BulkProductLoader.Result resultado = loader.load(arquivo, lote -> lote.forEach(p -> carregados.put(p.getId(), p)));
+
+            assertEquals(2, resultado.getRecords(), arquivos[i]);
+            assertEquals(0, resultado.getMalformed(), arquivos[i]);
+            assertEquals("Produto 1", carregados.get(1L).getName());
+        }
+    }
+
+    @Test
+    @DisplayName("Categoria maior que o array do pool deve ser lida inteira, sem abortar a carga")
+    void testCategoriaMaiorQueOPool() throws IOException {
+        String categoria = "C".repeat(Pools.SCRATCH_SIZE + 100);
+        Path arquivo = tempDir.resolve("categoria-longa.csv");
+        Files.writeString(arquivo, "1,Produto,Descrição,1.00," + categoria + "\n2,Produto 2,Descrição,2.00,Curta\n",
+                StandardCharsets.UTF_8);
+
+        Map<Long, Product> carregados = new ConcurrentHashMap<>();
+        BulkProductLoader.Result resultado = new BulkProductLoader().load(arquivo,
+                lote -> lote.forEach(p -> carregados.put(p.getId(), p)));
+
+        assertEquals(2, resultado.getRecords());
+        assertEquals(categoria, carregados.get(1L).getCategory());
+        assertEquals("Curta", carregados.get(2L).getCategory());
+    }
+}
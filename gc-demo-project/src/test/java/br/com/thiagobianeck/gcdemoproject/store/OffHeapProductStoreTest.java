@@ -0,0 +1,128 @@
+package br.com.thiagobianeck.gcdemoproject.store;
+
+import br.com.thiagobianeck.gcdemoproject.cache.ImprovedProductCache;
+import br.com.thiagobianeck.gcdemoproject.model.Product;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testes do armazenamento de produtos fora da heap")
+class OffHeapProductStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Deve gravar, ler, sobrescrever e remover produtos entre segmentos")
+    void testOperacoesBasicas() {
+        try (OffHeapProductStore store = OffHeapProductStore.open(tempDir.resolve("produtos.bin"), 100)) {
+            for (long id = 0; id < 250; id++) {
+                store.put(new Product(id, "Produto " + id, "Descrição ção " + id,
+                        new BigDecimal("10.50"), "Categoria " + (id % 10)));
+            }
+            store.put(new Product(7L, "Produto 7 v2", "Nova", new BigDecimal("3.99"), "Categoria 7"));
+            assertTrue(store.remove(8L));
+
+            assertEquals(249, store.size());
+            Product produto = store.get(207L);
+            assertEquals("Produto 207", produto.getName());
+            assertEquals("Descrição ção 207", produto.getDescription());
+            assertEquals(new BigDecimal("10.50"), produto.getPrice());
+            assertEquals("Produto 7 v2", store.get(7L).getName());
+            assertNull(store.get(8L));
+        }
+    }
+
+    @Test
+    @DisplayName("Deve remapear o arquivo existente sem recarregar")
+    void testReabertura() {
+        Path arquivo = tempDir.resolve("catalogo.bin");
+        try (OffHeapProductStore store = OffHeapProductStore.open(arquivo, 64)) {
+            ImprovedProductCache cache = new ImprovedProductCache(100);
+            cache.attachOffHeapStore(store);
+            cache.loadProducts();
+        }
+
+        try (OffHeapProductStore store = OffHeapProductStore.open(arquivo, 64)) {
+            assertEquals(1000, store.size());
+
+            ImprovedProductCache cache = new ImprovedProductCache(100);
+            cache.attachOffHeapStore(store);
+            Product produto = cache.getProductById(999L);
+            assertNotNull(produto, "Produto deve vir do arquivo remapeado");
+            assertEquals("Categoria 9", produto.getCategory());
+        }
+    }
+
+    @Test
+    @DisplayName("Deve truncar textos longos na fronteira de caractere")
+    void testTruncamento() {
+        try (OffHeapProductStore store = OffHeapProductStore.open(tempDir.resolve("longos.bin"))) {
+            store.put(new Product(1L, "ã".repeat(100), "d", BigDecimal.ONE, "c"));
+
+            String nome = store.get(1L).getName();
+            assertEquals(ProductRecordFormat.NAME_CAPACITY / 2, nome.length());
+            assertEquals("ã".repeat(nome.length()), nome);
+        }
+    }
+
+    @Test
+    @DisplayName("Registros apagados devem ser reusados, inclusive depois de reabrir, sem crescer o arquivo")
+    void testReusoDeRegistros() {
+        Path arquivo = tempDir.resolve("reuso.bin");
+        try (OffHeapProductStore store = OffHeapProductStore.open(arquivo, 64)) {
+            for (long id = 0; id < 100; id++) {
+                store.put(new Product(id, "Produto " + id, "d", BigDecimal.ONE, "c"));
+            }
+            long tamanho = store.fileBytes();
+
+            // Rotatividade do catálogo: sai um produto, entra outro com ID novo
+            for (long id = 100; id < 1100; id++) {
+                assertTrue(store.remove(id - 100));
+                store.put(new Product(id, "Produto " + id, "d", BigDecimal.ONE, "c"));
+            }
+            assertEquals(tamanho, store.fileBytes(), "O arquivo não deve crescer com a rotatividade");
+            assertEquals(100, store.size());
+            assertEquals("Produto 1099", store.get(1099L).getName());
+            assertNull(store.get(5L));
+
+            for (long id = 1000; id < 1010; id++) {
+                store.remove(id);
+            }
+        }
+
+        try (OffHeapProductStore store = OffHeapProductStore.open(arquivo, 64)) {
+            assertEquals(90, store.size());
+            assertEquals(10, store.freeRecords(), "Apagados voltam para a pilha ao reabrir");
+            long tamanho = store.fileBytes();
+            store.put(new Product(5000L, "Produto 5000", "d", BigDecimal.ONE, "c"));
+            assertEquals(tamanho, store.fileBytes());
+            assertEquals("Produto 5000", store.get(5000L).getName());
+        }
+    }
+
+    @Test
+    @DisplayName("O segmento deve seguir o tamanho esperado do catálogo, e não o máximo")
+    void testTamanhoDoSegmento() {
+        Path arquivo = tempDir.resolve("pequeno.bin");
+        try (OffHeapProductStore store = OffHeapProductStore.openForCatalog(arquivo, 10_000)) {
+            assertEquals(10_000, store.recordsPerSegment());
+            for (long id = 0; id < 10_001; id++) {
+                store.put(new Product(id, "Produto " + id, "d", BigDecimal.ONE, "c"));
+            }
+            assertEquals("Produto 10000", store.get(10_000L).getName(), "Passar do esperado mapeia outro segmento");
+        }
+        try (OffHeapProductStore store = OffHeapProductStore.open(tempDir.resolve("sem-estimativa.bin"))) {
+            assertEquals(OffHeapProductStore.MIN_RECORDS_PER_SEGMENT, store.recordsPerSegment());
+        }
+        try (OffHeapProductStore store = OffHeapProductStore.open(arquivo)) {
+            assertEquals(10_001, store.recordsPerSegment(), "Arquivo existente define o tamanho ao reabrir");
+            assertEquals(10_001, store.size());
+        }
+    }
+}
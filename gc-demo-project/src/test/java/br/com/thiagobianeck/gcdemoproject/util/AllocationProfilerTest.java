@@ -0,0 +1,49 @@
+package br.com.thiagobianeck.gcdemoproject.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+@DisplayName("Testes do profiler de alocação por operação")
+class AllocationProfilerTest {
+
+    @Test
+    @DisplayName("Deve medir os bytes alocados por cada operação")
+    void testMedicaoPorOperacao() {
+        assumeTrue(AllocationProfiler.isSupported(), "JVM sem contador de alocação por thread");
+        AllocationProfiler profiler = new AllocationProfiler();
+
+        for (int i = 0; i < 50; i++) {
+            byte[] bloco = profiler.measure("aloca1MB", () -> new byte[1024 * 1024]);
+            assertEquals(1024 * 1024, bloco.length);
+            profiler.measure("semAlocacao", () -> { });
+        }
+
+        AllocationProfiler.OperationStats grande = profiler.getStats("aloca1MB");
+        assertEquals(50, grande.getCount());
+        assertTrue(grande.getP50Bytes() >= 1024 * 1024, "Array de 1 MB + cabeçalho: " + grande);
+        assertTrue(grande.getP99Bytes() < 2 * 1024 * 1024, grande.toString());
+        assertEquals(0, profiler.getStats("semAlocacao").getP50Bytes());
+        assertNull(profiler.getStats("inexistente"));
+        assertEquals(2, profiler.getAllStats().size());
+    }
+
+    @Test
+    @DisplayName("Medições em threads virtuais sem contador devem ser contadas à parte")
+    void testThreadsVirtuais() throws Exception {
+        assumeTrue(AllocationProfiler.isSupported(), "JVM sem contador de alocação por thread");
+        AllocationProfiler profiler = new AllocationProfiler();
+
+        Thread virtual = Thread.ofVirtual().start(() -> profiler.measure("virtual", () -> new byte[4096]));
+        virtual.join();
+
+        AllocationProfiler.OperationStats stats = profiler.getStats("virtual");
+        if (stats == null) {
+            assertEquals(1, profiler.getUnsupportedCount());
+        } else {
+            assertTrue(stats.getMaxBytes() >= 4096);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package br.com.thiagobianeck.gcdemoproject.util;
+
+import br.com.thiagobianeck.gcdemoproject.cache.ImprovedProductCache;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testes das estatísticas de cache")
+class CacheStatsTest {
+
+    @Test
+    @DisplayName("Histograma deve estimar percentis com erro relativo limitado")
+    void testPercentisDoHistograma() {
+        LongHistogram histograma = new LongHistogram();
+        for (long valor = 1; valor <= 10_000; valor++) {
+            histograma.record(valor);
+        }
+
+        assertEquals(10_000, histograma.getCount());
+        assertEquals(10_000, histograma.getMax());
+        assertEquals(5000.5, histograma.getMean(), 0.001);
+
+        LongHistogram.Snapshot snapshot = histograma.snapshot();
+        assertEquals(5000, snapshot.getValueAtPercentile(50), 5000 * 0.125);
+        assertEquals(9900, snapshot.getValueAtPercentile(99), 9900 * 0.125);
+        assertEquals(10_000, snapshot.getValueAtPercentile(100));
+
+        histograma.reset();
+        assertEquals(0, histograma.getValueAtPercentile(99));
+    }
+
+    @Test
+    @DisplayName("Estatísticas do cache devem ser publicadas via JMX com remoções por causa")
+    void testPublicacaoJmx() throws Exception {
+        ImprovedProductCache cache = new ImprovedProductCache(100);
+        cache.loadProducts();
+        cache.getProductById(999L);
+        cache.getProductById(5000L);
+
+        CacheStats stats = cache.getStats();
+        assertEquals(900, stats.getSizeEvictionCount(), "1000 produtos para 100 posições");
+        assertEquals(2, stats.getRequestCount());
+        assertTrue(stats.getMissCount() >= 1, "ID 5000 não existe");
+
+        cache.clearCache();
+        assertEquals(100, stats.getExplicitEvictionCount());
+
+        ObjectName nome = stats.register("teste");
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            assertEquals(900L, server.getAttribute(nome, "SizeEvictionCount"));
+            assertEquals(stats.getHitRate(), (Double) server.getAttribute(nome, "HitRate"), 0.0);
+            assertEquals(0L, server.getAttribute(nome, "EstimatedSize"));
+        } finally {
+            stats.unregister();
+        }
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(nome));
+    }
+}
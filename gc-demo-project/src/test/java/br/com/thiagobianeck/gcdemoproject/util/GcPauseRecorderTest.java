@@ -0,0 +1,68 @@
+package br.com.thiagobianeck.gcdemoproject.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.MemoryUsage;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testes do registro de pausas do GC")
+class GcPauseRecorderTest {
+
+    private static final long MB = 1024 * 1024;
+
+    @Test
+    @DisplayName("Deve calcular percentis de pausa e taxas de alocação e promoção por janela")
+    void testJanelaDePausas() {
+        GcPauseRecorder recorder = new GcPauseRecorder(10);
+
+        // Coleta N: eden 100 MB -> 0, old 50 MB -> 60 MB (10 MB promovidos)
+        for (int i = 0; i < 100; i++) {
+            recorder.record("G1 Young Generation", "end of minor GC", "G1 Evacuation Pause", i, i < 99 ? 2 : 80,
+                    Map.of("G1 Eden Space", usage(100 * MB), "G1 Old Gen", usage((50 + 10 * i) * MB)),
+                    Map.of("G1 Eden Space", usage(0), "G1 Old Gen", usage((60 + 10 * i) * MB)));
+        }
+        // O bean "G1 Concurrent GC" reporta o Remark, uma pausa stop-the-world
+        recorder.record("G1 Concurrent GC", "end of concurrent GC pause", "G1 Remark", 200, 500,
+                Map.of(), Map.of());
+        recorder.record("ZGC Major Cycles", "end of GC cycle", "Allocation Rate", 300, 900,
+                Map.of(), Map.of());
+
+        GcPauseRecorder.Window janela = recorder.closeWindow();
+        assertEquals(101, janela.getPauseCount(), "Remark é pausa; ciclo concorrente não é");
+        assertEquals(2, janela.getP50Millis());
+        assertEquals(500, janela.getMaxMillis(), "A pausa máxima é o Remark");
+        assertTrue(janela.getP999Millis() >= 72, "p99.9 deve capturar a pausa longa");
+        assertEquals(100 * 10 * MB, janela.getPromotedBytes());
+        // Entre coletas: antes (100 + 50 + 10i) - depois anterior (60 + 10(i-1)) = 100 MB
+        assertEquals(99 * 100 * MB, janela.getAllocatedBytes());
+        assertTrue(janela.getAllocationRateBytesPerSecond() > 0);
+
+        assertEquals(10, recorder.getRecentEvents().size());
+        assertEquals(1, recorder.getConcurrentCycleHistogram().getCount());
+        assertEquals(0, recorder.closeWindow().getPauseCount(), "Nova janela começa vazia");
+        assertEquals(101, recorder.getPauseHistogram().getCount(), "Histograma acumulado é mantido");
+    }
+
+    @Test
+    @DisplayName("Deve receber as notificações reais do GC")
+    void testNotificacoesReais() throws Exception {
+        try (GcPauseRecorder recorder = new GcPauseRecorder().start()) {
+            System.gc();
+            long limite = System.currentTimeMillis() + 5000;
+            while (recorder.getRecentEvents().isEmpty() && System.currentTimeMillis() < limite) {
+                Thread.sleep(10);
+            }
+            assertFalse(recorder.getRecentEvents().isEmpty());
+            GcPauseRecorder.GcEvent evento = recorder.getRecentEvents().get(0);
+            assertNotNull(evento.getCollector());
+            assertFalse(evento.getUsageAfter().isEmpty());
+        }
+    }
+
+    private static MemoryUsage usage(long used) {
+        return new MemoryUsage(0, used, used, -1);
+    }
+}
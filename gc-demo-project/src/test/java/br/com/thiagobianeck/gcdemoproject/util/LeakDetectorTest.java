@@ -0,0 +1,110 @@
+package br.com.thiagobianeck.gcdemoproject.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testes do detector de vazamento de memória")
+class LeakDetectorTest {
+
+    private static final long MB = 1024 * 1024;
+
+    @Test
+    @DisplayName("Teste de Mann-Kendall deve separar tendência de ruído")
+    void testConfiancaDaTendencia() {
+        long[] crescente = new long[20];
+        long[] ruido = new long[20];
+        Random random = new Random(42);
+        for (int i = 0; i < 20; i++) {
+            crescente[i] = 100 * MB + i * MB + random.nextInt(512 * 1024);
+            ruido[i] = 100 * MB + random.nextInt((int) (10 * MB));
+        }
+
+        assertTrue(LeakDetector.mannKendallConfidence(crescente) > 0.999);
+        assertTrue(LeakDetector.mannKendallConfidence(ruido) < 0.95);
+        assertEquals(0.0, LeakDetector.mannKendallConfidence(new long[]{5, 4, 3, 2, 1}));
+    }
+
+    @Test
+    @DisplayName("Deve capturar histograma ao detectar crescimento, respeitando o limite de frequência")
+    void testCapturaComLimite(@TempDir Path dir) throws Exception {
+        List<LeakDetector.LeakReport> relatorios = new CopyOnWriteArrayList<>();
+        try (LeakDetector detector = new LeakDetector(10, 0.95, MB, LeakDetector.CaptureMode.CLASS_HISTOGRAM,
+                Duration.ofHours(1), dir)) {
+            detector.onLeakSuspected(relatorios::add);
+
+            for (int i = 0; i < 10; i++) {
+                detector.recordSample(i * 1000L, 50 * MB + i * MB);
+            }
+            long limite = System.currentTimeMillis() + 30_000;
+            while (relatorios.isEmpty() && System.currentTimeMillis() < limite) {
+                Thread.sleep(50);
+            }
+
+            assertEquals(1, relatorios.size());
+            LeakDetector.LeakReport primeiro = relatorios.get(0);
+            assertTrue(primeiro.getConfidence() > 0.95);
+            assertEquals(60 * MB, primeiro.getGrowthBytesPerMinute(), 1.0, "9 MB em 9 s");
+            assertNotNull(primeiro.getClassHistogram(), String.valueOf(primeiro.getCaptureError()));
+            assertTrue(primeiro.getClassHistogram().contains("#instances"));
+
+            // Nova série crescente logo em seguida: reporta, mas não captura de novo
+            for (int i = 0; i < 10; i++) {
+                detector.recordSample(20_000 + i * 1000L, 60 * MB + i * MB);
+            }
+            assertEquals(2, relatorios.size());
+            assertTrue(relatorios.get(1).isCaptureSkipped());
+            assertNull(relatorios.get(1).getClassHistogram());
+        }
+    }
+
+    @Test
+    @DisplayName("Uso estável da old-gen não deve gerar alerta")
+    void testSemVazamento(@TempDir Path dir) {
+        try (LeakDetector detector = new LeakDetector(10, 0.95, MB, LeakDetector.CaptureMode.NONE,
+                Duration.ofHours(1), dir)) {
+            Random random = new Random(7);
+            for (int i = 0; i < 100; i++) {
+                detector.recordSample(i * 1000L, 50 * MB + random.nextInt((int) MB));
+            }
+            assertNull(detector.getLastReport());
+        }
+    }
+
+    @Test
+    @DisplayName("Promoção contínua entre coletas major não deve gerar alerta")
+    void testPromocaoEntreColetasMajor(@TempDir Path dir) {
+        try (LeakDetector detector = new LeakDetector(10, 0.95, MB, LeakDetector.CaptureMode.NONE,
+                Duration.ofHours(1), dir)) {
+            Random random = new Random(11);
+            long agora = 0;
+            long oldGen = 50 * MB;
+            for (int ciclo = 0; ciclo < 20; ciclo++) {
+                // Cada coleta jovem promove alguns MB: a old-gen só cresce até a próxima major
+                for (int jovem = 0; jovem < 15; jovem++) {
+                    long antes = oldGen;
+                    oldGen += 2 * MB + random.nextInt((int) MB);
+                    detector.onCollection(agora += 1000, "end of minor GC", antes, oldGen);
+                }
+                long antes = oldGen;
+                oldGen = 50 * MB + random.nextInt((int) MB);
+                detector.onCollection(agora += 1000, "end of major GC", antes, oldGen);
+            }
+            assertNull(detector.getLastReport(), "O piso após as coletas major é estável");
+
+            // Piso crescente nas coletas mistas (jovens que encolhem a old-gen) ainda é vazamento
+            for (int i = 0; i < 10; i++) {
+                detector.onCollection(agora += 1000, "end of minor GC", 200 * MB, 60 * MB + i * MB);
+            }
+            assertNotNull(detector.getLastReport());
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package br.com.thiagobianeck.gcdemoproject.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testes do amostrador contínuo de memória")
+class MemorySamplerTest {
+
+    @Test
+    @DisplayName("Buffer circular deve manter só as amostras mais recentes")
+    void testBufferCircular() {
+        MemorySampler sampler = new MemorySampler(Duration.ofSeconds(1), 8);
+        assertEquals(-1, sampler.getLatest("heap.used"));
+        assertEquals(0, sampler.getStats("heap.used", Duration.ofMinutes(1)).getCount());
+
+        for (int i = 0; i < 20; i++) {
+            sampler.sample();
+        }
+
+        assertEquals(20, sampler.getSampleCount());
+        MemorySampler.WindowStats stats = sampler.getStats("heap.used", Duration.ofMinutes(1));
+        assertEquals(8, stats.getCount(), "Só cabem 8 amostras no anel");
+        assertTrue(stats.getMin() > 0);
+        assertTrue(stats.getMin() <= stats.getAverage() && stats.getAverage() <= stats.getMax());
+        assertTrue(sampler.getLatest("heap.used") > 0);
+        assertTrue(sampler.getHeapUsagePercent() > 0);
+
+        assertTrue(Arrays.stream(sampler.getSeriesNames()).anyMatch(name -> name.startsWith("pool.")));
+        assertThrows(IllegalArgumentException.class, () -> sampler.getLatest("inexistente"));
+    }
+
+    @Test
+    @DisplayName("Amostrador em segundo plano deve alimentar consultas por janela")
+    void testAmostragemPeriodica() throws Exception {
+        try (MemorySampler sampler = new MemorySampler(Duration.ofMillis(5), 1024).start()) {
+            long limite = System.currentTimeMillis() + 5000;
+            while (sampler.getSampleCount() < 10 && System.currentTimeMillis() < limite) {
+                Thread.sleep(5);
+            }
+            assertTrue(sampler.getSampleCount() >= 10);
+
+            MemorySampler.WindowStats janelaCurta = sampler.getStats("nonheap.used", Duration.ofNanos(1));
+            MemorySampler.WindowStats janelaLonga = sampler.getStats("nonheap.used", Duration.ofMinutes(1));
+            assertTrue(janelaCurta.getCount() < janelaLonga.getCount());
+            assertTrue(janelaLonga.getCount() >= 10);
+
+            MemoryMonitor monitor = new MemoryMonitor();
+            monitor.attachSampler(sampler);
+            assertEquals(sampler.getHeapUsagePercent(), monitor.getHeapUsagePercent(), 1.0);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package br.com.thiagobianeck.gcdemoproject.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+@DisplayName("Testes do exportador OpenMetrics")
+class MetricsExporterTest {
+
+    @Test
+    @DisplayName("Deve servir memória, GC e cache em /metrics no formato OpenMetrics")
+    void testScrapeHttp() throws Exception {
+        CacheStats stats = new CacheStats(() -> 42);
+        stats.recordHit();
+        stats.recordHit();
+        stats.recordMiss();
+        stats.recordLoadSuccess(1_500_000);
+        stats.recordEviction(CacheStats.RemovalCause.COLLECTED);
+
+        try (MetricsExporter exporter = new MetricsExporter(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0))
+                .registerCache("produtos \"teste\"", stats)
+                .start()) {
+            HttpClient client = HttpClient.newHttpClient();
+            HttpRequest request = HttpRequest.newBuilder(
+                    URI.create("http://localhost:" + exporter.getPort() + "/metrics")).GET().build();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+
+            assertEquals(200, response.statusCode());
+            assertEquals(MetricsExporter.CONTENT_TYPE, response.headers().firstValue("Content-Type").orElse(""));
+            String body = response.body();
+            assertTrue(body.contains("# TYPE jvm_memory_used_bytes gauge\n"), body);
+            assertTrue(body.contains("jvm_gc_collections_total{gc=\""), body);
+            assertTrue(body.contains("cache_hits_total{cache=\"produtos \\\"teste\\\"\"} 2\n"), body);
+            assertTrue(body.contains("cache_misses_total{cache=\"produtos \\\"teste\\\"\"} 1\n"), body);
+            assertTrue(body.contains("cause=\"collected\"} 1\n"), body);
+            assertTrue(body.contains("cache_size{cache=\"produtos \\\"teste\\\"\"} 42\n"), body);
+            assertTrue(body.contains("cache_load_duration_seconds_count{cache=\"produtos \\\"teste\\\"\"} 1\n"), body);
+            assertTrue(body.contains("cache_load_duration_seconds_sum{cache=\"produtos \\\"teste\\\"\"} 0.001500000\n"), body);
+            assertTrue(body.endsWith("# EOF\n"), body);
+        }
+    }
+
+    @Test
+    @DisplayName("Renderização aquecida com amostrador não deve alocar por métrica")
+    void testRenderizacaoSemAlocacao() {
+        assumeTrue(AllocationProfiler.isSupported(), "JVM sem contador de alocação por thread");
+        MemorySampler sampler = new MemorySampler(Duration.ofSeconds(1), 4);
+        sampler.sample();
+        CacheStats stats = new CacheStats(() -> 10);
+        stats.recordLoadSuccess(2_000_000);
+
+        MetricsExporter exporter = new MetricsExporter(new InetSocketAddress(0))
+                .attachSampler(sampler)
+                .attachPauseRecorder(new GcPauseRecorder())
+                .registerCache("a", stats)
+                .registerCache("b", stats);
+        for (int i = 0; i < 20_000; i++) {
+            exporter.render();
+        }
+
+        long before = AllocationProfiler.currentThreadAllocatedBytes();
+        for (int i = 0; i < 1_000; i++) {
+            exporter.render();
+        }
+        long allocated = AllocationProfiler.currentThreadAllocatedBytes() - before;
+
+        assertTrue(allocated < 64 * 1024, "1000 scrapes alocaram " + allocated + " bytes");
+        assertTrue(exporter.lastRendered().contains("jvm_memory_pool_used_bytes{pool=\""));
+    }
+}
@@ -0,0 +1,82 @@
+package br.com.thiagobianeck.gcdemoproject.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testes do interner de Strings de domínio")
+class StringInternerTest {
+
+    @Test
+    @DisplayName("Deve devolver a mesma instância e contabilizar a economia")
+    void testCanonicalizacaoEEconomia() {
+        StringInterner interner = new StringInterner(4);
+
+        String primeira = interner.intern(new String("Categoria 1"));
+        String segunda = interner.intern(new String("Categoria 1"));
+        String outra = interner.intern(new String("Categoria 2"));
+
+        assertSame(primeira, segunda);
+        assertNotSame(primeira, outra);
+        assertEquals(3, interner.getRequestCount());
+        assertEquals(1, interner.getDuplicateCount());
+        assertEquals(2, interner.getUniqueCount());
+        // "Categoria 1": byte[] de 16 + 11 -> 32 bytes, mais 24 do objeto String
+        assertEquals(32, interner.getArrayBytesSaved());
+        assertEquals(56, interner.getBytesSaved());
+        assertNull(interner.intern(null));
+    }
+
+    @Test
+    @DisplayName("Entradas devem sumir quando a String canônica for coletada")
+    void testReferenciaFraca() throws InterruptedException {
+        StringInterner interner = new StringInterner(1);
+        for (int i = 0; i < 1000; i++) {
+            interner.intern("temporaria " + i);
+        }
+
+        for (int i = 0; i < 50 && interner.getUniqueCount() > 0; i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+
+        assertEquals(0, interner.getUniqueCount());
+    }
+
+    @Test
+    @DisplayName("Threads concorrentes devem convergir para uma única instância por valor")
+    void testConcorrencia() throws Exception {
+        StringInterner interner = new StringInterner();
+        // Referências fortes às canônicas: nenhuma pode ser coletada durante o teste
+        String[] canonicas = new String[10];
+        AtomicInteger divergencias = new AtomicInteger();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            Future<?>[] tarefas = new Future<?>[8];
+            for (int t = 0; t < tarefas.length; t++) {
+                tarefas[t] = executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        String valor = interner.intern("Categoria " + (i % 10));
+                        synchronized (canonicas) {
+                            if (canonicas[i % 10] == null) canonicas[i % 10] = valor;
+                            else if (canonicas[i % 10] != valor) divergencias.incrementAndGet();
+                        }
+                    }
+                });
+            }
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get();
+            }
+        }
+
+        assertEquals(0, divergencias.get());
+        assertEquals(10, interner.getUniqueCount());
+        assertEquals(80_000 - 10, interner.getDuplicateCount());
+    }
+}